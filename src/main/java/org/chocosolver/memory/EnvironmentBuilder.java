@@ -8,6 +8,8 @@
  */
 package org.chocosolver.memory;
 
+import org.chocosolver.memory.arena.EnvironmentArena;
+import org.chocosolver.memory.copying.EnvironmentCopying;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
@@ -177,6 +179,25 @@ public class EnvironmentBuilder {
         return env;
     }
 
+    /**
+     * Build an environment relying on copying.
+     * Trails declared in this builder are used for the data which are not copied
+     * (see {@link EnvironmentCopying#setCopying(boolean)}).
+     * @return the resulting environment
+     */
+    public EnvironmentCopying buildCopying(){
+        return new EnvironmentCopying(build(), worldsize >> 6, worldnumber);
+    }
+
+    /**
+     * Build an environment which stores bitsets in struct-of-arrays stores, addressed by handles.
+     * The operation trail declared in this builder, if any, is used to trail operations.
+     * @return the resulting environment
+     */
+    public EnvironmentArena buildArena(){
+        return new EnvironmentArena(build(), worldsize, worldsize, worldnumber);
+    }
+
     /**
      * Build a chunk environment
      * @return {@code this}
@@ -16,6 +16,12 @@ import org.chocosolver.memory.structure.IOperation;
 
 /**
  * An interface to ease declaration of backtrackable objects (mostly primitives).
+ * <p>
+ * The <code>get()</code> methods of {@link IStateInt}, {@link IStateBool}, {@link IStateLong} and {@link IStateDouble}
+ * are not final, so that environments which store values out of the objects,
+ * like {@link org.chocosolver.memory.copying.EnvironmentCopying}, can override them.
+ * Reading a value is thus a virtual call instead of a field access,
+ * whose cost depends on the number of implementations the JIT compiler observes at the call site.
  *
  * @author Charles Prud'homme, Hadrien Cambazard, Guillaume Rochart
  */
@@ -170,4 +176,42 @@ public interface IEnvironment  {
      * @return the timestamp
      */
     int getTimeStamp();
+
+    /**
+     * Give back the memory retained by the trails which is not needed to store the current worlds.
+     * It is worth calling it after a backtrack to a shallow world, for instance on restarts.
+     */
+    default void shrink() {
+        // nothing to do by default
+    }
+
+    /**
+     * @return the number of entries currently stored in the trails
+     */
+    default long getNbTrailEntries() {
+        return 0;
+    }
+
+    /**
+     * @param world index of a world, at most equal to {@link #getWorldIndex()}
+     * @return the number of entries stored in the trails since <i>world</i> has been pushed
+     * and before the next one was
+     */
+    default long getNbTrailEntries(int world) {
+        return 0;
+    }
+
+    /**
+     * @return the largest number of entries stored in the trails so far, sampled on each {@link #worldPush()}
+     */
+    default long getPeakNbTrailEntries() {
+        return 0;
+    }
+
+    /**
+     * @return an estimation of the number of bytes retained by the trails
+     */
+    default long getTrailRetainedBytes() {
+        return 0;
+    }
 }
@@ -32,8 +32,9 @@ public abstract class IStateDouble  {
 
     /**
      * Returns the current value.
+     * Not final, see {@link IEnvironment} about environments which override it.
      */
-    public final double get() {
+    public double get() {
         return currentValue;
     }
 
@@ -61,6 +62,6 @@ public abstract class IStateDouble  {
 
     @Override
     public String toString() {
-        return String.valueOf(currentValue);
+        return String.valueOf(get());
     }
 }
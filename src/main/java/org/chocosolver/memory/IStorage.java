@@ -52,5 +52,35 @@ public interface IStorage  {
 
     void worldCommit(int worldIndex);
 
-}
+    /**
+     * @return the number of entries currently stored
+     */
+    default int used() {
+        return 0;
+    }
+
+    /**
+     * @return the number of entries which can be stored without growing
+     */
+    default int allocated() {
+        return 0;
+    }
 
+    /**
+     * @return an estimation of the number of bytes retained by this storage
+     */
+    default long retainedBytes() {
+        return 0;
+    }
+
+    /**
+     * Give back the memory which is not needed anymore to store the worlds up to <i>worldIndex</i>.
+     * The storage may keep some spare capacity to avoid growing again at once.
+     *
+     * @param worldIndex current world index
+     */
+    default void shrink(int worldIndex) {
+        // nothing to do by default
+    }
+
+}
@@ -0,0 +1,280 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.arena;
+
+import org.chocosolver.memory.*;
+import org.chocosolver.memory.structure.IOperation;
+import org.chocosolver.memory.structure.OneWordS32BitSet;
+import org.chocosolver.memory.structure.OneWordS64BitSet;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+
+/**
+ * An environment which stores backtrackable bitsets in struct-of-arrays stores.
+ * <p>
+ * Unlike {@link EnvironmentTrailing}, where each word of a bitset is a {@link org.chocosolver.memory.IStateLong}
+ * referenced by the trail, here words are stored in a {@link LongArena} and addressed by integer handles
+ * (see {@link ArenaBitSet}).
+ * Trails store handles, so restoring a world is a loop over primitive arrays
+ * and the garbage collector has no reference to follow.
+ * Other data structures which manage many primitives can work with handles too
+ * (see {@link #getIntArena()} and {@link #getLongArena()}).
+ * <p>
+ * Single primitives, operations ({@link #save(IOperation)}) and vectors are the ones of an internal
+ * {@link EnvironmentTrailing}, since an object wrapping a handle would not be lighter than a trailed primitive.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class EnvironmentArena extends AbstractEnvironment {
+
+    /**
+     * Trailing environment in charge of single primitives, operations and vectors
+     */
+    private final EnvironmentTrailing trailing;
+
+    /**
+     * Largest number of trail entries, sampled on each world push
+     */
+    private long peakEntries;
+
+    /**
+     * Store of ints and booleans
+     */
+    private final IntArena ints;
+
+    /**
+     * Store of longs and doubles
+     */
+    private final LongArena longs;
+
+    /**
+     * Create an environment based on struct-of-arrays stores.
+     *
+     * @param trailing environment in charge of single primitives, operations and vectors
+     * @param nValues  initial capacity of each store
+     * @param nUpdates initial capacity of each trail
+     * @param nWorlds  initial number of worlds
+     */
+    public EnvironmentArena(EnvironmentTrailing trailing, int nValues, int nUpdates, int nWorlds) {
+        if (trailing.getWorldIndex() > 0) {
+            throw new IllegalStateException("The trailing environment should be in world 0");
+        }
+        this.trailing = trailing;
+        this.ints = new IntArena(this, nValues, nUpdates, nWorlds);
+        this.longs = new LongArena(this, nValues, nUpdates, nWorlds);
+    }
+
+    /**
+     * Create an environment based on struct-of-arrays stores, with default parameters.
+     */
+    public EnvironmentArena() {
+        this(new EnvironmentTrailing(), EnvironmentTrailing.NBUPATES,
+                EnvironmentTrailing.NBUPATES, EnvironmentTrailing.NBWORLDS);
+    }
+
+    /**
+     * @return the store of ints and booleans
+     */
+    public IntArena getIntArena() {
+        return ints;
+    }
+
+    /**
+     * @return the store of longs and doubles
+     */
+    public LongArena getLongArena() {
+        return longs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        timestamp++;
+        final int wi = currentWorld + 1;
+        ints.worldPush(wi);
+        longs.worldPush(wi);
+        trailing.worldPush();
+        currentWorld++;
+        long n = getNbTrailEntries();
+        if (n > peakEntries) {
+            peakEntries = n;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        timestamp++;
+        final int wi = currentWorld;
+        trailing.worldPop();
+        longs.worldPop(wi);
+        ints.worldPop(wi);
+        currentWorld--;
+        assert currentWorld >= 0;
+    }
+
+    /**
+     * Not supported by this environment.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void worldCommit() {
+        throw new UnsupportedOperationException("Commit is not supported by " + getClass().getSimpleName());
+    }
+
+    @Override
+    public void buildFakeHistoryOn(ICondition condition) {
+        super.buildFakeHistoryOn(condition);
+        trailing.buildFakeHistoryOn(condition);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(final int initialValue) {
+        return trailing.makeInt(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(final boolean initialValue) {
+        return trailing.makeBool(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(final double initialValue) {
+        return trailing.makeFloat(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(final long init) {
+        return trailing.makeLong(init);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBitSet makeBitSet(int size) {
+        if (size < 32) {
+            return new OneWordS32BitSet(this, size);
+        } else if (size < 64) {
+            return new OneWordS64BitSet(this, size);
+        } else {
+            return new ArenaBitSet(this, size);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntVector makeIntVector(final int size, final int initialValue) {
+        return trailing.makeIntVector(size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDoubleVector makeDoubleVector(final int size, final double initialValue) {
+        return trailing.makeDoubleVector(size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(IOperation operation) {
+        trailing.save(operation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shrink() {
+        trailing.shrink();
+        ints.shrink(currentWorld);
+        longs.shrink(currentWorld);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbTrailEntries() {
+        return trailing.getNbTrailEntries() + ints.used() + longs.used();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbTrailEntries(int world) {
+        if (world < 0 || world > currentWorld) {
+            throw new IndexOutOfBoundsException("No world " + world + ", current world is " + currentWorld);
+        }
+        return trailing.getNbTrailEntries(world) + ints.used(world, currentWorld) + longs.used(world, currentWorld);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPeakNbTrailEntries() {
+        return Math.max(peakEntries, getNbTrailEntries());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTrailRetainedBytes() {
+        return trailing.getTrailRetainedBytes() + ints.retainedBytes() + longs.retainedBytes();
+    }
+}
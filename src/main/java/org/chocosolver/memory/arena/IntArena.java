@@ -0,0 +1,278 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.arena;
+
+import org.chocosolver.memory.IEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * A struct-of-arrays store of backtrackable ints.
+ * <p>
+ * Each int is addressed by a handle, that is its index in the primitive arrays.
+ * Former values are recorded on a trail made of primitive arrays too, which stores handles instead of references:
+ * no object is created per int, neither in the store nor in the trail.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public final class IntArena {
+
+    /**
+     * The environment, to get the current world index
+     */
+    private final IEnvironment environment;
+
+    /**
+     * Current values, indexed by handles
+     */
+    private int[] values;
+
+    /**
+     * World index of the last modification of each value, indexed by handles
+     */
+    private int[] stamps;
+
+    /**
+     * Number of handles given
+     */
+    private int size;
+
+    /**
+     * Stack of handles
+     */
+    private int[] handleStack;
+
+    /**
+     * Stack of former values
+     */
+    private int[] valueStack;
+
+    /**
+     * Stack of former stamps
+     */
+    private int[] stampStack;
+
+    /**
+     * Points the level of the last entry
+     */
+    private int currentLevel;
+
+    /**
+     * A stack of pointers (for each start of a world)
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Initial capacities, the trail never shrinks below them
+     */
+    private final int nUpdates, nWorlds;
+
+    /**
+     * Create a store of backtrackable ints.
+     *
+     * @param environment the environment which manages this store
+     * @param nValues     initial capacity of the store
+     * @param nUpdates    initial capacity of the trail
+     * @param nWorlds     initial number of worlds
+     */
+    public IntArena(IEnvironment environment, int nValues, int nUpdates, int nWorlds) {
+        this.environment = environment;
+        this.values = new int[Math.max(1, nValues)];
+        this.stamps = new int[values.length];
+        this.handleStack = new int[Math.max(1, nUpdates)];
+        this.valueStack = new int[handleStack.length];
+        this.stampStack = new int[handleStack.length];
+        this.worldStartLevels = new int[Math.max(2, nWorlds)];
+        this.nUpdates = handleStack.length;
+        this.nWorlds = worldStartLevels.length;
+    }
+
+    /**
+     * Reserve a new int.
+     *
+     * @param init its initial value
+     * @return its handle
+     */
+    public int allocate(int init) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+            stamps = Arrays.copyOf(stamps, size << 1);
+        }
+        int h = size++;
+        int wi = environment.getWorldIndex();
+        values[h] = init;
+        stamps[h] = wi;
+        if (wi > 0 && environment.fakeHistoryNeeded()) {
+            buildFakeHistory(h, init, wi);
+        }
+        return h;
+    }
+
+    /**
+     * @param h a handle
+     * @return the current value of <i>h</i>
+     */
+    public int get(int h) {
+        return values[h];
+    }
+
+    /**
+     * Modify the value of <i>h</i> and store if needed its former value on the trail.
+     *
+     * @param h     a handle
+     * @param value the new value
+     */
+    public void set(int h, int value) {
+        if (value != values[h]) {
+            final int wi = environment.getWorldIndex();
+            if (stamps[h] < wi) {
+                savePreviousState(h, values[h], stamps[h]);
+                stamps[h] = wi;
+            }
+            values[h] = value;
+        }
+    }
+
+    /**
+     * Modify the value of <i>h</i> without storing its former value on the trail.
+     *
+     * @param h      a handle
+     * @param value  the new value
+     * @param wstamp the stamp of the world in which the update is performed
+     */
+    public void _set(int h, int value, int wstamp) {
+        values[h] = value;
+        stamps[h] = wstamp;
+    }
+
+    /**
+     * @return the number of handles given
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moving up to the next world.
+     *
+     * @param worldIndex current world index
+     */
+    public void worldPush(int worldIndex) {
+        if (worldIndex == worldStartLevels.length) {
+            worldStartLevels = Arrays.copyOf(worldStartLevels, worldIndex << 1);
+        }
+        worldStartLevels[worldIndex] = currentLevel;
+    }
+
+    /**
+     * Moving down to the previous world.
+     *
+     * @param worldIndex current world index
+     */
+    public void worldPop(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex];
+        final int[] vals = values;
+        final int[] stps = stamps;
+        while (currentLevel > wsl) {
+            currentLevel--;
+            final int h = handleStack[currentLevel];
+            vals[h] = valueStack[currentLevel];
+            stps[h] = stampStack[currentLevel];
+        }
+    }
+
+    /**
+     * @return the number of entries currently stored in the trail
+     */
+    public int used() {
+        return currentLevel;
+    }
+
+    /**
+     * @param worldIndex   index of a world, at most equal to <i>currentWorld</i>
+     * @param currentWorld index of the current world
+     * @return the number of entries stored in the trail since <i>worldIndex</i> has been pushed
+     * and before the next one was
+     */
+    public int used(int worldIndex, int currentWorld) {
+        int start = worldIndex == 0 ? 0 : worldStartLevels[worldIndex];
+        int end = worldIndex == currentWorld ? currentLevel : worldStartLevels[worldIndex + 1];
+        return end - start;
+    }
+
+    /**
+     * @return an estimation of the number of bytes retained by the trail
+     */
+    public long retainedBytes() {
+        // a handle, a value and a stamp per entry
+        return 12L * handleStack.length + 4L * worldStartLevels.length;
+    }
+
+    /**
+     * Give back the memory retained by the trail which is not needed to store the current worlds.
+     *
+     * @param worldIndex current world index
+     */
+    public void shrink(int worldIndex) {
+        final int capacity = Math.max(nUpdates, 2 * currentLevel);
+        if (handleStack.length > 2 * capacity) {
+            handleStack = Arrays.copyOf(handleStack, capacity);
+            valueStack = Arrays.copyOf(valueStack, capacity);
+            stampStack = Arrays.copyOf(stampStack, capacity);
+        }
+        final int wcapacity = Math.max(nWorlds, 2 * (worldIndex + 1));
+        if (worldStartLevels.length > 2 * wcapacity) {
+            worldStartLevels = Arrays.copyOf(worldStartLevels, wcapacity);
+        }
+    }
+
+    private void savePreviousState(int h, int oldValue, int oldStamp) {
+        if (currentLevel == handleStack.length) {
+            resizeUpdateCapacity(currentLevel + 1);
+        }
+        handleStack[currentLevel] = h;
+        valueStack[currentLevel] = oldValue;
+        stampStack[currentLevel] = oldStamp;
+        currentLevel++;
+    }
+
+    /**
+     * From world 0 to <i>olderStamp</i> (excluded), create a fake history based on <i>initValue</i>,
+     * as {@link org.chocosolver.memory.trailing.trail.flatten.StoredIntTrail} does.
+     */
+    private void buildFakeHistory(int h, int initValue, int olderStamp) {
+        savePreviousState(h, initValue, olderStamp - 1);
+        resizeUpdateCapacity(currentLevel + olderStamp);
+        int i1, f, s = currentLevel;
+        for (int w = olderStamp; w > 1; w--) {
+            f = worldStartLevels[w];
+            i1 = f + w - 1;
+            s -= f;
+            System.arraycopy(handleStack, f, handleStack, i1, s);
+            System.arraycopy(valueStack, f, valueStack, i1, s);
+            System.arraycopy(stampStack, f, stampStack, i1, s);
+            handleStack[i1 - 1] = h;
+            valueStack[i1 - 1] = initValue;
+            stampStack[i1 - 1] = w - 2;
+            worldStartLevels[w] += w - 1;
+            currentLevel++;
+            s = f;
+        }
+    }
+
+    private void resizeUpdateCapacity(int required) {
+        if (required > handleStack.length) {
+            int n = Math.max(required, handleStack.length << 1);
+            handleStack = Arrays.copyOf(handleStack, n);
+            valueStack = Arrays.copyOf(valueStack, n);
+            stampStack = Arrays.copyOf(stampStack, n);
+        }
+    }
+}
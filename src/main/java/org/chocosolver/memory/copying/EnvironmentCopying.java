@@ -0,0 +1,367 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.*;
+import org.chocosolver.memory.structure.IOperation;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+
+/**
+ * An environment which relies on copying instead of trailing.
+ * <p>
+ * Backtrackable ints, booleans, longs and doubles are stored in contiguous primitive arenas, split into pages of
+ * {@value #PAGE} entries. The first time a page is modified in a world, the whole page is copied,
+ * and it is copied back upon backtrack.
+ * Compared to {@link EnvironmentTrailing}, a write costs at most one page copy per world instead of one trail entry
+ * per modified value, which pays off when most of the values are modified at each node
+ * (for instance, large bitsets).
+ * <p>
+ * Copying can be turned off with {@link #setCopying(boolean)}: until it is turned on again,
+ * new primitives are trailed as usual by an internal {@link EnvironmentTrailing}.
+ * This enables to choose, for each data structure, the most suited mechanism.
+ * Operations ({@link #save(IOperation)}) and vectors are always trailed.
+ * <p>
+ * Note that a primitive created in a world keeps its initial value upon backtrack,
+ * as if its history had been built (see {@link #buildFakeHistoryOn(ICondition)}).
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class EnvironmentCopying extends AbstractEnvironment {
+
+    /**
+     * Logarithm in base 2 of the number of entries in a page
+     */
+    static final int SHIFT = 6;
+
+    /**
+     * Number of entries in a page
+     */
+    static final int PAGE = 1 << SHIFT;
+
+    /**
+     * Mask to compute the position of an entry in its page
+     */
+    static final int MASK = PAGE - 1;
+
+    /**
+     * Trailing environment in charge of operations, vectors and primitives created while copying is off
+     */
+    private final EnvironmentTrailing trailing;
+
+    /**
+     * Largest number of trail entries, sampled on each world push
+     */
+    private long peakEntries;
+
+    /**
+     * Arena for ints and booleans
+     */
+    private final IntPages ints;
+
+    /**
+     * Arena for longs
+     */
+    private final LongPages longs;
+
+    /**
+     * Arena for doubles
+     */
+    private final DoublePages doubles;
+
+    /**
+     * For each world, its stamp.
+     * Unlike world indices, stamps are never reused, so that a page is saved once per world.
+     */
+    private int[] worldStamps;
+
+    /**
+     * Stamp of the current world
+     */
+    private int stamp;
+
+    /**
+     * Last stamp given
+     */
+    private int lastStamp;
+
+    /**
+     * Set to <i>true</i> to store new primitives in arenas
+     */
+    private boolean copying = true;
+
+    /**
+     * Create an environment relying on copying.
+     *
+     * @param trailing environment in charge of trailed data
+     * @param nPages   initial number of pages in each arena
+     * @param nWorlds  initial number of worlds
+     */
+    public EnvironmentCopying(EnvironmentTrailing trailing, int nPages, int nWorlds) {
+        if (trailing.getWorldIndex() > 0) {
+            throw new IllegalStateException("The trailing environment should be in world 0");
+        }
+        this.trailing = trailing;
+        this.ints = new IntPages(nPages, nWorlds);
+        this.longs = new LongPages(nPages, nWorlds);
+        this.doubles = new DoublePages(nPages, nWorlds);
+        this.worldStamps = new int[Math.max(1, nWorlds)];
+    }
+
+    /**
+     * Create an environment relying on copying, with default parameters.
+     */
+    public EnvironmentCopying() {
+        this(new EnvironmentTrailing(), 4, EnvironmentTrailing.NBWORLDS);
+    }
+
+    /**
+     * Turn copying on or off.
+     * When copying is off, new primitives are trailed.
+     * Already created primitives are not impacted.
+     *
+     * @param copying set to <i>true</i> to store new primitives in arenas, to <i>false</i> to trail them
+     */
+    public void setCopying(boolean copying) {
+        this.copying = copying;
+    }
+
+    /**
+     * @return <i>true</i> if new primitives are stored in arenas, <i>false</i> if they are trailed
+     */
+    public boolean isCopying() {
+        return copying;
+    }
+
+    /**
+     * @return the trailing environment in charge of operations, vectors and primitives created while copying is off
+     */
+    public EnvironmentTrailing getTrailing() {
+        return trailing;
+    }
+
+    /**
+     * @return the number of ints and booleans stored in the arena
+     */
+    public int getNbCopiedInts() {
+        return ints.size();
+    }
+
+    /**
+     * @return the number of longs stored in the arena
+     */
+    public int getNbCopiedLongs() {
+        return longs.size();
+    }
+
+    /**
+     * @return the number of doubles stored in the arena
+     */
+    public int getNbCopiedDoubles() {
+        return doubles.size();
+    }
+
+    int getStamp() {
+        return stamp;
+    }
+
+    IntPages getIntPages() {
+        return ints;
+    }
+
+    LongPages getLongPages() {
+        return longs;
+    }
+
+    DoublePages getDoublePages() {
+        return doubles;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        timestamp++;
+        final int wi = currentWorld + 1;
+        if (wi == worldStamps.length) {
+            int[] tmp = worldStamps;
+            worldStamps = new int[tmp.length << 1];
+            System.arraycopy(tmp, 0, worldStamps, 0, tmp.length);
+        }
+        stamp = worldStamps[wi] = ++lastStamp;
+        ints.worldPush(wi);
+        longs.worldPush(wi);
+        doubles.worldPush(wi);
+        trailing.worldPush();
+        currentWorld++;
+        long n = getNbTrailEntries();
+        if (n > peakEntries) {
+            peakEntries = n;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        timestamp++;
+        final int wi = currentWorld;
+        trailing.worldPop();
+        doubles.worldPop(wi);
+        longs.worldPop(wi);
+        ints.worldPop(wi);
+        currentWorld--;
+        stamp = worldStamps[currentWorld];
+        assert currentWorld >= 0;
+    }
+
+    /**
+     * Not supported by this environment.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void worldCommit() {
+        throw new UnsupportedOperationException("Commit is not supported by " + getClass().getSimpleName());
+    }
+
+    @Override
+    public void buildFakeHistoryOn(ICondition condition) {
+        super.buildFakeHistoryOn(condition);
+        trailing.buildFakeHistoryOn(condition);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(final int initialValue) {
+        return copying ? new RcInt(this, initialValue) : trailing.makeInt(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(final boolean initialValue) {
+        return copying ? new RcBool(this, initialValue) : trailing.makeBool(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(final double initialValue) {
+        return copying ? new RcDouble(this, initialValue) : trailing.makeFloat(initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(final long init) {
+        return copying ? new RcLong(this, init) : trailing.makeLong(init);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntVector makeIntVector(final int size, final int initialValue) {
+        return trailing.makeIntVector(size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDoubleVector makeDoubleVector(final int size, final double initialValue) {
+        return trailing.makeDoubleVector(size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(IOperation operation) {
+        trailing.save(operation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shrink() {
+        trailing.shrink();
+        ints.shrink(currentWorld);
+        longs.shrink(currentWorld);
+        doubles.shrink(currentWorld);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbTrailEntries() {
+        return trailing.getNbTrailEntries() + ints.used() + longs.used() + doubles.used();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbTrailEntries(int world) {
+        if (world < 0 || world > currentWorld) {
+            throw new IndexOutOfBoundsException("No world " + world + ", current world is " + currentWorld);
+        }
+        return trailing.getNbTrailEntries(world) + ints.used(world, currentWorld) + longs.used(world, currentWorld) + doubles.used(world, currentWorld);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPeakNbTrailEntries() {
+        return Math.max(peakEntries, getNbTrailEntries());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTrailRetainedBytes() {
+        return trailing.getTrailRetainedBytes() + ints.retainedBytes() + longs.retainedBytes() + doubles.retainedBytes();
+    }
+}
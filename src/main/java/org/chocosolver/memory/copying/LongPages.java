@@ -0,0 +1,218 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import java.util.Arrays;
+
+/**
+ * A contiguous arena of backtrackable longs, saved and restored by pages.
+ * <p>
+ * The first time a page is modified in a world, a copy of the whole page is pushed on a stack.
+ * Upon backtrack, the pages saved in the world are copied back.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+final class LongPages {
+
+    /**
+     * Current values
+     */
+    long[] values;
+
+    /**
+     * For each page, the stamp of the world in which it was last saved
+     */
+    private int[] stamps;
+
+    /**
+     * Number of slots in use
+     */
+    private int size;
+
+    /**
+     * Indices of the saved pages
+     */
+    private int[] savedPages;
+
+    /**
+     * Former stamps of the saved pages
+     */
+    private int[] savedStamps;
+
+    /**
+     * Copies of the saved pages, one after the other
+     */
+    private long[] savedValues;
+
+    /**
+     * Number of saved pages
+     */
+    private int level;
+
+    /**
+     * For each world, the number of saved pages when it was entered
+     */
+    private int[] worldStarts;
+
+    /**
+     * Initial capacities, the saved pages never shrink below them
+     */
+    private final int nPages, nWorlds;
+
+    LongPages(int nPages, int nWorlds) {
+        nPages = Math.max(1, nPages);
+        values = new long[nPages << EnvironmentCopying.SHIFT];
+        stamps = new int[nPages];
+        savedPages = new int[nPages];
+        savedStamps = new int[nPages];
+        savedValues = new long[nPages << EnvironmentCopying.SHIFT];
+        worldStarts = new int[Math.max(1, nWorlds)];
+        this.nPages = nPages;
+        this.nWorlds = worldStarts.length;
+    }
+
+    /**
+     * Reserve a new slot and set its initial value.
+     * If the slot belongs to a page already saved, the copies of that page are updated as well,
+     * so that the slot keeps its initial value upon backtrack.
+     *
+     * @param init  initial value
+     * @param stamp stamp of the current world
+     * @return the index of the slot
+     */
+    int allocate(long init, int stamp) {
+        int idx = size++;
+        int page = idx >>> EnvironmentCopying.SHIFT;
+        if (idx == values.length) {
+            values = Arrays.copyOf(values, values.length << 1);
+            stamps = Arrays.copyOf(stamps, stamps.length << 1);
+        }
+        if ((idx & EnvironmentCopying.MASK) == 0) {
+            stamps[page] = stamp;
+        } else {
+            for (int i = level - 1; i >= 0; i--) {
+                if (savedPages[i] == page) {
+                    savedValues[(i << EnvironmentCopying.SHIFT) + (idx & EnvironmentCopying.MASK)] = init;
+                }
+            }
+        }
+        values[idx] = init;
+        return idx;
+    }
+
+    /**
+     * Write a value, saving its page beforehand if needed.
+     *
+     * @param idx   slot index
+     * @param value the new value
+     * @param stamp stamp of the current world
+     */
+    void write(int idx, long value, int stamp) {
+        int page = idx >>> EnvironmentCopying.SHIFT;
+        if (stamps[page] != stamp) {
+            save(page);
+            stamps[page] = stamp;
+        }
+        values[idx] = value;
+    }
+
+    private void save(int page) {
+        if (level == savedPages.length) {
+            int n = level << 1;
+            savedPages = Arrays.copyOf(savedPages, n);
+            savedStamps = Arrays.copyOf(savedStamps, n);
+            savedValues = Arrays.copyOf(savedValues, n << EnvironmentCopying.SHIFT);
+        }
+        savedPages[level] = page;
+        savedStamps[level] = stamps[page];
+        System.arraycopy(values, page << EnvironmentCopying.SHIFT,
+                savedValues, level << EnvironmentCopying.SHIFT, EnvironmentCopying.PAGE);
+        level++;
+    }
+
+    /**
+     * Enter world <i>wi</i>.
+     *
+     * @param wi index of the new world
+     */
+    void worldPush(int wi) {
+        if (wi == worldStarts.length) {
+            worldStarts = Arrays.copyOf(worldStarts, wi << 1);
+        }
+        worldStarts[wi] = level;
+    }
+
+    /**
+     * Leave world <i>wi</i>, restoring the pages saved in it.
+     *
+     * @param wi index of the world to leave
+     */
+    void worldPop(int wi) {
+        int start = worldStarts[wi];
+        while (level > start) {
+            level--;
+            int page = savedPages[level];
+            System.arraycopy(savedValues, level << EnvironmentCopying.SHIFT,
+                    values, page << EnvironmentCopying.SHIFT, EnvironmentCopying.PAGE);
+            stamps[page] = savedStamps[level];
+        }
+    }
+
+    /**
+     * @return the number of pages currently saved
+     */
+    int used() {
+        return level;
+    }
+
+    /**
+     * @param wi      index of a world, at most equal to <i>current</i>
+     * @param current index of the current world
+     * @return the number of pages saved since <i>wi</i> has been entered and before the next world was
+     */
+    int used(int wi, int current) {
+        int start = wi == 0 ? 0 : worldStarts[wi];
+        int end = wi == current ? level : worldStarts[wi + 1];
+        return end - start;
+    }
+
+    /**
+     * @return an estimation of the number of bytes retained by the saved pages
+     */
+    long retainedBytes() {
+        // an index and a stamp per saved page, plus its copy
+        return 8L * savedPages.length + 8L * savedValues.length + 4L * worldStarts.length;
+    }
+
+    /**
+     * Give back the memory retained by the saved pages which is not needed to store the current worlds.
+     *
+     * @param wi index of the current world
+     */
+    void shrink(int wi) {
+        int capacity = Math.max(nPages, 2 * level);
+        if (savedPages.length > 2 * capacity) {
+            savedPages = Arrays.copyOf(savedPages, capacity);
+            savedStamps = Arrays.copyOf(savedStamps, capacity);
+            savedValues = Arrays.copyOf(savedValues, capacity << EnvironmentCopying.SHIFT);
+        }
+        int wcapacity = Math.max(nWorlds, 2 * (wi + 1));
+        if (worldStarts.length > 2 * wcapacity) {
+            worldStarts = Arrays.copyOf(worldStarts, wcapacity);
+        }
+    }
+
+    /**
+     * @return the number of slots in use
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateBool;
+
+/**
+ * A backtrackable boolean stored in the int arena of an {@link EnvironmentCopying}.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class RcBool extends IStateBool {
+
+    /**
+     * The arena
+     */
+    private final IntPages pages;
+
+    /**
+     * Index of the slot in the arena
+     */
+    private final int idx;
+
+    /**
+     * Constructs a backtrackable boolean with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public RcBool(EnvironmentCopying env, boolean b) {
+        super(env, b);
+        pages = env.getIntPages();
+        idx = pages.allocate(b ? 1 : 0, env.getStamp());
+    }
+
+    @Override
+    public final boolean get() {
+        return pages.values[idx] != 0;
+    }
+
+    @Override
+    public final void set(boolean b) {
+        if (b != get()) {
+            pages.write(idx, b ? 1 : 0, ((EnvironmentCopying) environment).getStamp());
+        }
+    }
+
+    @Override
+    public void _set(boolean b, int wstamp) {
+        pages.values[idx] = b ? 1 : 0;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateDouble;
+
+/**
+ * A backtrackable double stored in the double arena of an {@link EnvironmentCopying}.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class RcDouble extends IStateDouble {
+
+    /**
+     * The arena
+     */
+    private final DoublePages pages;
+
+    /**
+     * Index of the slot in the arena
+     */
+    private final int idx;
+
+    /**
+     * Constructs a backtrackable double with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public RcDouble(EnvironmentCopying env, double i) {
+        super(env, i);
+        pages = env.getDoublePages();
+        idx = pages.allocate(i, env.getStamp());
+    }
+
+    @Override
+    public final double get() {
+        return pages.values[idx];
+    }
+
+    @Override
+    public final void set(double y) {
+        if (y != pages.values[idx]) {
+            pages.write(idx, y, ((EnvironmentCopying) environment).getStamp());
+        }
+    }
+
+    @Override
+    public void _set(double y, int wstamp) {
+        pages.values[idx] = y;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateInt;
+
+/**
+ * A backtrackable int stored in the int arena of an {@link EnvironmentCopying}.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class RcInt extends IStateInt {
+
+    /**
+     * The arena
+     */
+    private final IntPages pages;
+
+    /**
+     * Index of the slot in the arena
+     */
+    private final int idx;
+
+    /**
+     * Constructs a backtrackable int with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public RcInt(EnvironmentCopying env, int i) {
+        super(env, i);
+        pages = env.getIntPages();
+        idx = pages.allocate(i, env.getStamp());
+    }
+
+    @Override
+    public final int get() {
+        return pages.values[idx];
+    }
+
+    @Override
+    public final void set(int y) {
+        if (y != pages.values[idx]) {
+            pages.write(idx, y, ((EnvironmentCopying) environment).getStamp());
+        }
+    }
+
+    @Override
+    public void _set(int y, int wstamp) {
+        pages.values[idx] = y;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateLong;
+
+/**
+ * A backtrackable long stored in the long arena of an {@link EnvironmentCopying}.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class RcLong extends IStateLong {
+
+    /**
+     * The arena
+     */
+    private final LongPages pages;
+
+    /**
+     * Index of the slot in the arena
+     */
+    private final int idx;
+
+    /**
+     * Constructs a backtrackable long with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public RcLong(EnvironmentCopying env, long i) {
+        super(env, i);
+        pages = env.getLongPages();
+        idx = pages.allocate(i, env.getStamp());
+    }
+
+    @Override
+    public final long get() {
+        return pages.values[idx];
+    }
+
+    @Override
+    public final void set(long y) {
+        if (y != pages.values[idx]) {
+            pages.write(idx, y, ((EnvironmentCopying) environment).getStamp());
+        }
+    }
+
+    @Override
+    public void _set(long y, int wstamp) {
+        pages.values[idx] = y;
+    }
+}
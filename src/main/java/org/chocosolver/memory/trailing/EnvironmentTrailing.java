@@ -57,6 +57,16 @@ public class EnvironmentTrailing extends AbstractEnvironment {
     private IStorage[] trails = new IStorage[0];
     private int trailSize = 0;
 
+    /**
+     * For each world, the number of entries in the trails when it was pushed
+     */
+    private long[] entriesAtPush = new long[NBWORLDS];
+
+    /**
+     * Largest number of entries in the trails so far
+     */
+    private long peakEntries;
+
     /**
      * {@inheritDoc}
      */
@@ -65,8 +75,19 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         timestamp++;
         //code optim.: replace loop by enumeration
         final int wi = currentWorld + 1;
+        long n = 0;
         for (int i = 0; i < trailSize; i++) {
             trails[i].worldPush(wi);
+            n += trails[i].used();
+        }
+        if (wi == entriesAtPush.length) {
+            long[] tmp = entriesAtPush;
+            entriesAtPush = new long[tmp.length << 1];
+            System.arraycopy(tmp, 0, entriesAtPush, 0, tmp.length);
+        }
+        entriesAtPush[wi] = n;
+        if (n > peakEntries) {
+            peakEntries = n;
         }
         currentWorld++;
     }
@@ -263,6 +284,67 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         return operationTrail;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shrink() {
+        for (int i = 0; i < trailSize; i++) {
+            trails[i].shrink(currentWorld);
+        }
+        int capacity = Math.max(NBWORLDS, 2 * (currentWorld + 1));
+        if (entriesAtPush.length > 2 * capacity) {
+            long[] tmp = entriesAtPush;
+            entriesAtPush = new long[capacity];
+            System.arraycopy(tmp, 0, entriesAtPush, 0, currentWorld + 1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbTrailEntries() {
+        long n = 0;
+        for (int i = 0; i < trailSize; i++) {
+            n += trails[i].used();
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNbTrailEntries(int world) {
+        if (world < 0 || world > currentWorld) {
+            throw new IndexOutOfBoundsException("No world " + world + ", current world is " + currentWorld);
+        }
+        long start = world == 0 ? 0 : entriesAtPush[world];
+        long end = world == currentWorld ? getNbTrailEntries() : entriesAtPush[world + 1];
+        return end - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPeakNbTrailEntries() {
+        return Math.max(peakEntries, getNbTrailEntries());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTrailRetainedBytes() {
+        long n = 0;
+        for (int i = 0; i < trailSize; i++) {
+            n += trails[i].retainedBytes();
+        }
+        return n;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // SPECIFIC DATA STRUCTURES                                                                                       //
     // NOTE: this data structures should not be used...
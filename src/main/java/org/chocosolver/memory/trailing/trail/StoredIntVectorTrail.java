@@ -104,6 +104,21 @@ public class StoredIntVectorTrail implements IStorage {
         }
     }
 
+    @Override
+    public int used() {
+        return currentLevel;
+    }
+
+    @Override
+    public int allocated() {
+        return vectorStack.length;
+    }
+
+    @Override
+    public long retainedBytes() {
+        return 16L * vectorStack.length + 4L * worldStartLevels.length;
+    }
+
     private void resizeUpdateCapacity() {
         final int newCapacity = (int) (vectorStack.length * loadfactor);
         // first, copy the stack of variables
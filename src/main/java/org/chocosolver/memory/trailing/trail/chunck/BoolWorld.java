@@ -11,6 +11,8 @@ package org.chocosolver.memory.trailing.trail.chunck;
 
 import org.chocosolver.memory.trailing.StoredBool;
 
+import java.util.Arrays;
+
 /**
  * A world devoted to integers.
  * @author Fabien Hermenier
@@ -93,6 +95,19 @@ public class BoolWorld implements World{
         stampStack = tmp3;
     }
 
+    @Override
+    public void release() {
+        now = 0;
+        if (stampStack != null && stampStack.length > defaultSize) {
+            // allocated again on demand
+            variableStack = null;
+            valueStack = null;
+            stampStack = null;
+        } else if (variableStack != null) {
+            Arrays.fill(variableStack, null);
+        }
+    }
+
     @Override
     public void clear() {
         now = 0;
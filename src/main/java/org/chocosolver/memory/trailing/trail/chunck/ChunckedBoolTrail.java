@@ -43,6 +43,9 @@ public class ChunckedBoolTrail extends ChunckedTrail<BoolWorld> implements IStor
 
     @Override
     public void worldPush(int worldIndex) {
+        if (current != null) {
+            usedBelow += current.used();
+        }
         if (worlds[worldIndex] == null) {
             current = new BoolWorld(ws, loadfactor);
             worlds[worldIndex] = current;
@@ -55,6 +58,12 @@ public class ChunckedBoolTrail extends ChunckedTrail<BoolWorld> implements IStor
         }
     }
 
+    @Override
+    protected int bytesPerEntry() {
+        // a reference, a boolean and a stamp
+        return 9;
+    }
+
     private void resizeWorlds() {
         int newCapacity = (int) (worlds.length * loadfactor);
         BoolWorld[] tmp = new BoolWorld[newCapacity];
@@ -74,5 +83,7 @@ public class ChunckedBoolTrail extends ChunckedTrail<BoolWorld> implements IStor
             BoolWorld cur = worlds[w];
             cur.savePreviousState(v, initValue, w - 1);
         }
+        // the current world excepted, the entries are stored below
+        usedBelow += olderStamp - 1;
     }
 }
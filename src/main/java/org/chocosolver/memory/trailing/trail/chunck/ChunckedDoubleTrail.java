@@ -43,6 +43,9 @@ public class ChunckedDoubleTrail extends ChunckedTrail<DoubleWorld> implements I
 
     @Override
     public void worldPush(int worldIndex) {
+        if (current != null) {
+            usedBelow += current.used();
+        }
         if (worlds[worldIndex] == null) {
             current = new DoubleWorld(ws, loadfactor);
             worlds[worldIndex] = current;
@@ -55,6 +58,12 @@ public class ChunckedDoubleTrail extends ChunckedTrail<DoubleWorld> implements I
         }
     }
 
+    @Override
+    protected int bytesPerEntry() {
+        // a reference, a double and a stamp
+        return 16;
+    }
+
     private void resizeWorlds() {
         int newCapacity = (int) (worlds.length * loadfactor);
         DoubleWorld[] tmp = new DoubleWorld[newCapacity];
@@ -74,5 +83,7 @@ public class ChunckedDoubleTrail extends ChunckedTrail<DoubleWorld> implements I
             DoubleWorld cur = worlds[w];
             cur.savePreviousState(v, initValue, w - 1);
         }
+        // the current world excepted, the entries are stored below
+        usedBelow += olderStamp - 1;
     }
 }
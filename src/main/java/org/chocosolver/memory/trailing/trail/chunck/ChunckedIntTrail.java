@@ -43,6 +43,9 @@ public class ChunckedIntTrail extends ChunckedTrail<IntWorld> implements IStored
 
     @Override
     public void worldPush(int worldIndex) {
+        if (current != null) {
+            usedBelow += current.used();
+        }
         if (worlds[worldIndex] == null) {
             current = new IntWorld(ws, loadfactor);
             worlds[worldIndex] = current;
@@ -55,6 +58,12 @@ public class ChunckedIntTrail extends ChunckedTrail<IntWorld> implements IStored
         }
     }
 
+    @Override
+    protected int bytesPerEntry() {
+        // a reference, an int and a stamp
+        return 12;
+    }
+
     private void resizeWorlds() {
         int newCapacity = (int) (worlds.length * loadfactor);
         IntWorld[] tmp = new IntWorld[newCapacity];
@@ -74,5 +83,7 @@ public class ChunckedIntTrail extends ChunckedTrail<IntWorld> implements IStored
             IntWorld cur = worlds[w];
             cur.savePreviousState(v, initValue, w - 1);
         }
+        // the current world excepted, the entries are stored below
+        usedBelow += olderStamp - 1;
     }
 }
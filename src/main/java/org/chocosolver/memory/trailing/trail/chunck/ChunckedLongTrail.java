@@ -43,6 +43,9 @@ public class ChunckedLongTrail extends ChunckedTrail<LongWorld> implements IStor
 
     @Override
     public void worldPush(int worldIndex) {
+        if (current != null) {
+            usedBelow += current.used();
+        }
         if (worlds[worldIndex] == null) {
             current = new LongWorld(ws, loadfactor);
             worlds[worldIndex] = current;
@@ -55,6 +58,12 @@ public class ChunckedLongTrail extends ChunckedTrail<LongWorld> implements IStor
         }
     }
 
+    @Override
+    protected int bytesPerEntry() {
+        // a reference, a long and a stamp
+        return 16;
+    }
+
     private void resizeWorlds() {
         int newCapacity = (int) (worlds.length * loadfactor);
         LongWorld[] tmp = new LongWorld[newCapacity];
@@ -74,5 +83,7 @@ public class ChunckedLongTrail extends ChunckedTrail<LongWorld> implements IStor
             LongWorld cur = worlds[w];
             cur.savePreviousState(v, initValue, w - 1);
         }
+        // the current world excepted, the entries are stored below
+        usedBelow += olderStamp - 1;
     }
 }
@@ -41,6 +41,9 @@ public class ChunckedOperationTrail extends ChunckedTrail<OperationWorld> implem
 
     @Override
     public void worldPush(int worldIndex) {
+        if (current != null) {
+            usedBelow += current.used();
+        }
         if (worlds[worldIndex] == null) {
             current = new OperationWorld(ws, loadfactor);
             worlds[worldIndex] = current;
@@ -53,6 +56,12 @@ public class ChunckedOperationTrail extends ChunckedTrail<OperationWorld> implem
         }
     }
 
+    @Override
+    protected int bytesPerEntry() {
+        // a reference
+        return 4;
+    }
+
     private void resizeWorlds() {
         int newCapacity = (int) (worlds.length * loadfactor);
         OperationWorld[] tmp = new OperationWorld[newCapacity];
@@ -10,6 +10,8 @@ package org.chocosolver.memory.trailing.trail.chunck;
 
 import org.chocosolver.memory.IStorage;
 
+import java.util.Arrays;
+
 /**
  * An abstract segmented trail.
  * @author Fabien Hermenier
@@ -28,6 +30,11 @@ public abstract class ChunckedTrail<W extends World> implements IStorage{
      */
     protected W current;
 
+    /**
+     * Number of entries stored in the worlds below the current one.
+     */
+    protected int usedBelow;
+
 
     /**
      * Moving down to the previous world.
@@ -39,8 +46,10 @@ public abstract class ChunckedTrail<W extends World> implements IStorage{
         current.revert();
         if (worldIndex > 0) {
             current = worlds[worldIndex - 1];
+            usedBelow -= current.used();
         }else {
             current = null;
+            usedBelow = 0;
         }
     }
 
@@ -54,6 +63,7 @@ public abstract class ChunckedTrail<W extends World> implements IStorage{
      *
      * @return a positive number
      */
+    @Override
     public int allocated() {
         int n = 0;
         for (World w : worlds) {
@@ -64,4 +74,39 @@ public abstract class ChunckedTrail<W extends World> implements IStorage{
         return n;
     }
 
-}
\ No newline at end of file
+    @Override
+    public int used() {
+        return usedBelow + (current == null ? 0 : current.used());
+    }
+
+    @Override
+    public long retainedBytes() {
+        return (long) bytesPerEntry() * allocated() + 4L * worlds.length;
+    }
+
+    /**
+     * Worlds above <i>worldIndex</i> are kept to be reused by the next pushes,
+     * but their stacks are trimmed to the default world size.
+     * Worlds far beyond <i>worldIndex</i> are forgotten.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void shrink(int worldIndex) {
+        int capacity = 2 * (worldIndex + 2);
+        if (worlds.length > 2 * capacity) {
+            worlds = Arrays.copyOf(worlds, capacity);
+        }
+        for (int w = worldIndex + 1; w < worlds.length; w++) {
+            if (worlds[w] != null) {
+                worlds[w].release();
+            }
+        }
+    }
+
+    /**
+     * @return an estimation of the number of bytes needed to store an entry
+     */
+    protected abstract int bytesPerEntry();
+
+}
@@ -11,6 +11,8 @@ package org.chocosolver.memory.trailing.trail.chunck;
 
 import org.chocosolver.memory.structure.IOperation;
 
+import java.util.Arrays;
+
 /**
  * @author Fabien Hermenier
  * @author Charles Prud'homme
@@ -28,8 +30,11 @@ public class OperationWorld implements World{
 
     private double loadfactor;
 
+    private int defaultSize;
+
     public OperationWorld(int defaultSize, double loadfactor) {
         now = 0;
+        this.defaultSize = defaultSize;
         this.loadfactor = loadfactor;
         variableStack = new IOperation[defaultSize];
     }
@@ -52,7 +57,10 @@ public class OperationWorld implements World{
         for (int i = now - 1; i >= 0; i--) {
             v = variableStack[i];
             v.undo();
+            // release the operation, it may retain a large part of the model
+            variableStack[i] = null;
         }
+        now = 0;
     }
 
     private void resizeUpdateCapacity() {
@@ -62,6 +70,16 @@ public class OperationWorld implements World{
         variableStack = tmp1;
     }
 
+    @Override
+    public void release() {
+        now = 0;
+        if (variableStack.length > defaultSize) {
+            variableStack = new IOperation[defaultSize];
+        } else {
+            Arrays.fill(variableStack, null);
+        }
+    }
+
     public void clear() {
         now = 0;
     }
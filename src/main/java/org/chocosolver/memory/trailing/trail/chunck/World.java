@@ -39,4 +39,11 @@ public interface World {
      * @return a positive number
      */
     int allocated();
-}
\ No newline at end of file
+
+    /**
+     * Clean the stack and give back the memory allocated beyond the default world size.
+     */
+    default void release() {
+        clear();
+    }
+}
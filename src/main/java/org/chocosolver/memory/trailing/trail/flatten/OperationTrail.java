@@ -23,6 +23,11 @@ public class OperationTrail implements IOperationTrail {
      */
     private final double loadfactor;
 
+    /**
+     * Initial capacities, the trail never shrinks below them
+     */
+    private final int nUpdates, nWorlds;
+
     /**
      * Stack of values (former values that need be restored upon backtracking).
      */
@@ -52,6 +57,8 @@ public class OperationTrail implements IOperationTrail {
         valueStack = new IOperation[nUpdates];
         worldStartLevels = new int[nWorlds];
         this.loadfactor = loadfactor;
+        this.nUpdates = nUpdates;
+        this.nWorlds = nWorlds;
     }
 
 
@@ -77,6 +84,8 @@ public class OperationTrail implements IOperationTrail {
         final int wsl = worldStartLevels[worldIndex];
         while (currentLevel > wsl) {
             valueStack[--currentLevel].undo();
+            // release the operation, it may retain a large part of the model
+            valueStack[currentLevel] = null;
         }
     }
 
@@ -97,6 +106,36 @@ public class OperationTrail implements IOperationTrail {
         }
     }
 
+    @Override
+    public int used() {
+        return currentLevel;
+    }
+
+    @Override
+    public int allocated() {
+        return valueStack.length;
+    }
+
+    @Override
+    public long retainedBytes() {
+        // only references are counted, operations are shared with the data structures
+        return 4L * valueStack.length + 4L * worldStartLevels.length;
+    }
+
+    @Override
+    public void shrink(int worldIndex) {
+        final int capacity = Math.max(nUpdates, (int) (currentLevel * loadfactor) + 1);
+        if (valueStack.length > 2 * capacity) {
+            final IOperation[] tmp = new IOperation[capacity];
+            System.arraycopy(valueStack, 0, tmp, 0, currentLevel);
+            valueStack = tmp;
+        }
+        final int wcapacity = Math.max(nWorlds, (int) ((worldIndex + 1) * loadfactor) + 1);
+        if (worldStartLevels.length > 2 * wcapacity) {
+            resizeWorldCapacity(wcapacity);
+        }
+    }
+
     private void resizeUpdateCapacity() {
         final int newCapacity = (int) (valueStack.length * loadfactor);
         // First, copy the stack of former values
@@ -107,7 +146,7 @@ public class OperationTrail implements IOperationTrail {
 
     private void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
-        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        System.arraycopy(worldStartLevels, 0, tmp, 0, Math.min(worldStartLevels.length, newWorldCapacity));
         worldStartLevels = tmp;
     }
 }
@@ -11,6 +11,8 @@ package org.chocosolver.memory.trailing.trail.flatten;
 import org.chocosolver.memory.trailing.StoredBool;
 import org.chocosolver.memory.trailing.trail.IStoredBoolTrail;
 
+import java.util.Arrays;
+
 
 public class StoredBoolTrail implements IStoredBoolTrail {
 
@@ -19,6 +21,11 @@ public class StoredBoolTrail implements IStoredBoolTrail {
      */
     private final double loadfactor;
 
+    /**
+     * Initial capacities, the trail never shrinks below them
+     */
+    private final int nUpdates, nWorlds;
+
     /**
      * Stack of backtrackable search variables.
      */
@@ -64,6 +71,8 @@ public class StoredBoolTrail implements IStoredBoolTrail {
         stampStack = new int[nUpdates];
         worldStartLevels = new int[nWorlds];
         this.loadfactor = loadfactor;
+        this.nUpdates = nUpdates;
+        this.nWorlds = nWorlds;
     }
 
 
@@ -171,6 +180,52 @@ public class StoredBoolTrail implements IStoredBoolTrail {
     }
 
 
+    @Override
+    public int used() {
+        return currentLevel;
+    }
+
+    @Override
+    public int allocated() {
+        return variableStack.length;
+    }
+
+    @Override
+    public long retainedBytes() {
+        // a reference, a boolean and a stamp per entry
+        return 9L * variableStack.length + 4L * worldStartLevels.length;
+    }
+
+    @Override
+    public void shrink(int worldIndex) {
+        // entries are stored contiguously and released on shrink,
+        // so the first null entry above the current level is the peak level since the previous shrink
+        int peak = currentLevel;
+        while (peak < variableStack.length && variableStack[peak] != null) {
+            peak++;
+        }
+        // the capacity is reduced only if the peak level is far below it, not to grow it again on the next dive
+        final int capacity = Math.max(nUpdates, (int) (peak * loadfactor) + 1);
+        if (variableStack.length > 2 * capacity) {
+            final StoredBool[] tmp1 = new StoredBool[capacity];
+            System.arraycopy(variableStack, 0, tmp1, 0, currentLevel);
+            variableStack = tmp1;
+            final boolean[] tmp2 = new boolean[capacity];
+            System.arraycopy(valueStack, 0, tmp2, 0, currentLevel);
+            valueStack = tmp2;
+            final int[] tmp3 = new int[capacity];
+            System.arraycopy(stampStack, 0, tmp3, 0, currentLevel);
+            stampStack = tmp3;
+        } else {
+            // release references to variables of former worlds
+            Arrays.fill(variableStack, currentLevel, peak, null);
+        }
+        final int wcapacity = Math.max(nWorlds, (int) ((worldIndex + 1) * loadfactor) + 1);
+        if (worldStartLevels.length > 2 * wcapacity) {
+            resizeWorldCapacity(wcapacity);
+        }
+    }
+
     private void resizeUpdateCapacity() {
         final int newCapacity = (int) (variableStack.length * loadfactor);
         // first, copy the stack of variables
@@ -189,7 +244,7 @@ public class StoredBoolTrail implements IStoredBoolTrail {
 
     private void resizeWorldCapacity(int newWorldCapacity) {
         final int[] tmp = new int[newWorldCapacity];
-        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        System.arraycopy(worldStartLevels, 0, tmp, 0, Math.min(worldStartLevels.length, newWorldCapacity));
         worldStartLevels = tmp;
     }
 
@@ -0,0 +1,389 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.sat;
+
+import gnu.trove.list.array.TByteArrayList;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * Book-keeping of the learnt clauses of a {@link SatSolver}, to keep the learnt clause database small.
+ * <p>
+ * Each learnt clause is given:
+ * <ul>
+ * <li>an <i>activity</i>, bumped each time the clause is the one the SAT solver fails on, and decayed otherwise
+ * (as in MiniSat),</li>
+ * <li>a <i>LBD</i> (literal block distance), which is the number of distinct blocks the literals belong to.
+ * A block is given by a function of the SAT variables; for no-goods, it is the CP variable a literal is built on,
+ * which, for no-goods extracted from restarts, stands for a decision level (similar to SAT solvers).</li>
+ * </ul>
+ * When the number of deletable learnt clauses exceeds a limit, the database is reduced:
+ * learnt clauses are sorted by increasing LBD, then decreasing activity, and the worse half is removed.
+ * The limit is then increased (as in Glucose).
+ * Binary clauses, "glue" clauses (LBD &le; 2) and <i>core</i> clauses are never removed.
+ * Core clauses are those required for the correctness of the resolution
+ * (for instance, no-goods forbidding already found solutions).
+ * <p>
+ * Metadata are stored in the same order as {@link SatSolver#learnts}, so any learnt clause must be removed
+ * through {@link #detach(int)}.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class LearntClauseDatabase {
+
+    /**
+     * Bit set in {@link #flags} for core clauses
+     */
+    private static final byte CORE = 1;
+
+    /**
+     * The SAT solver whose learnt clauses are managed
+     */
+    private final SatSolver sat;
+
+    /**
+     * Maps a SAT variable to its block, to compute LBD
+     */
+    private final IntUnaryOperator block;
+
+    /**
+     * Position of each learnt clause in {@link SatSolver#learnts}
+     */
+    private final IdentityHashMap<SatSolver.Clause, Integer> positions = new IdentityHashMap<>();
+
+    /**
+     * Activity of each learnt clause
+     */
+    private final TDoubleArrayList activities = new TDoubleArrayList();
+
+    /**
+     * LBD of each learnt clause
+     */
+    private final TIntArrayList lbds = new TIntArrayList();
+
+    /**
+     * Flags of each learnt clause
+     */
+    private final TByteArrayList flags = new TByteArrayList();
+
+    /**
+     * Local-like parameter, to compute LBD
+     */
+    private final TIntArrayList blocks = new TIntArrayList();
+
+    /**
+     * Current bump value and its decay factor
+     */
+    private double inc = 1., decay = .999;
+
+    /**
+     * Maximum number of deletable clauses before reducing the database, and its increment after each reduction
+     */
+    private int limit = 2000, increment = 300;
+
+    /**
+     * Number of learnt clauses which cannot be deleted
+     */
+    private int nbProtected;
+
+    /**
+     * Statistics
+     */
+    private long nbReductions, nbDeleted, nbBumps;
+
+    /**
+     * Create a learnt clause database for <i>sat</i>
+     *
+     * @param sat   a SAT solver
+     * @param block maps a SAT variable to its block, to compute the LBD of a clause
+     */
+    public LearntClauseDatabase(SatSolver sat, IntUnaryOperator block) {
+        this.sat = sat;
+        this.block = block;
+    }
+
+    /**
+     * Set the reduction policy: the database is reduced as soon as the number of deletable learnt clauses
+     * exceeds <i>first</i>, then <i>first</i> + <i>increment</i>, and so on.
+     *
+     * @param first     initial limit
+     * @param increment increment of the limit after each reduction
+     * @throws IllegalArgumentException if <i>first</i> is not strictly positive or <i>increment</i> is negative
+     */
+    public void setReductionPolicy(int first, int increment) {
+        if (first < 1 || increment < 0) {
+            throw new IllegalArgumentException("Invalid reduction policy: " + first + ", " + increment);
+        }
+        this.limit = first;
+        this.increment = increment;
+    }
+
+    /**
+     * Learn the clause <i>lits</i> in the SAT solver and record its metadata.
+     *
+     * @param core set to <i>true</i> to prevent the clause from being deleted
+     * @param lits literals of the clause
+     * @return <i>false</i> if the SAT solver detects a failure
+     */
+    public boolean learn(boolean core, int... lits) {
+        int n = sat.learnts.size();
+        boolean ok = sat.learnClause(lits);
+        if (sat.learnts.size() > n) {
+            positions.put(sat.learnts.get(n), n);
+            activities.add(inc);
+            lbds.add(computeLBD(lits));
+            flags.add(core ? CORE : 0);
+            if (!isDeletable(n)) {
+                nbProtected++;
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Remove the <i>k</i>-th learnt clause from the SAT solver, and its metadata.
+     *
+     * @param k index of a learnt clause
+     */
+    public void detach(int k) {
+        remove(k);
+        updatePositions(k);
+    }
+
+    private void remove(int k) {
+        if (!isDeletable(k)) {
+            nbProtected--;
+        }
+        positions.remove(sat.learnts.get(k));
+        sat.detachLearnt(k);
+        activities.removeAt(k);
+        lbds.removeAt(k);
+        flags.removeAt(k);
+    }
+
+    private void updatePositions(int from) {
+        for (int k = sat.learnts.size() - 1; k >= from; k--) {
+            positions.put(sat.learnts.get(k), k);
+        }
+    }
+
+    /**
+     * Prevent the <i>k</i>-th learnt clause from being deleted,
+     * typically because it dominates a core clause which is about to be removed.
+     *
+     * @param k index of a learnt clause
+     */
+    public void protect(int k) {
+        if (isDeletable(k)) {
+            nbProtected++;
+        }
+        flags.setQuick(k, (byte) (flags.getQuick(k) | CORE));
+    }
+
+    /**
+     * To be called when the SAT solver fails.
+     * The learnt clause the SAT solver failed on, if any, is bumped, then activities are decayed.
+     * <p>
+     * When a clause is found falsified, the SAT solver stores its first watched literal last in
+     * {@link SatSolver#touched_variables_}, so only the clauses watching that literal are inspected.
+     */
+    public void onConflict() {
+        int n = sat.touched_variables_.size();
+        if (n > 0) {
+            int lit = sat.touched_variables_.getQuick(n - 1);
+            ArrayList<SatSolver.Watcher> watchers = isFalse(lit) ? sat.watches_.get(SatSolver.negated(lit)) : null;
+            if (watchers != null) {
+                for (int i = 0; i < watchers.size(); i++) {
+                    SatSolver.Clause c = watchers.get(i).clause;
+                    if (c._g(0) == lit && isFalse(c._g(1)) && isFalsified(c)) {
+                        Integer k = positions.get(c);
+                        if (k != null) {
+                            bump(k);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        inc /= decay;
+    }
+
+    /**
+     * Reduce the database if the number of deletable learnt clauses exceeds the current limit.
+     * <p>
+     * Removing a clause is safe with respect to the SAT solver at any time,
+     * but deductions made thanks to it cannot be explained anymore.
+     * So this is expected to be called when the SAT solver is at root level
+     * and when no explanation is required, see {@link #reduce(Predicate)} otherwise.
+     *
+     * @return <i>true</i> if clauses have been removed
+     */
+    public boolean reduce() {
+        return reduce(c -> false);
+    }
+
+    /**
+     * Reduce the database if the number of deletable learnt clauses exceeds the current limit,
+     * but never remove a clause satisfying <i>locked</i>.
+     * <p>
+     * When deductions have to be explained, <i>locked</i> should hold for any clause which may be the reason
+     * of a deduction still on the trail, so that explanations remain complete.
+     *
+     * @param locked tells whether a learnt clause must be kept
+     * @return <i>true</i> if clauses have been removed
+     */
+    public boolean reduce(Predicate<SatSolver.Clause> locked) {
+        int n = sat.learnts.size();
+        int m = n - nbProtected;
+        if (m <= limit) {
+            return false;
+        }
+        Integer[] cands = new Integer[m];
+        m = 0;
+        for (int k = 0; k < n; k++) {
+            if (isDeletable(k) && !locked.test(sat.learnts.get(k))) {
+                cands[m++] = k;
+            }
+        }
+        limit += increment;
+        if (m < 2) {
+            return false;
+        }
+        cands = Arrays.copyOf(cands, m);
+        Arrays.sort(cands, (i, j) -> {
+            int c = Integer.compare(lbds.getQuick(i), lbds.getQuick(j));
+            return c != 0 ? c : Double.compare(activities.getQuick(j), activities.getQuick(i));
+        });
+        // remove the worse half, by decreasing index since removal shifts the following clauses
+        int[] del = new int[m - m / 2];
+        for (int j = m / 2; j < m; j++) {
+            del[j - m / 2] = cands[j];
+        }
+        Arrays.sort(del);
+        for (int j = del.length - 1; j >= 0; j--) {
+            remove(del[j]);
+        }
+        updatePositions(del[0]);
+        nbReductions++;
+        nbDeleted += del.length;
+        return true;
+    }
+
+    private boolean isDeletable(int k) {
+        return (flags.getQuick(k) & CORE) == 0 && lbds.getQuick(k) > 2 && sat.learnts.get(k).size() > 2;
+    }
+
+    private void bump(int k) {
+        nbBumps++;
+        double a = activities.getQuick(k) + inc;
+        activities.setQuick(k, a);
+        if (a > 1e20) {
+            for (int i = activities.size() - 1; i >= 0; i--) {
+                activities.setQuick(i, activities.getQuick(i) * 1e-20);
+            }
+            inc *= 1e-20;
+        }
+    }
+
+    private int computeLBD(int[] lits) {
+        blocks.resetQuick();
+        for (int l : lits) {
+            int b = block.applyAsInt(SatSolver.var(l));
+            if (!blocks.contains(b)) {
+                blocks.add(b);
+            }
+        }
+        return blocks.size();
+    }
+
+    private boolean isFalse(int lit) {
+        return sat.valueLit(lit) == SatSolver.Boolean.kFalse;
+    }
+
+    private boolean isFalsified(SatSolver.Clause c) {
+        for (int i = c.size() - 1; i > 1; i--) {
+            if (!isFalse(c._g(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param k index of a learnt clause
+     * @return the activity of the <i>k</i>-th learnt clause
+     */
+    public double getActivity(int k) {
+        return activities.get(k);
+    }
+
+    /**
+     * @param k index of a learnt clause
+     * @return the LBD of the <i>k</i>-th learnt clause
+     */
+    public int getLBD(int k) {
+        return lbds.get(k);
+    }
+
+    /**
+     * @param k index of a learnt clause
+     * @return <i>true</i> if the <i>k</i>-th learnt clause is a core one
+     */
+    public boolean isCore(int k) {
+        return (flags.get(k) & CORE) != 0;
+    }
+
+    /**
+     * @return the number of learnt clauses currently stored
+     */
+    public int getNbLearnts() {
+        return sat.learnts.size();
+    }
+
+    /**
+     * @return the number of learnt clauses currently stored which cannot be deleted
+     */
+    public int getNbProtected() {
+        return nbProtected;
+    }
+
+    /**
+     * @return the number of reductions done so far
+     */
+    public long getNbReductions() {
+        return nbReductions;
+    }
+
+    /**
+     * @return the number of learnt clauses deleted by reductions so far
+     */
+    public long getNbDeleted() {
+        return nbDeleted;
+    }
+
+    /**
+     * @return the number of times a learnt clause has been bumped on conflict
+     */
+    public long getNbBumps() {
+        return nbBumps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d learnts (%d protected), %d reductions, %d deleted, %d bumps",
+                getNbLearnts(), nbProtected, nbReductions, nbDeleted, nbBumps);
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.sat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free channel to exchange no-goods between models solving the same problem in parallel,
+ * for instance in {@link org.chocosolver.solver.ParallelPortfolio}.
+ * <p>
+ * No-goods are stored in a bounded ring buffer.
+ * Each no-good is expressed in a solver-independent way:
+ * every literal is defined by a variable id (see {@link org.chocosolver.solver.variables.Variable#getId()}),
+ * a value, an operator ("=" or "&le;") and a sign.
+ * Thus, exchanging no-goods makes sense only when the models share the same variables, declared in the same order.
+ * <p>
+ * Writers never wait: a no-good is published by claiming a slot with an atomic increment.
+ * Each reader maintains its own cursor, and a reader which is too slow simply misses the no-goods
+ * which have been overwritten in the meantime.
+ * <p>
+ * Only short no-goods are exchanged: a no-good is accepted only if it involves at most {@link #getMaxSize()}
+ * distinct variables.
+ * For no-goods extracted from restarts, each variable stands for a decision, so this measure is
+ * the number of decision levels involved (similar to the LBD of SAT solvers).
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class NogoodExchange {
+
+    /**
+     * The ring buffer, its size is a power of 2
+     */
+    private final AtomicReferenceArray<Nogood> ring;
+
+    /**
+     * Mask to compute position in {@link #ring}
+     */
+    private final int mask;
+
+    /**
+     * Next sequence number to claim
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Maximum number of distinct variables in a no-good to be exchanged
+     */
+    private final int maxSize;
+
+    /**
+     * Create a no-good exchange channel.
+     *
+     * @param capacity minimum number of no-goods the channel can store before overwriting the oldest ones
+     * @param maxSize  maximum number of distinct variables a no-good can be made of to be exchanged
+     */
+    public NogoodExchange(int capacity, int maxSize) {
+        if (capacity < 1 || maxSize < 1) {
+            throw new IllegalArgumentException("capacity and maxSize should be strictly positive");
+        }
+        int c = Integer.highestOneBit(capacity);
+        if (c < capacity) {
+            c <<= 1;
+        }
+        this.ring = new AtomicReferenceArray<>(c);
+        this.mask = c - 1;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create a no-good exchange channel which stores up to 1024 no-goods of at most 10 variables.
+     */
+    public NogoodExchange() {
+        this(1024, 10);
+    }
+
+    /**
+     * @return maximum number of distinct variables a no-good can be made of to be exchanged
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the total number of no-goods published so far
+     */
+    public long getNbPublished() {
+        return tail.get();
+    }
+
+    /**
+     * @return the position of the next no-good to be published, to be used as initial reading cursor
+     */
+    long head() {
+        return tail.get();
+    }
+
+    /**
+     * Publish a no-good.
+     *
+     * @param origin identifier of the producer
+     * @param ids    variable ids of the literals
+     * @param values values of the literals, encoded as in {@link PropNogoods}
+     * @param signs  signs of the literals
+     */
+    void publish(int origin, int[] ids, long[] values, boolean[] signs) {
+        long seq = tail.getAndIncrement();
+        ring.set((int) (seq & mask), new Nogood(seq, origin, ids, values, signs));
+    }
+
+    /**
+     * Read the no-good published at position <i>seq</i>.
+     *
+     * @param seq a position, strictly less than {@link #head()}
+     * @return the no-good, or <i>null</i> if it has already been overwritten
+     * or if it is not fully published yet (then {@link Nogood#seq} is less than <i>seq</i>).
+     */
+    Nogood read(long seq) {
+        return ring.get((int) (seq & mask));
+    }
+
+    /**
+     * @param cursor a reading cursor
+     * @return the oldest position which is still readable from <i>cursor</i>
+     */
+    long oldest(long cursor) {
+        return Math.max(cursor, tail.get() - ring.length());
+    }
+
+    /**
+     * A no-good made of solver-independent literals.
+     */
+    static final class Nogood {
+        /**
+         * Position of the no-good in the channel
+         */
+        final long seq;
+        /**
+         * Identifier of the producer
+         */
+        final int origin;
+        /**
+         * Variable ids
+         */
+        final int[] ids;
+        /**
+         * Values, encoded as in {@link PropNogoods}
+         */
+        final long[] values;
+        /**
+         * Signs of the literals
+         */
+        final boolean[] signs;
+
+        Nogood(long seq, int origin, int[] ids, long[] values, boolean[] signs) {
+            this.seq = seq;
+            this.origin = origin;
+            this.ids = ids;
+            this.values = values;
+            this.signs = signs;
+        }
+    }
+}
@@ -17,11 +17,13 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.NoExplanationEngine;
 import org.chocosolver.solver.explanations.RuleStore;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 
 import java.util.*;
@@ -115,6 +117,36 @@ public class PropNogoods extends Propagator<IntVar> {
      */
     private boolean initialized = false;
 
+    /**
+     * Channel to share learnt no-goods with other models, <i>null</i> if no-goods are not shared
+     */
+    private NogoodExchange exchange;
+
+    /**
+     * Identifier of this propagator in {@link #exchange}
+     */
+    private int exchangeId;
+
+    /**
+     * Position of the next no-good to import from {@link #exchange}
+     */
+    private long exchangeCursor;
+
+    /**
+     * Integer variables of the model, indexed by their id, lazily initialized on first import
+     */
+    private TIntObjectHashMap<IntVar> id2var;
+
+    /**
+     * Number of no-goods exported to, and imported from, {@link #exchange}
+     */
+    private long nbExported, nbImported;
+
+    /**
+     * Metadata of the learnt no-goods, to reduce the learnt no-goods database
+     */
+    private LearntClauseDatabase learnts_;
+
     /**
      * Create a (unique) propagator for no-goods recording and propagation.
      *
@@ -139,6 +171,7 @@ public class PropNogoods extends Propagator<IntVar> {
         test_eq = new BitSet();
         fp = new ArrayDeque<>();
         add_var = new ArrayList<>(16);
+        learnts_ = new LearntClauseDatabase(sat_, v -> lit2pos[v]);
     }
 
     @Override
@@ -147,6 +180,13 @@ public class PropNogoods extends Propagator<IntVar> {
         if (!sat_.ok_) fails();
         fp.clear();
         sat_.cancelUntil(0); // to deal with learnt clauses, only called on coarse grain propagation
+        if (model.getSolver().getExplainer() == NoExplanationEngine.SINGLETON) {
+            // deductions are about to be recomputed, learnt no-goods can safely be removed
+            learnts_.reduce();
+        } else {
+            // deductions still on the trail may have to be explained, their reasons are kept
+            learnts_.reduce(this::isReason);
+        }
         storeEarlyDeductions();
         applyEarlyDeductions();
         for (int i = 0; i < vars.length; ++i) {
@@ -396,6 +436,7 @@ public class PropNogoods extends Propagator<IntVar> {
             }
             int lit = makeLiteral(index, sign);
             if (!sat_.propagateOneLiteral(lit)) {
+                learnts_.onConflict();
                 // force failure by removing the last value: flip the sign
                 // explanations require doing the failure
                 doReduce(negated(lit));
@@ -526,12 +567,27 @@ public class PropNogoods extends Propagator<IntVar> {
     }
 
     /**
-     * Add learnt clause to no-goods store
+     * Add learnt clause to no-goods store.
+     * Such a clause is never removed when the learnt clauses database is reduced,
+     * see {@link #addLearnt(boolean, int...)} to add a clause which can be removed.
      *
      * @param lits clause
      */
     public void addLearnt(int... lits) {
-        sat_.learnClause(lits);
+        addLearnt(true, lits);
+    }
+
+    /**
+     * Add learnt clause to no-goods store.
+     *
+     * @param core set to <tt>true</tt> if the clause is required for the correctness of the resolution
+     *             (for instance, to forbid a solution), then it is never removed from the store,
+     *             set to <tt>false</tt> if the clause is implied by the problem (for instance, explained from a conflict)
+     * @param lits clause
+     * @see LearntClauseDatabase
+     */
+    public void addLearnt(boolean core, int... lits) {
+        learnts_.learn(core, lits);
         // early deductions of learnt clause may lead to incorrect behavior on backtrack
         // since early deduction is not backtrackable.
         forcePropagationOnBacktrack(); // issue#327
@@ -551,7 +607,10 @@ public class PropNogoods extends Propagator<IntVar> {
                         s -= test_eq.get(prev._g(i)) ? 1 : 0;
                     }
                     if (s == 0) { // then last dominates prev
-                        sat_.detachLearnt(c);
+                        if (learnts_.isCore(c)) {
+                            learnts_.protect(sat_.learnts.size() - 1);
+                        }
+                        learnts_.detach(c);
                     }
                 }
             }
@@ -582,6 +641,141 @@ public class PropNogoods extends Propagator<IntVar> {
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Share learnt no-goods through <code>exchange</code>.
+     * Once called, {@link #exportLearnt(int...)} publishes no-goods in <code>exchange</code>
+     * and {@link #importNogoods()} adds no-goods published by others.
+     * Only no-goods published after this call are imported.
+     * <p>
+     * All models sharing the same channel should declare the same variables in the same order,
+     * since literals are mapped from a model to another one by variable ids.
+     *
+     * @param exchange the channel to share no-goods through
+     * @param id       identifier of this in <code>exchange</code>, should be unique among the sharing propagators
+     */
+    public void shareNogoods(NogoodExchange exchange, int id) {
+        this.exchange = exchange;
+        this.exchangeId = id;
+        this.exchangeCursor = exchange.head();
+    }
+
+    /**
+     * Publish a learnt no-good in the channel declared with {@link #shareNogoods(NogoodExchange, int)}, if any,
+     * and if the no-good is short enough.
+     *
+     * @param lits a learnt no-good, whose literals have been created by this propagator
+     * @return <tt>true</tt> if the no-good has been published
+     */
+    public boolean exportLearnt(int... lits) {
+        if (exchange == null) {
+            return false;
+        }
+        int n = lits.length;
+        int[] ids = new int[n];
+        long[] values = new long[n];
+        boolean[] signs = new boolean[n];
+        int nbVars = 0;
+        for (int i = 0; i < n; i++) {
+            int var = var(lits[i]);
+            int pos = lit2pos[var];
+            ids[i] = (initialized ? vars[pos] : add_var.get(pos)).getId();
+            values[i] = lit2val[var];
+            signs[i] = sign(lits[i]);
+            int j = 0;
+            while (j < i && ids[j] != ids[i]) {
+                j++;
+            }
+            if (j == i && ++nbVars > exchange.getMaxSize()) {
+                return false;
+            }
+        }
+        exchange.publish(exchangeId, ids, values, signs);
+        nbExported++;
+        return true;
+    }
+
+    /**
+     * Add, as learnt no-goods, the no-goods published by other models
+     * in the channel declared with {@link #shareNogoods(NogoodExchange, int)}, if any.
+     * No-goods involving a variable unknown in this model are ignored.
+     * <p>
+     * Like any learnt no-good, the imported ones are taken into account on backtrack,
+     * so this method is expected to be called on restart.
+     *
+     * @return the number of imported no-goods
+     */
+    public int importNogoods() {
+        if (exchange == null) {
+            return 0;
+        }
+        if (id2var == null) {
+            id2var = new TIntObjectHashMap<>();
+            for (Variable v : model.getVars()) {
+                if ((v.getTypeAndKind() & Variable.INT) != 0) {
+                    id2var.put(v.getId(), (IntVar) v);
+                }
+            }
+        }
+        int cnt = 0;
+        long head = exchange.head();
+        long seq = exchange.oldest(exchangeCursor);
+        for (; seq < head; seq++) {
+            NogoodExchange.Nogood ng = exchange.read(seq);
+            if (ng == null || ng.seq < seq) {
+                // not fully published yet, try again on next call
+                break;
+            }
+            if (ng.seq > seq || ng.origin == exchangeId) {
+                // already overwritten or exported by this
+                continue;
+            }
+            int[] lits = new int[ng.ids.length];
+            int i = 0;
+            for (; i < lits.length; i++) {
+                IntVar ivar = id2var.get(ng.ids[i]);
+                if (ivar == null) {
+                    break;
+                }
+                lits[i] = Literal(ivar, ivalue(ng.values[i]), iseq(ng.values[i]));
+                if (!ng.signs[i]) {
+                    lits[i] = negated(lits[i]);
+                }
+            }
+            if (i == lits.length) {
+                addLearnt(false, lits);
+                cnt++;
+            }
+        }
+        exchangeCursor = seq;
+        nbImported += cnt;
+        return cnt;
+    }
+
+    /**
+     * @return the number of no-goods published in the channel declared with {@link #shareNogoods(NogoodExchange, int)}
+     */
+    public long getNbExportedNogoods() {
+        return nbExported;
+    }
+
+    /**
+     * @return the metadata of the learnt no-goods, to tune or monitor the reduction of the learnt no-goods database
+     */
+    public LearntClauseDatabase getLearntDatabase() {
+        return learnts_;
+    }
+
+    /**
+     * @return the number of no-goods imported from the channel declared with {@link #shareNogoods(NogoodExchange, int)}
+     */
+    public long getNbImportedNogoods() {
+        return nbImported;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
     @Override
     public boolean why(RuleStore ruleStore, IntVar ivar, IEventType evt, int ivalue) {
         if (inClauses == null) {
@@ -593,50 +787,55 @@ public class PropNogoods extends Propagator<IntVar> {
         // 2. the propagator is the cause of an instantiation
         // but the clauses and implications may be lost (cf. propagate)
 
-        // get the index of the variable in the sat solver
-        int var = vv2lit[ivar.getId()].get(ivalue);
-        boolean new_value = true;
-        if (!ivar.contains(ivalue)) {
-            new_value = false;
+        // get the indices of the variables in the sat solver:
+        // a value removal is due to "= value" literal, any other event may be due to any literal of ivar
+        TLongIntHashMap map = vv2lit[ivar.getId()];
+        int[] svars;
+        if (evt == IntEventType.REMOVE && map.containsKey(ivalue)) {
+            svars = new int[]{map.get(ivalue)};
+        } else {
+            svars = map.values();
         }
-        int lit = makeLiteral(var, new_value);
-        int neg = negated(lit);
-        // A. implications:
-        // simply iterate over implies_ and add the instantiated variables
-        TIntList implies = sat_.implies_.get(lit);
-        if (implies != null) {
-            for (int i = implies.size() - 1; i >= 0; i--) {
-                int l = implies.get(i);
-                newrules |= _why(l, ruleStore);
+        for (int var : svars) {
+            int lit = makeLiteral(var, true);
+            int neg = negated(lit);
+            // A. implications:
+            // simply iterate over implies_ and add the instantiated variables
+            TIntList implies = sat_.implies_.get(lit);
+            if (implies != null) {
+                for (int i = implies.size() - 1; i >= 0; i--) {
+                    int l = implies.get(i);
+                    newrules |= _why(l, ruleStore);
+                }
             }
-        }
-        implies = sat_.implies_.get(neg);
-        if (implies != null) {
-            for (int i = implies.size() - 1; i >= 0; i--) {
-                int l = implies.get(i);
-                newrules |= _why(l, ruleStore);
+            implies = sat_.implies_.get(neg);
+            if (implies != null) {
+                for (int i = implies.size() - 1; i >= 0; i--) {
+                    int l = implies.get(i);
+                    newrules |= _why(l, ruleStore);
+                }
             }
-        }
-        // B. clauses:
-        // We need to find the fully instantiated clauses where bvar appears
-        ArrayList<SatSolver.Clause> mClauses = inClauses.get(lit);
-        if (mClauses != null) {
-            for (int i = mClauses.size() - 1; i >= 0; i--) {
-                newrules |= _why(mClauses.get(i), ruleStore);
+            // B. clauses:
+            // We need to find the fully instantiated clauses where bvar appears
+            ArrayList<SatSolver.Clause> mClauses = inClauses.get(lit);
+            if (mClauses != null) {
+                for (int i = mClauses.size() - 1; i >= 0; i--) {
+                    newrules |= _why(mClauses.get(i), ruleStore);
+                }
             }
-        }
-        mClauses = inClauses.get(neg);
-        if (mClauses != null) {
-            for (int i = mClauses.size() - 1; i >= 0; i--) {
-                newrules |= _why(mClauses.get(i), ruleStore);
+            mClauses = inClauses.get(neg);
+            if (mClauses != null) {
+                for (int i = mClauses.size() - 1; i >= 0; i--) {
+                    newrules |= _why(mClauses.get(i), ruleStore);
+                }
+            }
+            // C. learnt clauses:
+            // We need to find the fully instantiated clauses where bvar appears
+            // we cannot rely on watches_ because is not backtrackable
+            // So, we iterate over clauses where the two first literal are valued AND which contains bvar
+            for (int k = sat_.nLearnt() - 1; k >= 0; k--) {
+                newrules |= _why(neg, lit, sat_.learnts.get(k), ruleStore);
             }
-        }
-        // C. learnt clauses:
-        // We need to find the fully instantiated clauses where bvar appears
-        // we cannot rely on watches_ because is not backtrackable
-        // So, we iterate over clauses where the two first literal are valued AND which contains bvar
-        for (int k = sat_.nLearnt() - 1; k >= 0; k--) {
-            newrules |= _why(neg, lit, sat_.learnts.get(k), ruleStore);
         }
         return newrules;
     }
@@ -712,6 +911,19 @@ public class PropNogoods extends Propagator<IntVar> {
         return false;
     }
 
+    /**
+     * @param cl a clause
+     * @return <i>true</i> if all literals of <i>cl</i> are known, that is, if it may explain a deduction
+     */
+    private boolean isReason(SatSolver.Clause cl) {
+        for (int d = cl.size() - 1; d >= 0; d--) {
+            if (!litIsKnown(cl._g(d))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean litIsKnown(int l) {
         int _var = var(l);
         IntVar avar = vars[lit2pos[_var]];
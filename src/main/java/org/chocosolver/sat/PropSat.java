@@ -17,6 +17,7 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.NoExplanationEngine;
 import org.chocosolver.solver.explanations.RuleStore;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -72,6 +73,11 @@ public class PropSat extends Propagator<BoolVar> {
      */
     private boolean initialized = false;
 
+    /**
+     * Metadata of the learnt clauses, to reduce the learnt clauses database
+     */
+    private LearntClauseDatabase learnts_;
+
     /**
      * Create a (unique) propagator for clauses recording and propagation.
      *
@@ -87,6 +93,7 @@ public class PropSat extends Propagator<BoolVar> {
         early_deductions_ = new TIntArrayList();
         sat_trail_ = model.getEnvironment().makeInt();
         add_var = new ArrayList<>(16);
+        learnts_ = new LearntClauseDatabase(sat_, v -> v);
     }
 
     @Override
@@ -99,6 +106,9 @@ public class PropSat extends Propagator<BoolVar> {
         initialize();
         if (!sat_.ok_) fails();
         sat_.cancelUntil(0);
+        if (model.getSolver().getExplainer() == NoExplanationEngine.SINGLETON) {
+            learnts_.reduce();
+        }
         storeEarlyDeductions();
         applyEarlyDeductions();
         for (int i = 0; i < vars.length; ++i) {
@@ -172,6 +182,13 @@ public class PropSat extends Propagator<BoolVar> {
         return sat_;
     }
 
+    /**
+     * @return the metadata of the learnt clauses, to tune or monitor the reduction of the learnt clauses database
+     */
+    public LearntClauseDatabase getLearntDatabase() {
+        return learnts_;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -246,6 +263,9 @@ public class PropSat extends Propagator<BoolVar> {
             boolean sign = vars[index].getValue() != 0;
             int lit = SatSolver.makeLiteral(var, sign);
             boolean fail = !sat_.propagateOneLiteral(lit);
+            if (fail) {
+                learnts_.onConflict();
+            }
             // Remark: explanations require to instantiated variables even if fail is set to true
             sat_trail_.set(sat_.trailMarker());
             for (int i = 0; i < sat_.touched_variables_.size(); ++i) {
@@ -288,12 +308,27 @@ public class PropSat extends Propagator<BoolVar> {
     }
 
     /**
-     * Add learnt clause to SAT solver
+     * Add learnt clause to SAT solver.
+     * Such a clause is never removed when the learnt clauses database is reduced,
+     * see {@link #addLearnt(boolean, int...)} to add a clause which can be removed.
      *
      * @param lits clause
      */
     public void addLearnt(int... lits) {
-        sat_.learnClause(lits);
+        addLearnt(true, lits);
+    }
+
+    /**
+     * Add learnt clause to SAT solver.
+     *
+     * @param core set to <tt>true</tt> if the clause is required for the correctness of the resolution
+     *             (for instance, to forbid a solution), then it is never removed,
+     *             set to <tt>false</tt> if the clause is implied by the problem (for instance, explained from a conflict)
+     * @param lits clause
+     * @see LearntClauseDatabase
+     */
+    public void addLearnt(boolean core, int... lits) {
+        learnts_.learn(core, lits);
         forcePropagationOnBacktrack(); // issue#327
         // early deductions of learnt clause may lead to incorrect behavior on backtrack
         // since early deduction is not backtrackable.
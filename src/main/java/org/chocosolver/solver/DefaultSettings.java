@@ -81,6 +81,16 @@ public class DefaultSettings implements Settings {
 
     private byte hybridEngine = 0b00;
 
+    private boolean shrinkTrailsOnRestart = false;
+
+    private int recomputationDistance = 8;
+
+    private boolean recomputationAdaptive = true;
+
+    private boolean compactEventStore = true;
+
+    private long solutionStoreBudget = Long.MAX_VALUE;
+
     private Function<Model, Solver> initSolver = Solver::new;
 
 
@@ -331,4 +341,59 @@ public class DefaultSettings implements Settings {
         this.hybridEngine = hybrid;
         return this;
     }
+
+    @Override
+    public boolean shrinkTrailsOnRestart() {
+        return shrinkTrailsOnRestart;
+    }
+
+    @Override
+    public DefaultSettings setShrinkTrailsOnRestart(boolean shrink) {
+        this.shrinkTrailsOnRestart = shrink;
+        return this;
+    }
+
+    @Override
+    public int getRecomputationDistance() {
+        return recomputationDistance;
+    }
+
+    @Override
+    public DefaultSettings setRecomputationDistance(int distance) {
+        this.recomputationDistance = distance;
+        return this;
+    }
+
+    @Override
+    public boolean isRecomputationAdaptive() {
+        return recomputationAdaptive;
+    }
+
+    @Override
+    public DefaultSettings setRecomputationAdaptive(boolean adaptive) {
+        this.recomputationAdaptive = adaptive;
+        return this;
+    }
+
+    @Override
+    public boolean enableCompactEventStore() {
+        return compactEventStore;
+    }
+
+    @Override
+    public DefaultSettings setEnableCompactEventStore(boolean compact) {
+        this.compactEventStore = compact;
+        return this;
+    }
+
+    @Override
+    public long getSolutionStoreBudget() {
+        return solutionStoreBudget;
+    }
+
+    @Override
+    public DefaultSettings setSolutionStoreBudget(long bytes) {
+        this.solutionStoreBudget = bytes;
+        return this;
+    }
 }
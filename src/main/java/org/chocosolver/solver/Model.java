@@ -25,15 +25,31 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.objective.IObjectiveManager;
 import org.chocosolver.solver.objective.ObjectiveFactory;
-import org.chocosolver.solver.propagation.PropagationEngine;
+import org.chocosolver.solver.propagation.IPropagationEngine;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.Variable;
-
+import org.chocosolver.solver.variables.impl.BitsetArrayIntVarImpl;
+import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
+import org.chocosolver.solver.variables.impl.BoolVarImpl;
+import org.chocosolver.solver.variables.impl.FixedBoolVarImpl;
+import org.chocosolver.solver.variables.impl.FixedIntVarImpl;
+import org.chocosolver.solver.variables.impl.FixedRealVarImpl;
+import org.chocosolver.solver.variables.impl.IntervalIntVarImpl;
+import org.chocosolver.solver.variables.impl.RealVarImpl;
+import org.chocosolver.solver.variables.impl.SetVarImpl;
+import org.chocosolver.solver.variables.view.BoolNotView;
+import org.chocosolver.solver.variables.view.MinusView;
+import org.chocosolver.solver.variables.view.OffsetView;
+import org.chocosolver.solver.variables.view.RealView;
+import org.chocosolver.solver.variables.view.ScaleView;
+
+import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -831,7 +847,7 @@ public class Model implements IModel {
      * @throws SolverException if a constraint is posted twice, posted although reified or reified twice.
      */
     private void _post(boolean permanent, Constraint... cs) throws SolverException {
-        PropagationEngine engine = getSolver().getEngine();
+        IPropagationEngine engine = getSolver().getEngine();
         // check if the resolution already started -> if true, dynamic addition
         boolean dynAdd = engine.isInitialized();
         // then prepare storage of the constraints
@@ -907,7 +923,7 @@ public class Model implements IModel {
                 }
                 cstrs[cIdx] = null;
                 // 3. check if the resolution already started -> if true, dynamic deletion
-                PropagationEngine engine = getSolver().getEngine();
+                IPropagationEngine engine = getSolver().getEngine();
                 if (engine.isInitialized()) {
                     engine.dynamicDeletion(c.getPropagators());
                 }
@@ -919,6 +935,195 @@ public class Model implements IModel {
         }
     }
 
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    //////////////////////////////////////////// RELATED TO COPY ///////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a copy of <code>this</code> model, based on the default (trailing) backtracking environment.
+     *
+     * @return a copy of this model
+     * @throws SolverException if the resolution has started or if a variable, a constraint or a hook cannot be copied
+     * @see #copy(IEnvironment, Map)
+     */
+    public Model copy() {
+        return copy(new EnvironmentBuilder().fromFlat().build(), null);
+    }
+
+    /**
+     * Creates a copy of <code>this</code> model, see {@link #copy(IEnvironment, Map)}.
+     *
+     * @param mapping if not null, filled with the copy of each variable of this model
+     * @return a copy of this model
+     * @throws SolverException if the resolution has started or if a variable, a constraint or a hook cannot be copied
+     */
+    public Model copy(Map<Variable, Variable> mapping) {
+        return copy(new EnvironmentBuilder().fromFlat().build(), mapping);
+    }
+
+    /**
+     * Creates a copy of <code>this</code> model in <i>environment</i>.
+     * <p>
+     * The variables (including views and cached constants) are rebuilt on their current domain,
+     * in the same order than in <code>this</code> and with the same ids,
+     * so <code>copy.getVar(i)</code> is the copy of <code>this.getVar(i)</code>.
+     * Then, the posted constraints are rebuilt on the copied variables (see {@link Constraint#copy(Map)}) and posted,
+     * and the objective is declared.
+     * Hooks storing variables, constraints, immutable values or arrays of them are copied too.
+     * The settings are shared with the copy.
+     * The resolution part (search strategy, restarts, learning, search monitors and stop criteria) is not copied:
+     * it has to be declared on the copy, thanks to <i>mapping</i>.
+     * </p>
+     * <p>
+     * This method can only be called before the resolution starts, or after a call to {@link Solver#reset()}.
+     * A {@link SolverException} is thrown when a variable, a constraint or a hook is not known to be copyable,
+     * for instance, a constraint whose propagators do not implement {@link Propagator#copy(Variable[])}.
+     * </p>
+     *
+     * @param environment backtracking environment of the copy
+     * @param mapping     if not null, filled with the copy of each variable of this model
+     * @return a copy of this model
+     * @throws SolverException if the resolution has started or if a variable, a constraint or a hook cannot be copied
+     */
+    public Model copy(IEnvironment environment, Map<Variable, Variable> mapping) {
+        if (solver.action != Solver.Action.initialize) {
+            throw new SolverException("A model cannot be copied while its resolution is in progress. Call solver.reset() first.");
+        }
+        if (mapping == null) {
+            mapping = new HashMap<>();
+        }
+        Model model = new Model(environment, name, settings);
+        model.precision = precision;
+        for (int i = 0; i < vIdx; i++) {
+            // the copy gets the id of the original variable
+            model.id = vars[i].getId();
+            Variable v = copyOf(vars[i], model, mapping);
+            if (v.getId() != vars[i].getId()) {
+                throw new SolverException(vars[i].getName() + " cannot be copied");
+            }
+            mapping.put(vars[i], v);
+            if (vars[i] instanceof IntVar && vars[i].isInstantiated()
+                    && cachedConstants.get(((IntVar) vars[i]).getValue()) == vars[i]) {
+                model.cachedConstants.put(((IntVar) v).getValue(), (IntVar) v);
+            }
+        }
+        model.id = Math.max(model.id, id);
+        model.nameId = nameId;
+        IdentityHashMap<Constraint, Constraint> cmapping = new IdentityHashMap<>();
+        for (int i = 0; i < cIdx; i++) {
+            Constraint c = cstrs[i].copy(mapping);
+            c.setName(cstrs[i].getName());
+            cmapping.put(cstrs[i], c);
+            model.post(c);
+        }
+        if (objective != null) {
+            model.setObjective(policy == ResolutionPolicy.MAXIMIZE, mapping.get(objective));
+        }
+        for (Map.Entry<String, Object> hook : hooks.entrySet()) {
+            // hooks maintained by the copy itself, like the set of declared constraints, are kept
+            if (!model.hooks.containsKey(hook.getKey())) {
+                model.hooks.put(hook.getKey(), copyOf(hook.getKey(), hook.getValue(), mapping, cmapping));
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Rebuilds <i>var</i> in <i>model</i>, on its current domain.
+     * The variables <i>var</i> depends on (for views) should have been copied already.
+     */
+    private static Variable copyOf(Variable var, Model model, Map<Variable, Variable> mapping) {
+        String name = var.getName();
+        Class<?> clazz = var.getClass();
+        if (clazz == IntervalIntVarImpl.class) {
+            IntVar v = (IntVar) var;
+            return new IntervalIntVarImpl(name, v.getLB(), v.getUB(), model);
+        } else if (clazz == BitsetIntVarImpl.class) {
+            return new BitsetIntVarImpl(name, valuesOf((IntVar) var), model);
+        } else if (clazz == BitsetArrayIntVarImpl.class) {
+            return new BitsetArrayIntVarImpl(name, valuesOf((IntVar) var), model);
+        } else if (clazz == BoolVarImpl.class) {
+            BoolVar b = new BoolVarImpl(name, model);
+            if (var.isInstantiated()) {
+                try {
+                    b.instantiateTo(((BoolVar) var).getValue(), Cause.Null);
+                } catch (ContradictionException e) {
+                    throw new SolverException(name + " cannot be copied");
+                }
+            }
+            return b;
+        } else if (clazz == FixedBoolVarImpl.class) {
+            return new FixedBoolVarImpl(name, ((BoolVar) var).getValue(), model);
+        } else if (clazz == FixedIntVarImpl.class) {
+            return new FixedIntVarImpl(name, ((IntVar) var).getValue(), model);
+        } else if (clazz == OffsetView.class) {
+            OffsetView v = (OffsetView) var;
+            return new OffsetView((IntVar) mapping.get(v.getVariable()), v.cste);
+        } else if (clazz == ScaleView.class) {
+            ScaleView v = (ScaleView) var;
+            return new ScaleView((IntVar) mapping.get(v.getVariable()), v.cste);
+        } else if (clazz == MinusView.class) {
+            return new MinusView((IntVar) mapping.get(((MinusView) var).getVariable()));
+        } else if (clazz == BoolNotView.class) {
+            BoolVar b = (BoolVar) ((BoolNotView) var).getVariable();
+            BoolVar cb = (BoolVar) mapping.get(b);
+            BoolNotView not = new BoolNotView(cb);
+            if (b.hasNot() && b.not() == var) {
+                cb._setNot(not);
+            }
+            return not;
+        } else if (clazz == RealVarImpl.class) {
+            RealVar v = (RealVar) var;
+            return new RealVarImpl(name, v.getLB(), v.getUB(), v.getPrecision(), model);
+        } else if (clazz == FixedRealVarImpl.class) {
+            return new FixedRealVarImpl(name, ((RealVar) var).getLB(), model);
+        } else if (clazz == RealView.class) {
+            RealView v = (RealView) var;
+            return new RealView((IntVar) mapping.get(v.getVariable()), v.getPrecision());
+        } else if (clazz == SetVarImpl.class) {
+            SetVar v = (SetVar) var;
+            return new SetVarImpl(name, v.getLB().toArray(), v.getLB().getSetType(),
+                    v.getUB().toArray(), v.getUB().getSetType(), model);
+        }
+        throw new SolverException(name + " (" + clazz.getSimpleName() + ") cannot be copied");
+    }
+
+    private static int[] valuesOf(IntVar var) {
+        int[] values = new int[var.getDomainSize()];
+        int k = 0;
+        for (int v = var.getLB(); v <= var.getUB(); v = var.nextValue(v)) {
+            values[k++] = v;
+        }
+        return values;
+    }
+
+    /**
+     * @return the copy of the hook <i>value</i>, named <i>name</i>
+     */
+    private static Object copyOf(String name, Object value, Map<Variable, Variable> mapping,
+                                 IdentityHashMap<Constraint, Constraint> cmapping) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum) {
+            return value;
+        } else if (value instanceof Variable && mapping.containsKey(value)) {
+            return mapping.get(value);
+        } else if (value instanceof Constraint && cmapping.containsKey(value)) {
+            return cmapping.get(value);
+        } else if (value.getClass().isArray()) {
+            int n = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), n);
+            if (value.getClass().getComponentType().isPrimitive()) {
+                System.arraycopy(value, 0, copy, 0, n);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    Array.set(copy, i, copyOf(name, Array.get(value, i), mapping, cmapping));
+                }
+            }
+            return copy;
+        }
+        throw new SolverException("The hook " + name + " cannot be copied");
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     //////////////////////////////////////////// RELATED TO I/O ////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,553 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.SearchState;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.search.strategy.strategy.CubeStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ *     An Embarrassingly Parallel Search (EPS) helper.
+ * </p>
+ * <p>
+ *     Unlike {@link ParallelPortfolio}, which races differently configured copies of a model,
+ *     this class splits the search tree of a problem and dispatches the parts over the models.
+ *     The resolution is made of three steps:
+ *     <ol>
+ *         <li>the root of the search tree is decomposed, on the first model, into many sub-problems, called <i>cubes</i>.
+ *         A cube is a conjunction of decisions over the decision variables, obtained by a breadth-first exploration
+ *         of the top of the search tree where inconsistent nodes are pruned by propagation,</li>
+ *         <li>each model is run in a dedicated thread of a {@link ForkJoinPool} and repeatedly picks a cube
+ *         from a shared queue, until the queue is empty. A cube is explored by forcing its decisions as
+ *         the non-refutable prefix of the {@link org.chocosolver.solver.search.strategy.decision.DecisionPath}
+ *         (see {@link CubeStrategy}), then the declared search strategy takes over,</li>
+ *         <li>when dealing with an optimization problem, the best objective value is shared among the models
+ *         and pulled by each of them before going down a branch.</li>
+ *     </ol>
+ *     About 30 cubes per model are generated by default (see {@link #setCubesPerWorker(int)}),
+ *     so that the load is dynamically balanced among the models.
+ * </p>
+ * <p>
+ *     The models <b>HAVE</b> to be identical, since cubes built on the first model are mapped to the others
+ *     by the position of the variables in their decision variables
+ *     (the variables of the declared search strategy, or all integer variables if none is declared).
+ *     Only integer variables can be decomposed, and the objective, if any, must be an integer variable.
+ *     The search loop of each model must be based on a single {@link org.chocosolver.solver.search.loop.move.Move}.
+ * </p>
+ * <p>
+ *     Each sub-problem is solved from scratch, after a call to {@link Solver#reset()}.
+ *     The stop criteria declared on a model are kept, but they apply to each cube independently.
+ * </p>
+ * <p>
+ *     Example of use.
+ *
+ * <pre>
+ * <code>ParallelEPS eps = new ParallelEPS();
+ * int n = 4; // number of models to use
+ * for (int i = 0; i < n; i++) {
+ *      eps.addModel(modeller());
+ * }
+ * if(eps.solve()){
+ *     Solution s = eps.getBestSolution();
+ * }
+ * </code>
+ * </pre>
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @see "J-C. Régin, M. Rezgui, A. Malapert, Embarrassingly Parallel Search, CP 2013."
+ * @since 4.0.9
+ */
+public class ParallelEPS {
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////       VARIABLES       //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /** Domains of size less or equal to this value are enumerated, others are bisected, during decomposition. */
+    static final int MAX_ENUM = 8;
+
+    /** List of {@link Model}s to be executed in parallel. */
+    private final List<Model> models;
+
+    /** Expected number of cubes per model. */
+    private int cubesPerWorker = 30;
+
+    /** Number of cubes generated by the last decomposition. */
+    private int nbCubes;
+
+    /** Stores whether or not solve() method has been called */
+    private boolean isSolved = false;
+
+    /** Set to <tt>true</tt> when all cubes have been entirely explored */
+    private volatile boolean complete;
+
+    /** Queue of cubes to explore */
+    private final ConcurrentLinkedQueue<Cube> cubes = new ConcurrentLinkedQueue<>();
+
+    /** Set to <tt>true</tt> to stop all models */
+    private final AtomicBoolean stopAll = new AtomicBoolean(false);
+
+    /** Best objective value found so far, shared among models */
+    private final AtomicInteger bestBound = new AtomicInteger();
+
+    /** Best solution found so far */
+    private Solution bestSolution;
+
+    /** Index of the model which found {@link #bestSolution} */
+    private int finder = -1;
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////      CONSTRUCTOR      //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a new ParallelEPS.
+     * This class stores the models to be executed in parallel in a {@link ArrayList} initially empty.
+     */
+    public ParallelEPS() {
+        this.models = new ArrayList<>();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////          API          //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds a model to the list of models to run in parallel.
+     * All models should be populated identically.
+     * @param model a model to add
+     */
+    public void addModel(Model model) {
+        this.models.add(model);
+    }
+
+    /**
+     * Set the expected number of cubes to generate per model.
+     * The decomposition stops as soon as <i>cpw * nbModels</i> cubes are generated,
+     * or no more decomposition is possible.
+     * @param cpw number of cubes per model (default is 30)
+     */
+    public void setCubesPerWorker(int cpw) {
+        if (cpw < 1) {
+            throw new SolverException("The number of cubes per worker should be positive.");
+        }
+        this.cubesPerWorker = cpw;
+    }
+
+    /**
+     * Decomposes the problem into cubes and explores them in parallel.
+     * <p>
+     * When dealing with a satisfaction problem, the resolution stops on the first solution found.
+     * When dealing with an optimization problem, all cubes are explored,
+     * and the best solution found is optimal unless a stop criterion has been met.
+     * </p>
+     * <p>
+     * This method can only be called once.
+     * </p>
+     * @return <code>true</code> if and only if at least one solution has been found.
+     * @throws SolverException if no model has been added or if this method has already been called.
+     */
+    public boolean solve() {
+        if (isSolved) {
+            throw new SolverException("ParallelEPS.solve() can only be called once.");
+        }
+        isSolved = true;
+        check();
+        List<Criterion>[] criteria = prepare();
+        decompose();
+        complete = true;
+        ForkJoinPool forkJoinPool = new ForkJoinPool(models.size());
+        try {
+            forkJoinPool.submit(() -> IntStream.range(0, models.size())
+                    .parallel()
+                    .forEach(i -> work(i, criteria[i]))
+            ).get();
+        } catch (InterruptedException e) {
+            complete = false;
+            stopAll.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // a worker crashed: some cubes may not have been explored
+            complete = false;
+            stopAll.set(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SolverException("A worker of ParallelEPS failed: " + cause);
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+        return bestSolution != null;
+    }
+
+    /**
+     * @return the best solution found, or <tt>null</tt> if no solution has been found.
+     * The solution is attached to {@link #getBestModel()}.
+     */
+    public Solution getBestSolution() {
+        return bestSolution;
+    }
+
+    /**
+     * @return the model which found {@link #getBestSolution()}, or <tt>null</tt> if no solution has been found.
+     */
+    public Model getBestModel() {
+        return finder > -1 ? models.get(finder) : null;
+    }
+
+    /**
+     * @return <tt>true</tt> if all cubes have been explored without meeting any stop criterion.
+     * When dealing with an optimization problem, this means that the best solution found is optimal.
+     */
+    public boolean isSearchCompleted() {
+        return complete;
+    }
+
+    /**
+     * @return the number of cubes generated
+     */
+    public int getCubeCount() {
+        return nbCubes;
+    }
+
+    /**
+     * @return the (mutable!) list of models used in this ParallelEPS
+     */
+    public List<Model> getModels() {
+        return models;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ///////////////////////////////////////   INTERNAL METHODS    //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Wraps the search strategy of each model in a {@link CubeStrategy} and plugs monitors.
+     * @return the stop criteria declared on each model
+     */
+    @SuppressWarnings("unchecked")
+    private List<Criterion>[] prepare() {
+        List<Criterion>[] criteria = new List[models.size()];
+        ResolutionPolicy policy = models.get(0).getResolutionPolicy();
+        if (policy == ResolutionPolicy.MAXIMIZE) {
+            bestBound.set(Integer.MIN_VALUE);
+        } else {
+            bestBound.set(Integer.MAX_VALUE);
+        }
+        for (int i = 0; i < models.size(); i++) {
+            Model m = models.get(i);
+            Solver s = m.getSolver();
+            criteria[i] = new ArrayList<>(s.criteria);
+            AbstractStrategy main = s.getSearch();
+            if (main == null) {
+                main = m.getSettings().makeDefaultSearch(m);
+            }
+            s.setSearch(new CubeStrategy<>(main));
+            final int wid = i;
+            s.plugMonitor((IMonitorSolution) () -> onSolution(wid));
+            if (policy != ResolutionPolicy.SATISFACTION) {
+                s.plugMonitor(new IMonitorDownBranch() {
+                    @Override
+                    public void beforeDownBranch(boolean left) {
+                        pullBound(s);
+                    }
+                });
+            }
+        }
+        return criteria;
+    }
+
+    /**
+     * Decomposes the problem into cubes, by breadth-first exploration of the first model.
+     * Each node of the frontier is extended by branching on its decision variable with the smallest domain.
+     * Nodes which fail on propagation are removed.
+     */
+    private void decompose() {
+        Model m = models.get(0);
+        Solver s = m.getSolver();
+        IEnvironment env = m.getEnvironment();
+        IntVar[] dvars = decisionVars(m);
+        int target = cubesPerWorker * models.size();
+        List<Cube> frontier = new ArrayList<>();
+        int world = env.getWorldIndex();
+        env.worldPush();
+        try {
+            s.propagate();
+            frontier.add(new Cube());
+        } catch (ContradictionException e) {
+            s.getEngine().flush();
+        }
+        boolean extended = true;
+        while (extended && frontier.size() > 0 && frontier.size() < target) {
+            extended = false;
+            List<Cube> next = new ArrayList<>();
+            for (Cube c : frontier) {
+                env.worldPush();
+                try {
+                    c.apply(dvars);
+                    s.propagate();
+                    int v = selectVar(dvars);
+                    if (v == -1) {
+                        next.add(c);
+                    } else {
+                        extended = true;
+                        branch(s, dvars, c, v, next);
+                    }
+                } catch (ContradictionException e) {
+                    // cannot happen, since 'c' has already been checked
+                    s.getEngine().flush();
+                }
+                env.worldPop();
+            }
+            frontier = next;
+        }
+        env.worldPopUntil(world);
+        s.reset();
+        nbCubes = frontier.size();
+        cubes.addAll(frontier);
+    }
+
+    /**
+     * Extends the cube <i>c</i> with each branch on <i>dvars[v]</i> and adds the consistent ones in <i>next</i>.
+     */
+    static void branch(Solver s, IntVar[] dvars, Cube c, int v, List<Cube> next) {
+        IntVar var = dvars[v];
+        if (var.getDomainSize() <= MAX_ENUM) {
+            int ub = var.getUB();
+            for (int val = var.getLB(); val <= ub; val = var.nextValue(val)) {
+                tryBranch(s, dvars, c, v, DecisionOperatorFactory.makeIntEq(), val, next);
+            }
+        } else {
+            int mid = var.getLB() + (var.getUB() - var.getLB()) / 2;
+            tryBranch(s, dvars, c, v, DecisionOperatorFactory.makeIntSplit(), mid, next);
+            tryBranch(s, dvars, c, v, DecisionOperatorFactory.makeIntReverseSplit(), mid + 1, next);
+        }
+    }
+
+    private static void tryBranch(Solver s, IntVar[] dvars, Cube c, int v,
+                                  DecisionOperator<IntVar> op, int val, List<Cube> next) {
+        IEnvironment env = s.getEnvironment();
+        env.worldPush();
+        try {
+            op.apply(dvars[v], val, Cause.Null);
+            s.propagate();
+            next.add(c.extend(v, op, val));
+        } catch (ContradictionException e) {
+            s.getEngine().flush();
+        }
+        env.worldPop();
+    }
+
+    /**
+     * @return index of the uninstantiated variable with the smallest domain, or -1 if all are instantiated.
+     */
+    static int selectVar(IntVar[] dvars) {
+        int best = -1;
+        int size = Integer.MAX_VALUE;
+        for (int i = 0; i < dvars.length; i++) {
+            int s = dvars[i].getDomainSize();
+            if (s > 1 && s < size) {
+                best = i;
+                size = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Main loop of a worker: explores cubes until the queue is empty or the resolution is stopped.
+     */
+    private void work(int wid, List<Criterion> criteria) {
+        Model m = models.get(wid);
+        Solver s = m.getSolver();
+        CubeStrategy<?> cs = (CubeStrategy<?>) s.getSearch();
+        IntVar[] dvars = decisionVars(m);
+        boolean sat = m.getResolutionPolicy() == ResolutionPolicy.SATISFACTION;
+        Cube c;
+        while (!stopAll.get() && (c = cubes.poll()) != null) {
+            s.reset();
+            s.addStopCriterion(criteria.toArray(new Criterion[0]));
+            s.addStopCriterion(stopAll::get);
+            c.restrict(cs, dvars);
+            if (sat) {
+                s.solve();
+            } else {
+                pullBound(s);
+                //noinspection StatementWithEmptyBody
+                while (s.solve()) ;
+            }
+            if (!stopAll.get() && s.getSearchState() != SearchState.TERMINATED) {
+                complete = false;
+            }
+        }
+    }
+
+    /**
+     * Updates the objective manager of <i>s</i> with the best bound found so far.
+     */
+    private void pullBound(Solver s) {
+        int b = bestBound.get();
+        if (s.getModel().getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
+            if (b > Integer.MIN_VALUE) {
+                s.getObjectiveManager().updateBestLB(b);
+            }
+        } else if (b < Integer.MAX_VALUE) {
+            s.getObjectiveManager().updateBestUB(b);
+        }
+    }
+
+    /**
+     * Records the solution found by the model <i>wid</i> if it is better than the best one.
+     */
+    private void onSolution(int wid) {
+        Model m = models.get(wid);
+        if (m.getResolutionPolicy() == ResolutionPolicy.SATISFACTION) {
+            if (stopAll.compareAndSet(false, true)) {
+                bestSolution = new Solution(m).record();
+                finder = wid;
+            }
+        } else {
+            boolean max = m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE;
+            int val = ((IntVar) m.getObjective()).getValue();
+            int cur;
+            do {
+                cur = bestBound.get();
+                if (max ? val <= cur : val >= cur) {
+                    return;
+                }
+            } while (!bestBound.compareAndSet(cur, val));
+            synchronized (this) {
+                // another model may have found a better solution in the meantime
+                if (bestBound.get() == val) {
+                    bestSolution = new Solution(m).record();
+                    finder = wid;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the integer decision variables of <i>m</i>
+     */
+    static IntVar[] decisionVars(Model m) {
+        AbstractStrategy<?> strategy = m.getSolver().getSearch();
+        if (strategy instanceof CubeStrategy) {
+            strategy = ((CubeStrategy<?>) strategy).getMainStrategy();
+        }
+        if (strategy != null) {
+            IntVar[] ivars = Arrays.stream(strategy.getVariables())
+                    .filter(v -> (v.getTypeAndKind() & Variable.INT) != 0)
+                    .toArray(IntVar[]::new);
+            if (ivars.length > 0) {
+                return ivars;
+            }
+        }
+        return m.retrieveIntVars(true);
+    }
+
+    private void check() {
+        if (models.size() == 0) {
+            throw new SolverException("No model found in the ParallelEPS.");
+        }
+        if (models.get(0).getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+            Variable objective = models.get(0).getObjective();
+            if (objective == null) {
+                throw new UnsupportedOperationException("No objective has been defined");
+            }
+            if ((objective.getTypeAndKind() & Variable.INT) == 0) {
+                throw new UnsupportedOperationException("ParallelEPS only supports integer objective");
+            }
+        }
+        for (Model m : models) {
+            if (m.getSolver().getMove().getChildMoves().size() > 1) {
+                throw new UnsupportedOperationException("ParallelEPS does not support sequential Moves");
+            }
+        }
+    }
+
+    /**
+     * A cube, that is, a conjunction of decisions over decision variables, referenced by their position.
+     */
+    static final class Cube {
+
+        private final int[] vars;
+        private final DecisionOperator<IntVar>[] ops;
+        private final int[] vals;
+
+        @SuppressWarnings("unchecked")
+        Cube() {
+            this(new int[0], new DecisionOperator[0], new int[0]);
+        }
+
+        private Cube(int[] vars, DecisionOperator<IntVar>[] ops, int[] vals) {
+            this.vars = vars;
+            this.ops = ops;
+            this.vals = vals;
+        }
+
+        /**
+         * @return a new cube made of the decisions of this one plus <i>op(v, val)</i>
+         */
+        Cube extend(int v, DecisionOperator<IntVar> op, int val) {
+            int n = vars.length;
+            Cube c = new Cube(Arrays.copyOf(vars, n + 1), Arrays.copyOf(ops, n + 1), Arrays.copyOf(vals, n + 1));
+            c.vars[n] = v;
+            c.ops[n] = op;
+            c.vals[n] = val;
+            return c;
+        }
+
+        /**
+         * Applies the decisions of this cube
+         */
+        void apply(IntVar[] dvars) throws ContradictionException {
+            for (int i = 0; i < vars.length; i++) {
+                ops[i].apply(dvars[vars[i]], vals[i], Cause.Null);
+            }
+        }
+
+        /**
+         * Restricts the search of <i>cs</i> to this cube
+         */
+        @SuppressWarnings("unchecked")
+        void restrict(CubeStrategy<?> cs, IntVar[] dvars) {
+            IntVar[] cvars = new IntVar[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                cvars[i] = dvars[vars[i]];
+            }
+            cs.setCube(cvars, ops, vals);
+        }
+    }
+}
@@ -8,12 +8,18 @@
  */
 package org.chocosolver.solver;
 
+import org.chocosolver.sat.NogoodExchange;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.lex.PropLexInt;
+import org.chocosolver.solver.constraints.nary.nogood.NogoodConstraint;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.loop.lns.INeighborFactory;
+import org.chocosolver.solver.objective.SharedBound;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.loop.monitors.IMonitorUpBranch;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.search.strategy.selectors.values.IntDomainBest;
 import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
@@ -31,6 +37,7 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 import static org.chocosolver.solver.search.strategy.Search.lastConflict;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
@@ -61,8 +68,12 @@ import static org.chocosolver.solver.search.strategy.Search.setVarSearch;
  * <p>
  *     The resolution process is synchronized. As soon as one model ends (naturally or by hitting a limit)
  *     the other ones are eagerly stopped.
- *     Moreover, when dealing with an optimization problem, cut on the objective variable's value is propagated
- *     to all models on solution.
+ *     Moreover, when dealing with an optimization problem, the best objective value found so far is stored in
+ *     a lock-free {@link SharedBound} which each model polls during search to update its own cut.
+ *     Integer and real objectives are supported, as well as lexicographic objectives
+ *     (see {@link #addModel(Model, boolean, IntVar...)}).
+ *     Models which record no-goods from restarts can also share their short no-goods, when they declare the same variables
+ *     (see {@link #setNogoodExchange(NogoodExchange)}).
  *     It is essential to eagerly declare the objective variable(s) with {@link Model#setObjective(boolean, Variable)}.
  *
  * </p>
@@ -115,11 +126,23 @@ public class ParallelPortfolio {
     /** Stores whether or not prepare() method has been called */
     private boolean isPrepared = false;
 
-    private AtomicBoolean solverTerminated = new AtomicBoolean(false);
-    private AtomicBoolean solutionFound = new AtomicBoolean(false);
+    private final AtomicBoolean solverTerminated = new AtomicBoolean(false);
+    private final AtomicBoolean solutionFound = new AtomicBoolean(false);
 
     /** Point to (one of) the solver(s) which found a solution */
-    private Model finder;
+    private volatile Model finder;
+
+    /** Best objective value(s) found so far by any model, <i>null</i> when dealing with a satisfaction problem */
+    private SharedBound sharedBound;
+
+    /** Objectives to optimize lexicographically, for each model, <i>null</i> if none */
+    private final List<IntVar[]> lexObjectives;
+
+    /** Set to <i>true</i> to maximize lexicographic objectives, to <i>false</i> to minimize them */
+    private boolean lexMaximize;
+
+    /** Channel to exchange no-goods between models, null if no-goods are not shared */
+    private NogoodExchange nogoodExchange;
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ///////////////////////////////////////      CONSTRUCTOR      //////////////////////////////////////////////////////
@@ -134,6 +157,7 @@ public class ParallelPortfolio {
      */
     public ParallelPortfolio(boolean searchAutoConf) {
         this.models = new ArrayList<>();
+        this.lexObjectives = new ArrayList<>();
         this.searchAutoConf = searchAutoConf;
     }
 
@@ -172,6 +196,32 @@ public class ParallelPortfolio {
      */
     public void addModel(Model model){
         this.models.add(model);
+        this.lexObjectives.add(null);
+    }
+
+    /**
+     * <p>
+     * Adds a model to the list of models to run in parallel,
+     * whose objective variables are optimized lexicographically
+     * (see {@link org.chocosolver.solver.search.IResolutionHelper#findLexOptimalSolution(IntVar[], boolean, Criterion...)}).
+     * The first objective variable is the most significant one.
+     * </p>
+     * <p>
+     * Either all the models or none of them should be added with this method,
+     * with the same number of objective variables and the same optimization direction.
+     * Moreover, no objective should be declared with {@link Model#setObjective(boolean, Variable)}.
+     * </p>
+     * @param model a model to add
+     * @param maximize set to <i>true</i> to maximize the objective variables, to <i>false</i> to minimize them
+     * @param objectives objective variables of <i>model</i>, ordered by significance
+     */
+    public void addModel(Model model, boolean maximize, IntVar... objectives){
+        if (objectives.length == 0) {
+            throw new SolverException("At least one objective variable is expected");
+        }
+        this.models.add(model);
+        this.lexObjectives.add(objectives.clone());
+        this.lexMaximize = maximize;
     }
 
     /**
@@ -192,10 +242,10 @@ public class ParallelPortfolio {
         ForkJoinPool forkJoinPool = new ForkJoinPool(models.size());
         try {
             forkJoinPool.submit(() -> {
-                models.parallelStream().forEach(m -> {
+                IntStream.range(0, models.size()).parallel().forEach(i -> {
                     if (!getSolverTerminated().get()) {
-                        boolean so = m.getSolver().solve();
-                        if (so && finder == m || !so) {
+                        boolean so = models.get(i).getSolver().solve();
+                        if (so && isFinder(i) || !so) {
                             getSolverTerminated().set(true);
                         }
                     }
@@ -206,16 +256,8 @@ public class ParallelPortfolio {
         }
         forkJoinPool.shutdownNow();
         getSolverTerminated().set(false);// otherwise, solver.isStopCriterionMet() always returns true
-        if(getSolutionFound().get() && models.get(0).getResolutionPolicy()!=ResolutionPolicy.SATISFACTION) {
-            int bestAll = getBestModel().getSolver().getBestSolutionValue().intValue();
-            for (Model m : models) {
-                int mVal = m.getSolver().getBestSolutionValue().intValue();
-                if (m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
-                    assert mVal <= bestAll : mVal + " > " + bestAll;
-                } else if (m.getResolutionPolicy() == ResolutionPolicy.MINIMIZE) {
-                    assert mVal >= bestAll : mVal + " < " + bestAll;
-                }
-            }
+        if(getSolutionFound().get() && sharedBound != null) {
+            finder = models.get(sharedBound.get().getOrigin());
         }
         return getSolutionFound().get();
     }
@@ -239,6 +281,46 @@ public class ParallelPortfolio {
         return finder;
     }
 
+    /**
+     * <p>
+     * Declare the channel used to share no-goods between models, or <i>null</i> to disable sharing.
+     * By default, no-goods are not shared.
+     * </p>
+     * <p>
+     * Only models which record no-goods from restarts take part in the exchange:
+     * each of them exports its short learnt no-goods and imports the ones learnt by the other models on restart.
+     * Literals are mapped from one model to another one by variable ids, so all the models must declare
+     * the same variables (same ids, names and initial domains), for instance by building them with the same code
+     * or with {@link Model#copy()}. This is checked on the first call to {@link #solve()}.
+     * </p>
+     * <p>
+     * This method must be called before the first call to {@link #solve()}.
+     * </p>
+     *
+     * @param exchange a no-good exchange channel, or <i>null</i>
+     */
+    public void setNogoodExchange(NogoodExchange exchange) {
+        if (isPrepared) {
+            throw new SolverException("The no-good exchange channel should be declared before the first resolution");
+        }
+        this.nogoodExchange = exchange;
+    }
+
+    /**
+     * @return the channel used to share no-goods between models, or <i>null</i> if no-goods are not shared
+     */
+    public NogoodExchange getNogoodExchange() {
+        return nogoodExchange;
+    }
+
+    /**
+     * @return the best objective value(s) found so far by the models,
+     * or <i>null</i> when dealing with a satisfaction problem or before the first resolution
+     */
+    public SharedBound getSharedBound() {
+        return sharedBound;
+    }
+
     /**
      * @return the (mutable!) list of models used in this ParallelPortfolio
      */
@@ -254,35 +336,124 @@ public class ParallelPortfolio {
     private void prepare(){
         isPrepared = true;
         check();
+        if (lexObjectives.get(0) != null) {
+            sharedBound = new SharedBound(lexMaximize);
+        } else if (models.get(0).getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+            sharedBound = new SharedBound(models.get(0).getResolutionPolicy() == ResolutionPolicy.MAXIMIZE);
+        }
         for(int i=0;i<models.size();i++){
             Solver s = models.get(i).getSolver();
             s.addStopCriterion((Criterion) () -> getSolverTerminated().get());
-            s.plugMonitor((IMonitorSolution) () -> {updateFromSolution(s.getModel());});
+            if (sharedBound == null) {
+                s.plugMonitor((IMonitorSolution) () -> {
+                    finder = s.getModel();
+                    getSolutionFound().set(true);
+                });
+            } else {
+                s.plugMonitor(new BoundSynchronizer(i));
+            }
             if(searchAutoConf){
                 configureModel(i);
             }
+            NogoodConstraint ngc = (NogoodConstraint) models.get(i).getHook(Model.NOGOODS_HOOK_NAME);
+            if(nogoodExchange != null && ngc != null){
+                ngc.getPropNogoods().shareNogoods(nogoodExchange, i);
+            }
         }
     }
 
-    private synchronized void updateFromSolution(Model m){
-        if (m.getResolutionPolicy() == ResolutionPolicy.SATISFACTION) {
-            finder = m;
-            getSolutionFound().set(true);
-        }else{
-            int solverVal = ((IntVar)m.getObjective()).getValue();
-            int bestVal = m.getSolver().getObjectiveManager().getBestSolutionValue().intValue();
-            if(m.getResolutionPolicy()==ResolutionPolicy.MAXIMIZE){
-                assert solverVal<=bestVal:solverVal+">"+bestVal;
-            }else if(m.getResolutionPolicy()==ResolutionPolicy.MINIMIZE){
-                assert solverVal>=bestVal:solverVal+"<"+bestVal;
+    /**
+     * @param i index of a model
+     * @return <i>true</i> if the i^th model is the one which found the current solution
+     */
+    private boolean isFinder(int i) {
+        return sharedBound == null ? finder == models.get(i) : sharedBound.get().getOrigin() == i;
+    }
+
+    /**
+     * Synchronizes a model with {@link #sharedBound}.
+     * On solution, the values of the objectives are submitted.
+     * The shared bound is polled on each node (mono-objective problems) or before each backtrack (lexicographic problems),
+     * so that a model only updates its own bounds, in its own thread.
+     */
+    private final class BoundSynchronizer implements IMonitorSolution, IMonitorDownBranch, IMonitorUpBranch {
+
+        /** Index of the model in {@link #models} */
+        private final int id;
+        /** The model */
+        private final Model model;
+        /** Lexicographic objectives, or null */
+        private final IntVar[] objectives;
+        /** Lexicographic cut, or null */
+        private final PropLexInt plint;
+        /** Last bound applied */
+        private SharedBound.Bound last;
+
+        BoundSynchronizer(int id) {
+            this.id = id;
+            this.model = models.get(id);
+            this.objectives = lexObjectives.get(id);
+            if (objectives != null) {
+                // x < y lexicographically, where y is updated on each new bound
+                IntVar[] mobj = new IntVar[objectives.length];
+                int[] ys = new int[objectives.length];
+                for (int i = 0; i < objectives.length; i++) {
+                    mobj[i] = lexMaximize ? model.intMinusView(objectives[i]) : objectives[i];
+                    ys[i] = mobj[i].getUB() + 1;
+                }
+                plint = new PropLexInt(mobj, ys, true);
+                new Constraint("lex objectives", plint).post();
+            } else {
+                plint = null;
+            }
+        }
+
+        @Override
+        public void onSolution() {
+            Number[] values;
+            if (objectives != null) {
+                values = new Number[objectives.length];
+                for (int i = 0; i < objectives.length; i++) {
+                    values[i] = objectives[i].getValue();
+                }
+            } else {
+                Variable objective = model.getObjective();
+                values = new Number[]{(objective.getTypeAndKind() & Variable.REAL) != 0 ?
+                        ((RealVar) objective).getUB() : ((IntVar) objective).getValue()};
             }
-            if(solverVal == bestVal){
+            if (sharedBound.offer(id, values)) {
                 getSolutionFound().set(true);
-                finder = m;
-                if (m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
-                    models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestLB(bestVal));
-                }else {
-                    models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestUB(bestVal));
+            }
+            pull();
+        }
+
+        @Override
+        public void beforeDownBranch(boolean left) {
+            if (plint == null) {
+                // the cut on a single objective is posted on each propagation
+                pull();
+            }
+        }
+
+        @Override
+        public void beforeUpBranch() {
+            pull();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void pull() {
+            SharedBound.Bound b = sharedBound.get();
+            if (b != last) {
+                last = b;
+                if (plint == null) {
+                    model.getSolver().getObjectiveManager().updateBestSolution(b.getValue(0));
+                } else {
+                    int[] ys = new int[b.size()];
+                    for (int i = 0; i < ys.length; i++) {
+                        ys[i] = lexMaximize ? -b.getValue(i).intValue() : b.getValue(i).intValue();
+                    }
+                    // taken into account on backtrack
+                    plint.updateIntVector(ys);
                 }
             }
         }
@@ -405,7 +576,20 @@ public class ParallelPortfolio {
         if (models.size() == 0) {
             throw new SolverException("No model found in the ParallelPortfolio.");
         }
-        if(models.get(0).getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+        boolean lex = lexObjectives.get(0) != null;
+        for (int i = 1; i < models.size(); i++) {
+            if (lex != (lexObjectives.get(i) != null)
+                    || lex && lexObjectives.get(i).length != lexObjectives.get(0).length) {
+                throw new SolverException("Either all models or none of them should declare the same number of lexicographic objectives");
+            }
+        }
+        if (lex) {
+            for (Model m : models) {
+                if (m.getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+                    throw new SolverException("A model cannot declare both an objective and lexicographic objectives");
+                }
+            }
+        } else if(models.get(0).getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
             Variable objective = models.get(0).getObjective();
             if (objective == null) {
                 throw new UnsupportedOperationException("No objective has been defined");
@@ -419,13 +603,43 @@ public class ParallelPortfolio {
                 }
             }
         }
+        if (nogoodExchange != null) {
+            checkSameVariables();
+        }
+    }
+
+    /**
+     * Checks that the models declare the same variables, with the same ids, names and initial domains,
+     * since no-goods are exchanged based on variable ids.
+     */
+    private void checkSameVariables() {
+        Model ref = models.get(0);
+        for (int i = 1; i < models.size(); i++) {
+            Model m = models.get(i);
+            boolean same = m.getNbVars() == ref.getNbVars();
+            for (int j = 0; j < ref.getNbVars() && same; j++) {
+                Variable v = ref.getVar(j);
+                Variable w = m.getVar(j);
+                same = v.getId() == w.getId() && v.getName().equals(w.getName())
+                        && v.getTypeAndKind() == w.getTypeAndKind();
+                if (same && (v.getTypeAndKind() & Variable.INT) != 0) {
+                    IntVar x = (IntVar) v;
+                    IntVar y = (IntVar) w;
+                    same = x.getLB() == y.getLB() && x.getUB() == y.getUB() && x.getDomainSize() == y.getDomainSize();
+                }
+            }
+            if (!same) {
+                throw new SolverException("No-goods can only be shared between models declaring the same variables, " +
+                        "which is not the case of " + ref.getName() + " and " + m.getName());
+            }
+        }
     }
 
-    private synchronized AtomicBoolean getSolverTerminated(){
+    private AtomicBoolean getSolverTerminated(){
         return solverTerminated;
     }
 
-    private synchronized AtomicBoolean getSolutionFound(){
+    private AtomicBoolean getSolutionFound(){
         return solutionFound;
     }
 }
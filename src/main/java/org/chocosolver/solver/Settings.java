@@ -66,6 +66,11 @@ public interface Settings  {
         this.setSwapOnPassivate(Boolean.valueOf(properties.get("propagators.swap").toString()));
         this.setCheckDeclaredConstraints(Boolean.valueOf(properties.get("constraints.check").toString()));
         this.setHybridizationOfPropagationEngine(Byte.valueOf(properties.get("propagationEngine.hybridization").toString()));
+        this.setShrinkTrailsOnRestart(Boolean.valueOf(properties.getOrDefault("environment.shrink", shrinkTrailsOnRestart()).toString()));
+        this.setRecomputationDistance(Integer.valueOf(properties.getOrDefault("recomputation.distance", getRecomputationDistance()).toString()));
+        this.setRecomputationAdaptive(Boolean.valueOf(properties.getOrDefault("recomputation.adaptive", isRecomputationAdaptive()).toString()));
+        this.setEnableCompactEventStore(Boolean.valueOf(properties.getOrDefault("explanations.compact", enableCompactEventStore()).toString()));
+        this.setSolutionStoreBudget(Long.valueOf(properties.getOrDefault("solutions.budget", getSolutionStoreBudget()).toString()));
         return this;
     }
 
@@ -126,6 +131,11 @@ public interface Settings  {
         properties.setProperty("propagators.swap", Boolean.toString(swapOnPassivate()));
         properties.setProperty("constraints.check", Boolean.toString(checkDeclaredConstraints()));
         properties.setProperty("propagationEngine.hybridization", Byte.toString(enableHybridizationOfPropagationEngine()));
+        properties.setProperty("environment.shrink", Boolean.toString(shrinkTrailsOnRestart()));
+        properties.setProperty("recomputation.distance", Integer.toString(getRecomputationDistance()));
+        properties.setProperty("recomputation.adaptive", Boolean.toString(isRecomputationAdaptive()));
+        properties.setProperty("explanations.compact", Boolean.toString(enableCompactEventStore()));
+        properties.setProperty("solutions.budget", Long.toString(getSolutionStoreBudget()));
         return properties;
     }
 
@@ -462,4 +472,76 @@ public interface Settings  {
      */
     Settings setHybridizationOfPropagationEngine(byte hybrid);
 
+    /**
+     * @return <i>true</i> if the memory retained by the trails is given back on each restart
+     * (see {@link org.chocosolver.memory.IEnvironment#shrink()}), <i>false</i> otherwise (default value).
+     */
+    boolean shrinkTrailsOnRestart();
+
+    /**
+     * Define if the memory retained by the trails is given back on each restart.
+     * This bounds the footprint of long runs, like LNS, at the cost of growing the trails again on the next dive.
+     * @param shrink {@code true} to shrink trails on restart
+     * @return the current instance
+     */
+    Settings setShrinkTrailsOnRestart(boolean shrink);
+
+    /**
+     * @return the number of decisions between two consecutive checkpoints when the search relies on recomputation,
+     * default value is 8 (see {@link org.chocosolver.solver.search.loop.move.IMoveFactory#setDFSWithRecomputation()})
+     */
+    int getRecomputationDistance();
+
+    /**
+     * Define the number of decisions between two consecutive checkpoints when the search relies on recomputation.
+     * The larger the distance, the smaller the trail but the longer the recomputation on backtrack.
+     * @param distance number of decisions, at least 1
+     * @return the current instance
+     */
+    Settings setRecomputationDistance(int distance);
+
+    /**
+     * @return <i>true</i> (default value) if a checkpoint is created in the middle of the decisions replayed
+     * on recomputation, <i>false</i> otherwise.
+     */
+    boolean isRecomputationAdaptive();
+
+    /**
+     * Define if a checkpoint is created in the middle of the decisions replayed on recomputation.
+     * @param adaptive {@code true} to enable adaptive recomputation
+     * @return the current instance
+     */
+    Settings setRecomputationAdaptive(boolean adaptive);
+
+    /**
+     * @return <i>true</i> (default value) if events are recorded, for explanation purpose, in a
+     * {@link org.chocosolver.solver.explanations.ChunkedEventStore}, <i>false</i> if they are recorded in an
+     * {@link org.chocosolver.solver.explanations.ArrayEventStore}.
+     */
+    boolean enableCompactEventStore();
+
+    /**
+     * Define the store in which events are recorded, for explanation purpose.
+     * A compact store records events as integers only, which saves allocations and copies when the store grows.
+     * @param compact {@code true} to record events in a compact store
+     * @return the current instance
+     */
+    Settings setEnableCompactEventStore(boolean compact);
+
+    /**
+     * @return the maximum number of bytes a {@link SolutionStore} holds in memory before spilling solutions
+     * to a memory-mapped file; default value is {@link Long#MAX_VALUE}, that is, no spilling.
+     */
+    long getSolutionStoreBudget();
+
+    /**
+     * Define the maximum number of bytes a {@link SolutionStore} holds in memory before spilling solutions
+     * to a memory-mapped file. It applies to solutions recorded by
+     * {@link org.chocosolver.solver.search.IResolutionHelper#findAllSolutions(org.chocosolver.util.criteria.Criterion...)}
+     * for instance.
+     * @param bytes a number of bytes
+     * @return the current instance
+     */
+    Settings setSolutionStoreBudget(long bytes);
+
 }
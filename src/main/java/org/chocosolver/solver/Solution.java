@@ -206,6 +206,31 @@ public class Solution implements ICause {
         }
     }
 
+    /**
+     * @param v an integer variable
+     * @param noEntry value to return if <i>v</i> has no value in this solution
+     * @return the value of <i>v</i> in this solution, <i>noEntry</i> if none
+     */
+    int getIntVal(IntVar v, int noEntry) {
+        return intmap != null && intmap.containsKey(v.getId()) ? intmap.get(v.getId()) : noEntry;
+    }
+
+    /**
+     * @param s a set variable
+     * @return the value of <i>s</i> in this solution, <i>null</i> if none
+     */
+    int[] getSetValOrNull(SetVar s) {
+        return setmap != null ? setmap.get(s.getId()) : null;
+    }
+
+    /**
+     * @param r a real variable
+     * @return the bounds of <i>r</i> in this solution, <i>null</i> if none
+     */
+    double[] getRealBoundsOrNull(RealVar r) {
+        return realmap != null ? realmap.get(r.getId()) : null;
+    }
+
     /**
      * Set the value of variable v in this solution.
      *
@@ -0,0 +1,213 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.search.strategy.strategy.CubeStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Spliterator} over the solutions of a model, which can be split to explore the search space concurrently.
+ * <p>
+ * The search space is partitioned into <i>cubes</i>, that is conjunctions of decisions over the decision variables,
+ * as done in {@link ParallelEPS}: on split, the cubes not explored yet are shared between the two spliterators,
+ * and when only one remains, it is decomposed beforehand by branching on the decision variable with the smallest domain.
+ * Since a model cannot be cloned, each new spliterator runs on a new model built by a <i>modeller</i>,
+ * which <b>HAS</b> to build models identical to the first one.
+ * As a consequence, the solutions streamed are attached to different models, but can be read
+ * with the variables of any of them.
+ * <p>
+ * The search strategy of each model is restricted to a cube by a {@link CubeStrategy},
+ * and each cube is explored from scratch, after a call to {@link Solver#reset()}.
+ * The stop criteria declared on the first model, and the ones given, apply to each cube independently.
+ * When dealing with an optimization problem, each cube streams its own improving solutions.
+ * <p>
+ * Example of use:
+ * <pre>
+ *     {@code
+ *     Model model = modeller.get();
+ *     model.getSolver().streamSolutions(modeller).parallel().forEach(s -> postProcess(s));
+ *     }
+ * </pre>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class SolutionSpliterator implements Spliterator<Solution> {
+
+    /**
+     * Builds the models of the new spliterators
+     */
+    private final Supplier<Model> modeller;
+    /**
+     * Additional stop criteria
+     */
+    private final Criterion[] stop;
+    /**
+     * The model of this spliterator
+     */
+    private final Model model;
+    /**
+     * The search strategy declared in the model, restored once all cubes are explored
+     */
+    private final AbstractStrategy<?> main;
+    /**
+     * Stop criteria declared in the model
+     */
+    private final List<Criterion> criteria;
+    /**
+     * Restricts the search to a cube
+     */
+    private final CubeStrategy<?> cs;
+    /**
+     * Decision variables of the model
+     */
+    private final IntVar[] dvars;
+    /**
+     * Cubes not explored yet
+     */
+    private final ArrayDeque<ParallelEPS.Cube> pending;
+    /**
+     * Set to <tt>true</tt> when a cube is being explored
+     */
+    private boolean running;
+    /**
+     * Estimated size, halved on each split so that the number of models is bounded
+     */
+    private long est;
+
+    /**
+     * Create a spliterator over the solutions of <i>model</i>.
+     *
+     * @param model    the model to solve
+     * @param modeller builds a model identical to <i>model</i> each time it is called
+     * @param stop     optional criteria to stop the search
+     */
+    public SolutionSpliterator(Model model, Supplier<Model> modeller, Criterion... stop) {
+        this(model, modeller, stop, new ArrayDeque<>(), Long.MAX_VALUE);
+        pending.add(new ParallelEPS.Cube());
+    }
+
+    private SolutionSpliterator(Model model, Supplier<Model> modeller, Criterion[] stop,
+                                ArrayDeque<ParallelEPS.Cube> pending, long est) {
+        this.model = model;
+        this.modeller = modeller;
+        this.stop = stop;
+        this.pending = pending;
+        this.est = est;
+        Solver s = model.getSolver();
+        this.criteria = new ArrayList<>(s.criteria);
+        AbstractStrategy<?> strategy = s.getSearch();
+        if (strategy == null) {
+            strategy = model.getSettings().makeDefaultSearch(model);
+        }
+        this.main = strategy;
+        this.cs = new CubeStrategy<>(strategy);
+        this.dvars = ParallelEPS.decisionVars(model);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Solution> action) {
+        Solver s = model.getSolver();
+        while (true) {
+            if (running) {
+                if (s.solve()) {
+                    action.accept(new Solution(model).record());
+                    return true;
+                }
+                running = false;
+            }
+            if (pending.isEmpty()) {
+                s.setSearch(main);
+                return false;
+            }
+            s.reset();
+            s.addStopCriterion(criteria.toArray(new Criterion[0]));
+            s.addStopCriterion(stop);
+            s.setSearch(cs);
+            pending.poll().restrict(cs, dvars);
+            running = true;
+        }
+    }
+
+    @Override
+    public Spliterator<Solution> trySplit() {
+        if (!running && pending.size() == 1) {
+            decompose();
+        }
+        int n = running ? (pending.size() + 1) / 2 : pending.size() / 2;
+        if (n == 0) {
+            return null;
+        }
+        ArrayDeque<ParallelEPS.Cube> given = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            given.addFirst(pending.pollLast());
+        }
+        est >>>= 1;
+        return new SolutionSpliterator(modeller.get(), modeller, stop, given, est);
+    }
+
+    /**
+     * Replaces the only pending cube by its sub-cubes, until there are at least two of them,
+     * or no more decomposition is possible.
+     */
+    private void decompose() {
+        Solver s = model.getSolver();
+        IEnvironment env = model.getEnvironment();
+        s.reset();
+        int world = env.getWorldIndex();
+        env.worldPush();
+        try {
+            s.propagate();
+            boolean extended = true;
+            while (extended && pending.size() == 1) {
+                extended = false;
+                ParallelEPS.Cube c = pending.peek();
+                env.worldPush();
+                c.apply(dvars);
+                s.propagate();
+                int v = ParallelEPS.selectVar(dvars);
+                if (v > -1) {
+                    List<ParallelEPS.Cube> next = new ArrayList<>();
+                    ParallelEPS.branch(s, dvars, c, v, next);
+                    pending.clear();
+                    pending.addAll(next);
+                    extended = true;
+                }
+                env.worldPop();
+            }
+        } catch (ContradictionException e) {
+            // the cube has no solution
+            s.getEngine().flush();
+            pending.clear();
+        }
+        env.worldPopUntil(world);
+        s.reset();
+    }
+
+    @Override
+    public long estimateSize() {
+        return est;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+}
@@ -0,0 +1,662 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A list of solutions, stored in columns of primitive integers.
+ * <p>
+ * Values of integer variables are stored per column, one column per variable, in a fixed order.
+ * Rows are gathered in blocks of {@link #CHUNK} solutions: a block is an <tt>int[]</tt>
+ * which holds the columns one after the other.
+ * Values of other variables (real or set ones), if any, are stored per solution.
+ * <p>
+ * Recording a solution ({@link #record()}) does not create any {@link Solution} object.
+ * Values can be read, and a solution restored, directly from the store
+ * (see {@link #getIntVal(int, IntVar)}, {@link #restore(int)} and {@link #rows()}).
+ * A {@link Solution} is only built, as a copy, when calling {@link #get(int)}, {@link #set(int, Solution)}
+ * or {@link #remove(int)}.
+ * <p>
+ * The list is modifiable: {@link #add(int, Solution)} and {@link #set(int, Solution)} copy the values of the
+ * stored variables from the given solution, so modifying it afterwards does not modify the store.
+ * A stored variable with no value in the given solution is considered as not instantiated.
+ * <p>
+ * When the blocks held in memory exceed a given budget, in bytes, the full ones are moved
+ * to a memory-mapped temporary file, which is deleted on {@link #close()} or on exit.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class SolutionStore extends AbstractList<Solution> implements Closeable {
+
+    /**
+     * Number of solutions per block, as a power of 2
+     */
+    private static final int SHIFT = 10;
+    /**
+     * Number of solutions per block
+     */
+    public static final int CHUNK = 1 << SHIFT;
+    /**
+     * To get the position of a solution in its block
+     */
+    private static final int MASK = CHUNK - 1;
+    /**
+     * Value stored for an uninstantiated variable
+     */
+    private static final int NO_ENTRY = Integer.MAX_VALUE;
+
+    /**
+     * The model
+     */
+    private final Model model;
+    /**
+     * Variables to store, all the variables of the model when empty at first recording
+     */
+    private Variable[] varsToStore;
+    /**
+     * Integer variables stored in columns, in column order
+     */
+    private IntVar[] columns;
+    /**
+     * Maps the id of an integer variable to its column
+     */
+    private TIntIntHashMap colOf;
+    /**
+     * Other variables, stored per solution
+     */
+    private Variable[] others;
+    /**
+     * Values of other variables, per solution
+     */
+    private final List<Object[]> otherValues;
+    /**
+     * Blocks held in memory, <tt>null</tt> when spilled
+     */
+    private int[][] blocks;
+    /**
+     * Blocks spilled to the file, <tt>null</tt> when in memory
+     */
+    private IntBuffer[] mapped;
+    /**
+     * Number of solutions the first block can hold, the first block grows until {@link #CHUNK}
+     */
+    private int cap0;
+    /**
+     * Number of solutions stored
+     */
+    private int size;
+    /**
+     * Maximum number of bytes of the blocks held in memory
+     */
+    private final long budget;
+    /**
+     * Number of blocks held in memory
+     */
+    private int inMemory;
+    /**
+     * Temporary file of spilled blocks, if any
+     */
+    private File file;
+    private RandomAccessFile raf;
+    /**
+     * Number of blocks spilled to the file
+     */
+    private int spilled;
+
+    /**
+     * Create an empty store of solutions, held in memory, see {@link Settings#getSolutionStoreBudget()}.
+     *
+     * @param model       model of the solutions
+     * @param varsToStore variables to store, all the variables of the model when empty
+     */
+    public SolutionStore(Model model, Variable... varsToStore) {
+        this(model, model.getSettings().getSolutionStoreBudget(), varsToStore);
+    }
+
+    /**
+     * Create an empty store of solutions
+     *
+     * @param model       model of the solutions
+     * @param budget      maximum number of bytes of the blocks held in memory, before spilling them to a file
+     * @param varsToStore variables to store, all the variables of the model when empty
+     */
+    public SolutionStore(Model model, long budget, Variable... varsToStore) {
+        this.model = model;
+        this.budget = budget;
+        this.varsToStore = varsToStore;
+        this.otherValues = new ArrayList<>();
+        this.blocks = new int[4][];
+        this.mapped = new IntBuffer[4];
+    }
+
+    /**
+     * Set the columns, on first recording
+     */
+    private void init() {
+        if (varsToStore.length == 0) {
+            varsToStore = model.getVars();
+        }
+        List<IntVar> ints = new ArrayList<>();
+        List<Variable> rest = new ArrayList<>();
+        for (Variable var : varsToStore) {
+            if ((var.getTypeAndKind() & Variable.TYPE) == Variable.CSTE) {
+                continue;
+            }
+            if ((var.getTypeAndKind() & Variable.INT) != 0) {
+                ints.add((IntVar) var);
+            } else {
+                rest.add(var);
+            }
+        }
+        columns = ints.toArray(new IntVar[0]);
+        others = rest.toArray(new Variable[0]);
+        colOf = new TIntIntHashMap(columns.length * 2, .5f, -1, -1);
+        for (int c = 0; c < columns.length; c++) {
+            colOf.put(columns[c].getId(), c);
+        }
+        cap0 = 4;
+    }
+
+    /**
+     * Records the current solution of the solver, after the previous ones.
+     *
+     * @return this object
+     */
+    public SolutionStore record() {
+        if (columns == null) {
+            init();
+        }
+        boolean warn = false;
+        int row = size;
+        ensureRow(row);
+        for (int c = 0; c < columns.length; c++) {
+            IntVar v = columns[c];
+            if (v.isInstantiated()) {
+                set(row, c, v.getValue());
+            } else {
+                set(row, c, NO_ENTRY);
+                warn = true;
+            }
+        }
+        if (others.length > 0) {
+            Object[] values = new Object[others.length];
+            for (int i = 0; i < others.length; i++) {
+                Variable var = others[i];
+                if (!var.isInstantiated()) {
+                    warn = true;
+                } else if ((var.getTypeAndKind() & Variable.KIND) == Variable.REAL) {
+                    values[i] = new double[]{((RealVar) var).getLB(), ((RealVar) var).getUB()};
+                } else if ((var.getTypeAndKind() & Variable.KIND) == Variable.SET) {
+                    values[i] = ((SetVar) var).getValue().toArray();
+                }
+            }
+            otherValues.add(values);
+        }
+        size++;
+        modCount++;
+        if ((size & MASK) == 0) {
+            spillIfNeeded();
+        }
+        if (warn && model.getSettings().warnUser()) {
+            model.getSolver().getOut().printf("Some non decision variables are not instantiated in the current solution.");
+        }
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the value of <i>var</i> in the <i>row</i>-th solution, without building any {@link Solution}.
+     *
+     * @param row index of a solution
+     * @param var an integer variable
+     * @return the value of <i>var</i> in this solution
+     * @throws SolverException if <i>var</i> is not stored, or was not instantiated
+     */
+    public int getIntVal(int row, IntVar var) {
+        checkRow(row);
+        int c = colOf.get(var.getId());
+        if (c < 0) {
+            if ((var.getTypeAndKind() & Variable.TYPE) == Variable.CSTE) {
+                return var.getValue();
+            }
+            throw new SolverException("Cannot access value of " + var + ": This variable has not been declared to be recorded in the SolutionStore.");
+        }
+        int val = get(row, c);
+        if (val == NO_ENTRY) {
+            throw new SolverException("Cannot access value of " + var + ": This variable was not instantiated in the solution.");
+        }
+        return val;
+    }
+
+    /**
+     * Build a copy of the <i>row</i>-th solution.
+     * Prefer {@link #getIntVal(int, IntVar)} and {@link #restore(int)} to read many solutions.
+     *
+     * @param row index of a solution
+     * @return a new solution
+     */
+    @Override
+    public Solution get(int row) {
+        checkRow(row);
+        Solution solution = new Solution(model, varsToStore);
+        for (int c = 0; c < columns.length; c++) {
+            int val = get(row, c);
+            if (val != NO_ENTRY) {
+                solution.setIntVal(columns[c], val);
+            }
+        }
+        if (others.length > 0) {
+            Object[] values = otherValues.get(row);
+            for (int i = 0; i < others.length; i++) {
+                if (values[i] instanceof double[]) {
+                    solution.setRealBounds((RealVar) others[i], (double[]) values[i]);
+                } else if (values[i] instanceof int[]) {
+                    solution.setSetVal((SetVar) others[i], (int[]) values[i]);
+                }
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * Replace the <i>row</i>-th solution by a copy of <i>solution</i>.
+     *
+     * @param row      index of a solution
+     * @param solution a solution of the model
+     * @return the replaced solution, as a copy
+     */
+    @Override
+    public Solution set(int row, Solution solution) {
+        Solution previous = get(row);
+        write(row, solution);
+        return previous;
+    }
+
+    /**
+     * Insert a copy of <i>solution</i> at position <i>row</i>, the next ones are shifted.
+     *
+     * @param row      index of the solution
+     * @param solution a solution of the model
+     */
+    @Override
+    public void add(int row, Solution solution) {
+        if (row < 0 || row > size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+        if (columns == null) {
+            init();
+        }
+        ensureRow(size);
+        for (int r = size; r > row; r--) {
+            for (int c = 0; c < columns.length; c++) {
+                set(r, c, get(r - 1, c));
+            }
+        }
+        if (others.length > 0) {
+            otherValues.add(row, null);
+        }
+        size++;
+        modCount++;
+        write(row, solution);
+        if ((size & MASK) == 0) {
+            spillIfNeeded();
+        }
+    }
+
+    /**
+     * Iterate over the solutions without building any {@link Solution}.
+     * The same {@link Row} is returned at each step, moved to the next solution,
+     * so it should not be kept from one step to another.
+     *
+     * @return the rows of this store
+     */
+    public Iterable<Row> rows() {
+        return () -> new Iterator<Row>() {
+            private final Row cursor = new Row();
+            private final int expected = modCount;
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (modCount != expected) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                cursor.row = next++;
+                return cursor;
+            }
+        };
+    }
+
+    /**
+     * @return a new store holding the same solutions, which can be modified independently
+     */
+    public SolutionStore copy() {
+        SolutionStore copy = new SolutionStore(model, budget, varsToStore);
+        if (columns != null) {
+            copy.columns = columns;
+            copy.others = others;
+            copy.colOf = colOf;
+            copy.cap0 = 4;
+            for (int r = 0; r < size; r++) {
+                copy.ensureRow(r);
+                for (int c = 0; c < columns.length; c++) {
+                    copy.set(r, c, get(r, c));
+                }
+                copy.size++;
+                if ((copy.size & MASK) == 0) {
+                    copy.spillIfNeeded();
+                }
+            }
+            copy.otherValues.addAll(otherValues);
+        }
+        return copy;
+    }
+
+    /**
+     * Restore the <i>row</i>-th solution in the model, as {@link Solution#restore()} does,
+     * without building any {@link Solution}.
+     *
+     * @param row index of a solution
+     * @throws ContradictionException if restoring the solution leads to failure
+     */
+    public void restore(int row) throws ContradictionException {
+        checkRow(row);
+        for (int c = 0; c < columns.length; c++) {
+            int val = get(row, c);
+            if (val == NO_ENTRY) {
+                throw new SolverException("Cannot restore " + columns[c] + ": This variable was not instantiated in the solution.");
+            }
+            columns[c].instantiateTo(val, Cause.Null);
+        }
+        if (others.length > 0) {
+            Object[] values = otherValues.get(row);
+            for (int i = 0; i < others.length; i++) {
+                if (values[i] instanceof double[]) {
+                    double[] bounds = (double[]) values[i];
+                    ((RealVar) others[i]).updateBounds(bounds[0], bounds[1], Cause.Null);
+                } else if (values[i] instanceof int[]) {
+                    ((SetVar) others[i]).instantiateTo((int[]) values[i], Cause.Null);
+                }
+            }
+        }
+        model.getSolver().propagate();
+    }
+
+    /**
+     * Remove the <i>row</i>-th solution, the next ones are shifted.
+     *
+     * @param row index of a solution
+     * @return the removed solution, as a copy
+     */
+    @Override
+    public Solution remove(int row) {
+        Solution removed = get(row);
+        for (int r = row + 1; r < size; r++) {
+            for (int c = 0; c < columns.length; c++) {
+                set(r - 1, c, get(r, c));
+            }
+        }
+        if (others.length > 0) {
+            otherValues.remove(row);
+        }
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Remove the <i>row</i>-th solution in constant time, the last solution is moved to its place.
+     * Unlike {@link #remove(int)}, the order of the solutions is not preserved and no copy is made.
+     *
+     * @param row index of a solution
+     */
+    public void removeUnordered(int row) {
+        checkRow(row);
+        int last = size - 1;
+        if (row < last) {
+            for (int c = 0; c < columns.length; c++) {
+                set(row, c, get(last, c));
+            }
+            if (others.length > 0) {
+                otherValues.set(row, otherValues.get(last));
+            }
+        }
+        if (others.length > 0) {
+            otherValues.remove(last);
+        }
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Remove all solutions and delete the temporary file, if any.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+        cap0 = 4;
+        inMemory = 0;
+        spilled = 0;
+        Arrays.fill(blocks, null);
+        Arrays.fill(mapped, null);
+        otherValues.clear();
+        modCount++;
+        close();
+    }
+
+    /**
+     * Delete the temporary file, if any. Spilled solutions are not available anymore.
+     */
+    @Override
+    public void close() {
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException ignored) {
+                // nothing to do
+            }
+            raf = null;
+        }
+        if (file != null) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            file = null;
+        }
+    }
+
+    /**
+     * @return <tt>true</tt> if some solutions are stored in a file
+     */
+    public boolean isSpilled() {
+        return spilled > 0;
+    }
+
+    /**
+     * Copy the values of the stored variables from <i>solution</i> to the <i>row</i>-th solution
+     */
+    private void write(int row, Solution solution) {
+        for (int c = 0; c < columns.length; c++) {
+            set(row, c, solution.getIntVal(columns[c], NO_ENTRY));
+        }
+        if (others.length > 0) {
+            Object[] values = new Object[others.length];
+            for (int i = 0; i < others.length; i++) {
+                Variable var = others[i];
+                if ((var.getTypeAndKind() & Variable.KIND) == Variable.REAL) {
+                    values[i] = solution.getRealBoundsOrNull((RealVar) var);
+                } else if ((var.getTypeAndKind() & Variable.KIND) == Variable.SET) {
+                    values[i] = solution.getSetValOrNull((SetVar) var);
+                }
+            }
+            otherValues.set(row, values);
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+    }
+
+    private int capacity(int k) {
+        return k == 0 ? cap0 : CHUNK;
+    }
+
+    private int get(int row, int c) {
+        int k = row >>> SHIFT;
+        int[] block = blocks[k];
+        if (block != null) {
+            return block[c * capacity(k) + (row & MASK)];
+        }
+        return mapped[k].get(c * CHUNK + (row & MASK));
+    }
+
+    private void set(int row, int c, int val) {
+        int k = row >>> SHIFT;
+        int[] block = blocks[k];
+        if (block != null) {
+            block[c * capacity(k) + (row & MASK)] = val;
+        } else {
+            mapped[k].put(c * CHUNK + (row & MASK), val);
+        }
+    }
+
+    /**
+     * Make room for the <i>row</i>-th solution
+     */
+    private void ensureRow(int row) {
+        int k = row >>> SHIFT;
+        if (k >= blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length << 1);
+            mapped = Arrays.copyOf(mapped, mapped.length << 1);
+        }
+        if (k == 0 && row >= cap0 || blocks[k] == null && mapped[k] == null) {
+            int cap = k == 0 ? Math.min(Math.max(cap0 << 1, row + 1), CHUNK) : CHUNK;
+            int[] block = new int[Math.max(columns.length, 1) * cap];
+            if (k == 0 && blocks[0] != null) {
+                // the first block grows, columns are moved
+                for (int c = 0; c < columns.length; c++) {
+                    System.arraycopy(blocks[0], c * cap0, block, c * cap, cap0);
+                }
+            } else {
+                inMemory++;
+            }
+            if (k == 0) {
+                cap0 = cap;
+            }
+            blocks[k] = block;
+        }
+    }
+
+    /**
+     * Move the full blocks held in memory to the file, if the budget is exceeded
+     */
+    private void spillIfNeeded() {
+        long bytes = 4L * CHUNK * columns.length;
+        if (inMemory * bytes <= budget) {
+            return;
+        }
+        try {
+            if (raf == null) {
+                file = File.createTempFile("choco-solutions", ".bin");
+                file.deleteOnExit();
+                raf = new RandomAccessFile(file, "rw");
+            }
+            FileChannel channel = raf.getChannel();
+            // the current block is full, as the previous ones
+            int full = size >>> SHIFT;
+            for (int k = 0; k < full; k++) {
+                if (blocks[k] != null) {
+                    IntBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, spilled * bytes, bytes).asIntBuffer();
+                    buffer.put(blocks[k]);
+                    mapped[k] = buffer;
+                    blocks[k] = null;
+                    spilled++;
+                    inMemory--;
+                }
+            }
+        } catch (IOException e) {
+            throw new SolverException("Unable to spill solutions to a file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A solution of a {@link SolutionStore}, read in place, see {@link #rows()}.
+     */
+    public final class Row {
+
+        /**
+         * Index of the solution
+         */
+        private int row;
+
+        private Row() {
+        }
+
+        /**
+         * @return the index of this solution in the store
+         */
+        public int getIndex() {
+            return row;
+        }
+
+        /**
+         * @param var an integer variable
+         * @return the value of <i>var</i> in this solution
+         * @see SolutionStore#getIntVal(int, IntVar)
+         */
+        public int getIntVal(IntVar var) {
+            return SolutionStore.this.getIntVal(row, var);
+        }
+
+        /**
+         * Restore this solution in the model.
+         *
+         * @throws ContradictionException if restoring the solution leads to failure
+         * @see SolutionStore#restore(int)
+         */
+        public void restore() throws ContradictionException {
+            SolutionStore.this.restore(row);
+        }
+    }
+}
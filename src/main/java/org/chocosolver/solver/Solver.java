@@ -17,7 +17,9 @@ import org.chocosolver.solver.explanations.NoExplanationEngine;
 import org.chocosolver.solver.objective.IBoundsManager;
 import org.chocosolver.solver.objective.IObjectiveManager;
 import org.chocosolver.solver.objective.ObjectiveFactory;
+import org.chocosolver.solver.propagation.IPropagationEngine;
 import org.chocosolver.solver.propagation.PropagationEngine;
+import org.chocosolver.solver.propagation.PropagatorProfiler;
 import org.chocosolver.solver.search.SearchState;
 import org.chocosolver.solver.search.limits.ICounter;
 import org.chocosolver.solver.search.loop.Reporting;
@@ -171,7 +173,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
     protected SearchMonitorList searchMonitors;
 
     /** The propagation engine to use */
-    protected PropagationEngine engine;
+    protected IPropagationEngine engine;
     /**
      * Internal unique contradiction exception, used on propagation failures
      */
@@ -187,6 +189,11 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
     /** Counter that indicates how many world should be rolled back when backtracking */
     protected int jumpTo;
 
+    /**
+     * Set to <tt>true</tt> when the decision reached when backtracking should be forgotten instead of being refuted
+     */
+    protected boolean discardOnJump;
+
     /** Set to <tt>true</tt> to stop the search loop **/
     protected boolean stop;
 
@@ -396,6 +403,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
             engine.flush();
             mMeasures.incFailCount();
             jumpTo = 1;
+            discardOnJump = false;
             action = repair;
             searchMonitors.onContradiction(ce);
         }
@@ -452,6 +460,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         objectivemanager.updateBestSolution();
         searchMonitors.onSolution();
         jumpTo = 1;
+        discardOnJump = false;
         action = repair;
         return true;
     }
@@ -513,6 +522,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         removeAllStopCriteria();
         feasible = ESat.UNDEFINED;
         jumpTo = 0;
+        discardOnJump = false;
         stop = false;
         canBeRepaired = true;
     }
@@ -570,6 +580,9 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
     public void restart() {
         searchMonitors.beforeRestart();
         restoreRootNode();
+        if (mModel.getSettings().shrinkTrailsOnRestart()) {
+            mModel.getEnvironment().shrink();
+        }
         mModel.getEnvironment().worldPush();
         getMeasures().incRestartCount();
         try {
@@ -726,7 +739,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
     /**
      * @return the propagation engine used in {@code this}.
      */
-    public PropagationEngine getEngine() {
+    public IPropagationEngine getEngine() {
         return engine;
     }
 
@@ -788,6 +801,14 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         return jumpTo;
     }
 
+    /**
+     * @return <tt>true</tt> if the decision reached when backtracking is forgotten instead of being refuted
+     * @see #setDiscardOnJump(boolean)
+     */
+    public boolean isDiscardOnJump() {
+        return discardOnJump;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ///////////////////////////////////////        SETTERS        //////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -877,7 +898,7 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
      * @param propagationEngine a propagation strategy
      * @exception SolverException is already initialized.
      */
-    public void setEngine(PropagationEngine propagationEngine) {
+    public void setEngine(IPropagationEngine propagationEngine) {
         if (!engine.isInitialized()
                 || getEnvironment().getWorldIndex() == rootWorldIndex) {
             this.engine = propagationEngine;
@@ -886,6 +907,23 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         }
     }
 
+    /**
+     * Plug a new {@link PropagatorProfiler} into the current propagation engine,
+     * which then measures, for each propagator, the number of revisions, the time spent,
+     * the number of domain modifications and the number of contradictions raised.
+     * <p>
+     * Measures can be printed calling {@link PropagatorProfiler#toString()} or {@link PropagatorProfiler#toCSV()}.
+     * A propagation engine set afterwards is not profiled.
+     *
+     * @return the profiler
+     * @throws UnsupportedOperationException if the current engine cannot be profiled
+     */
+    public PropagatorProfiler profilePropagators() {
+        PropagatorProfiler profiler = new PropagatorProfiler();
+        engine.setProfiler(profiler);
+        return profiler;
+    }
+
     /**
      * Completes (or not) the declared search strategy with one over all variables
      * @param isComplete set to true to complete the current search strategy
@@ -987,6 +1025,20 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         this.jumpTo = jto;
     }
 
+    /**
+     * Indicates whether the decision reached when backtracking (see {@link #setJumpTo(int)}) should be forgotten
+     * instead of being refuted.
+     * In that case, the search goes on from its parent node, which is propagated again.
+     * This is sound only if the subtree of that decision does not need to be explored anymore,
+     * for instance when a no-good learnt on failure prunes it (non-chronological backjumping).
+     * Only relevant if the move in use supports it (see {@link Move#canDiscardDecisions()}).
+     *
+     * @param discard set to <tt>true</tt> to forget the decision reached when backtracking
+     */
+    public void setDiscardOnJump(boolean discard) {
+        this.discardOnJump = discard;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ///////////////////////////////////////       FACTORY         //////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -16,6 +16,9 @@ import org.chocosolver.solver.constraints.unary.PropLessOrEqualXC;
 import org.chocosolver.solver.constraints.unary.PropNotEqualXC;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Map;
 
 /**
  * A constraint dedicated to arithmetic operations.
@@ -160,6 +163,15 @@ public class Arithmetic extends Constraint {
 		}
 	}
 
+	@Override
+	public Constraint copy(Map<Variable, Variable> mapping) {
+		IntVar[] copies = copyOf(vars, mapping);
+		if (copies.length == 1) {
+			return new Arithmetic(copies[0], op1, cste);
+		}
+		return new Arithmetic(copies[0], op1, copies[1], op2, cste);
+	}
+
 	@Override
 	public Constraint makeOpposite(){
 		Model model = vars[0].getModel();
@@ -12,12 +12,14 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.reification.Opposite;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.ESat;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -345,6 +347,56 @@ public class Constraint {
         return PropagatorPriority.get(priority);
     }
 
+    /**
+     * Creates a new constraint, equivalent to <code>this</code>, on the copies of its variables.
+     * This is used by {@link Model#copy()}: the copy is free and belongs to the model of the copied variables.
+     * By default, the propagators of <code>this</code> are copied (see {@link Propagator#copy(Variable[])});
+     * a class extending this one has to override this method to be copied.
+     *
+     * @param mapping maps each variable of this constraint to its copy
+     * @return a copy of this constraint
+     * @throws SolverException if this constraint, or one of its propagators, cannot be copied
+     */
+    public Constraint copy(Map<Variable, Variable> mapping) {
+        if (getClass() != Constraint.class) {
+            throw new SolverException(getClass().getSimpleName() + " cannot be copied");
+        }
+        return new Constraint(name, copyPropagators(mapping));
+    }
+
+    /**
+     * @param mapping maps each variable of this constraint to its copy
+     * @return the copies of the propagators of this constraint
+     * @throws SolverException if a propagator cannot be copied
+     */
+    @SuppressWarnings("unchecked")
+    protected final Propagator[] copyPropagators(Map<Variable, Variable> mapping) {
+        Propagator[] copies = new Propagator[propagators.length];
+        for (int i = 0; i < propagators.length; i++) {
+            copies[i] = propagators[i].copy(copyOf(propagators[i].getVars(), mapping));
+        }
+        return copies;
+    }
+
+    /**
+     * @param vars    variables of this constraint
+     * @param mapping maps each variable of this constraint to its copy
+     * @param <V>     type of variables
+     * @return the copies of <i>vars</i>, in an array of the same type
+     * @throws SolverException if a variable has not been copied
+     */
+    @SuppressWarnings("unchecked")
+    protected static <V extends Variable> V[] copyOf(V[] vars, Map<Variable, Variable> mapping) {
+        V[] copies = vars.clone();
+        for (int i = 0; i < vars.length; i++) {
+            copies[i] = (V) mapping.get(vars[i]);
+            if (copies[i] == null) {
+                throw new SolverException(vars[i].getName() + " has not been copied");
+            }
+        }
+        return copies;
+    }
+
     /**
      * Creates a new constraint with all propagators of toMerge
      * @param name name of the new constraint
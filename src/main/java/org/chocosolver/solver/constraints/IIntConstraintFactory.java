@@ -68,6 +68,7 @@ import org.chocosolver.solver.constraints.nary.count.PropCountVar;
 import org.chocosolver.solver.constraints.nary.count.PropCount_AC;
 import org.chocosolver.solver.constraints.nary.cumulative.CumulFilter;
 import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
+import org.chocosolver.solver.constraints.nary.disjunctive.PropDisjunctive;
 import org.chocosolver.solver.constraints.nary.element.PropElementV_fast;
 import org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality;
 import org.chocosolver.solver.constraints.nary.lex.PropLex;
@@ -1153,6 +1154,27 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         ref().cumulative(tasks, h, ref().intVar(capacity), true, Cumulative.Filter.NAIVETIME).post();
     }
 
+    /**
+     * Creates a disjunctive constraint: Enforces that the tasks do not overlap,
+     * that is, they are processed one at a time on a unary resource.
+     * <p>
+     * It is equivalent to a cumulative constraint with unit heights and a capacity of 1,
+     * but filters with O(n log n) algorithms based on Theta-Lambda trees:
+     * overload checking, detectable precedences, not-first/not-last and edge-finding.
+     * <p>
+     * Task duration should be >= 0
+     * Discards tasks whose duration is equal to zero
+     *
+     * @param tasks Task objects containing start, duration and end variables
+     * @return a disjunctive constraint
+     */
+    default Constraint disjunctive(Task[] tasks) {
+        IntVar[] starts = Arrays.stream(tasks).map(Task::getStart).toArray(IntVar[]::new);
+        IntVar[] durations = Arrays.stream(tasks).map(Task::getDuration).toArray(IntVar[]::new);
+        IntVar[] ends = Arrays.stream(tasks).map(Task::getEnd).toArray(IntVar[]::new);
+        return new Constraint(ConstraintsName.DISJUNCTIVE, new PropDisjunctive(starts, durations, ends));
+    }
+
     /**
      * Creates a diffN constraint. Constrains each rectangle<sub>i</sub>, given by their origins X<sub>i</sub>,Y<sub>i</sub>
      * and sizes width<sub>i</sub>,height<sub>i</sub>, to be non-overlapping.
@@ -585,6 +585,20 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         } else return arity;
     }
 
+    /**
+     * Creates a new propagator, of the same kind as <code>this</code>, on <i>variables</i>.
+     * This is used by {@link Model#copy()} to rebuild the propagator in the model of <i>variables</i>,
+     * which are the copies of the variables of <code>this</code>, in the same order.
+     * By default, a propagator cannot be copied.
+     *
+     * @param variables copies of the variables of this propagator
+     * @return a copy of this propagator, defined on <i>variables</i>
+     * @throws SolverException if this propagator cannot be copied
+     */
+    public Propagator<V> copy(V[] variables) {
+        throw new SolverException(getClass().getSimpleName() + " cannot be copied");
+    }
+
     /**
      * Throws a contradiction exception
      *
@@ -804,6 +818,19 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         return 0;
     }
 
+    /**
+     * Set this as scheduled, if not already done.
+     * To be used by engines which manage their own queue of propagators.
+     * @return <i>true</i> if this was not scheduled yet, and thus has to be added to a queue
+     */
+    public boolean doSchedule(){
+        if(!scheduled) {
+            schedule();
+            return true;
+        }
+        return false;
+    }
+
     public void doScheduleEvent(int pindice, int mask){
         fineevt.accecpt(pindice, mask);
     }
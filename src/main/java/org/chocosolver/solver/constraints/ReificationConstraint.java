@@ -18,6 +18,7 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -108,6 +109,20 @@ public class ReificationConstraint extends Constraint {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * The reified constraint is copied, and its opposite is rebuilt, as done by {@link Constraint#reifyWith(BoolVar)}.
+     */
+    @Override
+    public Constraint copy(Map<Variable, Variable> mapping) {
+        BoolVar b = copyOf(new BoolVar[]{bool}, mapping)[0];
+        Constraint t = trueCons.copy(mapping);
+        Constraint f = t.getOpposite();
+        t.boolReif = b;
+        f.boolReif = b.not();
+        return new ReificationConstraint(b, t, f);
+    }
+
     @Override
     public ESat isSatisfied() {
         return propReif.isEntailed();
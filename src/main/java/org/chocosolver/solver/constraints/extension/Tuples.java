@@ -11,16 +11,19 @@ package org.chocosolver.solver.constraints.extension;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.sort.ArraySort;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * A unique interface to declare tuples for table constraints.
  * Handles both feasible tuples and forbidden tuples.
  * <br/>
+ * Tuples are stored one after the other in a single array of integers (row-major order).
+ * <br/>
  *
  * @author Charles Prud'homme
  * @since 22/04/2014
@@ -32,11 +35,22 @@ public class Tuples {
 	//***********************************************************************************
 
 	private final boolean feasible;
-	protected final List<int[]> tuples;
+	/**
+	 * Values of the tuples, in row-major order: the value of the j^th column of the i^th tuple is at i * arity + j
+	 */
+	private int[] tuples;
+	/**
+	 * Number of tuples stored
+	 */
+	private int size;
 	private int arity;
 	private int[] ranges;
 	private boolean allowStar;
 	private int star;
+	/**
+	 * Data derived from the tuples, shared by the propagators posted on them (see {@link #cache(Object, Function)})
+	 */
+	private final Map<Object, Object> cache = new HashMap<>();
 
 	//***********************************************************************************
 	// CONSTRUCTOR
@@ -53,7 +67,7 @@ public class Tuples {
      */
     public Tuples(int[][] values, boolean feasible) {
         this.feasible = feasible;
-        tuples = new ArrayList<>();
+        tuples = new int[values.length > 0 ? values.length * values[0].length : 0];
         for(int[] t : values){
             add(t);
         }
@@ -67,7 +81,7 @@ public class Tuples {
 	 */
 	public Tuples(boolean feasible) {
 		this.feasible = feasible;
-		tuples = new ArrayList<>();
+		tuples = new int[0];
 	}
 
 	/**
@@ -89,6 +103,7 @@ public class Tuples {
 	public void setUniversalValue(int star){
 		this.star = star;
 		this.allowStar = true;
+		clearCache();
 	}
 
 	/**
@@ -127,11 +142,10 @@ public class Tuples {
 				return ESat.UNDEFINED;
 			}
 		}
-		for (int ti = 0; ti < nbTuples(); ti++) {
-			int[] tuple = tuples.get(ti);
+		for (int ti = 0, o = 0; ti < size; ti++, o += arity) {
 			boolean valid = true;
 			for (int i = 0; i < values.length && valid; i++) {
-				valid = tuple[i] == values[i] || (allowStar && tuple[i] == star);
+				valid = tuples[o + i] == values[i] || (allowStar && tuples[o + i] == star);
 			}
 			if (valid) {
 				return isFeasible()? ESat.TRUE: ESat.FALSE;
@@ -147,7 +161,7 @@ public class Tuples {
 	 * @throws org.chocosolver.solver.exception.SolverException if the size of the tuple added does not correspond to a the previous ones (if any).
 	 */
 	public void add(int... tuple) {
-		if (tuples.size() == 0) {
+		if (size == 0) {
 			arity = tuple.length;
 			ranges = new int[2 * arity];
 			Arrays.fill(ranges, 0, arity, Integer.MAX_VALUE);
@@ -155,7 +169,12 @@ public class Tuples {
 		} else if (arity != tuple.length) {
 			throw new SolverException("The given tuple does not match the arity: " + arity);
 		}
-		tuples.add(tuple.clone());
+		if ((size + 1) * arity > tuples.length) {
+			tuples = Arrays.copyOf(tuples, Math.max((size + 1) * arity, tuples.length * 3 / 2));
+		}
+		System.arraycopy(tuple, 0, tuples, size * arity, arity);
+		size++;
+		clearCache();
 		for (int i = 0; i < arity; i++) {
 			ranges[i] = Math.min(ranges[i], tuple[i]);
 			ranges[i + arity] = Math.max(ranges[i + arity], tuple[i]);
@@ -208,21 +227,56 @@ public class Tuples {
 	 * @return number of tuples stored
 	 */
 	public int nbTuples() {
-		return tuples.size();
+		return size;
 	}
 
 	/**
-	 * Return the idx^th tuple
+	 * Return a copy of the idx^th tuple
 	 */
 	public int[] get(int idx) {
-		return tuples.get(idx);
+		return Arrays.copyOfRange(tuples, idx * arity, (idx + 1) * arity);
+	}
+
+	/**
+	 * Return the value of the col^th column of the idx^th tuple, without copying the tuple
+	 *
+	 * @param idx index of the tuple
+	 * @param col index of the column
+	 * @return the value of the col^th column of the idx^th tuple
+	 */
+	public int get(int idx, int col) {
+		return tuples[idx * arity + col];
+	}
+
+	/**
+	 * Copy the idx^th tuple into <i>tuple</i>, which can thus be reused from one tuple to another
+	 *
+	 * @param idx   index of the tuple
+	 * @param tuple an array whose length is the arity of the tuples
+	 */
+	public void get(int idx, int[] tuple) {
+		System.arraycopy(tuples, idx * arity, tuple, 0, arity);
+	}
+
+	/**
+	 * Return the values of the idx^th column, that is a columnar view of the tuples
+	 *
+	 * @param idx index of the column
+	 * @return a new array which contains the value of each tuple for the idx^th column
+	 */
+	public int[] getColumn(int idx) {
+		int[] column = new int[size];
+		for (int i = 0, o = idx; i < size; i++, o += arity) {
+			column[i] = tuples[o];
+		}
+		return column;
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder st = new StringBuilder(isFeasible() ? "Allowed" : "Fordidden").append(" tuples: {");
-		for (int i = 0; i < tuples.size(); i++) {
-			st.append(Arrays.toString(tuples.get(i)));
+		for (int i = 0; i < size; i++) {
+			st.append(Arrays.toString(get(i)));
 		}
 
 		st.append("}");
@@ -234,28 +288,86 @@ public class Tuples {
 	 * @return an array of tuples, each tuple is an int array
 	 */
 	public int[][] toMatrix() {
-		int i = 0;
-		int[][] matrix = new int[tuples.size()][];
-		for (int[] tuple : tuples) {
-			matrix[i++] = tuple.clone();
+		int[][] matrix = new int[size][];
+		for (int i = 0; i < size; i++) {
+			matrix[i] = get(i);
 		}
 		return matrix;
 	}
 
+	/**
+	 * Sort the tuples in lexicographic order
+	 */
 	public void sort() {
-		tuples.sort(new TupleComparator());
+		int[] order = order();
+		int[] sorted = new int[size * arity];
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(tuples, order[i] * arity, sorted, i * arity, arity);
+		}
+		tuples = sorted;
+		clearCache();
 	}
 
-	private static class TupleComparator implements Comparator<int[]> {
+	/**
+	 * Sort the tuples in lexicographic order and remove the duplicated ones
+	 */
+	public void removeDuplicates() {
+		int[] order = order();
+		int[] unique = new int[size * arity];
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (n == 0 || compare(unique, (n - 1) * arity, tuples, order[i] * arity) != 0) {
+				System.arraycopy(tuples, order[i] * arity, unique, n * arity, arity);
+				n++;
+			}
+		}
+		tuples = unique;
+		size = n;
+		clearCache();
+	}
 
-		@Override
-		public int compare(int[] o1, int[] o2) {
-			int i = 0;
-			int l = o1.length;
-			while (i < l && o1[i] == o2[i]) {
-				i++;
+	/**
+	 * @return the indices of the tuples, in lexicographic order of the tuples
+	 */
+	private int[] order() {
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		new ArraySort<>(size, false, true).sort(order, size, (i, j) -> compare(tuples, i * arity, tuples, j * arity));
+		return order;
+	}
+
+	private int compare(int[] t1, int o1, int[] t2, int o2) {
+		for (int i = 0; i < arity; i++) {
+			if (t1[o1 + i] != t2[o2 + i]) {
+				return Integer.compare(t1[o1 + i], t2[o2 + i]);
 			}
-			return (i == l ? 0 : o1[i] - o2[i]);
+		}
+		return 0;
+	}
+
+	/**
+	 * Return the data associated with <i>key</i>, computing it with <i>builder</i> the first time.
+	 * This enables propagators posted on the same tuples to share their immutable data structures,
+	 * such as the supports of the values.
+	 * The data is forgotten as soon as the tuples are modified.
+	 * @param key a key, which identifies the data
+	 * @param builder computes the data from the key
+	 * @param <K> type of the key
+	 * @param <V> type of the data
+	 * @return the data associated with <i>key</i>
+	 */
+	@SuppressWarnings("unchecked")
+	public <K, V> V cache(K key, Function<K, V> builder) {
+		synchronized (cache) {
+			return (V) cache.computeIfAbsent(key, k -> builder.apply((K) k));
+		}
+	}
+
+	private void clearCache() {
+		synchronized (cache) {
+			cache.clear();
 		}
 	}
 }
@@ -342,14 +342,14 @@ public class TuplesFactory {
         Tuples left = generateTuples(TupleValidator.TRUE, true, VARS);
         Tuples tuples = new Tuples(true);
         int n = VARS.length;
-        for (int[] tleft : left.tuples) {
+        int[] t = new int[n + 1];
+        for (int k = 0; k < left.nbTuples(); k++) {
             int right = 0;
             for (int i = 0; i < n; i++) {
-                right += tleft[i] * COEFFS[i];
+                t[i] = left.get(k, i);
+                right += t[i] * COEFFS[i];
             }
             if (right % SCALAR_COEFF == 0 && SCALAR.contains(right / SCALAR_COEFF)) {
-                int[] t = new int[n + 1];
-                System.arraycopy(tleft, 0, t, 0, n);
                 t[n] = right / SCALAR_COEFF;
                 tuples.add(t);
             }
@@ -21,6 +21,8 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 
+import java.util.Arrays;
+
 /**
  * Propagator for table constraint based on
  * "Compact-Table: Efficiently Filtering Table Constraints with Reversible Sparse Bit-Sets"
@@ -92,33 +94,91 @@ public class PropCompactTable extends Propagator<IntVar> {
         supports = new long[n][][];
         residues = new int[n][];
 		for (int i = 0; i < n; i++) {
-            int lb = vars[i].getLB();
-            int ub = vars[i].getUB();
-            offset[i] = lb;
-            supports[i] = new long[ub - lb + 1][currTable.words.length];
-            residues[i] = new int[ub - lb + 1];
+            offset[i] = vars[i].getLB();
+            supports[i] = supports(tuples, i, false);
+            residues[i] = new int[supports[i].length];
+        }
+    }
+
+    /**
+     * Get the supports of the values of <i>vars[i]</i>, indexed from its lower bound.
+     * Supports only depend on the tuples and on the initial domain of the variable,
+     * so they are computed once and shared by all propagators posted on the same tuples.
+     * They must not be modified.
+     * @param tuples list of feasible tuples
+     * @param i index of a variable
+     * @param star set to <i>true</i> to consider that the universal value supports any value
+     * @return the supports of the values of <i>vars[i]</i>
+     */
+    protected long[][] supports(Tuples tuples, int i, boolean star) {
+        return tuples.cache(new SupportKey(i, vars[i], star), k -> k.computeSupports(tuples));
+    }
+
+    /**
+     * Identifies the supports of a column of the tuples, for a given initial domain
+     */
+    private static final class SupportKey {
+        private final int column;
+        private final int[] values;
+        private final boolean star;
+
+        private SupportKey(int column, IntVar var, boolean star) {
+            this.column = column;
+            this.values = new int[var.getDomainSize()];
+            int ub = var.getUB();
+            int k = 0;
+            for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+                values[k++] = v;
+            }
+            this.star = star;
+        }
+
+        /**
+         * Compute the supports in a single pass over the tuples
+         */
+        private long[][] computeSupports(Tuples tuples) {
+            int lb = values[0];
+            int ub = values[values.length - 1];
+            int nw = (tuples.nbTuples() + 63) / 64;
+            long[][] supports = new long[ub - lb + 1][nw];
+            boolean[] in = new boolean[supports.length];
+            for (int v : values) {
+                in[v - lb] = true;
+            }
+            // tuples which support any value
+            long[] any = star ? new long[nw] : null;
+            int sv = star ? tuples.getStarValue() : 0;
+            for (int ti = 0; ti < tuples.nbTuples(); ti++) {
+                int val = tuples.get(ti, column);
+                if (star && val == sv) {
+                    any[ti >> 6] |= 1L << (63 - (ti & 63));
+                } else if (lb <= val && val <= ub && in[val - lb]) {
+                    supports[val - lb][ti >> 6] |= 1L << (63 - (ti & 63));
+                }
+            }
+            if (star) {
+                for (int v : values) {
+                    long[] tmp = supports[v - lb];
+                    for (int w = 0; w < nw; w++) {
+                        tmp[w] |= any[w];
+                    }
+                }
+            }
+            return supports;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SupportKey that = (SupportKey) o;
+            return column == that.column && star == that.star && Arrays.equals(values, that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * column + (star ? 1 : 0)) + Arrays.hashCode(values);
         }
-		long[] tmp;
-		for (int i = 0; i < n; i++) {
-			int lb = vars[i].getLB();
-			int ub = vars[i].getUB();
-			offset[i] = lb;
-			for (int v=lb ; v<=ub; v=vars[i].nextValue(v)) {
-				tmp = supports[i][v - lb];
-				int wI = 0;
-				int bI = 63;
-				for (int ti = 0; ti < tuples.nbTuples(); ti++) {
-					if (tuples.get(ti)[i] == v) {
-						tmp[wI] |= 1L << (bI);
-					}
-					bI--;
-					if (bI < 0) {
-						bI = 63;
-						wI++;
-					}
-				}
-			}
-		}
     }
 
     //***********************************************************************************
@@ -74,35 +74,11 @@ public class PropCompactTableStar extends PropCompactTable {
         inc_supports = new long[n][][];
         residues = new int[n][];
         for (int i = 0; i < n; i++) {
-            int lb = vars[i].getLB();
-            int ub = vars[i].getUB();
-            offset[i] = lb;
-            supports[i] = new long[ub - lb + 1][currTable.words.length];
-            inc_supports[i] = new long[ub - lb + 1][currTable.words.length];
-            residues[i] = new int[ub - lb + 1];
-            for (int v=lb ; v<=ub; v=vars[i].nextValue(v)) {
-                long[] tmp = supports[i][v - lb];
-                long[] inc_tmp = inc_supports[i][v - lb];
-                int wI = 0;
-                int bI = 63;
-                for (int ti = 0; ti < tuples.nbTuples(); ti++) {
-                    int val = tuples.get(ti)[i];
-                    long index = 1L << bI;
-                    if (val == v) {
-                        // main reason we re-wrote the class
-                        inc_tmp[wI] |= index;
-                        tmp[wI] |= index;
-                    }else if(val == tuples.getStarValue()){
-                        // main reason we re-wrote the class
-                        tmp[wI] |= index;
-                    }
-                    bI--;
-                    if (bI < 0) {
-                        bI = 63;
-                        wI++;
-                    }
-                }
-            }
+            offset[i] = vars[i].getLB();
+            // main reason we re-wrote the class
+            supports[i] = supports(tuples, i, true);
+            inc_supports[i] = supports(tuples, i, false);
+            residues[i] = new int[supports[i].length];
         }
     }
-}
\ No newline at end of file
+}
@@ -46,10 +46,11 @@ public class TuplesList extends LargeRelation {
         int nb = tuples.nbTuples();
         int[][] _tuplesIndexes = new int[nb][];
         int k = 0;
+        int[] tuple = new int[vars.length];
         for (int i = 0; i < nb; i++) {
-            int[] tuple = tuples.get(i);
+            tuples.get(i, tuple);
             if (valid(tuple, vars)) {
-                _tuplesIndexes[k++] = tuple;
+                _tuplesIndexes[k++] = tuple.clone();
             }
         }
         tuplesIndexes = new int[k][];
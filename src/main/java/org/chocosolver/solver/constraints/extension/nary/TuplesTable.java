@@ -68,8 +68,9 @@ public class TuplesTable extends LargeRelation {
         }
         table = new BitSet(totalSize);
         int nt = tuples.nbTuples();
+        int[] tuple = new int[vars.length];
         for (int i = 0; i < nt; i++) {
-            int[] tuple = tuples.get(i);
+            tuples.get(i, tuple);
             if (valid(tuple, vars)) {
                 setTuple(tuple);
             }
@@ -36,8 +36,9 @@ public class TuplesVeryLargeTable extends LargeRelation {
         feasible = tuples.isFeasible();
         supports = new TIntObjectHashMap<>();
         int nt = tuples.nbTuples();
+        int[] tuple = new int[vars.length];
         for (int i = 0; i < nt; i++) {
-            int[] tuple = tuples.get(i);
+            tuples.get(i, tuple);
             if (valid(tuple, vars)) {
                 setTuple(tuple);
             }
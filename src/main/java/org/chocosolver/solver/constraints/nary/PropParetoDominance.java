@@ -0,0 +1,113 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.NDTree;
+
+/**
+ * Propagator which forbids the objectives to take values dominated by a point of a Pareto front,
+ * that is, for each point of the front, at least one objective must be strictly better than in the point.
+ * <p>
+ * The front is an archive of nondominated points, expressed for minimization (see {@link NDTree}),
+ * which can be updated during the search, as long as {@link #onFrontUpdate()} is called then.
+ * Let <i>lb</i> be the best values the objectives can take:
+ * it fails if a point of the front weakly dominates <i>lb</i>, and, for each objective <i>j</i>,
+ * it forbids values of <i>j</i> not better than the best value <i>j</i> takes among the points
+ * which weakly dominate <i>lb</i> on the other objectives.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class PropParetoDominance extends Propagator<IntVar> {
+
+    /**
+     * Set to <tt>true</tt> when objectives are maximized
+     */
+    private final boolean maximize;
+    /**
+     * Nondominated points, for minimization
+     */
+    private final NDTree front;
+    /**
+     * Best values the objectives can take, for minimization
+     */
+    private final int[] lb;
+
+    /**
+     * Create a propagator which filters <i>objectives</i> against <i>front</i>.
+     *
+     * @param objectives objective variables, all optimized in the same direction
+     * @param maximize   set to <tt>true</tt> if the objectives are maximized,
+     *                   the points of <i>front</i> are then the opposite of their values
+     * @param front      the front, in minimization form
+     */
+    public PropParetoDominance(IntVar[] objectives, boolean maximize, NDTree front) {
+        super(objectives, PropagatorPriority.LINEAR, false);
+        this.maximize = maximize;
+        this.front = front;
+        this.lb = new int[objectives.length];
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return maximize ? IntEventType.DECUPP.getMask() | IntEventType.INSTANTIATE.getMask()
+                : IntEventType.INCLOW.getMask() | IntEventType.INSTANTIATE.getMask();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (front.size() == 0) {
+            return;
+        }
+        fillBounds();
+        if (front.weaklyDominates(lb)) {
+            fails();
+        }
+        for (int j = 0; j < vars.length; j++) {
+            int m = front.minDominatingBut(lb, j);
+            if (m != Integer.MAX_VALUE) {
+                // the j-th objective has to be strictly better than m
+                if (maximize) {
+                    vars[j].updateLowerBound(1 - m, this);
+                } else {
+                    vars[j].updateUpperBound(m - 1, this);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        fillBounds();
+        if (front.weaklyDominates(lb)) {
+            return ESat.FALSE;
+        }
+        return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    /**
+     * To be called when points are added to the front,
+     * the filtering is then applied on the next backtrack.
+     */
+    public void onFrontUpdate() {
+        forcePropagationOnBacktrack();
+    }
+
+    private void fillBounds() {
+        for (int i = 0; i < vars.length; i++) {
+            lb[i] = maximize ? -vars[i].getUB() : vars[i].getLB();
+        }
+    }
+}
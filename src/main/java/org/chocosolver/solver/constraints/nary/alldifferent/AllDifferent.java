@@ -13,6 +13,9 @@ import org.chocosolver.solver.constraints.ConstraintsName;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.binary.PropNotEqualX_Y;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Map;
 
 /**
  * Ensures that all variables from VARS take a different value.
@@ -26,8 +29,19 @@ public class AllDifferent extends Constraint {
     public static final String NEQS= "NEQS";
     public static final String DEFAULT= "DEFAULT";
 
+    // required to copy the constraint
+    private final IntVar[] vars;
+    private final String type;
+
     public AllDifferent(IntVar[] vars, String type) {
         super(ConstraintsName.ALLDIFFERENT, createPropagators(vars, type));
+        this.vars = vars;
+        this.type = type;
+    }
+
+    @Override
+    public Constraint copy(Map<Variable, Variable> mapping) {
+        return new AllDifferent(copyOf(vars, mapping), type);
     }
 
     private static Propagator[] createPropagators(IntVar[] VARS, String consistency) {
@@ -0,0 +1,444 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.memory.IEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * A reversible profile of the compulsory parts of tasks.
+ * <p>
+ * The profile is stored as breakpoints: each of them is a time and the variation of the load at that time.
+ * Breakpoints are kept in a balanced binary search tree (a treap) whose nodes maintain the sum of
+ * variations, and the maximum and minimum prefix sums, of their sub-tree.
+ * This gives the load at any time, the maximum load over an interval, or the first (last) time in an interval
+ * where the load exceeds a threshold, in O(log n).
+ * <p>
+ * The compulsory part recorded for a task is only modified through {@link #set(int, int, int, int)},
+ * which updates the breakpoints in O(log n) and saves the previous part in the environment,
+ * to be restored upon backtrack.
+ * So, a caller only has to report the tasks whose compulsory part changed since the last call.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class CompulsoryProfile {
+
+    /**
+     * No node, or no time found
+     */
+    static final int NONE = Integer.MIN_VALUE;
+
+    private final IEnvironment environment;
+    /**
+     * Compulsory part recorded for each task: [start, end) with height
+     */
+    private final int[] start, end, height;
+    /**
+     * Treap nodes: time, variation of the load, priority and children
+     */
+    private int[] key, delta, prio, left, right;
+    /**
+     * Aggregates of the sub-trees: sum of variations, maximum and minimum prefix sums
+     */
+    private int[] sum, maxP, minP;
+    /**
+     * Root of the treap, number of nodes ever allocated and free nodes
+     */
+    private int root, size, nbFree;
+    private int[] free;
+    /**
+     * Seed of the priorities
+     */
+    private int seed = 0x2545F491;
+
+    /**
+     * Create an empty profile
+     *
+     * @param n           number of tasks
+     * @param environment environment in which modifications are saved
+     */
+    public CompulsoryProfile(int n, IEnvironment environment) {
+        this.environment = environment;
+        this.start = new int[n];
+        this.end = new int[n];
+        this.height = new int[n];
+        int c = 16;
+        this.key = new int[c];
+        this.delta = new int[c];
+        this.prio = new int[c];
+        this.left = new int[c];
+        this.right = new int[c];
+        this.sum = new int[c];
+        this.maxP = new int[c];
+        this.minP = new int[c];
+        this.free = new int[c];
+        // node 0 is the empty tree
+        this.maxP[0] = Integer.MIN_VALUE;
+        this.minP[0] = Integer.MAX_VALUE;
+        this.size = 1;
+        this.root = 0;
+    }
+
+    //***********************************************************************************
+    // TASKS
+    //***********************************************************************************
+
+    /**
+     * Set the compulsory part of task <i>t</i> to [s,e) with height <i>h</i>.
+     * The part is empty when <i>s &ge; e</i> or <i>h = 0</i>.
+     * The previous part is restored upon backtrack.
+     *
+     * @param t a task
+     * @param s start of its compulsory part
+     * @param e end of its compulsory part
+     * @param h height of its compulsory part
+     */
+    public void set(int t, int s, int e, int h) {
+        if (s >= e || h == 0) {
+            s = e = h = 0;
+        }
+        if (start[t] != s || end[t] != e || height[t] != h) {
+            int ps = start[t], pe = end[t], ph = height[t];
+            environment.save(() -> replace(t, ps, pe, ph));
+            replace(t, s, e, h);
+        }
+    }
+
+    private void replace(int t, int s, int e, int h) {
+        shift(t, -1, true);
+        start[t] = s;
+        end[t] = e;
+        height[t] = h;
+        shift(t, 1, true);
+    }
+
+    /**
+     * Remove temporarily the compulsory part of <i>t</i>, this is not saved.
+     * Breakpoints are kept, even when their variation becomes null, so that {@link #include(int)} does not
+     * have to insert them again.
+     *
+     * @param t a task
+     */
+    public void exclude(int t) {
+        shift(t, -1, false);
+    }
+
+    /**
+     * Restore the compulsory part of <i>t</i> after a call to {@link #exclude(int)}
+     *
+     * @param t a task
+     */
+    public void include(int t) {
+        shift(t, 1, true);
+    }
+
+    private void shift(int t, int sign, boolean remove) {
+        if (height[t] > 0) {
+            add(start[t], sign * height[t], remove);
+            add(end[t], -sign * height[t], remove);
+        }
+    }
+
+    /**
+     * @param t a task
+     * @return the start of the compulsory part of <i>t</i>
+     */
+    public int getStart(int t) {
+        return start[t];
+    }
+
+    /**
+     * @param t a task
+     * @return the end of the compulsory part of <i>t</i>
+     */
+    public int getEnd(int t) {
+        return end[t];
+    }
+
+    //***********************************************************************************
+    // QUERIES
+    //***********************************************************************************
+
+    /**
+     * @return the maximum load of the profile
+     */
+    public int maxLoad() {
+        return Math.max(0, maxP[root]);
+    }
+
+    /**
+     * @param time a time
+     * @return the load at <i>time</i>
+     */
+    public int load(int time) {
+        int load = 0;
+        int x = root;
+        while (x != 0) {
+            if (key[x] <= time) {
+                load += sum[left[x]] + delta[x];
+                x = right[x];
+            } else {
+                x = left[x];
+            }
+        }
+        return load;
+    }
+
+    /**
+     * @param a first time of the interval
+     * @param b end of the interval (excluded)
+     * @return the maximum load over [a,b)
+     */
+    public int maxLoad(int a, int b) {
+        return Math.max(load(a), max(root, 0, a, b, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    /**
+     * @param a         first time of the interval
+     * @param b         end of the interval (excluded)
+     * @param threshold a load
+     * @return the first time in [a,b) where the load exceeds <i>threshold</i>, {@link #NONE} if there is none
+     */
+    public int firstAbove(int a, int b, int threshold) {
+        if (load(a) > threshold) {
+            return a;
+        }
+        return search(root, 0, a, b, threshold, true, true, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param a         a time where the load exceeds <i>threshold</i>
+     * @param threshold a non-negative load
+     * @return the first time after <i>a</i> where the load is at most <i>threshold</i>
+     */
+    public int firstAtMostAfter(int a, int threshold) {
+        int k = search(root, 0, a, Integer.MAX_VALUE, threshold, false, true, Long.MIN_VALUE, Long.MAX_VALUE);
+        // the load is null after the last breakpoint
+        assert k != NONE;
+        return k;
+    }
+
+    /**
+     * @param a         first time of the interval
+     * @param b         end of the interval (excluded)
+     * @param threshold a load
+     * @return the last time of [a,b), either <i>a</i> or a breakpoint, from which the load exceeds
+     * <i>threshold</i>, {@link #NONE} if there is none.
+     * This is the start of the last segment of constant load which exceeds <i>threshold</i>, unless a task is excluded
+     */
+    public int lastAbove(int a, int b, int threshold) {
+        int k = search(root, 0, a, b, threshold, true, false, Long.MIN_VALUE, Long.MAX_VALUE);
+        if (k == NONE && load(a) > threshold) {
+            return a;
+        }
+        return k;
+    }
+
+    /**
+     * @param b         a time where the load exceeds <i>threshold</i>
+     * @param threshold a non-negative load
+     * @return the end of the last segment of constant load which is at most <i>threshold</i> and
+     * starts before <i>b</i> (excluded)
+     */
+    public int lastAtMostBefore(int b, int threshold) {
+        int k = search(root, 0, Integer.MIN_VALUE, b, threshold, false, false, Long.MIN_VALUE, Long.MAX_VALUE);
+        // the load is null before the first breakpoint
+        return k == NONE ? first() : next(k);
+    }
+
+    /**
+     * @return the first breakpoint
+     */
+    private int first() {
+        int x = root;
+        while (left[x] != 0) {
+            x = left[x];
+        }
+        return key[x];
+    }
+
+    /**
+     * @return the first breakpoint after <i>time</i> (excluded)
+     */
+    private int next(int time) {
+        int k = Integer.MAX_VALUE;
+        int x = root;
+        while (x != 0) {
+            if (key[x] > time) {
+                k = key[x];
+                x = left[x];
+            } else {
+                x = right[x];
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Search, in the sub-tree <i>x</i>, the first (or last) breakpoint in (lo,hi) at which the load
+     * is above (or at most) <i>threshold</i>.
+     *
+     * @param offset sum of the variations before the sub-tree
+     * @param kmin   keys of the sub-tree are greater than <i>kmin</i>
+     * @param kmax   keys of the sub-tree are smaller than <i>kmax</i>
+     */
+    private int search(int x, int offset, long lo, long hi, int threshold, boolean above, boolean first,
+                       long kmin, long kmax) {
+        if (x == 0 || kmax <= lo + 1 || kmin >= hi - 1) {
+            return NONE;
+        }
+        if (kmin >= lo && kmax <= hi) {
+            // the sub-tree is in the range
+            if (above ? offset + maxP[x] <= threshold : offset + minP[x] > threshold) {
+                return NONE;
+            }
+        }
+        int k = key[x];
+        int pk = offset + sum[left[x]] + delta[x];
+        boolean in = lo < k && k < hi && (above ? pk > threshold : pk <= threshold);
+        int r;
+        if (first) {
+            r = search(left[x], offset, lo, hi, threshold, above, true, kmin, k);
+            if (r == NONE) {
+                r = in ? k : search(right[x], pk, lo, hi, threshold, above, true, k, kmax);
+            }
+        } else {
+            r = search(right[x], pk, lo, hi, threshold, above, false, k, kmax);
+            if (r == NONE) {
+                r = in ? k : search(left[x], offset, lo, hi, threshold, above, false, kmin, k);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @return the maximum load at the breakpoints of the sub-tree <i>x</i> in (lo, hi)
+     */
+    private int max(int x, int offset, long lo, long hi, long kmin, long kmax) {
+        if (x == 0 || kmax <= lo + 1 || kmin >= hi - 1) {
+            return Integer.MIN_VALUE;
+        }
+        if (kmin >= lo && kmax <= hi) {
+            return offset + maxP[x];
+        }
+        int k = key[x];
+        int pk = offset + sum[left[x]] + delta[x];
+        int m = Math.max(max(left[x], offset, lo, hi, kmin, k), max(right[x], pk, lo, hi, k, kmax));
+        return lo < k && k < hi ? Math.max(m, pk) : m;
+    }
+
+    //***********************************************************************************
+    // TREAP
+    //***********************************************************************************
+
+    /**
+     * Add <i>d</i> to the variation of the load at <i>time</i>,
+     * the breakpoint is removed when its variation becomes null and <i>remove</i> is set
+     */
+    private void add(int time, int d, boolean remove) {
+        root = insert(root, time, d, remove);
+    }
+
+    private int insert(int x, int time, int d, boolean remove) {
+        if (x == 0) {
+            return newNode(time, d);
+        }
+        if (key[x] == time) {
+            delta[x] += d;
+            if (delta[x] == 0 && remove) {
+                int y = merge(left[x], right[x]);
+                free[nbFree++] = x;
+                return y;
+            }
+        } else if (time < key[x]) {
+            // the arrays may grow while inserting
+            int l = insert(left[x], time, d, remove);
+            left[x] = l;
+            if (left[x] != 0 && prio[left[x]] > prio[x]) {
+                int y = left[x];
+                left[x] = right[y];
+                right[y] = x;
+                pull(x);
+                x = y;
+            }
+        } else {
+            int r = insert(right[x], time, d, remove);
+            right[x] = r;
+            if (right[x] != 0 && prio[right[x]] > prio[x]) {
+                int y = right[x];
+                right[x] = left[y];
+                left[y] = x;
+                pull(x);
+                x = y;
+            }
+        }
+        pull(x);
+        return x;
+    }
+
+    private int merge(int a, int b) {
+        if (a == 0 || b == 0) {
+            return a + b;
+        }
+        if (prio[a] > prio[b]) {
+            right[a] = merge(right[a], b);
+            pull(a);
+            return a;
+        } else {
+            left[b] = merge(a, left[b]);
+            pull(b);
+            return b;
+        }
+    }
+
+    private void pull(int x) {
+        int l = left[x], r = right[x];
+        int p = sum[l] + delta[x];
+        sum[x] = p + sum[r];
+        maxP[x] = Math.max(Math.max(maxP[l], p), r == 0 ? p : p + maxP[r]);
+        minP[x] = Math.min(Math.min(minP[l], p), r == 0 ? p : p + minP[r]);
+    }
+
+    private int newNode(int time, int d) {
+        int x;
+        if (nbFree > 0) {
+            x = free[--nbFree];
+        } else {
+            if (size == key.length) {
+                grow();
+            }
+            x = size++;
+        }
+        key[x] = time;
+        delta[x] = d;
+        // xorshift
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        prio[x] = seed & Integer.MAX_VALUE;
+        left[x] = right[x] = 0;
+        pull(x);
+        return x;
+    }
+
+    private void grow() {
+        int c = key.length * 2;
+        key = Arrays.copyOf(key, c);
+        delta = Arrays.copyOf(delta, c);
+        prio = Arrays.copyOf(prio, c);
+        left = Arrays.copyOf(left, c);
+        right = Arrays.copyOf(right, c);
+        sum = Arrays.copyOf(sum, c);
+        maxP = Arrays.copyOf(maxP, c);
+        minP = Arrays.copyOf(minP, c);
+        free = Arrays.copyOf(free, c);
+    }
+}
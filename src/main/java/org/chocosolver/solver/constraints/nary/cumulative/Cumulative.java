@@ -41,8 +41,12 @@ public class Cumulative extends Constraint {
      *                         - TIME: filters time-table from considering each point in time
      *                         (efficient in practice as long as the time horizon is not too high)
      *                         - SWEEP: filters time-table with a sweep-based algorithm
+     *                         - PROFILE: filters time-table with a reversible profile, updated incrementally
      *                         - NRJ: greedy energy-based filter.
-     *                         BEWARE: should not be used alone, use it in addition to either SWEEP or TIME.
+     *                         - TTEF: time-table edge-finding.
+     *                         - ENERGETIC: energetic reasoning.
+     *                         BEWARE: NRJ, TTEF and ENERGETIC should not be used alone,
+     *                         use them in addition to either SWEEP or TIME.
      *
      */
     public Cumulative(Task[] tasks, IntVar[] heights, IntVar capacity, boolean graphBased, Filter... filters) {
@@ -145,6 +149,16 @@ public class Cumulative extends Constraint {
 				return new NaiveTimeCumulFilter(n);
 			}
 		},
+		/**
+		 * time-table algorithm based on a reversible profile of compulsory parts,
+		 * updated incrementally (independent of the time horizon)
+		 * not idempotent
+		 */
+		PROFILE{
+			public CumulFilter make(int n){
+				return new ProfileCumulFilter(n);
+			}
+		},
 		/**
 		 * time-table algorithm based on a sweep line
 		 * idempotent (on the given set of variables only)
@@ -184,6 +198,26 @@ public class Cumulative extends Constraint {
 				return new DisjunctiveTaskIntervalFilter(n);
 			}
 		},
+		/**
+		 * time-table edge-finding, in O(n^2)
+		 * not idempotent
+		 * not enough to ensure correctness (only an additional filtering)
+		 */
+		TTEF {
+			public CumulFilter make(int n){
+				return new TTEFCumulFilter(n);
+			}
+		},
+		/**
+		 * energetic reasoning on O(n^2) intervals, in O(n^2 log n) plus the adjustments
+		 * not idempotent
+		 * not enough to ensure correctness (only an additional filtering)
+		 */
+		ENERGETIC {
+			public CumulFilter make(int n){
+				return new EnergeticCumulFilter(n);
+			}
+		},
 		/**
 		 * Combines above filters as a black-box
 		 * not idempotent
@@ -0,0 +1,155 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * Energetic reasoning, with a bounded cost.
+ * <p>
+ * The minimal intersection of a task with an interval [a,b) is the energy it has to consume in it,
+ * whether it is left-shifted or right-shifted.
+ * The resource is overloaded when the sum of minimal intersections exceeds the capacity times b-a.
+ * Otherwise, a task which would consume more than the remaining energy plus its minimal intersection
+ * when started at its earliest starting time is pushed.
+ * <p>
+ * Intervals are the O(n^2) ones of Baptiste et al.: <i>a</i> is an earliest starting time, a latest starting
+ * time or an earliest completion time, <i>b</i> is a latest completion time, an earliest completion time
+ * or a latest starting time.
+ * For a given <i>a</i>, the energy is maintained over increasing <i>b</i> with a sweep, in O(n log n).
+ * Tasks are only visited when the remaining energy is smaller than the largest energy a task can
+ * consume in the interval, which bounds the cost of the adjustments in practice.
+ * @author Charles Prud'homme
+ * @see "P. Baptiste, C. Le Pape, W. Nuijten, Satisfiability tests and time-bound adjustments for cumulative
+ * scheduling problems, Annals of Operations Research, 1999."
+ * @since 4.0.9
+ */
+public class EnergeticCumulFilter extends SymmetricCumulFilter {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	/**
+	 * Candidate bounds of intervals
+	 */
+	private final int[] as, bs;
+	/**
+	 * Slope changes of the energy, for a given lower bound:
+	 * time in the high bits, event in the low bits (2k for an increase, 2k+1 for a decrease)
+	 */
+	private final long[] events;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public EnergeticCumulFilter(int n) {
+		super(n);
+		as = new int[3 * n];
+		bs = new int[3 * n];
+		events = new long[2 * n];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	protected void filterStarts(Propagator<IntVar> aCause) throws ContradictionException {
+		int hmax = 0, pmax = 0;
+		for (int k = 0; k < m; k++) {
+			as[3 * k] = est[k];
+			as[3 * k + 1] = lct[k] - p[k];
+			as[3 * k + 2] = est[k] + p[k];
+			bs[3 * k] = lct[k];
+			bs[3 * k + 1] = est[k] + p[k];
+			bs[3 * k + 2] = lct[k] - p[k];
+			hmax = Math.max(hmax, h[k]);
+			pmax = Math.max(pmax, p[k]);
+		}
+		int na = distinct(as, 3 * m);
+		int nb = distinct(bs, 3 * m);
+		for (int x = 0; x < na; x++) {
+			int a = as[x];
+			// minimal intersection of k with [a,b) is h(k).min(max(0, b - max(a, lst(k))), min(p(k), ect(k) - a))
+			int ne = 0;
+			for (int k = 0; k < m; k++) {
+				int c = Math.min(p[k], est[k] + p[k] - a);
+				if (c > 0) {
+					int u = Math.max(a, lct[k] - p[k]);
+					events[ne++] = ((long) u << 32) | (2 * k);
+					events[ne++] = ((long) (u + c) << 32) | (2 * k + 1);
+				}
+			}
+			Arrays.sort(events, 0, ne);
+			long energy = 0, slope = 0;
+			int t = a, q = 0;
+			for (int y = 0; y < nb; y++) {
+				int b = bs[y];
+				if (b <= a) {
+					continue;
+				}
+				while (q < ne && (int) (events[q] >> 32) <= b) {
+					int tq = (int) (events[q] >> 32);
+					int evt = (int) events[q++];
+					energy += slope * (tq - t);
+					t = tq;
+					slope += (evt & 1) == 0 ? h[evt >> 1] : -h[evt >> 1];
+				}
+				energy += slope * (b - t);
+				t = b;
+				long slack = (long) capacity * (b - a) - energy;
+				if (slack < 0) {
+					aCause.fails();
+				}
+				if (slack < (long) hmax * Math.min(b - a, pmax)) {
+					adjust(a, b, slack);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Push the tasks which, started at their earliest starting time, would exceed the energy available in [a,b)
+	 */
+	private void adjust(int a, int b, long slack) {
+		for (int k = 0; k < m; k++) {
+			if (est[k] < b) {
+				int ect = est[k] + p[k];
+				int lst = lct[k] - p[k];
+				long mi = (long) h[k] * Math.max(0, Math.min(Math.min(b - a, p[k]), Math.min(ect - a, b - lst)));
+				long ls = (long) h[k] * Math.max(0, Math.min(Math.min(b - a, p[k]), Math.min(ect - a, b - est[k])));
+				if (ls - mi > slack) {
+					long r = (slack + mi) / h[k];
+					nest[k] = (int) Math.max(nest[k], b - r);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sort the first <i>n</i> values of <i>values</i> and remove duplicates.
+	 * @return the number of distinct values
+	 */
+	private static int distinct(int[] values, int n) {
+		Arrays.sort(values, 0, n);
+		int d = 0;
+		for (int i = 0; i < n; i++) {
+			if (d == 0 || values[d - 1] != values[i]) {
+				values[d++] = values[i];
+			}
+		}
+		return d;
+	}
+}
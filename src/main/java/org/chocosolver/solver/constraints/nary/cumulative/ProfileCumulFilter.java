@@ -0,0 +1,120 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+
+/**
+ * Time-table filtering based on a reversible profile of compulsory parts (see {@link CompulsoryProfile}).
+ * The profile is only updated for tasks whose compulsory part changed since the last call,
+ * and the filtering of a task jumps from one breakpoint of the profile to the other,
+ * so that a call does not depend on the time horizon.
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ProfileCumulFilter extends CumulFilter {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	/**
+	 * Created on the first call, from the environment of the propagator
+	 */
+	private CompulsoryProfile profile;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public ProfileCumulFilter(int nbMaxTasks) {
+		super(nbMaxTasks);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public void filter(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, IntVar capa, ISet tasks, Propagator<IntVar> aCause) throws ContradictionException {
+		if (profile == null) {
+			profile = new CompulsoryProfile(nbMaxTasks, aCause.getModel().getEnvironment());
+		}
+		ISetIterator tIter = tasks.iterator();
+		while (tIter.hasNext()) {
+			int i = tIter.nextInt();
+			profile.set(i, s[i].getUB(), e[i].getLB(), h[i].getLB());
+		}
+		capa.updateLowerBound(profile.maxLoad(), aCause);
+		int capaMax = capa.getUB();
+		int maxLoad = profile.maxLoad();
+		tIter = tasks.iterator();
+		while (tIter.hasNext()) {
+			int i = tIter.nextInt();
+			if (maxLoad + h[i].getUB() <= capaMax) {
+				// the task fits anywhere, even above its own compulsory part
+				continue;
+			}
+			profile.exclude(i);
+			try {
+				if (!h[i].isInstantiated() && profile.getStart(i) < profile.getEnd(i)) {
+					h[i].updateUpperBound(capaMax - profile.maxLoad(profile.getStart(i), profile.getEnd(i)), aCause);
+				}
+				int dlb = d[i].getLB();
+				int hlb = h[i].getLB();
+				if (dlb > 0 && hlb > 0) {
+					int threshold = capaMax - hlb;
+					if (threshold < 0) {
+						aCause.fails();
+					}
+					filterInf(s[i], dlb, threshold, aCause);
+					filterSup(e[i], dlb, threshold, aCause);
+				}
+			} finally {
+				profile.include(i);
+			}
+		}
+	}
+
+	/**
+	 * Push the start of a task until it fits below <i>threshold</i>
+	 */
+	private void filterInf(IntVar start, int dlb, int threshold, Propagator<IntVar> aCause) throws ContradictionException {
+		int t = start.getLB();
+		int o = profile.firstAbove(t, t + dlb, threshold);
+		while (o != CompulsoryProfile.NONE) {
+			t = profile.firstAtMostAfter(o, threshold);
+			if (t > start.getUB()) {
+				break;
+			}
+			o = profile.firstAbove(t, t + dlb, threshold);
+		}
+		start.updateLowerBound(t, aCause);
+	}
+
+	/**
+	 * Push the end of a task until it fits below <i>threshold</i>
+	 */
+	private void filterSup(IntVar end, int dlb, int threshold, Propagator<IntVar> aCause) throws ContradictionException {
+		int t = end.getUB();
+		int o = profile.lastAbove(t - dlb, t, threshold);
+		while (o != CompulsoryProfile.NONE) {
+			t = profile.lastAtMostBefore(o, threshold);
+			if (t < end.getLB()) {
+				break;
+			}
+			o = profile.lastAbove(t - dlb, t, threshold);
+		}
+		end.updateUpperBound(t, aCause);
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+
+/**
+ * Filter which adjusts earliest starting times of tasks and, applied on mirrored tasks,
+ * latest completion times.
+ * Only tasks of positive minimum duration and height are considered.
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public abstract class SymmetricCumulFilter extends CumulFilter {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	/**
+	 * Number of tasks considered, and capacity of the resource
+	 */
+	protected int m, capacity;
+	/**
+	 * Task of each position
+	 */
+	private final int[] map;
+	/**
+	 * Earliest starting time, latest completion time, processing time and height of each position,
+	 * on the current side
+	 */
+	protected final int[] est, lct, p, h;
+	/**
+	 * New earliest starting time of each position, on the current side
+	 */
+	protected final int[] nest;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public SymmetricCumulFilter(int n) {
+		super(n);
+		map = new int[n];
+		est = new int[n];
+		lct = new int[n];
+		p = new int[n];
+		h = new int[n];
+		nest = new int[n];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public void filter(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, IntVar capa, ISet tasks, Propagator<IntVar> aCause) throws ContradictionException {
+		m = 0;
+		ISetIterator tIter = tasks.iterator();
+		while (tIter.hasNext()) {
+			int t = tIter.nextInt();
+			if (d[t].getLB() > 0 && h[t].getLB() > 0) {
+				map[m++] = t;
+			}
+		}
+		if (m == 0) {
+			return;
+		}
+		capacity = capa.getUB();
+		// starting times
+		load(s, d, e, h, false);
+		filterStarts(aCause);
+		for (int k = 0; k < m; k++) {
+			s[map[k]].updateLowerBound(nest[k], aCause);
+		}
+		// ending times, on mirrored tasks
+		load(s, d, e, h, true);
+		filterStarts(aCause);
+		for (int k = 0; k < m; k++) {
+			e[map[k]].updateUpperBound(-nest[k], aCause);
+		}
+	}
+
+	private void load(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, boolean mirror) {
+		for (int k = 0; k < m; k++) {
+			int t = map[k];
+			if (mirror) {
+				est[k] = -e[t].getUB();
+				lct[k] = -s[t].getLB();
+			} else {
+				est[k] = s[t].getLB();
+				lct[k] = e[t].getUB();
+			}
+			p[k] = d[t].getLB();
+			this.h[k] = h[t].getLB();
+			nest[k] = est[k];
+		}
+	}
+
+	/**
+	 * Filter the earliest starting times, from {@link #est}, {@link #lct}, {@link #p} and {@link #h},
+	 * into {@link #nest}.
+	 * @param aCause	a cumulative propagator
+	 * @throws ContradictionException if the resource is overloaded
+	 */
+	protected abstract void filterStarts(Propagator<IntVar> aCause) throws ContradictionException;
+}
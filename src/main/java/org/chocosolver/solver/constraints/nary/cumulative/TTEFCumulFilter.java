@@ -0,0 +1,192 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.sort.ArraySort;
+
+import java.util.Arrays;
+
+/**
+ * Time-table edge-finding, in O(n^2).
+ * <p>
+ * For each interval [a,b) where <i>a</i> is an earliest starting time and <i>b</i> a latest completion time,
+ * the energy available is the capacity times b-a, minus the compulsory parts (the time-table) in [a,b)
+ * and the free parts of the tasks which are processed within [a,b).
+ * The resource is overloaded when it is negative.
+ * Otherwise, among the tasks which start in [a,b) but may end after <i>b</i>, the one requiring the largest
+ * energy, when started at its earliest starting time, is pushed so that it fits in the available energy.
+ * @author Charles Prud'homme
+ * @see "A. Schutt, T. Feydy, P.J. Stuckey, Explaining Time-Table-Edge-Finding Propagation for the Cumulative
+ * Resource Constraint, CPAIOR 2013."
+ * @see "P. Vil&iacute;m, Timetable Edge Finding Filtering Algorithm for Discrete Cumulative Resources,
+ * CPAIOR 2011."
+ * @since 4.0.9
+ */
+public class TTEFCumulFilter extends SymmetricCumulFilter {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final int[] byEst, byLct;
+	private final ArraySort<?> sorter;
+	/**
+	 * Steps of the compulsory profile: time in the high bits, event in the low bits
+	 */
+	private final long[] events;
+	/**
+	 * Compulsory profile: times of its steps, height from each of them and energy after each of them
+	 */
+	private final int[] pt;
+	private final long[] ph, pe;
+	private int np;
+	/**
+	 * Energy of the time-table after the earliest starting time and the latest completion time of each position
+	 */
+	private final long[] ttEst, ttLct;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public TTEFCumulFilter(int n) {
+		super(n);
+		byEst = new int[n];
+		byLct = new int[n];
+		sorter = new ArraySort<>(n, false, true);
+		events = new long[2 * n];
+		pt = new int[2 * n];
+		ph = new long[2 * n];
+		pe = new long[2 * n];
+		ttEst = new long[n];
+		ttLct = new long[n];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	protected void filterStarts(Propagator<IntVar> aCause) throws ContradictionException {
+		buildProfile();
+		for (int k = 0; k < m; k++) {
+			byEst[k] = byLct[k] = k;
+		}
+		sorter.sort(byEst, m, (i, j) -> Integer.compare(est[i], est[j]));
+		sorter.sort(byLct, m, (i, j) -> Integer.compare(lct[i], lct[j]));
+		energyAfter(byEst, est, ttEst);
+		energyAfter(byLct, lct, ttLct);
+		for (int y = m - 1; y >= 0; y--) {
+			int j = byLct[y];
+			int b = lct[j];
+			if (y < m - 1 && lct[byLct[y + 1]] == b) {
+				continue;
+			}
+			long free = 0;
+			int best = -1;
+			long bestExtra = 0, bestCp = 0;
+			for (int x = m - 1; x >= 0; x--) {
+				int i = byEst[x];
+				int a = est[i];
+				if (a >= b) {
+					continue;
+				}
+				int ect = a + p[i];
+				int lst = lct[i] - p[i];
+				if (lct[i] <= b) {
+					free += (long) h[i] * (p[i] - Math.max(0, ect - lst));
+				} else {
+					// energy required in [a,b) when started at its est, beyond its compulsory part
+					long cp = (long) h[i] * Math.max(0, Math.min(ect, b) - lst);
+					long extra = (long) h[i] * Math.min(b - a, p[i]) - cp;
+					if (extra > bestExtra) {
+						best = i;
+						bestExtra = extra;
+						bestCp = cp;
+					}
+				}
+				if (x > 0 && est[byEst[x - 1]] == a) {
+					continue;
+				}
+				long avail = (long) capacity * (b - a) - free - (ttEst[i] - ttLct[j]);
+				if (avail < 0) {
+					aCause.fails();
+				}
+				if (bestExtra > avail) {
+					long r = (avail + bestCp) / h[best];
+					nest[best] = (int) Math.max(nest[best], b - r);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build the profile of compulsory parts
+	 */
+	private void buildProfile() {
+		int ne = 0;
+		for (int k = 0; k < m; k++) {
+			int lst = lct[k] - p[k];
+			int ect = est[k] + p[k];
+			if (lst < ect) {
+				// time in the high bits, event in the low bits: 2k for a start, 2k+1 for an end
+				events[ne++] = ((long) lst << 32) | (2 * k);
+				events[ne++] = ((long) ect << 32) | (2 * k + 1);
+			}
+		}
+		Arrays.sort(events, 0, ne);
+		np = 0;
+		long height = 0;
+		for (int q = 0; q < ne; q++) {
+			int t = (int) (events[q] >> 32);
+			int evt = (int) events[q];
+			height += (evt & 1) == 0 ? h[evt >> 1] : -h[evt >> 1];
+			if (np > 0 && pt[np - 1] == t) {
+				ph[np - 1] = height;
+			} else {
+				pt[np] = t;
+				ph[np++] = height;
+			}
+		}
+		if (np > 0) {
+			pe[np - 1] = 0;
+			for (int q = np - 2; q >= 0; q--) {
+				pe[q] = pe[q + 1] + ph[q] * (pt[q + 1] - pt[q]);
+			}
+		}
+	}
+
+	/**
+	 * Compute the energy of the compulsory parts after each time, by walking along the profile
+	 * @param order	positions, by increasing time
+	 * @param time	time of each position
+	 * @param energy	energy after the time of each position, to fill
+	 */
+	private void energyAfter(int[] order, int[] time, long[] energy) {
+		int q = -1;
+		for (int k = 0; k < m; k++) {
+			int i = order[k];
+			int t = time[i];
+			while (q + 1 < np && pt[q + 1] <= t) {
+				q++;
+			}
+			if (q < 0) {
+				energy[i] = np > 0 ? pe[0] : 0;
+			} else if (q == np - 1) {
+				// the last step has a null height
+				energy[i] = 0;
+			} else {
+				energy[i] = pe[q + 1] + ph[q] * (pt[q + 1] - t);
+			}
+		}
+	}
+}
@@ -0,0 +1,337 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.disjunctive;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.sort.ArraySort;
+import org.chocosolver.util.sort.IntComparator;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for a unary resource: tasks of positive duration cannot overlap.
+ * <p>
+ * Tasks of null minimum duration are ignored. Based on Theta-Lambda trees, see {@link ThetaLambdaTree},
+ * each of the following rules runs in O(n log n), on starting times and, symmetrically, on ending times:
+ * <ul>
+ * <li>overload checking,</li>
+ * <li>detectable precedences,</li>
+ * <li>not-first/not-last,</li>
+ * <li>edge-finding.</li>
+ * </ul>
+ * The rules need the tasks sorted in four orders, which are kept for each side from one call to the other.
+ * They are updated with an insertion sort, nearly linear when bounds hardly change,
+ * which falls back to a merge sort when too many tasks move; so a pass on a side runs in O(n log n).
+ * The passes are repeated, alternately on each side, until a fix point is reached.
+ *
+ * @author Charles Prud'homme
+ * @see "P. Vil&iacute;m, O(n log n) filtering algorithms for unary resource constraint, CPAIOR 2004."
+ * @see "P. Vil&iacute;m, R. Bart&aacute;k, O. &#268;epek, Extension of O(n log n) filtering algorithms
+ * for the unary resource constraint to optional activities, Constraints, 2005."
+ * @since 4.0.9
+ */
+public class PropDisjunctive extends Propagator<IntVar> {
+
+    /**
+     * Number of tasks
+     */
+    private final int n;
+    /**
+     * Start, duration and end variables
+     */
+    private final IntVar[] s, d, e;
+    /**
+     * Number of tasks considered in the current propagation
+     */
+    private int m;
+    /**
+     * Tasks considered in the current propagation, in the first {@link #m} positions
+     */
+    private final int[] tasks;
+    /**
+     * Earliest starting time, latest completion time, processing time, latest starting time and
+     * earliest completion time, on the current side, indexed by position in {@link #tasks}
+     */
+    private final int[] est, lct, p, lst, ect;
+    /**
+     * New earliest starting time and latest completion time, on the current side
+     */
+    private final int[] nest, nlct;
+    /**
+     * Positions sorted by est, lct, lst and ect, for each side: the direct one at index 0, the mirrored one at 1.
+     * They are kept from one call to the other, since the orders of a side hardly change between two calls.
+     */
+    private final int[][] estOrders, lctOrders, lstOrders, ectOrders;
+    /**
+     * Orders of the current side
+     */
+    private int[] byEst, byLct, byLst, byEct;
+    /**
+     * Set to <tt>true</tt> for a side whose orders are not built on the current tasks
+     */
+    private final boolean[] stale;
+    /**
+     * Compare positions by est, lct, lst and ect
+     */
+    private final IntComparator estCmp, lctCmp, lstCmp, ectCmp;
+    private final ArraySort<?> sorter;
+    private final ThetaLambdaTree tree;
+
+    /**
+     * Create a propagator for a unary resource
+     *
+     * @param s start variables
+     * @param d duration variables
+     * @param e end variables
+     */
+    public PropDisjunctive(IntVar[] s, IntVar[] d, IntVar[] e) {
+        super(ArrayUtils.append(s, d, e), PropagatorPriority.LINEAR, false);
+        this.n = s.length;
+        this.s = Arrays.copyOfRange(vars, 0, n);
+        this.d = Arrays.copyOfRange(vars, n, 2 * n);
+        this.e = Arrays.copyOfRange(vars, 2 * n, 3 * n);
+        this.tasks = new int[n];
+        this.est = new int[n];
+        this.lct = new int[n];
+        this.p = new int[n];
+        this.lst = new int[n];
+        this.ect = new int[n];
+        this.nest = new int[n];
+        this.nlct = new int[n];
+        this.estOrders = new int[2][n];
+        this.lctOrders = new int[2][n];
+        this.lstOrders = new int[2][n];
+        this.ectOrders = new int[2][n];
+        this.stale = new boolean[]{true, true};
+        this.estCmp = (i, j) -> Integer.compare(est[i], est[j]);
+        this.lctCmp = (i, j) -> Integer.compare(lct[i], lct[j]);
+        this.lstCmp = (i, j) -> Integer.compare(lst[i], lst[j]);
+        this.ectCmp = (i, j) -> Integer.compare(ect[i], ect[j]);
+        this.sorter = new ArraySort<>(n, false, true);
+        this.tree = new ThetaLambdaTree(n);
+    }
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx >= n && vIdx < 2 * n) {
+            return IntEventType.combine(IntEventType.INSTANTIATE, IntEventType.INCLOW);
+        }
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        int prev = m;
+        boolean same = true;
+        m = 0;
+        for (int i = 0; i < n; i++) {
+            if (d[i].getLB() > 0) {
+                same &= m < prev && tasks[m] == i;
+                tasks[m++] = i;
+            }
+        }
+        if (!same || m != prev) {
+            stale[0] = stale[1] = true;
+        }
+        if (m < 2) {
+            return;
+        }
+        // sides are filtered alternately, until neither of them changes
+        boolean mirror = false;
+        int stable = 0;
+        while (stable < 2) {
+            load(mirror);
+            filter();
+            stable = apply(mirror) ? 0 : stable + 1;
+            mirror = !mirror;
+        }
+    }
+
+    /**
+     * Report the new bounds of the current side to the variables.
+     *
+     * @return <tt>true</tt> if a variable has been modified
+     */
+    private boolean apply(boolean mirror) throws ContradictionException {
+        boolean change = false;
+        for (int k = 0; k < m; k++) {
+            int t = tasks[k];
+            if (mirror) {
+                change |= e[t].updateUpperBound(-nest[k], this);
+                change |= s[t].updateLowerBound(-nlct[k], this);
+            } else {
+                change |= s[t].updateLowerBound(nest[k], this);
+                change |= e[t].updateUpperBound(nlct[k], this);
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Fill est, lct and p of the tasks, mirrored if <i>mirror</i> is set to <tt>true</tt>.
+     */
+    private void load(boolean mirror) {
+        for (int k = 0; k < m; k++) {
+            int t = tasks[k];
+            p[k] = d[t].getLB();
+            if (mirror) {
+                est[k] = -e[t].getUB();
+                lct[k] = -s[t].getLB();
+            } else {
+                est[k] = s[t].getLB();
+                lct[k] = e[t].getUB();
+            }
+            lst[k] = lct[k] - p[k];
+            ect[k] = est[k] + p[k];
+            nest[k] = est[k];
+            nlct[k] = lct[k];
+        }
+        int side = mirror ? 1 : 0;
+        byEst = estOrders[side];
+        byLct = lctOrders[side];
+        byLst = lstOrders[side];
+        byEct = ectOrders[side];
+        if (stale[side]) {
+            for (int k = 0; k < m; k++) {
+                byEst[k] = byLct[k] = byLst[k] = byEct[k] = k;
+            }
+            sorter.sort(byEst, m, estCmp);
+            sorter.sort(byLct, m, lctCmp);
+            sorter.sort(byLst, m, lstCmp);
+            sorter.sort(byEct, m, ectCmp);
+            stale[side] = false;
+        } else {
+            sort(byEst, est, estCmp);
+            sort(byLct, lct, lctCmp);
+            sort(byLst, lst, lstCmp);
+            sort(byEct, ect, ectCmp);
+        }
+    }
+
+    /**
+     * Sort the positions in <i>order</i>, the previous order of the side, by increasing <i>key</i>.
+     * An insertion sort is used while the number of shifts remains below <i>m log m</i>,
+     * then it falls back to a merge sort, so this runs in O(n log n) in any case.
+     */
+    private void sort(int[] order, int[] key, IntComparator cmp) {
+        int budget = m * (32 - Integer.numberOfLeadingZeros(m));
+        for (int k = 1; k < m; k++) {
+            int i = order[k];
+            int v = key[i];
+            int q = k - 1;
+            while (q >= 0 && key[order[q]] > v) {
+                order[q + 1] = order[q];
+                q--;
+            }
+            order[q + 1] = i;
+            budget -= k - 1 - q;
+            if (budget < 0) {
+                sorter.sort(order, m, cmp);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apply the rules which filter earliest starting times (in {@link #nest})
+     * and latest completion times (in {@link #nlct}) of the current side.
+     */
+    private void filter() throws ContradictionException {
+        detectablePrecedences();
+        notLast();
+        edgeFinding();
+    }
+
+    /**
+     * A task <i>j</i> precedes a task <i>i</i> when <i>est(i) + p(i) > lct(j) - p(j)</i>:
+     * <i>i</i> cannot start before the earliest completion time of the set of tasks which precede it.
+     */
+    private void detectablePrecedences() {
+        tree.init(byEst, m, est, p);
+        int q = 0;
+        for (int k = 0; k < m; k++) {
+            int i = byEct[k];
+            while (q < m && ect[i] > lst[byLst[q]]) {
+                tree.addToTheta(byLst[q++]);
+            }
+            nest[i] = (int) Math.max(nest[i], tree.getECTWithout(i));
+        }
+    }
+
+    /**
+     * If the tasks ending before the latest starting time of <i>i</i> cannot complete before it,
+     * then <i>i</i> cannot be the last one and ends before the latest starting time of one of them.
+     */
+    private void notLast() {
+        tree.init(byEst, m, est, p);
+        int q = 0;
+        int j = -1;
+        for (int k = 0; k < m; k++) {
+            int i = byLct[k];
+            while (q < m && lct[i] > lst[byLst[q]]) {
+                j = byLst[q++];
+                tree.addToTheta(j);
+            }
+            if (j > -1 && tree.getECTWithout(i) > lst[i]) {
+                nlct[i] = Math.min(nlct[i], lst[j]);
+            }
+        }
+    }
+
+    /**
+     * If a task <i>i</i> cannot be processed before a set of tasks &Omega; without exceeding their latest
+     * completion time, then <i>i</i> starts after the earliest completion time of &Omega;.
+     */
+    private void edgeFinding() throws ContradictionException {
+        tree.init(byEst, m, est, p);
+        tree.fillTheta();
+        for (int q = m - 1; q >= 0; q--) {
+            int j = byLct[q];
+            // overload checking
+            if (tree.getECT() > lct[j]) {
+                fails();
+            }
+            // edge-finding, on the tasks of greater latest completion time
+            while (tree.getECTBar() > lct[j]) {
+                int i = tree.getResponsibleECTBar();
+                assert i > -1;
+                nest[i] = (int) Math.max(nest[i], tree.getECT());
+                tree.remove(i);
+            }
+            tree.addToLambda(j);
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        int[] order = new int[n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (!s[i].isInstantiated() || !d[i].isInstantiated() || !e[i].isInstantiated()) {
+                return ESat.UNDEFINED;
+            }
+            if (d[i].getValue() > 0) {
+                order[k++] = i;
+            }
+        }
+        sorter.sort(order, k, (i, j) -> Integer.compare(s[i].getValue(), s[j].getValue()));
+        for (int i = 1; i < k; i++) {
+            if (s[order[i]].getValue() < e[order[i - 1]].getValue()) {
+                return ESat.FALSE;
+            }
+        }
+        return ESat.TRUE;
+    }
+}
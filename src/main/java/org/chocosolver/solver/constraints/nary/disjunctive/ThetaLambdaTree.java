@@ -0,0 +1,241 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.disjunctive;
+
+import java.util.Arrays;
+
+/**
+ * A Theta-Lambda tree, for unary resource filtering.
+ * <p>
+ * Tasks are the leaves of a balanced binary tree, ordered by earliest starting time.
+ * A task is either out of the tree, in the set &Theta; (white) or in the set &Lambda; (gray).
+ * Each node maintains, in O(log n) per modification:
+ * <ul>
+ * <li>the sum of processing times and the earliest completion time of the &Theta; tasks of its sub-tree,</li>
+ * <li>the same values when at most one gray task is added to &Theta;, and the gray task responsible for them.</li>
+ * </ul>
+ *
+ * @author Charles Prud'homme
+ * @see "P. Vil&iacute;m, Global Constraints in Scheduling, PhD thesis, Charles University, 2007."
+ * @since 4.0.9
+ */
+public class ThetaLambdaTree {
+
+    /**
+     * Earliest completion time of an empty set
+     */
+    private static final long NONE = Long.MIN_VALUE / 4;
+
+    /**
+     * Index of the first leaf
+     */
+    private int leaves;
+    /**
+     * Leaf of each task
+     */
+    private final int[] leafOf;
+    /**
+     * Task of each leaf, from {@link #leaves}, and number of tasks
+     */
+    private final int[] taskOf;
+    private int m;
+    /**
+     * Earliest starting time and processing time of each task
+     */
+    private final long[] est, p;
+    /**
+     * Sum of processing times, earliest completion time, and the same values with one gray task
+     */
+    private long[] sp, ect, spBar, ectBar;
+    /**
+     * Gray tasks responsible for {@link #spBar} and {@link #ectBar}, -1 if none
+     */
+    private int[] respP, respE;
+
+    /**
+     * Create a tree for at most <i>n</i> tasks
+     *
+     * @param n maximum number of tasks
+     */
+    public ThetaLambdaTree(int n) {
+        this.leafOf = new int[n];
+        this.taskOf = new int[n];
+        this.est = new long[n];
+        this.p = new long[n];
+        this.leaves = -1;
+    }
+
+    /**
+     * Empty the tree and position the tasks.
+     *
+     * @param order tasks, by increasing earliest starting time
+     * @param m     number of tasks
+     * @param est   earliest starting time of each task
+     * @param p     processing time of each task
+     */
+    public void init(int[] order, int m, int[] est, int[] p) {
+        int size = 1;
+        while (size < m) {
+            size <<= 1;
+        }
+        if (size != leaves) {
+            leaves = size;
+            sp = new long[2 * size];
+            ect = new long[2 * size];
+            spBar = new long[2 * size];
+            ectBar = new long[2 * size];
+            respP = new int[2 * size];
+            respE = new int[2 * size];
+        }
+        Arrays.fill(sp, 0);
+        Arrays.fill(ect, NONE);
+        Arrays.fill(spBar, 0);
+        Arrays.fill(ectBar, NONE);
+        Arrays.fill(respP, -1);
+        Arrays.fill(respE, -1);
+        this.m = m;
+        for (int k = 0; k < m; k++) {
+            int t = order[k];
+            taskOf[k] = t;
+            leafOf[t] = leaves + k;
+            this.est[t] = est[t];
+            this.p[t] = p[t];
+        }
+    }
+
+    /**
+     * Put all the tasks in &Theta;, in O(n).
+     */
+    public void fillTheta() {
+        for (int k = 0; k < m; k++) {
+            int t = taskOf[k];
+            int l = leaves + k;
+            sp[l] = spBar[l] = p[t];
+            ect[l] = ectBar[l] = est[t] + p[t];
+            respP[l] = respE[l] = -1;
+        }
+        for (int v = leaves - 1; v > 0; v--) {
+            merge(v);
+        }
+    }
+
+    /**
+     * Put task <i>t</i> in &Theta;
+     */
+    public void addToTheta(int t) {
+        int l = leafOf[t];
+        sp[l] = spBar[l] = p[t];
+        ect[l] = ectBar[l] = est[t] + p[t];
+        respP[l] = respE[l] = -1;
+        update(l);
+    }
+
+    /**
+     * Put task <i>t</i> in &Lambda;
+     */
+    public void addToLambda(int t) {
+        int l = leafOf[t];
+        sp[l] = 0;
+        ect[l] = NONE;
+        spBar[l] = p[t];
+        ectBar[l] = est[t] + p[t];
+        respP[l] = respE[l] = t;
+        update(l);
+    }
+
+    /**
+     * Remove task <i>t</i> from the tree
+     */
+    public void remove(int t) {
+        int l = leafOf[t];
+        sp[l] = spBar[l] = 0;
+        ect[l] = ectBar[l] = NONE;
+        respP[l] = respE[l] = -1;
+        update(l);
+    }
+
+    /**
+     * @return <tt>true</tt> if <i>t</i> is in &Theta;
+     */
+    public boolean inTheta(int t) {
+        return ect[leafOf[t]] != NONE;
+    }
+
+    /**
+     * @return the earliest completion time of &Theta;
+     */
+    public long getECT() {
+        return ect[1];
+    }
+
+    /**
+     * @return the earliest completion time of &Theta; plus at most one task of &Lambda;
+     */
+    public long getECTBar() {
+        return ectBar[1];
+    }
+
+    /**
+     * @return the gray task responsible for {@link #getECTBar()}, -1 if none
+     */
+    public int getResponsibleECTBar() {
+        return respE[1];
+    }
+
+    /**
+     * @return the earliest completion time of &Theta; without <i>t</i>
+     */
+    public long getECTWithout(int t) {
+        if (!inTheta(t)) {
+            return ect[1];
+        }
+        remove(t);
+        long r = ect[1];
+        addToTheta(t);
+        return r;
+    }
+
+    private void update(int node) {
+        for (int v = node >> 1; v > 0; v >>= 1) {
+            merge(v);
+        }
+    }
+
+    /**
+     * Compute the values of an internal node from the ones of its children
+     */
+    private void merge(int v) {
+        int l = v << 1, r = l + 1;
+        sp[v] = sp[l] + sp[r];
+        ect[v] = Math.max(ect[r], ect[l] + sp[r]);
+        // on ties, a gray task is preferred
+        long a = spBar[l] + sp[r], b = sp[l] + spBar[r];
+        if (a > b || (a == b && respP[l] > -1)) {
+            spBar[v] = a;
+            respP[v] = respP[l];
+        } else {
+            spBar[v] = b;
+            respP[v] = respP[r];
+        }
+        ectBar[v] = ectBar[r];
+        respE[v] = respE[r];
+        long c = ect[l] + spBar[r];
+        if (c > ectBar[v] || (c == ectBar[v] && respE[v] == -1)) {
+            ectBar[v] = c;
+            respE[v] = respP[r];
+        }
+        c = ectBar[l] + sp[r];
+        if (c > ectBar[v] || (c == ectBar[v] && respE[v] == -1)) {
+            ectBar[v] = c;
+            respE[v] = respE[l];
+        }
+        ect[v] = Math.max(ect[v], NONE);
+        ectBar[v] = Math.max(ectBar[v], NONE);
+    }
+}
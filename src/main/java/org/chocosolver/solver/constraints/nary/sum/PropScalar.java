@@ -305,6 +305,11 @@ public class PropScalar extends PropSum {
         }
     }
 
+    @Override
+    public PropSum copy(IntVar[] variables) {
+        return new PropScalar(variables, c, pos, o, b);
+    }
+
     @Override
     protected PropSum opposite(){
         return new PropScalar(vars, c, pos, nop(o), b + nb(o));
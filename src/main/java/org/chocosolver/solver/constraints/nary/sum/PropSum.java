@@ -549,6 +549,11 @@ public class PropSum extends Propagator<IntVar> {
         }
     }
 
+    @Override
+    public PropSum copy(IntVar[] variables) {
+        return new PropSum(variables, pos, o, b);
+    }
+
     protected PropSum opposite(){
         return new PropSum(vars, pos, nop(o), b + nb(o));
     }
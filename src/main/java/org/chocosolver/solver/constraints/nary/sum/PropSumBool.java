@@ -250,6 +250,13 @@ public class PropSumBool extends PropSum {
         return linComb.toString();
     }
 
+    @Override
+    public PropSum copy(IntVar[] variables) {
+        BoolVar[] bvars = new BoolVar[variables.length-1];
+        System.arraycopy(variables, 0, bvars, 0, bvars.length);
+        return new PropSumBool(bvars, pos, o, variables[variables.length-1], b, reactToFineEvt);
+    }
+
     @Override
     protected PropSum opposite(){
         BoolVar[] bvars = new BoolVar[vars.length-1];
@@ -126,6 +126,13 @@ public class PropSumBoolIncr extends PropSumBool {
         sumUB = bUB.get() - sum.getLB();
     }
 
+    @Override
+    public PropSum copy(IntVar[] variables) {
+        BoolVar[] bvars = new BoolVar[variables.length-1];
+        System.arraycopy(variables, 0, bvars, 0, bvars.length);
+        return new PropSumBoolIncr(bvars, pos, o, variables[variables.length-1], b);
+    }
+
     @Override
     protected PropSum opposite(){
         BoolVar[] bvars = new BoolVar[vars.length-1];
@@ -12,6 +12,7 @@ import org.chocosolver.solver.constraints.Operator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IntEventType;
 
 /**
@@ -195,6 +196,13 @@ public class PropSumFullBool extends PropSum {
         return linComb.toString();
     }
 
+    @Override
+    public PropSum copy(IntVar[] variables) {
+        BoolVar[] bvars = new BoolVar[variables.length];
+        System.arraycopy(variables, 0, bvars, 0, bvars.length);
+        return new PropSumFullBool(bvars, pos, o, b, reactToFineEvt);
+    }
+
     @Override
     protected PropSum opposite(){
         BoolVar[] bvars = new BoolVar[vars.length];
@@ -12,6 +12,7 @@ import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Operator;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 
 /**
@@ -124,6 +125,13 @@ public class PropSumFullBoolIncr extends PropSumFullBool {
         sumUB = bUB.get();
     }
 
+    @Override
+    public PropSum copy(IntVar[] variables) {
+        BoolVar[] bvars = new BoolVar[variables.length];
+        System.arraycopy(variables, 0, bvars, 0, bvars.length);
+        return new PropSumFullBoolIncr(bvars, pos, o, b);
+    }
+
     @Override
     protected PropSum opposite(){
         BoolVar[] bvars = new BoolVar[vars.length];
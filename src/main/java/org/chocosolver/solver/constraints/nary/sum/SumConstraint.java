@@ -11,6 +11,9 @@ package org.chocosolver.solver.constraints.nary.sum;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ConstraintsName;
 import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.Map;
 
 /**
  * <p>
@@ -29,6 +32,11 @@ public class SumConstraint extends Constraint {
         super(ConstraintsName.SUM, propagator);
     }
 
+    @Override
+    public Constraint copy(Map<Variable, Variable> mapping) {
+        return new SumConstraint(copyPropagators(mapping)[0]);
+    }
+
     /**
      * The only reason this class exists
      *
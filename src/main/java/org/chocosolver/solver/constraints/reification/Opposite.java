@@ -15,6 +15,7 @@ import org.chocosolver.solver.variables.Variable;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,6 +34,11 @@ public class Opposite extends Constraint {
         super(ConstraintsName.OPPOSITE, createPropagator(cons));
     }
 
+    @Override
+    public Constraint copy(Map<Variable, Variable> mapping) {
+        return ((PropOpposite) propagators[0]).original.copy(mapping).getOpposite();
+    }
+
     private static Propagator createPropagator(Constraint cons) {
         Variable[] vars;
         if (cons.getPropagators().length == 1) {
@@ -0,0 +1,233 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.explanations;
+
+import gnu.trove.map.custom_hash.TObjectIntCustomHashMap;
+import gnu.trove.strategy.IdentityHashingStrategy;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.explanations.store.IEventStore;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A data structure which stores events during search, for lazy explanation purpose.
+ * <p>
+ * Contrary to {@link ArrayEventStore}, an event is only made of integers: the variable id,
+ * an encoding of the cause, the index of the event type and the three values.
+ * They are stored interleaved in fixed-size chunks of <tt>int</tt>, so that a new event is written in one place
+ * and the store grows by allocating a new chunk, without copying the previous ones.
+ * <p>
+ * References to variables and causes are materialized lazily, on read, from ids:
+ * <ul>
+ * <li>variables, and propagators or views as causes, are identified by their id (shared by the model),</li>
+ * <li>any other cause (e.g., a decision) is given a negative code on its first occurrence.</li>
+ * </ul>
+ * The dictionary of other causes is cleared each time the store is empty.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ChunkedEventStore implements IEventStore {
+
+    /**
+     * Number of events per chunk, as a power of 2
+     */
+    private static final int SHIFT = 10;
+    /**
+     * Number of events per chunk
+     */
+    private static final int CHUNK = 1 << SHIFT;
+    /**
+     * To get the position of an event in its chunk
+     */
+    private static final int MASK = CHUNK - 1;
+    /**
+     * Number of integers per event
+     */
+    private static final int STRIDE = 6;
+    /**
+     * Offsets of the integers of an event
+     */
+    private static final int VAR = 0, CAUSE = 1, TYPE = 2, ONE = 3, TWO = 4, THREE = 5;
+    /**
+     * Chunks of events, in chronological order
+     */
+    private int[][] chunks;
+    /**
+     * Variables and causes which have an id, indexed by id
+     */
+    private Object[] byId;
+    /**
+     * Causes without id, the i<sup>th</sup> one being coded by <i>-i-1</i>
+     */
+    private final ArrayList<ICause> others;
+    /**
+     * Maps a cause without id to its code
+     */
+    private final TObjectIntCustomHashMap<ICause> codes;
+    /**
+     * Last cause encoded, and its code, since events of a cause come in a row
+     */
+    private ICause lastCause;
+    private int lastCode;
+    /**
+     * Event types, indexed by their code
+     */
+    private IEventType[] types;
+    /**
+     * Number of event types known
+     */
+    private int nbTypes;
+    /**
+     * Number of event stored
+     */
+    private final IStateInt size;
+
+    /**
+     * Create an event store
+     * @param env backtracking environment
+     */
+    public ChunkedEventStore(IEnvironment env) {
+        size = env.makeInt(0);
+        size._set(0, 0); // to force history manually -- required when created during the search
+        chunks = new int[4][];
+        byId = new Object[64];
+        others = new ArrayList<>();
+        codes = new TObjectIntCustomHashMap<>(new IdentityHashingStrategy<>(), 16, .5f, 0);
+        types = new IEventType[8];
+    }
+
+    @Override
+    public void pushEvent(IntVar var, ICause cause, IEventType mask, int one, int two, int three) {
+        int idx = size.get();
+        if (idx == 0 && others.size() > 0) {
+            clearCodes();
+        }
+        int c = idx >>> SHIFT;
+        if (c >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length << 1);
+        }
+        int[] chunk = chunks[c];
+        if (chunk == null) {
+            chunk = chunks[c] = new int[CHUNK * STRIDE];
+        }
+        int o = (idx & MASK) * STRIDE;
+        chunk[o + VAR] = store(var.getId(), var);
+        chunk[o + CAUSE] = encode(cause);
+        chunk[o + TYPE] = encode(mask);
+        chunk[o + ONE] = one;
+        chunk[o + TWO] = two;
+        chunk[o + THREE] = three;
+        size.add(1);
+    }
+
+    @Override
+    public void forgetLast() {
+        size.add(-1);
+    }
+
+    private int store(int id, Object o) {
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length << 1));
+        }
+        if (byId[id] != o) {
+            byId[id] = o;
+        }
+        return id;
+    }
+
+    private int encode(ICause cause) {
+        if (cause == lastCause) {
+            return lastCode;
+        }
+        int k;
+        if (cause instanceof Propagator) {
+            k = store(((Propagator) cause).getId(), cause);
+        } else if (cause instanceof Variable) {
+            k = store(((Variable) cause).getId(), cause);
+        } else {
+            k = codes.get(cause);
+            if (k == 0) {
+                others.add(cause);
+                k = -others.size();
+                codes.put(cause, k);
+            }
+        }
+        lastCause = cause;
+        lastCode = k;
+        return k;
+    }
+
+    private int encode(IEventType type) {
+        for (int i = 0; i < nbTypes; i++) {
+            if (types[i] == type) {
+                return i;
+            }
+        }
+        if (nbTypes == types.length) {
+            types = Arrays.copyOf(types, nbTypes << 1);
+        }
+        types[nbTypes] = type;
+        return nbTypes++;
+    }
+
+    private void clearCodes() {
+        others.clear();
+        codes.clear();
+        lastCause = null;
+    }
+
+    private int get(int evt, int offset) {
+        return chunks[evt >>> SHIFT][(evt & MASK) * STRIDE + offset];
+    }
+
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    @Override
+    public IntVar getVariable(int evt) {
+        return (IntVar) byId[get(evt, VAR)];
+    }
+
+    @Override
+    public IEventType getEventType(int evt) {
+        return types[get(evt, TYPE)];
+    }
+
+    @Override
+    public ICause getCause(int evt) {
+        int c = get(evt, CAUSE);
+        return c >= 0 ? (ICause) byId[c] : others.get(-c - 1);
+    }
+
+    @Override
+    public int getFirstValue(int evt) {
+        return get(evt, ONE);
+    }
+
+    @Override
+    public int getSecondValue(int evt) {
+        return get(evt, TWO);
+    }
+
+    @Override
+    public int getThirdValue(int evt) {
+        return get(evt, THREE);
+    }
+
+}
@@ -12,6 +12,7 @@ import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.store.IEventStore;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -32,7 +33,7 @@ public class ExplanationEngine implements IExplanationEngine{
     /**
      * Events generated during search
      */
-    private final ArrayEventStore eventStore;
+    private final IEventStore eventStore;
     /**
      * Active rules, to compute explanation backward
      */
@@ -60,7 +61,11 @@ public class ExplanationEngine implements IExplanationEngine{
     public ExplanationEngine(Model model, boolean partialExplanationsOn, boolean recordCauses) {
         this.saveCauses = recordCauses;
         this.enablePartialExplanation = partialExplanationsOn;
-        eventStore = new ArrayEventStore(model.getEnvironment());
+        if (model.getSettings().enableCompactEventStore()) {
+            eventStore = new ChunkedEventStore(model.getEnvironment());
+        } else {
+            eventStore = new ArrayEventStore(model.getEnvironment());
+        }
         ruleStore = new RuleStore(saveCauses, enablePartialExplanation);
         model.getSolver().setExplainer(this);
         this.explanationPool = new PoolManager<>();
@@ -127,7 +132,7 @@ public class ExplanationEngine implements IExplanationEngine{
     /**
      * @return the current store of events
      */
-    public ArrayEventStore getEventStore() {
+    public IEventStore getEventStore() {
         return eventStore;
     }
 
@@ -185,7 +190,8 @@ public class ExplanationEngine implements IExplanationEngine{
      */
     public void removeValue(IntVar var, int val, ICause cause) {
         eventStore.pushEvent(var, cause, IntEventType.REMOVE, val, -1, -1);
-        for(IView view : var.getViews()){
+        for(int i = var.getNbViews() - 1; i >= 0; i--){
+            IView view = var.getView(i);
             if(view != cause){
                 view.justifyEvent(var, cause, IntEventType.REMOVE, val, -1, -1);
             }
@@ -206,7 +212,8 @@ public class ExplanationEngine implements IExplanationEngine{
      */
     public void updateLowerBound(IntVar var, int value, int old, ICause cause) {
         eventStore.pushEvent(var, cause, IntEventType.INCLOW, value, old, -1);
-        for(IView view : var.getViews()){
+        for(int i = var.getNbViews() - 1; i >= 0; i--){
+            IView view = var.getView(i);
             if(view != cause){
                 view.justifyEvent(var, cause, IntEventType.INCLOW, value, old, -1);
             }
@@ -227,7 +234,8 @@ public class ExplanationEngine implements IExplanationEngine{
      */
     public void updateUpperBound(IntVar var, int value, int old, ICause cause) {
         eventStore.pushEvent(var, cause, IntEventType.DECUPP, value, old, -1);
-        for(IView view : var.getViews()){
+        for(int i = var.getNbViews() - 1; i >= 0; i--){
+            IView view = var.getView(i);
             if(view != cause){
                 view.justifyEvent(var, cause, IntEventType.DECUPP, value, old, -1);
             }
@@ -247,7 +255,8 @@ public class ExplanationEngine implements IExplanationEngine{
      */
     public void instantiateTo(IntVar var, int val, ICause cause, int oldLB, int oldUB) {
         eventStore.pushEvent(var, cause, IntEventType.INSTANTIATE, val, oldLB, oldUB);
-        for(IView view : var.getViews()){
+        for(int i = var.getNbViews() - 1; i >= 0; i--){
+            IView view = var.getView(i);
             if(view != cause){
                 view.justifyEvent(var, cause, IntEventType.INSTANTIATE, val, oldLB, oldUB);
             }
@@ -12,6 +12,7 @@ import gnu.trove.set.TIntSet;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.explanations.store.IEventStore;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
@@ -131,7 +132,7 @@ public class RuleStore {
      * @throws org.chocosolver.solver.exception.SolverException when the type of the variable is neither {@link Variable#BOOL} or {@link Variable#INT}.
      * @return <tt>true</tt> if the event in position {@code idx} in {@code eventStore} matches a rule
      */
-    public boolean match(final int idx, final ArrayEventStore eventStore) {
+    public boolean match(final int idx, final IEventStore eventStore) {
         lastVar = eventStore.getVariable(idx);
         lastValue = eventStore.getFirstValue(idx); // either the propagator ID, or a value related to the variable event (eg, instantiated value)
         lastEvt = eventStore.getEventType(idx);
@@ -227,7 +228,7 @@ public class RuleStore {
      * @param explanation the explanation to compute
      */
     @SuppressWarnings({"PointlessBooleanExpression", "ConstantConditions"})
-    public void update(final int idx, final ArrayEventStore eventStore, Explanation explanation) {
+    public void update(final int idx, final IEventStore eventStore, Explanation explanation) {
         assert lastVar == eventStore.getVariable(idx) : "Wrong variable loaded";
         assert lastEvt == eventStore.getEventType(idx) : "Wrong event loaded";
         if (!lastEvt.equals(FULL_PROPAGATION)) {
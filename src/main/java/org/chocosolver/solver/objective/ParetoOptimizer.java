@@ -8,15 +8,19 @@
  */
 package org.chocosolver.solver.objective;
 
-import org.chocosolver.sat.PropSat;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
-import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.SolutionStore;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.PropParetoDominance;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.NDTree;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Class to store the pareto front (multi-objective optimization).
@@ -31,21 +35,26 @@ public class ParetoOptimizer implements IMonitorSolution {
     //***********************************************************************************
 
     // Set of incomparable and Pareto-best solutions
-    private LinkedList<Solution> paretoFront;
+    private SolutionStore paretoFront;
 
     private Model model;
 
-    // Allow to recycle (dominated) Solution objects
-    private LinkedList<Solution> pool = new LinkedList<>();
-
     // objective function
     private boolean maximize;
     private IntVar[] objectives;
     private int n;
 
-    // to post dynamical constraints
-    private int[] vals, lits;
-    private PropSat psat;
+    // objective values of the Pareto-best solutions, for minimization
+    private NDTree archive;
+    private int[] vals;
+    // to map points of the archive to solutions of the front
+    private TIntArrayList idOf;
+    private TIntIntHashMap rowOf;
+    private int nextId;
+    private IntConsumer onRemove;
+
+    // forbids dominated solutions
+    private PropParetoDominance dominance;
 
     //***********************************************************************************
     // CONSTRUCTOR
@@ -53,8 +62,8 @@ public class ParetoOptimizer implements IMonitorSolution {
 
 	/**
      * Create an object to compute the Pareto front of a multi-objective problem.
-     * Maintain the set of dominating solutions and
-     * posts constraints dynamically to prevent search from computing dominated ones.
+     * Maintain the set of dominating solutions, in a ND-tree, and
+     * posts a constraint which prevents search from computing dominated ones.
      * This object must be used as follows:
      *
    	 *     model.getSolver().plugMonitor(paretoRecorder);
@@ -68,14 +77,18 @@ public class ParetoOptimizer implements IMonitorSolution {
      * @param objectives objective variables (must all be optimized in the same direction)
      */
     public ParetoOptimizer(final boolean maximize, final IntVar[] objectives) {
-        this.paretoFront = new LinkedList<>();
         this.objectives = objectives.clone();
         this.maximize = maximize;
         n = objectives.length;
         model = objectives[0].getModel();
-        psat = model.getMinisat().getPropSat();
-        vals = new int[n];
-        lits = new int[n];
+        this.paretoFront = new SolutionStore(model);
+        this.archive = new NDTree(n);
+        this.vals = new int[n];
+        this.idOf = new TIntArrayList();
+        this.rowOf = new TIntIntHashMap();
+        this.onRemove = this::remove;
+        this.dominance = new PropParetoDominance(this.objectives, maximize, archive);
+        model.post(new Constraint("ParetoDominance", dominance));
     }
 
     //***********************************************************************************
@@ -86,48 +99,37 @@ public class ParetoOptimizer implements IMonitorSolution {
     public void onSolution() {
         // get objective values
         for (int i = 0; i < n; i++) {
-            vals[i] = objectives[i].getValue();
-        }
-        // remove dominated solutions
-        for (int i = paretoFront.size() - 1; i >= 0; i--) {
-            if (isDominated(paretoFront.get(i), vals)) {
-                pool.add(paretoFront.remove(i));
-            }
-        }
-        // store current solution
-        if(pool.isEmpty()){
-            paretoFront.add(new Solution(model).record());
-        }else{
-            Solution solution = pool.remove();
-
-            solution.record();
-            paretoFront.add(solution);
+            vals[i] = maximize ? -objectives[i].getValue() : objectives[i].getValue();
         }
-        // post dynamical constraints to prevent search from computing dominated solutions
-        Operator symbol = Operator.GT;
-        if (!maximize) {
-            symbol = Operator.LT;
+        // remove dominated solutions and store current solution
+        if (archive.insert(vals, nextId, onRemove)) {
+            rowOf.put(nextId, paretoFront.size());
+            idOf.add(nextId++);
+            paretoFront.record();
+            // prevent search from computing dominated solutions
+            dominance.onFrontUpdate();
         }
-        for (int i = 0; i < n; i++) {
-            lits[i] = psat.makeLiteral(model.arithm(objectives[i], symbol.toString(), vals[i]).reify(), true);
-        }
-        psat.addLearnt(lits);
     }
 
 	/**
-     * @return the set of Pareto-best (possibly optimal) solutions found so far
+     * @return the set of Pareto-best (possibly optimal) solutions found so far, as a {@link SolutionStore}
+     * which is a copy of the one maintained by this object, and thus can be modified
      */
     public List<Solution> getParetoFront() {
-   		return paretoFront;
+   		return paretoFront.copy();
    	}
 
-    private boolean isDominated(Solution solution, int[] vals) {
-        for (int i = 0; i < n; i++) {
-            int delta = solution.getIntVal(objectives[i]) - vals[i];
-            if ((delta > 0 && maximize) || (delta < 0 && !maximize)) {
-                return false;
-            }
+    /**
+     * Remove the solution whose point in the archive is <i>id</i>
+     */
+    private void remove(int id) {
+        int row = rowOf.remove(id);
+        int last = paretoFront.size() - 1;
+        paretoFront.removeUnordered(row);
+        if (row < last) {
+            idOf.setQuick(row, idOf.getQuick(last));
+            rowOf.put(idOf.getQuick(row), row);
         }
-        return true;
+        idOf.removeAt(last);
     }
 }
@@ -0,0 +1,159 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.objective;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free cell which stores the best objective value(s) found so far by several solvers running in parallel,
+ * for instance in {@link org.chocosolver.solver.ParallelPortfolio}.
+ * <p>
+ * The bound is a vector of values, compared lexicographically: the first value is the most significant one.
+ * A mono-objective problem is thus handled with a vector of size 1.
+ * Values are {@link Number}s, so both integer and real objectives are supported.
+ * Integer values are compared exactly, real values are compared as is,
+ * the precision being taken into account by each solver when the bound is turned into a cut
+ * (see {@link IObjectiveManager#setStrictDynamicCut()}).
+ * <p>
+ * A solver submits its solutions with {@link #offer(int, Number...)}, which succeeds only if the values improve the bound,
+ * and polls the bound with {@link #get()}.
+ * Since the bound is an immutable object, a solver only has to compare references to detect a new bound.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class SharedBound {
+
+    /**
+     * Set to <i>true</i> when values are maximized, <i>false</i> when they are minimized
+     */
+    private final boolean maximize;
+
+    /**
+     * The best bound so far, <i>null</i> if none has been offered yet
+     */
+    private final AtomicReference<Bound> best = new AtomicReference<>();
+
+    /**
+     * Create an empty shared bound
+     *
+     * @param maximize set to <i>true</i> to maximize the values, to <i>false</i> to minimize them
+     */
+    public SharedBound(boolean maximize) {
+        this.maximize = maximize;
+    }
+
+    /**
+     * @return <i>true</i> if values are maximized, <i>false</i> if they are minimized
+     */
+    public boolean isMaximization() {
+        return maximize;
+    }
+
+    /**
+     * Submit new values, which replace the current bound only if they are lexicographically better.
+     *
+     * @param origin identifier of the solver which submits the values
+     * @param values values of the objectives, the first one being the most significant one
+     * @return <i>true</i> if <i>values</i> is the new bound
+     */
+    public boolean offer(int origin, Number... values) {
+        Bound next = new Bound(origin, values.clone());
+        Bound cur;
+        do {
+            cur = best.get();
+            if (cur != null && compare(values, cur.values) <= 0) {
+                return false;
+            }
+        } while (!best.compareAndSet(cur, next));
+        return true;
+    }
+
+    /**
+     * @return the current bound, or <i>null</i> if no values have been offered yet.
+     */
+    public Bound get() {
+        return best.get();
+    }
+
+    /**
+     * Forget the current bound
+     */
+    public void reset() {
+        best.set(null);
+    }
+
+    /**
+     * Compare lexicographically two vectors of values wrt the optimization direction
+     *
+     * @param a a vector of values
+     * @param b a vector of values, of the same size than <i>a</i>
+     * @return a positive int if <i>a</i> is better than <i>b</i>, 0 if they are equal, a negative int otherwise
+     */
+    public int compare(Number[] a, Number[] b) {
+        assert a.length == b.length;
+        for (int i = 0; i < a.length; i++) {
+            int c = (a[i] instanceof Integer || a[i] instanceof Long) && (b[i] instanceof Integer || b[i] instanceof Long) ?
+                    Long.compare(a[i].longValue(), b[i].longValue()) :
+                    Double.compare(a[i].doubleValue(), b[i].doubleValue());
+            if (c != 0) {
+                return maximize ? c : -c;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        Bound b = best.get();
+        return (maximize ? "MAXIMIZE " : "MINIMIZE ") + (b == null ? "?" : Arrays.toString(b.values));
+    }
+
+    /**
+     * An immutable bound
+     */
+    public static final class Bound {
+        /**
+         * Identifier of the solver which found this bound
+         */
+        private final int origin;
+        /**
+         * Values of the objectives
+         */
+        private final Number[] values;
+
+        private Bound(int origin, Number[] values) {
+            this.origin = origin;
+            this.values = values;
+        }
+
+        /**
+         * @return identifier of the solver which found this bound
+         */
+        public int getOrigin() {
+            return origin;
+        }
+
+        /**
+         * @param i index of an objective
+         * @return the value of the <i>i</i>-th objective
+         */
+        public Number getValue(int i) {
+            return values[i];
+        }
+
+        /**
+         * @return the number of objectives
+         */
+        public int size() {
+            return values.length;
+        }
+    }
+}
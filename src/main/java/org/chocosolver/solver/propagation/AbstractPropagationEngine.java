@@ -0,0 +1,302 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.objects.IntList;
+import org.chocosolver.util.objects.queues.CircularQueue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A skeleton for propagation engines.
+ * <br/>It maintains the list of propagators to execute, deals with propagators added or removed dynamically
+ * and with propagators to execute on backtrack.
+ * Scheduling and execution policies are left to the concrete engines.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public abstract class AbstractPropagationEngine implements IPropagationEngine {
+
+    /**
+     * The model declaring this engine
+     */
+    protected final Model model;
+    /**
+     * The array of propagators to execute
+     */
+    protected final List<Propagator> propagators;
+    /**
+     * To deal with propagators added dynamically
+     */
+    private final List<Propagator> dynPropagators;
+    private final IntList dynWorlds;
+    /**
+     * Propagators to execute in a coarse way before reaching a fix point
+     */
+    private final CircularQueue<Propagator> awake_queue;
+    /**
+     * The last propagator executed
+     */
+    protected Propagator lastProp;
+    /**
+     * PropagatorEventType's mask for delayed propagation
+     */
+    protected int delayedPropagationType;
+    /**
+     * Set to <tt>true</tt> once {@link #initialize()} has been called.
+     */
+    private boolean init;
+    /**
+     * Number of variable modifications notified so far,
+     * to be incremented by {@link #onVariableUpdate(org.chocosolver.solver.variables.Variable, org.chocosolver.solver.variables.events.IEventType, org.chocosolver.solver.ICause)}
+     */
+    protected long nbEvents;
+    /**
+     * Profiler of revisions, <i>null</i> if propagators are not profiled
+     */
+    private PropagatorProfiler profiler;
+
+    /**
+     * Create the common structures of a propagation engine
+     * @param model the declaring model
+     */
+    protected AbstractPropagationEngine(Model model) {
+        this.model = model;
+        this.awake_queue = new CircularQueue<>(16);
+        this.dynPropagators = new ArrayList<>(16);
+        this.dynWorlds = new IntList();
+        this.propagators = new ArrayList<>();
+    }
+
+    @Override
+    public void initialize() throws SolverException {
+        if (!init) {
+            init = true;
+            Constraint[] constraints = model.getCstrs();
+            for (int c = 0; c < constraints.length; c++) {
+                Propagator[] cprops = constraints[c].getPropagators();
+                Collections.addAll(propagators, cprops);
+            }
+            if (model.getSettings().sortPropagatorActivationWRTPriority()) {
+                propagators.sort(
+                        (p1, p2) -> {
+                            int p = p1.getPriority().priority - p2.getPriority().priority;
+                            if (p == 0) {
+                                return p1.getNbVars() - p2.getNbVars();
+                            } else return p;
+                        });
+            }
+            for (int i = 0; i < propagators.size(); i++) {
+                propagators.get(i).setPosition(i);
+                awake_queue.addLast(propagators.get(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return init;
+    }
+
+    /**
+     * Checks if some propagators were added or have to be propagated on backtrack
+     * @throws ContradictionException if a propagation fails
+     */
+    protected void activatePropagators() throws ContradictionException {
+        if (dynPropagators.size() > 0) {
+            int cw = model.getEnvironment().getWorldIndex(); // get current index
+            for(int p = 0; p < dynPropagators.size(); p++){
+                if (dynWorlds.getQuick(p) >= cw) {
+                    awake_queue.addLast(dynPropagators.get(p));
+                    dynWorlds.replaceQuick(p, cw);
+                }
+            }
+        }
+        while (!awake_queue.isEmpty()) {
+            if (profiler == null) {
+                execute(awake_queue.pollFirst());
+            } else {
+                profile(awake_queue.pollFirst(), true);
+            }
+        }
+    }
+
+    /**
+     * Revise a propagator popped from a queue, that is, run its fine or coarse propagation
+     * @param prop a propagator
+     * @throws ContradictionException if a contradiction occurrs
+     */
+    protected final void revise(Propagator prop) throws ContradictionException {
+        if (profiler == null) {
+            doRevise(prop);
+        } else {
+            profile(prop, false);
+        }
+    }
+
+    /**
+     * Execute or revise a propagator and record the measures in {@link #profiler}
+     * @param prop a propagator
+     * @param coarse set to <i>true</i> to {@link #execute(Propagator)} <i>prop</i>, to <i>false</i> to revise it
+     * @throws ContradictionException if a contradiction occurrs
+     */
+    private void profile(Propagator prop, boolean coarse) throws ContradictionException {
+        long events = nbEvents;
+        long time = System.nanoTime();
+        try {
+            if (coarse) {
+                execute(prop);
+            } else {
+                doRevise(prop);
+            }
+        } catch (ContradictionException cex) {
+            profiler.record(prop, System.nanoTime() - time, nbEvents - events, true);
+            throw cex;
+        }
+        profiler.record(prop, System.nanoTime() - time, nbEvents - events, false);
+    }
+
+    private void doRevise(Propagator prop) throws ContradictionException {
+        lastProp = prop;
+        prop.unschedule();
+        delayedPropagationType = 0;
+        if (prop.reactToFineEvent()) {
+            prop.doFinePropagation();
+            // now we can check whether a delayed propagation has been scheduled
+            if (delayedPropagationType > 0) {
+                prop.propagate(delayedPropagationType);
+            }
+        } else if (prop.isActive()) { // need to be checked due to views
+            prop.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
+    @Override
+    public void setProfiler(PropagatorProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public PropagatorProfiler getProfiler() {
+        return profiler;
+    }
+
+    @Override
+    public void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException {
+        assert propagator == lastProp;
+        assert delayedPropagationType == 0 || delayedPropagationType == type.getMask();
+        delayedPropagationType = type.getMask();
+    }
+
+    @Override
+    public void onPropagatorExecution(Propagator propagator) {
+        desactivatePropagator(propagator);
+    }
+
+    @Override
+    public void desactivatePropagator(Propagator propagator) {
+        if (propagator.reactToFineEvent()) {
+            propagator.doFlush();
+        }
+    }
+
+    @Override
+    public void reset() {
+        flush();
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        dynPropagators.clear();
+        dynWorlds.clear();
+        awake_queue.clear();
+        propagators.clear();
+        init = false;
+        lastProp = null;
+    }
+
+    @Override
+    public void dynamicAddition(boolean permanent, Propagator... ps) throws SolverException {
+        int nbp = ps.length;
+        for (int i = 0; i < nbp; i++) {
+            if (permanent) {
+                ps[i].setPosition(propagators.size());
+                propagators.add(ps[i]);
+                dynPropagators.add(ps[i]);
+                dynWorlds.add(Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    @Override
+    public void updateInvolvedVariables(Propagator p) {
+        propagateOnBacktrack(p); // TODO: when p is not permanent AND a new var is added ... well, one looks for trouble!
+    }
+
+    @Override
+    public void propagateOnBacktrack(Propagator propagator) {
+        int idx = propagator.getPosition();
+        assert propagators.get(idx) == propagator : "Try to remove the wrong propagator";
+        shift(idx);
+        propagators.set(propagators.size() - 1, propagator);
+        propagator.setPosition(propagators.size() - 1);
+        int pos = dynPropagators.indexOf(propagator);
+        if(pos>-1){
+            dynWorlds.replaceQuick(pos, Integer.MAX_VALUE);
+        }else {
+            dynPropagators.add(propagator);
+            dynWorlds.add(Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void dynamicDeletion(Propagator... ps) {
+        for (Propagator toDelete : ps) {
+            if (lastProp == toDelete) {
+                lastProp = null;
+            }
+            if(toDelete.getPosition()>-1) {
+                int idx = dynPropagators.indexOf(toDelete);
+                if (idx > -1) {
+                    dynPropagators.remove(idx);
+                    dynWorlds.removeAt(idx);
+                }
+                remove(toDelete);
+            }
+        }
+    }
+
+    private void remove(Propagator propagator) {
+        int idx = propagator.getPosition();
+        if (idx > -1) {
+            assert propagators.get(idx) == propagator : "Try to remove the wrong propagator";
+            // todo: improve
+            shift(idx);
+            propagator.setPosition(-1);
+            propagators.remove(propagators.size() - 1);
+        }
+    }
+
+    private void shift(int from) {
+        for (int i = from; i < propagators.size() - 1; i++) {
+            propagators.set(i, propagators.get(i + 1));
+            propagators.get(i).setPosition(i);
+        }
+    }
+}
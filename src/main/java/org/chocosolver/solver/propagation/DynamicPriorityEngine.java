@@ -0,0 +1,309 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.objects.queues.CircularQueue;
+
+import java.util.Arrays;
+
+/**
+ * A constraint-oriented propagation engine which orders propagators wrt to their observed behavior.
+ * <br/>Each time a propagator is revised, the engine measures the time spent and records whether
+ * the revision was useful, that is, whether it modified a variable or detected a failure.
+ * Both measures are smoothed with an exponential moving average.
+ * <p>
+ * Scheduled propagators are stored in a binary heap and the one with the lowest ratio
+ * <i>cost / effectiveness</i> is revised first.
+ * Propagators not revised yet are ordered by their static priority, and before any measured one.
+ * <p>
+ * Measuring costs relies on {@link System#nanoTime()}, which is called twice per revision.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class DynamicPriorityEngine extends AbstractPropagationEngine {
+
+    /**
+     * Lower bound of the effectiveness of a propagator, to avoid division by 0
+     */
+    private static final double MIN_EFFECTIVENESS = 0.05;
+    /**
+     * Weight of the last revision in the moving averages
+     */
+    private final double alpha;
+    /**
+     * Modified variables, each of them appears at most once
+     */
+    private final CircularQueue<Variable> var_queue;
+    /**
+     * The heap of scheduled propagators
+     */
+    private Propagator[] heap;
+    /**
+     * Keys of the propagators in {@link #heap}, computed when they are scheduled
+     */
+    private double[] keys;
+    /**
+     * Number of propagators in {@link #heap}
+     */
+    private int size;
+    /**
+     * Average cost, in nanoseconds, of a revision, indexed by propagator ids
+     */
+    private double[] costs;
+    /**
+     * Average effectiveness, between 0 and 1, of a revision, indexed by propagator ids
+     */
+    private double[] effs;
+    /**
+     * Number of revisions, indexed by propagator ids
+     */
+    private long[] revisions;
+
+    /**
+     * A dynamic-priority propagation engine where the last revision of a propagator weights 10% of its scores.
+     * @param model the declaring model
+     */
+    public DynamicPriorityEngine(Model model) {
+        this(model, .1);
+    }
+
+    /**
+     * A dynamic-priority propagation engine.
+     * @param model the declaring model
+     * @param alpha weight of the last revision in the moving averages of the propagators' scores, in ]0,1]
+     */
+    public DynamicPriorityEngine(Model model, double alpha) {
+        super(model);
+        if (alpha <= 0. || alpha > 1.) {
+            throw new IllegalArgumentException("alpha should be in ]0,1]");
+        }
+        this.alpha = alpha;
+        this.var_queue = new CircularQueue<>(16);
+        this.heap = new Propagator[16];
+        this.keys = new double[16];
+        this.costs = new double[16];
+        this.effs = new double[16];
+        this.revisions = new long[16];
+    }
+
+    @Override
+    public void propagate() throws ContradictionException {
+        activatePropagators();
+        manageModifications();
+        while (size > 0) {
+            Propagator prop = poll();
+            long events = nbEvents;
+            long time = System.nanoTime();
+            try {
+                revise(prop);
+            } catch (ContradictionException cex) {
+                record(prop, System.nanoTime() - time, true);
+                throw cex;
+            }
+            record(prop, System.nanoTime() - time, nbEvents > events);
+            manageModifications();
+        }
+    }
+
+    @Override
+    public void execute(Propagator propagator) throws ContradictionException {
+        if (propagator.isStateLess()) {
+            propagator.setActive();
+        }
+        if (propagator.isActive()) {
+            propagator.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+            manageModifications();
+        }
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) {
+        nbEvents++;
+        if (variable.getMask() == 0) {
+            var_queue.addLast(variable);
+        }
+        variable.storeEvents(type.getMask(), cause);
+    }
+
+    private void manageModifications() {
+        while (!var_queue.isEmpty()) {
+            schedule(var_queue.pollFirst());
+        }
+    }
+
+    private void schedule(Variable variable) {
+        int mask = variable.getMask();
+        if (mask > 0) {
+            ICause cause = variable.getCause();
+            Propagator[] vpropagators = variable.getPropagators();
+            int[] vindices = variable.getPIndices();
+            Propagator prop;
+            EvtScheduler si = variable._schedIter();
+            //noinspection unchecked
+            si.init(mask);
+            while (si.hasNext()) {
+                int p = variable.getDindex(si.next());
+                int t = variable.getDindex(si.next());
+                for (; p < t; p++) {
+                    prop = vpropagators[p];
+                    if (prop.isActive() && cause != prop) {
+                        prop.doScheduleEvent(vindices[p], mask);
+                        if (prop.doSchedule()) {
+                            push(prop);
+                        }
+                    }
+                }
+            }
+        }
+        variable.clearEvents();
+    }
+
+    /**
+     * Update the scores of a propagator after a revision
+     * @param prop a propagator
+     * @param time time spent in the revision
+     * @param useful set to <i>true</i> if the revision modified a variable or failed
+     */
+    private void record(Propagator prop, long time, boolean useful) {
+        int id = prop.getId();
+        ensureCapacity(id);
+        if (revisions[id]++ == 0) {
+            costs[id] = time;
+            effs[id] = useful ? 1. : 0.;
+        } else {
+            costs[id] += alpha * (time - costs[id]);
+            effs[id] += alpha * ((useful ? 1. : 0.) - effs[id]);
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= costs.length) {
+            int ns = Math.max(id + 1, costs.length * 3 / 2 + 1);
+            costs = Arrays.copyOf(costs, ns);
+            effs = Arrays.copyOf(effs, ns);
+            revisions = Arrays.copyOf(revisions, ns);
+        }
+    }
+
+    /**
+     * @param prop a propagator
+     * @return the key of <i>prop</i> in the heap, the lower the sooner it is revised
+     */
+    private double key(Propagator prop) {
+        int id = prop.getId();
+        if (id >= revisions.length || revisions[id] == 0) {
+            return prop.getPriority().priority - 8;
+        }
+        return costs[id] / Math.max(effs[id], MIN_EFFECTIVENESS);
+    }
+
+    /**
+     * @param prop a propagator
+     * @return the average cost, in nanoseconds, of a revision of <i>prop</i>, or 0 if it was never revised
+     */
+    public double getAverageCost(Propagator prop) {
+        int id = prop.getId();
+        return id < costs.length ? costs[id] : 0.;
+    }
+
+    /**
+     * @param prop a propagator
+     * @return the average ratio of revisions of <i>prop</i> which modified a variable or failed
+     */
+    public double getEffectiveness(Propagator prop) {
+        int id = prop.getId();
+        return id < effs.length ? effs[id] : 0.;
+    }
+
+    /**
+     * @param prop a propagator
+     * @return the number of revisions of <i>prop</i> since the creation of this
+     */
+    public long getNbRevisions(Propagator prop) {
+        int id = prop.getId();
+        return id < revisions.length ? revisions[id] : 0;
+    }
+
+    private void push(Propagator prop) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 3 / 2 + 1);
+            keys = Arrays.copyOf(keys, heap.length);
+        }
+        double k = key(prop);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= k) {
+                break;
+            }
+            heap[i] = heap[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        heap[i] = prop;
+        keys[i] = k;
+    }
+
+    private Propagator poll() {
+        Propagator top = heap[0];
+        Propagator last = heap[--size];
+        double k = keys[size];
+        heap[size] = null;
+        if (size > 0) {
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = (i << 1) + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (k <= keys[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            heap[i] = last;
+            keys[i] = k;
+        }
+        return top;
+    }
+
+    @Override
+    public void flush() {
+        if (lastProp != null) {
+            lastProp.doFlush();
+        }
+        while (!var_queue.isEmpty()) {
+            var_queue.pollLast().clearEvents();
+        }
+        while (size > 0) {
+            heap[--size].doFlush();
+            heap[size] = null;
+        }
+        lastProp = null;
+    }
+
+    @Override
+    public void ignoreModifications() {
+        while (!var_queue.isEmpty()) {
+            var_queue.pollFirst().clearEvents();
+        }
+    }
+}
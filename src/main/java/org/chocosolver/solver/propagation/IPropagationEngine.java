@@ -0,0 +1,169 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+
+/**
+ * A propagation engine, which is in charge of scheduling and executing propagators
+ * until a fix point is reached or a contradiction is detected.
+ * <p>
+ * The engine is notified of any variable modification through {@link #onVariableUpdate(Variable, IEventType, ICause)}
+ * and decides on its own when and in which order the propagators are revised.
+ * <br/>
+ * An engine can be set to a solver with {@link org.chocosolver.solver.Solver#setEngine(IPropagationEngine)}
+ * as long as the resolution has not started.
+ * <p>
+ * Available implementations are:
+ * <ul>
+ *     <li>{@link PropagationEngine}: a priority-driven constraint-oriented engine (the default one),</li>
+ *     <li>{@link VariableOrientedEngine}: a variable-oriented engine which merges events per variable,</li>
+ *     <li>{@link DynamicPriorityEngine}: a constraint-oriented engine which orders propagators wrt
+ *     their measured cost and effectiveness.</li>
+ * </ul>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public interface IPropagationEngine {
+
+    /**
+     * Build up internal structure, if not yet done, in order to allow propagation.
+     * If new constraints are added after having initializing the engine, dynamic addition is used.
+     * A call to clear erase the internal structure, and allow new initialisation.
+     * @throws SolverException if a constraint is declared more than once in this propagation engine
+     */
+    void initialize() throws SolverException;
+
+    /**
+     * Is the engine initialized?
+     * Important for dynamic addition of constraints
+     *
+     * @return true if the engine has been initialized
+     */
+    boolean isInitialized();
+
+    /**
+     * Launch the proapagation, ie, active propagators if necessary, then reach a fix point
+     *
+     * @throws ContradictionException if a contradiction occurrs
+     */
+    void propagate() throws ContradictionException;
+
+    /**
+     * Execute 'coarse' propagation on a newly added propagator
+     * or one that should be propagated on backtrack
+     * @param propagator a propagator to propagate
+     * @throws ContradictionException if propagation fails
+     */
+    void execute(Propagator propagator) throws ContradictionException;
+
+    /**
+     * Flush <code>this</code>, ie. remove every pending events
+     */
+    void flush();
+
+    /**
+     * Take into account the modification of a variable
+     *
+     * @param variable modified variable
+     * @param type     type of modification event
+     * @param cause origin of the modification
+     */
+    void onVariableUpdate(Variable variable, IEventType type, ICause cause);
+
+    /**
+     * Exeucte a delayed propagator
+     * @param propagator propagator to execute
+     * @param type type of event to execute
+     * @throws ContradictionException if a failure is encountered
+     */
+    void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException;
+
+    /**
+     * Action to do when a propagator is executed
+     * @param propagator propagator to execute
+     */
+    void onPropagatorExecution(Propagator propagator);
+
+    /**
+     * Set the propagator as inactivated within the propagation engine
+     *
+     * @param propagator propagator to desactivate
+     */
+    void desactivatePropagator(Propagator propagator);
+
+    /**
+     * Reset the propagation engine.
+     */
+    void reset();
+
+    /**
+     * Clear internal structures
+     */
+    void clear();
+
+    /**
+     * Forget pending variable modifications, without scheduling any propagator
+     */
+    void ignoreModifications();
+
+    /**
+     * Add a constraint to the propagation engine
+     *
+     * @param permanent does the constraint is permanently added
+     * @param ps        propagators to add
+     * @throws SolverException if a constraint is declared more than once in this propagation engine
+     */
+    void dynamicAddition(boolean permanent, Propagator... ps) throws SolverException;
+
+    /**
+     * Update the scope of variable of a propagator (addition or deletion are allowed -- p.vars are scanned)
+     *
+     * @param p a propagator
+     */
+    void updateInvolvedVariables(Propagator p);
+
+    /**
+     * Schedule a propagator for a coarse propagation on backtrack
+     *
+     * @param propagator a propagator
+     */
+    void propagateOnBacktrack(Propagator propagator);
+
+    /**
+     * Delete the list of propagators in input from the engine
+     *
+     * @param ps a list of propagators
+     */
+    void dynamicDeletion(Propagator... ps);
+
+    /**
+     * Plug a profiler which measures the revisions of propagators, or unplug the current one.
+     *
+     * @param profiler a profiler, or <i>null</i> to stop profiling
+     * @throws UnsupportedOperationException if this engine cannot be profiled
+     */
+    default void setProfiler(PropagatorProfiler profiler) {
+        throw new UnsupportedOperationException("This engine cannot be profiled");
+    }
+
+    /**
+     * @return the profiler plugged into this engine, <i>null</i> if none
+     */
+    default PropagatorProfiler getProfiler() {
+        return null;
+    }
+}
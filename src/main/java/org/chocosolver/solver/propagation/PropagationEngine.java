@@ -10,21 +10,14 @@ package org.chocosolver.solver.propagation;
 
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
-import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
-import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.iterators.EvtScheduler;
-import org.chocosolver.util.objects.IntList;
 import org.chocosolver.util.objects.queues.CircularQueue;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * This engine is priority-driven constraint-oriented seven queues engine.
  * <br/>On a call to {@code onVariableUpdate}, it stores the event generated and schedules the propagator in
@@ -35,7 +28,7 @@ import java.util.List;
  * @author Charles Prud'homme
  * @since 05/07/12
  */
-public class PropagationEngine {
+public class PropagationEngine extends AbstractPropagationEngine {
 
     public static boolean CHECK_SCOPE = false;
 
@@ -43,19 +36,6 @@ public class PropagationEngine {
      * Mask to deal with emptiness (see {@link #notEmpty})
      */
     private static final int WORD_MASK = 0xffffffff;
-    /**
-     * The model declaring this engine
-     */
-    private final Model model;
-    /**
-     * The array of propagators to execute
-     */
-    private final List<Propagator> propagators;
-    /**
-     * To deal with propagators added dynamically
-     */
-    private final List<Propagator> dynPropagators;
-    private final IntList dynWorlds;
     /**
      * The main structure of this engine: seven circular queues,
      * each of them is dedicated to store propagator to execute wrt their priority.
@@ -63,24 +43,10 @@ public class PropagationEngine {
     private final CircularQueue<Propagator>[] pro_queue;
 
     private final CircularQueue<Variable> var_queue;
-
-    private final CircularQueue<Propagator> awake_queue;
-    /**
-     * The last propagator executed
-     */
-    private Propagator lastProp;
     /**
      * One bit per queue: true if the queue is not empty.
      */
     private int notEmpty;
-    /**
-     * PropagatorEventType's mask for delayed propagation
-     */
-    private int delayedPropagationType;
-    /**
-     * Set to <tt>true</tt> once {@link #initialize()} has been called.
-     */
-    private boolean init;
     /**
      * When set to '0b00', this works as a constraint-oriented propagation engine;
      * when set to '0b01', this workds as an hybridization between variable and constraint oriented
@@ -97,86 +63,25 @@ public class PropagationEngine {
      * @param model the declaring model
      */
     public PropagationEngine(Model model) {
-        this.model = model;
+        super(model);
         //noinspection unchecked
         this.pro_queue = new CircularQueue[8];
         for (int i = 0; i < 8; i++) {
             pro_queue[i] = new CircularQueue<>(16);
         }
         this.var_queue = new CircularQueue<>(16);
-        this.awake_queue = new CircularQueue<>(16);
-        this.dynPropagators = new ArrayList<>(16);
-        this.dynWorlds = new IntList();
-        this.propagators = new ArrayList<>();
         this.hybrid = model.getSettings().enableHybridizationOfPropagationEngine();
     }
 
-    /**
-     * Build up internal structure, if not yet done, in order to allow propagation.
-     * If new constraints are added after having initializing the engine, dynamic addition is used.
-     * A call to clear erase the internal structure, and allow new initialisation.
-     * @throws SolverException if a constraint is declared more than once in this propagation engine
-     */
-    public void initialize() throws SolverException {
-        if (!init) {
-            notEmpty = 0;
-            init = true;
-            Constraint[] constraints = model.getCstrs();
-            for (int c = 0; c < constraints.length; c++) {
-                Propagator[] cprops = constraints[c].getPropagators();
-                Collections.addAll(propagators, cprops);
-            }
-            if (model.getSettings().sortPropagatorActivationWRTPriority()) {
-                propagators.sort(
-                        (p1, p2) -> {
-                            int p = p1.getPriority().priority - p2.getPriority().priority;
-                            if (p == 0) {
-                                return p1.getNbVars() - p2.getNbVars();
-                            } else return p;
-                        });
-            }
-            for (int i = 0; i < propagators.size(); i++) {
-                propagators.get(i).setPosition(i);
-                awake_queue.addLast(propagators.get(i));
-            }
-        }
-    }
-
-    /**
-     * Is the engine initialized?
-     * Important for dynamic addition of constraints
-     *
-     * @return true if the engine has been initialized
-     */
-    public boolean isInitialized() {
-        return init;
-    }
-
-    /**
-     * Launch the proapagation, ie, active propagators if necessary, then reach a fix point
-     *
-     * @throws ContradictionException if a contradiction occurrs
-     */
     @SuppressWarnings({"NullableProblems"})
+    @Override
     public void propagate() throws ContradictionException {
         activatePropagators();
         do {
             manageModifications();
             for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(0)) {
                 while (!pro_queue[i].isEmpty()) {
-                    lastProp = pro_queue[i].pollFirst();
-                    // revision of the variable
-                    lastProp.unschedule();
-                    delayedPropagationType = 0;
-                    if (lastProp.reactToFineEvent()) {
-                        lastProp.doFinePropagation();
-                        // now we can check whether a delayed propagation has been scheduled
-                        if (delayedPropagationType > 0) {
-                            lastProp.propagate(delayedPropagationType);
-                        }
-                    } else if (lastProp.isActive()) { // need to be checked due to views
-                        lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
-                    }
+                    revise(pro_queue[i].pollFirst());
                     if (hybrid < 0b01) {
                         manageModifications();
                     }
@@ -186,31 +91,7 @@ public class PropagationEngine {
         } while (!var_queue.isEmpty());
     }
 
-    /**
-     * Checks if some propagators were added or have to be propagated on backtrack
-     * @throws ContradictionException if a propagation fails
-     */
-    private void activatePropagators() throws ContradictionException {
-        if (dynPropagators.size() > 0) {
-            int cw = model.getEnvironment().getWorldIndex(); // get current index
-            for(int p = 0; p < dynPropagators.size(); p++){
-                if (dynWorlds.getQuick(p) >= cw) {
-                    awake_queue.addLast(dynPropagators.get(p));
-                    dynWorlds.replaceQuick(p, cw);
-                }
-            }
-        }
-        while (!awake_queue.isEmpty()) {
-            execute(awake_queue.pollFirst());
-        }
-    }
-
-    /**
-     * Execute 'coarse' propagation on a newly added propagator
-     * or one that should be propagated on backtrack
-     * @param propagator a propagator to propagate
-     * @throws ContradictionException if propagation fails
-     */
+    @Override
     public void execute(Propagator propagator) throws ContradictionException {
         if (propagator.isStateLess()) {
             propagator.setActive();
@@ -240,9 +121,7 @@ public class PropagationEngine {
         }
     }
 
-    /**
-     * Flush <code>this</code>, ie. remove every pending events
-     */
+    @Override
     public void flush() {
         if (lastProp != null) {
             lastProp.doFlush();
@@ -260,14 +139,9 @@ public class PropagationEngine {
         lastProp = null;
     }
 
-    /**
-     * Take into account the modification of a variable
-     *
-     * @param variable modified variable
-     * @param type     type of modification event
-     * @param cause origin of the modification
-     */
+    @Override
     public void onVariableUpdate(Variable variable, IEventType type, ICause cause) {
+        nbEvents++;
         if (CHECK_SCOPE && Propagator.class.isAssignableFrom(cause.getClass())) {
             // make sure the variable appears in prop scope
             Propagator p = (Propagator) cause;
@@ -310,149 +184,16 @@ public class PropagationEngine {
         notEmpty = notEmpty | (1 << prop.doSchedule(pro_queue));
     }
 
-    /**
-     * Exeucte a delayed propagator
-     * @param propagator propagator to execute
-     * @param type type of event to execute
-     * @throws ContradictionException if a failure is encountered
-     */
-    public void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException {
-        assert propagator == lastProp;
-        assert delayedPropagationType == 0 || delayedPropagationType == type.getMask();
-        delayedPropagationType = type.getMask();
-    }
-
-    /**
-     * Action to do when a propagator is executed
-     * @param propagator propagator to execute
-     */
-    public void onPropagatorExecution(Propagator propagator) {
-        desactivatePropagator(propagator);
-    }
-
-    /**
-     * Set the propagator as inactivated within the propagation engine
-     *
-     * @param propagator propagator to desactivate
-     */
-    public void desactivatePropagator(Propagator propagator) {
-        if (propagator.reactToFineEvent()) {
-            propagator.doFlush();
-        }
-    }
-
-    /**
-     * Reset the propagation engine.
-     */
-    public void reset() {
-        flush();
-        clear();
-    }
-
-    /**
-     * Clear internal structures
-     */
+    @Override
     public void clear() {
-        dynPropagators.clear();
-        dynWorlds.clear();
-        awake_queue.clear();
-        propagators.clear();
+        super.clear();
         notEmpty = 0;
-        init = false;
-        lastProp = null;
     }
 
+    @Override
     public void ignoreModifications() {
         while (!var_queue.isEmpty()) {
             var_queue.pollFirst().clearEvents();
         }
     }
-
-    /**
-     * Add a constraint to the propagation engine
-     *
-     * @param permanent does the constraint is permanently added
-     * @param ps        propagators to add
-     * * @throws SolverException if a constraint is declared more than once in this propagation engine
-     */
-    public void dynamicAddition(boolean permanent, Propagator... ps) throws SolverException {
-        int nbp = ps.length;
-        for (int i = 0; i < nbp; i++) {
-            if (permanent) {
-                ps[i].setPosition(propagators.size());
-                propagators.add(ps[i]);
-                dynPropagators.add(ps[i]);
-                dynWorlds.add(Integer.MAX_VALUE);
-            }
-        }
-    }
-
-
-    /**
-     * Update the scope of variable of a propagator (addition or deletion are allowed -- p.vars are scanned)
-     *
-     * @param p a propagator
-     */
-    public void updateInvolvedVariables(Propagator p) {
-        propagateOnBacktrack(p); // TODO: when p is not permanent AND a new var is added ... well, one looks for trouble!
-    }
-
-    /**
-     * Update the scope of variable of a propagator (addition or deletion are allowed -- p.vars are scanned)
-     *
-     * @param propagator a propagator
-     */
-    public void propagateOnBacktrack(Propagator propagator) {
-        int idx = propagator.getPosition();
-        assert propagators.get(idx) == propagator : "Try to remove the wrong propagator";
-        shift(idx);
-        propagators.set(propagators.size() - 1, propagator);
-        propagator.setPosition(propagators.size() - 1);
-        int pos = dynPropagators.indexOf(propagator);
-        if(pos>-1){
-            dynWorlds.replaceQuick(pos, Integer.MAX_VALUE);
-        }else {
-            dynPropagators.add(propagator);
-            dynWorlds.add(Integer.MAX_VALUE);
-        }
-    }
-
-    /**
-     * Delete the list of propagators in input from the engine
-     *
-     * @param ps a list of propagators
-     */
-    public void dynamicDeletion(Propagator... ps) {
-        for (Propagator toDelete : ps) {
-            if (lastProp == toDelete) {
-                lastProp = null;
-            }
-            if(toDelete.getPosition()>-1) {
-                int idx = dynPropagators.indexOf(toDelete);
-                if (idx > -1) {
-                    dynPropagators.remove(idx);
-                    dynWorlds.removeAt(idx);
-                }
-                remove(toDelete);
-            }
-        }
-    }
-
-    private void remove(Propagator propagator) {
-        int idx = propagator.getPosition();
-        if (idx > -1) {
-            assert propagators.get(idx) == propagator : "Try to remove the wrong propagator";
-            // todo: improve
-            shift(idx);
-            propagator.setPosition(-1);
-            propagators.remove(propagators.size() - 1);
-        }
-    }
-
-    private void shift(int from) {
-        for (int i = from; i < propagators.size() - 1; i++) {
-            propagators.set(i, propagators.get(i + 1));
-            propagators.get(i).setPosition(i);
-        }
-    }
 }
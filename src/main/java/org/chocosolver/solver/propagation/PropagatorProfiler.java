@@ -0,0 +1,256 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.constraints.Propagator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Collects, per propagator, the number of revisions, the time spent in revisions,
+ * the number of domain modifications and the number of contradictions raised.
+ * <br/>A profiler is plugged into a propagation engine with {@link IPropagationEngine#setProfiler(PropagatorProfiler)},
+ * or more simply with {@link org.chocosolver.solver.Solver#profilePropagators()}.
+ * When no profiler is plugged, the engine only pays a null check per revision.
+ * <p>
+ * Measures can be aggregated per constraint (wrt to {@link org.chocosolver.solver.constraints.Constraint#getName()})
+ * or per class of propagator, and exported in a CSV format.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class PropagatorProfiler {
+
+    /**
+     * Profiled propagators, indexed by their id
+     */
+    private Propagator[] props = new Propagator[16];
+    /**
+     * Number of revisions, indexed by propagator ids
+     */
+    private long[] calls = new long[16];
+    /**
+     * Time spent in revisions, in nanoseconds, indexed by propagator ids
+     */
+    private long[] nanos = new long[16];
+    /**
+     * Number of domain modifications, indexed by propagator ids
+     */
+    private long[] events = new long[16];
+    /**
+     * Number of contradictions raised, indexed by propagator ids
+     */
+    private long[] failures = new long[16];
+
+    /**
+     * Record a revision of a propagator
+     *
+     * @param prop   the revised propagator
+     * @param time   time spent in the revision, in nanoseconds
+     * @param nbEvts number of domain modifications done during the revision
+     * @param failed set to <i>true</i> if the revision raised a contradiction
+     */
+    public void record(Propagator prop, long time, long nbEvts, boolean failed) {
+        int id = prop.getId();
+        if (id >= props.length) {
+            int ns = Math.max(id + 1, props.length * 3 / 2 + 1);
+            props = Arrays.copyOf(props, ns);
+            calls = Arrays.copyOf(calls, ns);
+            nanos = Arrays.copyOf(nanos, ns);
+            events = Arrays.copyOf(events, ns);
+            failures = Arrays.copyOf(failures, ns);
+        }
+        props[id] = prop;
+        calls[id]++;
+        nanos[id] += time;
+        events[id] += nbEvts;
+        if (failed) {
+            failures[id]++;
+        }
+    }
+
+    /**
+     * Forget any measure
+     */
+    public void reset() {
+        Arrays.fill(props, null);
+        Arrays.fill(calls, 0);
+        Arrays.fill(nanos, 0);
+        Arrays.fill(events, 0);
+        Arrays.fill(failures, 0);
+    }
+
+    /**
+     * @return the total time spent in revisions, in nanoseconds
+     */
+    public long getTotalTime() {
+        long t = 0;
+        for (int i = 0; i < nanos.length; i++) {
+            t += nanos[i];
+        }
+        return t;
+    }
+
+    /**
+     * @return measures per propagator, sorted by decreasing time
+     */
+    public List<Entry> getEntries() {
+        return group(p -> p.getClass().getSimpleName() + "#" + p.getId());
+    }
+
+    /**
+     * @return measures aggregated per constraint name, sorted by decreasing time
+     */
+    public List<Entry> getEntriesByConstraint() {
+        return group(p -> p.getConstraint() == null ? "?" : p.getConstraint().getName());
+    }
+
+    /**
+     * @return measures aggregated per class of propagator, sorted by decreasing time
+     */
+    public List<Entry> getEntriesByPropagatorClass() {
+        return group(p -> p.getClass().getName());
+    }
+
+    /**
+     * @param ratio a ratio of the total time, in [0,1]
+     * @return the smallest set of propagators which, together, take at least <i>ratio</i> of the total time,
+     * sorted by decreasing time
+     */
+    public List<Entry> getHotSpots(double ratio) {
+        List<Entry> entries = getEntries();
+        long limit = (long) Math.ceil(getTotalTime() * ratio);
+        long t = 0;
+        int i = 0;
+        while (i < entries.size() && t < limit) {
+            t += entries.get(i++).nanos;
+        }
+        return new ArrayList<>(entries.subList(0, i));
+    }
+
+    private List<Entry> group(Function<Propagator, String> key) {
+        Map<String, Entry> map = new LinkedHashMap<>();
+        for (int i = 0; i < props.length; i++) {
+            if (props[i] != null) {
+                Entry e = map.computeIfAbsent(key.apply(props[i]), Entry::new);
+                e.nbPropagators++;
+                e.calls += calls[i];
+                e.nanos += nanos[i];
+                e.events += events[i];
+                e.failures += failures[i];
+            }
+        }
+        List<Entry> entries = new ArrayList<>(map.values());
+        entries.sort(Comparator.comparingLong((Entry e) -> e.nanos).reversed());
+        return entries;
+    }
+
+    /**
+     * @return measures per propagator in a CSV format, one propagator per line, with the header:
+     * <pre>
+     *     name;propagators;calls;time(ms);events;failures;
+     * </pre>
+     */
+    public String toCSV() {
+        return toCSV(getEntries());
+    }
+
+    /**
+     * @param entries a list of entries
+     * @return <i>entries</i> in a CSV format (see {@link #toCSV()})
+     */
+    public static String toCSV(List<Entry> entries) {
+        StringBuilder st = new StringBuilder("name;propagators;calls;time(ms);events;failures;\n");
+        for (Entry e : entries) {
+            st.append(String.format("%s;%d;%d;%.3f;%d;%d;\n",
+                    e.name, e.nbPropagators, e.calls, e.nanos / 1e6, e.events, e.failures));
+        }
+        return st.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("- Propagator profile -\n");
+        long total = Math.max(getTotalTime(), 1);
+        for (Entry e : getEntriesByConstraint()) {
+            st.append(String.format("\t%-24s %6.2f%% %12d calls %10.3f ms %12d events %8d failures\n",
+                    e.name, e.nanos * 100. / total, e.calls, e.nanos / 1e6, e.events, e.failures));
+        }
+        return st.toString();
+    }
+
+    /**
+     * Measures related to a propagator or a group of propagators
+     */
+    public static final class Entry {
+        private final String name;
+        private int nbPropagators;
+        private long calls;
+        private long nanos;
+        private long events;
+        private long failures;
+
+        private Entry(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return name of the propagator or of the group
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return number of propagators in the group
+         */
+        public int getNbPropagators() {
+            return nbPropagators;
+        }
+
+        /**
+         * @return number of revisions
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return time spent in revisions, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return number of domain modifications
+         */
+        public long getEvents() {
+            return events;
+        }
+
+        /**
+         * @return number of contradictions raised
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d calls, %.3f ms, %d events, %d failures", name, calls, nanos / 1e6, events, failures);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.objects.queues.CircularQueue;
+
+/**
+ * A variable-oriented propagation engine.
+ * <br/>Modified variables are stored in a FIFO queue, each of them at most once:
+ * the events a variable receives while waiting in the queue are merged into a single mask.
+ * When a variable is popped, all its propagators which react to the merged events are revised,
+ * before the next variable is considered.
+ * <p>
+ * Compared to {@link PropagationEngine}, propagators are not ordered by priority,
+ * but a propagator observing a variable modified many times in a row is revised only once.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class VariableOrientedEngine extends AbstractPropagationEngine {
+
+    /**
+     * Modified variables, each of them appears at most once
+     */
+    private final CircularQueue<Variable> var_queue;
+    /**
+     * Propagators to revise for the variable being processed
+     */
+    private final CircularQueue<Propagator> pro_queue;
+
+    /**
+     * A variable-oriented propagation engine.
+     * @param model the declaring model
+     */
+    public VariableOrientedEngine(Model model) {
+        super(model);
+        this.var_queue = new CircularQueue<>(16);
+        this.pro_queue = new CircularQueue<>(16);
+    }
+
+    @Override
+    public void propagate() throws ContradictionException {
+        activatePropagators();
+        while (!var_queue.isEmpty()) {
+            schedule(var_queue.pollFirst());
+            while (!pro_queue.isEmpty()) {
+                revise(pro_queue.pollFirst());
+            }
+        }
+    }
+
+    @Override
+    public void execute(Propagator propagator) throws ContradictionException {
+        if (propagator.isStateLess()) {
+            propagator.setActive();
+        }
+        if (propagator.isActive()) {
+            propagator.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) {
+        nbEvents++;
+        if (variable.getMask() == 0) {
+            var_queue.addLast(variable);
+        }
+        variable.storeEvents(type.getMask(), cause);
+    }
+
+    /**
+     * Schedule the propagators of <i>variable</i> which react to its pending events, then clear the events.
+     * Events are cleared before propagators are revised, so that the variable can be scheduled anew.
+     * @param variable a modified variable
+     */
+    private void schedule(Variable variable) {
+        int mask = variable.getMask();
+        if (mask > 0) {
+            ICause cause = variable.getCause();
+            Propagator[] vpropagators = variable.getPropagators();
+            int[] vindices = variable.getPIndices();
+            Propagator prop;
+            EvtScheduler si = variable._schedIter();
+            //noinspection unchecked
+            si.init(mask);
+            while (si.hasNext()) {
+                int p = variable.getDindex(si.next());
+                int t = variable.getDindex(si.next());
+                for (; p < t; p++) {
+                    prop = vpropagators[p];
+                    if (prop.isActive() && cause != prop) {
+                        prop.doScheduleEvent(vindices[p], mask);
+                        if (prop.doSchedule()) {
+                            pro_queue.addLast(prop);
+                        }
+                    }
+                }
+            }
+        }
+        variable.clearEvents();
+    }
+
+    @Override
+    public void flush() {
+        if (lastProp != null) {
+            lastProp.doFlush();
+        }
+        while (!var_queue.isEmpty()) {
+            var_queue.pollLast().clearEvents();
+        }
+        while (!pro_queue.isEmpty()) {
+            pro_queue.pollLast().doFlush();
+        }
+        lastProp = null;
+    }
+
+    @Override
+    public void ignoreModifications() {
+        while (!var_queue.isEmpty()) {
+            var_queue.pollFirst().clearEvents();
+        }
+    }
+}
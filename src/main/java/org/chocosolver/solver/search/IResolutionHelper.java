@@ -9,7 +9,10 @@
 package org.chocosolver.solver.search;
 
 import org.chocosolver.solver.ISelf;
+import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.SolutionSpliterator;
+import org.chocosolver.solver.SolutionStore;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.lex.PropLexInt;
@@ -21,12 +24,13 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.criteria.Criterion;
 
-import java.util.ArrayList;
+import java.math.BigInteger;
 import java.util.Collections;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -119,15 +123,17 @@ public interface IResolutionHelper extends ISelf<Solver> {
      * This method run the following instructions:
      * <pre>
      *     {@code
-     *     List<Solution> solutions = new ArrayList<>();
+     *     SolutionStore solutions = new SolutionStore(model);
      *     while (model.getSolver().solve()){
-     *          solutions.add(new Solution(model).record());
+     *          solutions.record();
      *     }
      *     return solutions;
      *     }
      * </pre>
      *
-     * Note that all variables will be recorded
+     * Note that all variables will be recorded, in a {@link SolutionStore}:
+     * a {@link Solution} is built each time an element of the list is read
+     * (prefer {@link SolutionStore#getIntVal(int, IntVar)} or {@link SolutionStore#rows()} to read many values).
 	 *
 	 * Note that it clears the current objective function, if any
      *
@@ -137,14 +143,29 @@ public interface IResolutionHelper extends ISelf<Solver> {
     default List<Solution> findAllSolutions(Criterion... stop) {
 		ref().getModel().clearObjective();
         ref().addStopCriterion(stop);
-        List<Solution> solutions = new ArrayList<>();
+        SolutionStore solutions = new SolutionStore(ref().getModel());
         while (ref().solve()) {
-            solutions.add(new Solution(ref().getModel()).record());
+            solutions.record();
         }
         ref().removeStopCriterion(stop);
         return solutions;
     }
 
+    /**
+     * Counts the solutions of the declared satisfaction problem, without enumerating nor recording them.
+     * <p>
+     * Independent sub-problems are counted separately and their counts are cached,
+     * which makes it possible to count far more solutions than can be enumerated.
+     * See {@link ModelCounter} for more details, and for per-value counts.
+     * <p>
+     * Note that the current objective function, if any, is ignored.
+     *
+     * @return the number of solutions of the model
+     */
+    default BigInteger countSolutions() {
+        return new ModelCounter(ref().getModel()).count();
+    }
+
     /**
      * Attempts to find all solutions of the declared problem.
      * <ul>
@@ -210,6 +231,31 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return StreamSupport.stream(it, false);
     }
 
+    /**
+     * Stream the solutions of the model, with a stream which can be run in parallel.
+     * <p>
+     * Unlike {@link #streamSolutions(Criterion...)}, the returned stream supports splitting:
+     * when run in parallel, the search space is partitioned into sub-problems
+     * which are shared among models built by <i>modeller</i>, each of them searching with its own solver
+     * (see {@link SolutionSpliterator}).
+     * Downstream operations are then executed concurrently with the search.
+     * <p>
+     * The search is restarted from scratch, and the solutions may be attached to different models,
+     * but the values of the variables of any of these models can be read from them.
+     * <pre>
+     * {@code
+     *  model.getSolver().streamSolutions(() -> modeller()).parallel().forEach(s -> postProcess(s));
+     * }
+     * </pre>
+     *
+     * @param modeller builds a model identical to this one each time it is called
+     * @param stop     optional criterion to stop the search, applied to each sub-problem
+     * @return a stream of the solutions found
+     */
+    default Stream<Solution> streamSolutions(Supplier<Model> modeller, Criterion... stop) {
+        return StreamSupport.stream(new SolutionSpliterator(ref().getModel(), modeller, stop), false);
+    }
+
     /**
      * Attempt to find the solution that optimizes the mono-objective problem defined by a unique objective variable and
      * an optimization criteria.
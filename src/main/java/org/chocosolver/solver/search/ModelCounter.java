@@ -0,0 +1,342 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.graphOperations.connectivity.ComponentFinder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Counts the solutions of a model made of integer variables (#CSP), without enumerating them.
+ * <p>
+ * The count is computed by a depth-first search which, after each decision and propagation,
+ * splits the uninstantiated variables into the connected components of the constraint graph
+ * (see {@link ComponentFinder}): the count of a node is the product of the counts of its components.
+ * The count of a component is cached, keyed by the residual domains of its variables and
+ * by the values of the instantiated variables it is constrained with,
+ * so that a sub-problem met again in another branch is not counted twice.
+ * <p>
+ * Solutions are assignments of all the variables of the model but views and constants,
+ * counted from their current domains. The objective, if any, is ignored. The model is left unchanged.
+ * <p>
+ * Example:
+ * <pre>
+ *     {@code
+ *     ModelCounter counter = new ModelCounter(model);
+ *     BigInteger count = counter.count();
+ *     SortedMap<Integer, BigInteger> perValue = counter.marginals(x);
+ *     }
+ * </pre>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ModelCounter implements ICause {
+
+    /**
+     * The model
+     */
+    private final Model model;
+    /**
+     * Variables to assign
+     */
+    private final IntVar[] scope;
+    /**
+     * Computes components
+     */
+    private final ComponentFinder finder;
+    /**
+     * Counts of components already met
+     */
+    private final HashMap<Key, BigInteger> cache;
+    /**
+     * Maximum number of counts cached, the cache is cleared when reached
+     */
+    private int cacheLimit;
+    /**
+     * Statistics
+     */
+    private long nbNodes, nbHits;
+    /**
+     * To compute keys
+     */
+    private final TIntArrayList data;
+    private final TIntHashSet seen;
+    private final List<IntVar> boundary;
+
+    /**
+     * Create a counter for the solutions of <i>model</i>
+     *
+     * @param model a model made of integer variables
+     * @throws SolverException if the model has non-integer variables
+     */
+    public ModelCounter(Model model) {
+        this.model = model;
+        List<IntVar> vars = new ArrayList<>();
+        for (Variable v : model.getVars()) {
+            if ((v.getTypeAndKind() & Variable.TYPE) != Variable.VAR) {
+                continue;
+            }
+            if ((v.getTypeAndKind() & Variable.INT) == 0) {
+                throw new SolverException("ModelCounter only supports integer variables, but " + v.getName() + " is not");
+            }
+            vars.add((IntVar) v);
+        }
+        this.scope = vars.toArray(new IntVar[0]);
+        this.finder = new ComponentFinder();
+        this.cache = new HashMap<>();
+        this.cacheLimit = 1 << 20;
+        this.data = new TIntArrayList();
+        this.seen = new TIntHashSet();
+        this.boundary = new ArrayList<>();
+    }
+
+    /**
+     * Set the maximum number of counts cached, the cache being cleared when reached.
+     *
+     * @param cacheLimit a positive number
+     * @return this
+     */
+    public ModelCounter setCacheLimit(int cacheLimit) {
+        this.cacheLimit = cacheLimit;
+        return this;
+    }
+
+    /**
+     * @return the number of solutions of the model
+     */
+    public BigInteger count() {
+        return countWith(null, 0);
+    }
+
+    /**
+     * Compute, for each value of <i>var</i>, the number of solutions in which <i>var</i> takes this value.
+     *
+     * @param var a variable of the model
+     * @return the number of solutions per value, values with no solution included
+     */
+    public SortedMap<Integer, BigInteger> marginals(IntVar var) {
+        SortedMap<Integer, BigInteger> marginals = new TreeMap<>();
+        int ub = var.getUB();
+        for (int v = var.getLB(); v <= ub; v = var.nextValue(v)) {
+            marginals.put(v, countWith(var, v));
+        }
+        return marginals;
+    }
+
+    /**
+     * @return the number of nodes explored so far
+     */
+    public long getNbNodes() {
+        return nbNodes;
+    }
+
+    /**
+     * @return the number of times a count was found in the cache so far
+     */
+    public long getNbCacheHits() {
+        return nbHits;
+    }
+
+    /**
+     * Count the solutions of the model, restricted to <i>var = val</i> if <i>var</i> is not <tt>null</tt>
+     */
+    private BigInteger countWith(IntVar var, int val) {
+        Solver solver = model.getSolver();
+        IEnvironment env = model.getEnvironment();
+        IPropagationEngine engine = solver.getEngine();
+        boolean initialized = engine.isInitialized();
+        BigInteger count = BigInteger.ZERO;
+        env.worldPush();
+        try {
+            solver.propagate();
+            if (var != null) {
+                var.instantiateTo(val, this);
+                engine.propagate();
+            }
+            count = countComponents(scope);
+        } catch (ContradictionException e) {
+            engine.flush();
+        }
+        env.worldPop();
+        if (!initialized) {
+            // propagators are back to their initial state, so must be the engine
+            engine.reset();
+        }
+        return count;
+    }
+
+    /**
+     * @return the product of the counts of the components of the uninstantiated variables of <i>vars</i>
+     */
+    private BigInteger countComponents(IntVar[] vars) {
+        BigInteger product = BigInteger.ONE;
+        for (IntVar[] component : finder.findComponents(vars)) {
+            product = product.multiply(countComponent(component));
+            if (product.signum() == 0) {
+                break;
+            }
+        }
+        return product;
+    }
+
+    /**
+     * @return the number of solutions of a component, from its cache entry if any
+     */
+    private BigInteger countComponent(IntVar[] component) {
+        if (component.length == 1 && isFree(component[0])) {
+            return BigInteger.valueOf(component[0].getDomainSize());
+        }
+        Key key = keyOf(component);
+        BigInteger count = cache.get(key);
+        if (count != null) {
+            nbHits++;
+            return count;
+        }
+        count = BigInteger.ZERO;
+        IntVar x = component[0];
+        for (IntVar v : component) {
+            if (v.getDomainSize() < x.getDomainSize()) {
+                x = v;
+            }
+        }
+        IEnvironment env = model.getEnvironment();
+        IPropagationEngine engine = model.getSolver().getEngine();
+        int ub = x.getUB();
+        for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+            nbNodes++;
+            env.worldPush();
+            try {
+                x.instantiateTo(v, this);
+                engine.propagate();
+                count = count.add(countComponents(component));
+            } catch (ContradictionException e) {
+                engine.flush();
+            }
+            env.worldPop();
+        }
+        if (cache.size() >= cacheLimit) {
+            cache.clear();
+        }
+        cache.put(key, count);
+        return count;
+    }
+
+    /**
+     * @return <tt>true</tt> if all the propagators of <i>var</i>, and of its views, are passive
+     */
+    private static boolean isFree(Variable var) {
+        for (int p = var.getNbProps() - 1; p >= 0; p--) {
+            if (!var.getPropagator(p).isPassive()) {
+                return false;
+            }
+        }
+        for (int w = var.getNbViews() - 1; w >= 0; w--) {
+            if (!isFree(var.getView(w))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The key of a component is made of the domains of its variables,
+     * and of the values of the instantiated variables which share a propagator with them.
+     */
+    private Key keyOf(IntVar[] component) {
+        data.resetQuick();
+        seen.clear();
+        boundary.clear();
+        for (IntVar v : component) {
+            int lb = v.getLB(), ub = v.getUB();
+            data.add(v.getId());
+            data.add(lb);
+            data.add(ub);
+            if (v.getDomainSize() < ub - lb + 1) {
+                // holes
+                data.add(v.getDomainSize());
+                for (int i = v.nextValue(lb); i < ub; i = v.nextValue(i)) {
+                    data.add(i);
+                }
+            } else {
+                data.add(-1);
+            }
+            collect(v);
+        }
+        boundary.sort((a, b) -> a.getId() - b.getId());
+        for (IntVar v : boundary) {
+            data.add(v.getId());
+            data.add(v.getValue());
+        }
+        return new Key(data.toArray());
+    }
+
+    /**
+     * Add to {@link #boundary} the instantiated variables which share a non-passive propagator with <i>var</i>,
+     * or with one of its views
+     */
+    private void collect(Variable var) {
+        for (int p = var.getNbProps() - 1; p >= 0; p--) {
+            Propagator prop = var.getPropagator(p);
+            if (prop.isPassive() || !seen.add(-prop.getId() - 1)) {
+                continue;
+            }
+            for (int w = prop.getNbVars() - 1; w >= 0; w--) {
+                Variable u = prop.getVar(w);
+                if (u.isInstantiated() && seen.add(u.getId())) {
+                    boundary.add((IntVar) u);
+                }
+            }
+        }
+        for (int w = var.getNbViews() - 1; w >= 0; w--) {
+            collect(var.getView(w));
+        }
+    }
+
+    /**
+     * A cache key
+     */
+    private static final class Key {
+        private final int[] data;
+        private final int hash;
+
+        private Key(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(data, ((Key) o).data);
+        }
+    }
+}
@@ -47,4 +47,14 @@ public interface ILearnFactory extends ISelf<Solver> {
     default void setDBTLearning(boolean nogoodsOn, boolean userFeedbackOn) {
         ref().setLearner(new LearnDBT(ref().getModel(), nogoodsOn, userFeedbackOn));
     }
+
+    /**
+     * Creates a learning object based on lazy clause generation (LCG):
+     * explanations of failures are turned into no-goods over literals "x = v" and "x &le; v",
+     * recorded in the no-good store, and the search backjumps non-chronologically, when possible.
+     * See {@link LearnLCG} for details.
+     */
+    default void setLCGLearning() {
+        ref().setLearner(new LearnLCG(ref().getModel()));
+    }
 }
@@ -116,7 +116,7 @@ public class LearnCBJ extends LearnExplained {
                             (Integer) decision.getDecisionValue(), true)));
                 }
             }
-            ngstore.addLearnt(ps.toArray());
+            ngstore.addLearnt(false, ps.toArray());
         }
     }
 
@@ -0,0 +1,267 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.learn;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.sat.PropNogoods;
+import org.chocosolver.sat.SatSolver;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.Explanation;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.explanations.store.IEventStore;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+
+import static org.chocosolver.solver.variables.events.PropagatorEventType.FULL_PROPAGATION;
+
+/**
+ * Lazy clause generation like learning.
+ * On failure, the conflict is explained by scanning backward the events of the current branch,
+ * as done by {@link org.chocosolver.solver.explanations.ExplanationEngine},
+ * but the explanation is turned into a no-good over literals <i>[x = v]</i> and <i>[x &le; v]</i>
+ * which is recorded in {@link PropNogoods}:
+ * <ul>
+ * <li>events of the current level, but the ones due to the last decision, are explained by their causes
+ * (see {@link ICause#why(RuleStore, IntVar, IEventType, int)}),</li>
+ * <li>events due to the last decision and events of previous levels involved in the explanation are turned into literals.</li>
+ * </ul>
+ * Since rules of {@link RuleStore} are defined on variables and not on literals, the no-good is cut at the decision
+ * of the current level (decision-UIP) rather than at the first unique implication point.
+ * <p>
+ * Then, the search backjumps to the most recent level involved in the no-good but the current one,
+ * where the no-good propagates.
+ * Decisions in-between are forgotten, not refuted (see {@link Solver#setDiscardOnJump(boolean)}),
+ * which requires a move supporting it, see {@link org.chocosolver.solver.search.loop.move.Move#canDiscardDecisions()}.
+ * Otherwise, or when some levels are made of more than one decision, or when solutions of a satisfaction problem are
+ * enumerated (since a backjump may lead to find a solution twice), the search backtracks chronologically, but no-goods
+ * are still learnt.
+ * <p>
+ * No-goods are valid wrt the objective cut at the time they are learnt, which can only be tightened.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class LearnLCG extends LearnExplained {
+
+    /**
+     * The no-good store
+     */
+    private final PropNogoods ngstore;
+
+    /**
+     * Literals of the no-good in construction
+     */
+    private final TIntArrayList ps;
+
+    /**
+     * Variables (by id) whose instantiation is already stated in the no-good in construction
+     */
+    private final TIntHashSet insts;
+
+    /**
+     * Lower bounds and upper bounds already stated in the no-good in construction, per variable id
+     */
+    private final TIntIntHashMap lbs, ubs;
+
+    /**
+     * Statistics
+     */
+    private long nbNogoods, nbBackjumps, nbLiterals;
+
+    /**
+     * Create a lazy clause generation like learning strategy.
+     *
+     * @param mModel the model to instrument
+     */
+    public LearnLCG(Model mModel) {
+        super(mModel, false, false);
+        this.ngstore = mModel.getNogoodStore().getPropNogoods();
+        this.ps = new TIntArrayList();
+        this.insts = new TIntHashSet();
+        this.lbs = new TIntIntHashMap(16, .5f, -1, Integer.MIN_VALUE);
+        this.ubs = new TIntIntHashMap(16, .5f, -1, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void onSolution(Solver solver) {
+        // nothing to explain, the search goes on chronologically
+        solver.setJumpTo(1);
+    }
+
+    @Override
+    public void onFailure(Solver solver) {
+        DecisionPath path = solver.getDecisionPath();
+        Decision last = path.getLastDecision();
+        int level = last.getPosition();
+        if (level == 0) {
+            // failure at root node, the search is over
+            return;
+        }
+        int jump = analyze(solver.getContradictionException(), last);
+        ngstore.addLearnt(false, ps.toArray());
+        nbNogoods++;
+        nbLiterals += ps.size();
+        if (jump < level - 1 && canBackjump(solver, level)) {
+            solver.setJumpTo(level - jump);
+            solver.setDiscardOnJump(true);
+            nbBackjumps++;
+        }
+    }
+
+    /**
+     * Compute the no-good explaining <i>cex</i> and store it in {@link #ps}.
+     *
+     * @param cex  the contradiction to explain
+     * @param last the last decision, the one of the current level
+     * @return the most recent level involved in the no-good but the current one, 0 if none
+     */
+    private int analyze(ContradictionException cex, Decision last) {
+        IEventStore eventStore = mExplainer.getEventStore();
+        RuleStore ruleStore = mExplainer.getRuleStore();
+        Explanation explanation = mExplainer.makeExplanation(false);
+        ruleStore.init(explanation);
+        if (cex.v != null) {
+            ruleStore.addFullDomainRule((IntVar) cex.v);
+        } else {
+            cex.c.why(ruleStore, null, IntEventType.VOID, 0);
+        }
+        ps.resetQuick();
+        insts.clear();
+        lbs.clear();
+        ubs.clear();
+        boolean current = true, seen = false, waiting = false;
+        int jump = -1;
+        for (int i = eventStore.getSize() - 1; i > -1; i--) {
+            ICause cause = eventStore.getCause(i);
+            IEventType evt = eventStore.getEventType(i);
+            boolean decision = evt != FULL_PROPAGATION && cause instanceof Decision;
+            if (current) {
+                if (cause == last) {
+                    seen = true;
+                } else if (seen) {
+                    current = false;
+                }
+            }
+            if (!current && decision && waiting) {
+                // the literals found since the previous decision event belong to this level
+                jump = ((Decision) cause).getPosition();
+                waiting = false;
+            }
+            if (!ruleStore.match(i, eventStore)) {
+                continue;
+            }
+            if (evt == FULL_PROPAGATION || (current && !decision)) {
+                // explained by its cause
+                ruleStore.update(i, eventStore, explanation);
+            } else if (addLiteral(eventStore.getVariable(i), (IntEventType) evt, eventStore.getFirstValue(i))
+                    && !current && jump < 0) {
+                if (decision) {
+                    jump = ((Decision) cause).getPosition();
+                } else {
+                    waiting = true;
+                }
+            }
+        }
+        explanation.recycle();
+        return Math.max(jump, 0);
+    }
+
+    /**
+     * Add to {@link #ps} the negation of the fact stated by an event, unless a stronger fact is already stated.
+     * Since events are scanned backward, facts stated before are the most recent, and thus the strongest.
+     *
+     * @param var   the modified variable
+     * @param evt   the event
+     * @param value the instantiation value, the new bound or the removed value
+     * @return <tt>true</tt> if a literal is added
+     */
+    private boolean addLiteral(IntVar var, IntEventType evt, int value) {
+        int id = var.getId();
+        if (insts.contains(id)) {
+            return false;
+        }
+        switch (evt) {
+            case INSTANTIATE:
+                insts.add(id);
+                ps.add(SatSolver.negated(ngstore.Literal(var, value, true)));
+                return true;
+            case INCLOW:
+                if (lbs.containsKey(id)) {
+                    return false;
+                }
+                lbs.put(id, value);
+                ps.add(ngstore.Literal(var, value - 1, false));
+                return true;
+            case DECUPP:
+                if (ubs.containsKey(id)) {
+                    return false;
+                }
+                ubs.put(id, value);
+                ps.add(SatSolver.negated(ngstore.Literal(var, value, false)));
+                return true;
+            case REMOVE:
+                if (lbs.get(id) > value || ubs.get(id) < value) {
+                    return false;
+                }
+                ps.add(ngstore.Literal(var, value, true));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param solver the solver
+     * @param level  the current level
+     * @return <tt>true</tt> if decisions can be forgotten when backjumping
+     */
+    private boolean canBackjump(Solver solver, int level) {
+        if (!solver.getMove().canDiscardDecisions()
+                || (!solver.getObjectiveManager().isOptimization() && solver.getSolutionCount() > 0)) {
+            return false;
+        }
+        // each level should be made of one decision only
+        DecisionPath path = solver.getDecisionPath();
+        for (int i = 1; i <= level; i++) {
+            if (path.getDecision(i).getArity() < 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of no-goods learnt so far
+     */
+    public long getNbNogoods() {
+        return nbNogoods;
+    }
+
+    /**
+     * @return the number of non-chronological backjumps done so far
+     */
+    public long getNbBackjumps() {
+        return nbBackjumps;
+    }
+
+    /**
+     * @return the average number of literals of the no-goods learnt so far
+     */
+    public double getAverageNogoodSize() {
+        return nbNogoods == 0 ? 0. : (double) nbLiterals / nbNogoods;
+    }
+}
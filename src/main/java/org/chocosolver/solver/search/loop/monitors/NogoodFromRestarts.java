@@ -24,6 +24,9 @@ import java.util.Arrays;
  * <p>
  * Related to "Nogood Recording from Restarts", C. Lecoutre et al.
  * <br/>
+ * When the no-good store shares no-goods (see {@link PropNogoods#shareNogoods(org.chocosolver.sat.NogoodExchange, int)}),
+ * the no-goods extracted are exported and the ones learnt by other models are imported on restart.
+ * <br/>
  * Beware :
  * - Must be plugged as a monitor
  * - Only works for integer variables
@@ -62,6 +65,16 @@ public class NogoodFromRestarts implements IMonitorRestart {
     @Override
     public void beforeRestart() {
         extractNogoodFromPath();
+        // no-goods learnt by other models, if shared, are imported on restart too
+        png.importNogoods();
+    }
+
+    /**
+     * Add a no-good to the store and export it, in case no-goods are shared with other models
+     */
+    private void learn(int... lits) {
+        png.addLearnt(false, lits);
+        png.exportLearnt(lits);
     }
 
     @SuppressWarnings("unchecked")
@@ -81,10 +94,10 @@ public class NogoodFromRestarts implements IMonitorRestart {
                     } else {
                         if (i == 0) {
                             // value can be removed permanently from var!
-                            png.addLearnt(SatSolver.negated(png.Literal(id.getDecisionVariable(), id.getDecisionValue(), true)));
+                            learn(SatSolver.negated(png.Literal(id.getDecisionVariable(), id.getDecisionValue(), true)));
                         } else {
                             lits[i] = SatSolver.negated(png.Literal(id.getDecisionVariable(), id.getDecisionValue(), true));
-                            png.addLearnt(Arrays.copyOf(lits, i + 1));
+                            learn(Arrays.copyOf(lits, i + 1));
                         }
                     }
                 } else if (id.getDecOp() == DecisionOperatorFactory.makeIntNeq()) {
@@ -93,10 +106,10 @@ public class NogoodFromRestarts implements IMonitorRestart {
                     } else {
                         if (i == 0) {
                             // value can be removed permanently from var!
-                            png.addLearnt(png.Literal(id.getDecisionVariable(), id.getDecisionValue(), true));
+                            learn(png.Literal(id.getDecisionVariable(), id.getDecisionValue(), true));
                         } else {
                             lits[i] = png.Literal(id.getDecisionVariable(), id.getDecisionValue(), true);
-                            png.addLearnt(Arrays.copyOf(lits, i + 1));
+                            learn(Arrays.copyOf(lits, i + 1));
                         }
                     }
                 } else {
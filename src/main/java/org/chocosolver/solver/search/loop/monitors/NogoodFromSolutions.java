@@ -55,7 +55,7 @@ public class NogoodFromSolutions implements IMonitorSolution {
         for (int i = 0; i < n; i++) {
             ps.add(SatSolver.negated(png.Literal(decisionVars[i], decisionVars[i].getValue(), true)));
         }
-        png.addLearnt(ps.toArray());
+        png.addLearnt(true, ps.toArray());
     }
 
 }
@@ -35,6 +35,20 @@ public interface IMoveFactory extends ISelf<Solver> {
         ref().setMove(new MoveBinaryDFS(ref().getSearch()));
     }
 
+    /**
+     * Depth-First Search algorithm with binary decisions, which bounds the memory used by the environment:
+     * a checkpoint is made every {@link org.chocosolver.solver.Settings#getRecomputationDistance()} decisions
+     * and the other states are recomputed from the nearest checkpoint on backtrack.
+     * This is not compatible with explanations and should be declared before any restart or LNS move.
+     *
+     * @see MoveBinaryDFSRecomputation
+     */
+    default void setDFSWithRecomputation() {
+        ref().setMove(new MoveBinaryDFSRecomputation(ref().getSearch(),
+                ref().getModel().getSettings().getRecomputationDistance(),
+                ref().getModel().getSettings().isRecomputationAdaptive()));
+    }
+
     /**
      * Limited Discrepancy Search[1] algorithms with binary decisions
      * <p>
@@ -88,4 +88,14 @@ public interface Move  {
      * @param position position of the last decision taken before applying this move
      */
     void setTopDecisionPosition(int position);
+
+    /**
+     * Indicates whether this move is able to forget, instead of refuting, the decision reached when backtracking,
+     * as requested with {@link Solver#setDiscardOnJump(boolean)}.
+     * This is required to achieve non-chronological backjumping.
+     * @return <tt>true</tt> if decisions can be discarded, <tt>false</tt> otherwise (default)
+     */
+    default boolean canDiscardDecisions() {
+        return false;
+    }
 }
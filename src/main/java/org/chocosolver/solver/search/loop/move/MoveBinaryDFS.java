@@ -101,7 +101,14 @@ public class MoveBinaryDFS implements Move {
         Decision head = solver.getDecisionPath().getLastDecision();
         while (!repaired && head.getPosition() != topDecisionPosition) {
             solver.setJumpTo(solver.getJumpTo()-1);
-            if (solver.getJumpTo() <= 0 && head.hasNext()) {
+            if (solver.getJumpTo() <= 0 && solver.isDiscardOnJump()) {
+                // forget the decision and go on from its parent node, which will be propagated again
+                solver.setDiscardOnJump(false);
+                solver.getDecisionPath().synchronize();
+                // the parent node is not left, unlike on refutation
+                solver.getMeasures().decDepth();
+                repaired = true;
+            } else if (solver.getJumpTo() <= 0 && head.hasNext()) {
                 solver.getEnvironment().worldPush();
                 repaired = true;
             } else {
@@ -126,6 +133,11 @@ public class MoveBinaryDFS implements Move {
         solver.getSearchMonitors().beforeUpBranch();
     }
 
+    @Override
+    public boolean canDiscardDecisions() {
+        return true;
+    }
+
     @Override
     public List<Move> getChildMoves() {
         return Collections.emptyList();
@@ -0,0 +1,269 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.loop.move;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+
+import java.util.Arrays;
+
+/**
+ * A move dedicated to run a Depth First Search with binary decisions,
+ * which bounds the memory used by the environment thanks to recomputation.
+ * <p>
+ * A regular DFS pushes a world in the environment before applying each decision.
+ * Here, a world is pushed only every <i>distance</i> decisions: such a world is a checkpoint.
+ * The modifications done between two checkpoints are not trailed, thus the state of a node which is not a checkpoint
+ * cannot be restored on backtrack.
+ * Instead, it is recomputed: the nearest checkpoint above is restored
+ * and the decisions taken from it are applied again, followed by a propagation.
+ * <p>
+ * When adaptive recomputation is enabled, an additional checkpoint is created in the middle of the replayed decisions,
+ * assuming that the search will backtrack again in the same part of the tree
+ * (see C. Schulte, "Comparing trailing and copying for constraint programming", ICLP-99).
+ * <p>
+ * Since the propagation is run once for all the replayed decisions, a recomputed node is at least as filtered
+ * as the original one (cuts and no-goods posted in the meantime are taken into account too).
+ * If the replay fails, the node is considered as refuted.
+ * <p>
+ * Setting <i>distance</i> to 1 makes this move behave like {@link MoveBinaryDFS}.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class MoveBinaryDFSRecomputation extends MoveBinaryDFS {
+
+    /**
+     * Number of decisions between two consecutive checkpoints
+     */
+    private final int distance;
+
+    /**
+     * Set to <i>true</i> to create a checkpoint in the middle of each replay
+     */
+    private final boolean adaptive;
+
+    /**
+     * For each decision position, <i>true</i> if a world has been pushed before applying it
+     */
+    private boolean[] checkpoints = new boolean[16];
+
+    /**
+     * Set to <i>true</i> when the current state is not the one expected and has to be recomputed
+     */
+    private boolean dirty;
+
+    /**
+     * Number of recomputations
+     */
+    private long nbRecomputations;
+
+    /**
+     * Number of decisions replayed
+     */
+    private long nbReplayedDecisions;
+
+    /**
+     * Create a DFS with binary decisions which relies on recomputation
+     *
+     * @param strategy how (binary) decisions are selected
+     * @param distance number of decisions between two consecutive checkpoints, at least 1
+     * @param adaptive set to <i>true</i> to create a checkpoint in the middle of each replay
+     */
+    public MoveBinaryDFSRecomputation(AbstractStrategy strategy, int distance, boolean adaptive) {
+        super(strategy);
+        if (distance < 1) {
+            throw new IllegalArgumentException("The distance between checkpoints should be at least 1");
+        }
+        this.distance = distance;
+        this.adaptive = adaptive;
+    }
+
+    @Override
+    public boolean extend(Solver solver) {
+        boolean extended = false;
+        Decision current = strategy.getDecision();
+        if (current != null) { // null means there is no more decision
+            solver.getDecisionPath().pushDecision(current);
+            int p = current.getPosition();
+            if (p == topDecisionPosition + 1) {
+                // a fresh dive, for instance after a restart
+                dirty = false;
+            }
+            openWorld(solver, p);
+            extended = true;
+        }
+        return extended;
+    }
+
+    @Override
+    public boolean canDiscardDecisions() {
+        // worlds are not opened for each decision
+        return false;
+    }
+
+    @Override
+    public boolean repair(Solver solver) {
+        solver.getMeasures().incBackTrackCount();
+        solver.getMeasures().decDepth();
+        closeWorld(solver, solver.getDecisionPath().getLastDecision().getPosition());
+        return rewind(solver);
+    }
+
+    @Override
+    protected boolean rewind(Solver solver) {
+        boolean repaired = false;
+        Decision head = solver.getDecisionPath().getLastDecision();
+        while (!repaired && head.getPosition() != topDecisionPosition) {
+            solver.setJumpTo(solver.getJumpTo() - 1);
+            if (solver.getJumpTo() <= 0 && head.hasNext()) {
+                if (recompute(solver, head.getPosition())) {
+                    openWorld(solver, head.getPosition());
+                    repaired = true;
+                } else {
+                    // the parent node is not consistent anymore, the refutation is useless
+                    solver.getDecisionPath().setLevel(head.getPosition() - 1);
+                    prevDecision(solver);
+                }
+            } else {
+                prevDecision(solver);
+            }
+            head = solver.getDecisionPath().getLastDecision();
+        }
+        return repaired;
+    }
+
+    @Override
+    protected void prevDecision(Solver solver) {
+        solver.getDecisionPath().synchronize();
+        // goes up in the search tree and makes sure search monitors are correctly informed
+        solver.getSearchMonitors().afterUpBranch();
+        solver.getMeasures().incBackTrackCount();
+        solver.getMeasures().decDepth();
+        closeWorld(solver, solver.getDecisionPath().getLastDecision().getPosition());
+        solver.getSearchMonitors().beforeUpBranch();
+    }
+
+    /**
+     * Open the world in which the decision at position <i>p</i> is applied.
+     * It is a checkpoint only if needed.
+     *
+     * @param solver the solver
+     * @param p      position of a decision
+     */
+    private void openWorld(Solver solver, int p) {
+        if (p >= checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, Math.max(p + 1, checkpoints.length * 3 / 2));
+        }
+        checkpoints[p] = (p - topDecisionPosition - 1) % distance == 0;
+        if (checkpoints[p]) {
+            solver.getEnvironment().worldPush();
+        }
+    }
+
+    /**
+     * Close the world in which the decision at position <i>p</i> has been applied.
+     * If it is a checkpoint, the state before the decision is restored,
+     * otherwise the current state becomes dirty.
+     *
+     * @param solver the solver
+     * @param p      position of a decision
+     */
+    private void closeWorld(Solver solver, int p) {
+        if (p <= topDecisionPosition) {
+            return;
+        }
+        if (checkpoints[p]) {
+            solver.getEnvironment().worldPop();
+            dirty = false;
+        } else {
+            solver.getDecisionPath().setLevel(p - 1);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Compute the state before applying the decision at position <i>p</i>, if needed.
+     *
+     * @param solver the solver
+     * @param p      position of a decision, which is not a checkpoint
+     * @return <i>false</i> if a failure occurs
+     */
+    private boolean recompute(Solver solver, int p) {
+        if (!dirty) {
+            return true;
+        }
+        dirty = false;
+        nbRecomputations++;
+        int c = p - 1;
+        while (!checkpoints[c]) {
+            c--;
+        }
+        DecisionPath path = solver.getDecisionPath();
+        // restore the checkpoint and open it again
+        solver.getEnvironment().worldPop();
+        solver.getEnvironment().worldPush();
+        try {
+            if (adaptive && p - c > 1) {
+                int m = (c + p) / 2;
+                replay(solver, c, m);
+                path.setLevel(m - 1);
+                solver.getEnvironment().worldPush();
+                checkpoints[m] = true;
+                c = m;
+            }
+            replay(solver, c, p);
+            path.setLevel(p - 1);
+            return true;
+        } catch (ContradictionException cex) {
+            solver.getEngine().flush();
+            // the state is inconsistent now
+            dirty = true;
+            return false;
+        }
+    }
+
+    /**
+     * Apply again the decisions from position <i>from</i> (inclusive) to position <i>to</i> (exclusive)
+     * and propagate.
+     */
+    private void replay(Solver solver, int from, int to) throws ContradictionException {
+        DecisionPath path = solver.getDecisionPath();
+        for (int i = from; i < to; i++) {
+            path.getDecision(i).apply();
+        }
+        nbReplayedDecisions += to - from;
+        solver.getObjectiveManager().postDynamicCut();
+        solver.getEngine().propagate();
+    }
+
+    /**
+     * @return the number of decisions between two consecutive checkpoints
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the number of times a state has been recomputed
+     */
+    public long getNbRecomputations() {
+        return nbRecomputations;
+    }
+
+    /**
+     * @return the number of decisions applied again to recompute states
+     */
+    public long getNbReplayedDecisions() {
+        return nbReplayedDecisions;
+    }
+}
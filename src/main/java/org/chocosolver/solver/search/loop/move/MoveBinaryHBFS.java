@@ -155,6 +155,12 @@ public class MoveBinaryHBFS extends MoveBinaryDFS {
         return extend;
     }
 
+    @Override
+    public boolean canDiscardDecisions() {
+        // open nodes are recorded on refutations
+        return false;
+    }
+
     @Override
     public boolean repair(Solver solver) {
         boolean repair;
@@ -55,6 +55,12 @@ public class MoveBinaryLDS extends MoveBinaryDFS {
         return super.init();
     }
 
+    @Override
+    public boolean canDiscardDecisions() {
+        // discrepancies are counted on refutations
+        return false;
+    }
+
     @Override
     public boolean repair(Solver solver) {
         solver.getMeasures().incBackTrackCount();
@@ -103,6 +103,11 @@ public class MoveRestart implements Move {
         this.move.setTopDecisionPosition(position);
     }
 
+    @Override
+    public boolean canDiscardDecisions() {
+        return move.canDiscardDecisions();
+    }
+
     @Override
     public <V extends Variable> AbstractStrategy<V> getStrategy() {
         return move.getStrategy();
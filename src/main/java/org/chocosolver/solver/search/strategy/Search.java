@@ -27,6 +27,7 @@ import org.chocosolver.solver.variables.Variable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class Search {
 
@@ -273,6 +274,52 @@ public class Search {
         return new DomOverWDeg(vars, 0, new IntDomainMin());
     }
 
+    /**
+     * Assignment strategy which selects a variable according to an incremental <code>DomOverWDeg</code>
+     * and assign it to its lower bound
+     * @param vars list of variables
+     * @return assignment strategy
+     * @see IncrementalDomOverWDeg
+     */
+    public static AbstractStrategy<IntVar> incDomOverWDegSearch(IntVar... vars) {
+        return new IncrementalDomOverWDeg(vars, new IntDomainMin(), false);
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to an incremental dom/wdeg^ca.cd
+     * and assign it to its lower bound
+     * @param vars list of variables
+     * @return assignment strategy
+     * @see IncrementalDomOverWDeg
+     */
+    public static AbstractStrategy<IntVar> domOverWDegCaCdSearch(IntVar... vars) {
+        return new IncrementalDomOverWDeg(vars, new IntDomainMin(), true);
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to the Conflict History-based Branching heuristic
+     * and assign it to its lower bound.
+     * It is best combined with restarts.
+     * @param vars list of variables
+     * @return assignment strategy
+     * @see ConflictHistoryBased
+     */
+    public static AbstractStrategy<IntVar> conflictHistorySearch(IntVar... vars) {
+        return new ConflictHistoryBased(vars, new IntDomainMin());
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to the Learning Rate-based Branching heuristic
+     * and assign it to its lower bound.
+     * It is best combined with restarts.
+     * @param vars list of variables
+     * @return assignment strategy
+     * @see LearningRateBased
+     */
+    public static AbstractStrategy<IntVar> learningRateSearch(IntVar... vars) {
+        return new LearningRateBased(vars, new IntDomainMin());
+    }
+
     /**
      * Create an Activity based search strategy.
      * <p>
@@ -350,6 +397,30 @@ public class Search {
         return intVarSearch(new FirstFail(vars[0].getModel()), new IntDomainMax(), vars);
     }
 
+    /**
+     * Assigns the non-instantiated variable of smallest domain size to its lower bound,
+     * while solving independently the connected components of the constraint graph,
+     * computed at each node. See {@link ComponentStrategy}.
+     * @param vars list of variables
+     * @return assignment strategy
+     */
+    public static AbstractStrategy<IntVar> componentSearch(IntVar... vars) {
+        return new ComponentStrategy(minDomLBSearch(vars));
+    }
+
+    /**
+     * Solves independently the connected components of the constraint graph, computed at chosen nodes.
+     * When an objective is declared and is the sum of <i>costs</i>, each component is optimized on its own.
+     * See {@link ComponentStrategy}.
+     * @param search the strategy which provides variables to branch on, values and decision operators
+     * @param trigger states whether components should be computed at the current node
+     * @param costs variables whose sum is the objective, if any
+     * @return assignment strategy
+     */
+    public static AbstractStrategy<IntVar> componentSearch(IntStrategy search, Predicate<Solver> trigger, IntVar... costs) {
+        return new ComponentStrategy(search, trigger, costs);
+    }
+
     // ************************************************************************************
     // DEFAULT STRATEGY (COMPLETE)
     // ************************************************************************************
@@ -135,6 +135,24 @@ public class DecisionPath extends DecisionMaker implements Serializable {
 
     }
 
+    /**
+     * @return the number of levels of decisions currently applied
+     */
+    public int getLevel() {
+        return mLevel.get();
+    }
+
+    /**
+     * Force the number of levels of decisions currently applied.
+     * This is only needed when the state of the search is not restored by the environment,
+     * for instance when it is recomputed (see
+     * {@link org.chocosolver.solver.search.loop.move.MoveBinaryDFSRecomputation}).
+     * @param level the number of levels of decisions applied, should be positive and less than the current one
+     */
+    public void setLevel(int level) {
+        mLevel.set(level);
+    }
+
     /**
      * Return the position of the first decision of the last level.
      * Except for LNS first meta-decision, this should return the position of the last decision
@@ -0,0 +1,210 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IVariableMonitor;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.util.objects.IntMap;
+import org.chocosolver.util.objects.StoredIndexedHeap;
+
+/**
+ * A skeleton for search strategies which select the uninstantiated variable with the highest score,
+ * a score being an exponential moving average of rewards computed from search events.
+ * <br/>The weight of a reward, <i>alpha</i>, starts at 0.4 and decreases by 10<sup>-6</sup> on each conflict,
+ * down to 0.06.
+ * <p>
+ * Uninstantiated variables are stored in a {@link StoredIndexedHeap}, so that selecting a variable
+ * or updating a score costs O(log(n)).
+ * Ties are broken wrt the position of the variables in the heap, and not randomly.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public abstract class AbstractRewardBased extends AbstractStrategy<IntVar>
+        implements IMonitorContradiction, IMonitorDownBranch, IVariableMonitor<IntVar> {
+
+    /**
+     * Initial weight of a reward
+     */
+    private static final double ALPHA = .4;
+    /**
+     * Decrease of the weight of a reward on each conflict
+     */
+    private static final double ALPHA_DECAY = 1e-6;
+    /**
+     * Minimum weight of a reward
+     */
+    private static final double ALPHA_MIN = .06;
+    /**
+     * The way value is selected for a given variable
+     */
+    private final IntValueSelector valueSelector;
+    /**
+     * Map (variable id - variable index)
+     */
+    private final IntMap v2i;
+    /**
+     * Scores of variables
+     */
+    private final double[] scores;
+    /**
+     * Uninstantiated variables, keyed by their opposite score
+     */
+    private final StoredIndexedHeap heap;
+    /**
+     * Current weight of a reward
+     */
+    private double alpha = ALPHA;
+    /**
+     * Number of conflicts since the creation of this
+     */
+    protected int nbConflicts;
+
+    /**
+     * Creates a reward-based variable selector
+     *
+     * @param variables     decision variables
+     * @param valueSelector a value selector
+     */
+    protected AbstractRewardBased(IntVar[] variables, IntValueSelector valueSelector) {
+        super(variables);
+        Model model = variables[0].getModel();
+        this.valueSelector = valueSelector;
+        int n = vars.length;
+        this.v2i = new IntMap(n * 3 / 2 + 1, -1);
+        this.scores = new double[n];
+        this.heap = new StoredIndexedHeap(model.getEnvironment(), n, i -> {
+            onUnassignment(i);
+            return -scores[i];
+        });
+        for (int i = 0; i < n; i++) {
+            v2i.put(vars[i].getId(), i);
+            vars[i].addMonitor(this);
+            heap.add(i, 0.);
+        }
+        model.getSolver().plugMonitor(this);
+    }
+
+    /**
+     * @param var a variable
+     * @return the index of <i>var</i> in {@link #vars}, -1 if <i>var</i> is not a decision variable
+     */
+    protected final int indexOf(IntVar var) {
+        return v2i.get(var.getId());
+    }
+
+    /**
+     * @param var a variable
+     * @return the score of <i>var</i>, 0 if <i>var</i> is not a decision variable
+     */
+    public double getScore(IntVar var) {
+        int i = indexOf(var);
+        return i > -1 ? scores[i] : 0.;
+    }
+
+    /**
+     * Add a reward to the score of a variable, and update its position in the heap
+     * @param i index of a variable
+     * @param r a reward
+     */
+    protected final void reward(int i, double r) {
+        heap.update(i, -ema(i, r));
+    }
+
+    /**
+     * Add a reward to the score of a variable, without updating the heap.
+     * To be used while the variable is re-inserted in the heap.
+     * @param i index of a variable
+     * @param r a reward
+     * @return the new score of the variable
+     */
+    protected final double ema(int i, double r) {
+        scores[i] = (1. - alpha) * scores[i] + alpha * r;
+        return scores[i];
+    }
+
+    @Override
+    public final void onUpdate(IntVar var, IEventType evt) {
+        int i = indexOf(var);
+        if (var.isInstantiated() && heap.contains(i)) {
+            heap.remove(i);
+            onAssignment(i);
+        }
+        onModification(i);
+    }
+
+    @Override
+    public final void onContradiction(ContradictionException cex) {
+        nbConflicts++;
+        onConflict(cex);
+        if (alpha > ALPHA_MIN) {
+            alpha = Math.max(ALPHA_MIN, alpha - ALPHA_DECAY);
+        }
+    }
+
+    /**
+     * Called when the domain of a decision variable is modified
+     * @param i index of the variable
+     */
+    protected void onModification(int i) {
+    }
+
+    /**
+     * Called when a decision variable is instantiated
+     * @param i index of the variable
+     */
+    protected void onAssignment(int i) {
+    }
+
+    /**
+     * Called when a decision variable is no longer instantiated, after a backtrack.
+     * Scores can be updated with {@link #ema(int, double)} only.
+     * @param i index of the variable
+     */
+    protected void onUnassignment(int i) {
+    }
+
+    /**
+     * Called on a conflict, once {@link #nbConflicts} has been incremented
+     * @param cex the contradiction
+     */
+    protected abstract void onConflict(ContradictionException cex);
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        while (!heap.isEmpty()) {
+            int i = heap.peek();
+            if (vars[i].isInstantiated()) {
+                heap.remove(i);
+                onAssignment(i);
+            } else {
+                return computeDecision(vars[i]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Decision<IntVar> computeDecision(IntVar variable) {
+        if (variable == null || variable.isInstantiated()) {
+            return null;
+        }
+        int currentVal = valueSelector.selectValue(variable);
+        return variable.getModel().getSolver().getDecisionPath().makeIntDecision(variable, DecisionOperatorFactory.makeIntEq(), currentVal);
+    }
+}
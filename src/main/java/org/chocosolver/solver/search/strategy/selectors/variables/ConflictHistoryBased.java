@@ -0,0 +1,93 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * Implementation of the Conflict History-based Branching heuristic (CHB) [1].
+ * <p>
+ * The variables whose domain is modified during a propagation step are said to be played.
+ * At the end of each propagation step, each played variable <i>x</i> is rewarded with
+ * <i>m / (c - last(x) + 1)</i>, where <i>c</i> is the number of conflicts so far, <i>last(x)</i> the value of <i>c</i>
+ * when <i>x</i> was last played in a failed propagation step, and <i>m</i> is 1 if the propagation step failed,
+ * 0.9 otherwise.
+ * The uninstantiated variable with the highest score is selected.
+ * <p>
+ * [1]: J.H. Liang, V. Ganesh, P. Poupart and K. Czarnecki, Exponential Recency Weighted Average Branching
+ * Heuristic for SAT Solvers, AAAI-16. <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ConflictHistoryBased extends AbstractRewardBased {
+
+    /**
+     * Number of conflicts when a variable was last played in a conflict
+     */
+    private final int[] lastConflict;
+    /**
+     * Variables played since the last reward
+     */
+    private final int[] played;
+    /**
+     * Number of variables in {@link #played}
+     */
+    private int nbPlayed;
+    /**
+     * Set to <i>true</i> if a variable is in {@link #played}
+     */
+    private final boolean[] isPlayed;
+
+    /**
+     * Creates a CHB variable selector
+     *
+     * @param variables     decision variables
+     * @param valueSelector a value selector
+     */
+    public ConflictHistoryBased(IntVar[] variables, IntValueSelector valueSelector) {
+        super(variables, valueSelector);
+        this.lastConflict = new int[vars.length];
+        this.played = new int[vars.length];
+        this.isPlayed = new boolean[vars.length];
+    }
+
+    @Override
+    protected void onModification(int i) {
+        if (!isPlayed[i]) {
+            isPlayed[i] = true;
+            played[nbPlayed++] = i;
+        }
+    }
+
+    @Override
+    protected void onConflict(ContradictionException cex) {
+        rewardPlayed(1., true);
+    }
+
+    @Override
+    public void afterDownBranch(boolean left) {
+        // if the propagation failed, played variables have already been rewarded
+        rewardPlayed(.9, false);
+    }
+
+    private void rewardPlayed(double multiplier, boolean conflict) {
+        for (int k = 0; k < nbPlayed; k++) {
+            int i = played[k];
+            reward(i, multiplier / (nbConflicts - lastConflict[i] + 1));
+            if (conflict) {
+                lastConflict[i] = nbConflicts;
+            }
+            isPlayed[i] = false;
+        }
+        nbPlayed = 0;
+    }
+}
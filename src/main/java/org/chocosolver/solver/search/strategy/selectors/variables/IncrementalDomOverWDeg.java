@@ -0,0 +1,170 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IVariableMonitor;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.util.objects.IntMap;
+import org.chocosolver.util.objects.StoredIndexedHeap;
+
+/**
+ * An incremental implementation of DowOverWDeg[1], and of its refinement dom/wdeg^ca.cd[2].
+ * <p>
+ * Contrary to {@link DomOverWDeg}, weights are attached to variables:
+ * when a propagator fails, only its uninstantiated variables see their weight increased.
+ * The increment is 1 if the propagator has at least two uninstantiated variables, 0 otherwise,
+ * or, in the refined version, 1 / (|fut(c)| * |dom(x)|), where |fut(c)| is the number of uninstantiated
+ * variables of the propagator and |dom(x)| the domain size of the variable when the failure occurs.
+ * <p>
+ * Uninstantiated variables are stored in a {@link StoredIndexedHeap} keyed by <i>dom / wdeg</i>.
+ * A key is decreased as soon as the domain of its variable is reduced or its weight increased,
+ * thanks to a variable monitor.
+ * Instantiated variables are removed from the heap, and re-inserted lazily after a backtrack.
+ * Since domains are restored silently on backtrack, keys may be under-estimated:
+ * they are refreshed when the variable reaches the top of the heap.
+ * Ties are broken wrt the position of the variables in the heap, and not randomly.
+ * <p>
+ * [1]: F. Boussemart, F. Hemery, C. Lecoutre, and L. Sais, Boosting Systematic Search by Weighting
+ * Constraints, ECAI-04. <br/>
+ * [2]: H. Wattez, C. Lecoutre, A. Paparrizou, and S. Tabary, Refining Constraint Weighting, ICTAI-19. <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class IncrementalDomOverWDeg extends AbstractStrategy<IntVar> implements IMonitorContradiction, IVariableMonitor<IntVar> {
+
+    /**
+     * The way value is selected for a given variable
+     */
+    private final IntValueSelector valueSelector;
+    /**
+     * Set to <i>true</i> to apply dom/wdeg^ca.cd weighting
+     */
+    private final boolean refined;
+    /**
+     * Map (variable id - variable index)
+     */
+    private final IntMap v2i;
+    /**
+     * Weights of variables
+     */
+    private final double[] weights;
+    /**
+     * Uninstantiated variables, keyed by <i>dom / wdeg</i>, keys may be under-estimated
+     */
+    private final StoredIndexedHeap heap;
+
+    /**
+     * Creates an incremental DomOverWDeg variable selector
+     *
+     * @param variables     decision variables
+     * @param valueSelector a value selector
+     * @param refined       set to <i>true</i> to weight variables wrt dom/wdeg^ca.cd, to <i>false</i> to use
+     *                      the classical dom/wdeg increment
+     */
+    public IncrementalDomOverWDeg(IntVar[] variables, IntValueSelector valueSelector, boolean refined) {
+        super(variables);
+        Model model = variables[0].getModel();
+        this.valueSelector = valueSelector;
+        this.refined = refined;
+        int n = vars.length;
+        this.v2i = new IntMap(n * 3 / 2 + 1, -1);
+        this.weights = new double[n];
+        this.heap = new StoredIndexedHeap(model.getEnvironment(), n, this::score);
+        for (int i = 0; i < n; i++) {
+            v2i.put(vars[i].getId(), i);
+            weights[i] = 1.;
+            vars[i].addMonitor(this);
+        }
+        for (int i = 0; i < n; i++) {
+            heap.add(i, score(i));
+        }
+        model.getSolver().plugMonitor(this);
+    }
+
+    /**
+     * @param var a variable
+     * @return the weight of <i>var</i>, 0 if <i>var</i> is not a decision variable
+     */
+    public double getWeight(IntVar var) {
+        int i = v2i.get(var.getId());
+        return i > -1 ? weights[i] : 0.;
+    }
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        if (cex.c instanceof Propagator) {
+            Propagator<?> p = (Propagator<?>) cex.c;
+            int futVars = p.arity();
+            if (futVars > 1) {
+                for (int j = 0; j < p.getNbVars(); j++) {
+                    Variable v = p.getVar(j);
+                    int i = v2i.get(v.getId());
+                    if (i > -1 && !v.isInstantiated()) {
+                        weights[i] += refined ? 1. / (futVars * vars[i].getDomainSize()) : 1.;
+                        heap.update(i, score(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onUpdate(IntVar var, IEventType evt) {
+        int i = v2i.get(var.getId());
+        if (heap.contains(i)) {
+            if (var.isInstantiated()) {
+                heap.remove(i);
+            } else {
+                heap.update(i, score(i));
+            }
+        }
+    }
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        while (!heap.isEmpty()) {
+            int i = heap.peek();
+            if (vars[i].isInstantiated()) {
+                heap.remove(i);
+            } else {
+                double k = score(i);
+                if (k > heap.getKey(i)) {
+                    heap.update(i, k);
+                } else {
+                    return computeDecision(vars[i]);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Decision<IntVar> computeDecision(IntVar variable) {
+        if (variable == null || variable.isInstantiated()) {
+            return null;
+        }
+        int currentVal = valueSelector.selectValue(variable);
+        return variable.getModel().getSolver().getDecisionPath().makeIntDecision(variable, DecisionOperatorFactory.makeIntEq(), currentVal);
+    }
+
+    private double score(int i) {
+        return vars[i].getDomainSize() / weights[i];
+    }
+}
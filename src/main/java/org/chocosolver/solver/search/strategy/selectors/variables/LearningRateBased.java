@@ -0,0 +1,85 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+/**
+ * Implementation of the Learning Rate-based Branching heuristic (LRB) [1].
+ * <p>
+ * A variable participates in a conflict when it belongs to the scope of the failing propagator
+ * (there is no learnt clause here).
+ * When a variable is no longer instantiated, after a backtrack, it is rewarded with its learning rate:
+ * the number of conflicts it participated in since its instantiation,
+ * divided by the number of conflicts since its instantiation.
+ * The uninstantiated variable with the highest score is selected.
+ * <p>
+ * [1]: J.H. Liang, V. Ganesh, P. Poupart and K. Czarnecki, Learning Rate Based Branching Heuristic for SAT Solvers,
+ * SAT-16. <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class LearningRateBased extends AbstractRewardBased {
+
+    /**
+     * Number of conflicts when a variable was instantiated
+     */
+    private final int[] assigned;
+    /**
+     * Number of conflicts a variable participated in since its instantiation
+     */
+    private final int[] participated;
+
+    /**
+     * Creates a LRB variable selector
+     *
+     * @param variables     decision variables
+     * @param valueSelector a value selector
+     */
+    public LearningRateBased(IntVar[] variables, IntValueSelector valueSelector) {
+        super(variables, valueSelector);
+        this.assigned = new int[vars.length];
+        this.participated = new int[vars.length];
+    }
+
+    @Override
+    protected void onAssignment(int i) {
+        assigned[i] = nbConflicts;
+        participated[i] = 0;
+    }
+
+    @Override
+    protected void onUnassignment(int i) {
+        int interval = nbConflicts - assigned[i];
+        if (interval > 0) {
+            ema(i, (double) participated[i] / interval);
+        }
+    }
+
+    @Override
+    protected void onConflict(ContradictionException cex) {
+        if (cex.c instanceof Propagator) {
+            Propagator<?> p = (Propagator<?>) cex.c;
+            for (int j = 0; j < p.getNbVars(); j++) {
+                Variable v = p.getVar(j);
+                if (v instanceof IntVar) {
+                    int i = indexOf((IntVar) v);
+                    if (i > -1) {
+                        participated[i]++;
+                    }
+                }
+            }
+        }
+    }
+}
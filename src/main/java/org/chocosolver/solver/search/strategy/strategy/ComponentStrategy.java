@@ -0,0 +1,529 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.strategy;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.objective.IObjectiveManager;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.measure.MeasuresRecorder;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.selectors.variables.VariableEvaluator;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.graphOperations.connectivity.ComponentFinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Search strategy which decomposes the problem, at chosen nodes, into the connected components
+ * of the constraint graph over uninstantiated variables (see {@link ComponentFinder}),
+ * and solves them independently.
+ * <p>
+ * In satisfaction (or when no additive objective is declared), components are explored one after the other:
+ * a component is branched on only once the previous ones are instantiated.
+ * Then, when the sub-tree rooted at the first decision of a component is exhausted without any solution,
+ * this component has no solution whatever the assignment of the previous ones,
+ * and the search jumps back to the node where the decomposition was done, which is refuted.
+ * Sibling components are thus never explored again under each solution of the previous ones,
+ * which turns the thrashing over independent sub-problems into linear work.
+ * Decompositions can be nested: a component can itself be decomposed deeper in the search.
+ * <p>
+ * When cost variables are given and the objective, to minimize or maximize, is their sum,
+ * the constraints over the objective variable are ignored to find components,
+ * and each component is solved to optimality by a nested branch-and-bound, on its own.
+ * Optimal assignments of the components are then applied as non-refutable decisions,
+ * which leads to the best solution of the sub-tree at once.
+ * Nodes and failures of the nested branch-and-bound are recorded in the measures of the solver,
+ * and it is interrupted as soon as a stop criterion is met.
+ * <p>
+ * Variables are selected in the current component by the variable selector of the inner strategy
+ * when it is a {@link VariableEvaluator}, otherwise in input order.
+ * Values and decision operators are the ones of the inner strategy.
+ * This strategy is expected to be the first one declared, and is not compatible with explanation-based backjumping.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ComponentStrategy extends AbstractStrategy<IntVar> implements IMonitorContradiction, ICause {
+
+    /**
+     * The model
+     */
+    private final Model model;
+    /**
+     * Provides values and decision operators
+     */
+    private final IntStrategy inner;
+    /**
+     * Decision operator which always fails, applied when a component has no solution
+     */
+    private static final DecisionOperator<IntVar> FAIL = new DecisionOperator<IntVar>() {
+
+        @Override
+        public boolean apply(IntVar var, int value, ICause cause) throws ContradictionException {
+            var.getModel().getSolver().throwsException(cause, var, "no solution in the component");
+            return false;
+        }
+
+        @Override
+        public boolean unapply(IntVar var, int value, ICause cause) {
+            return false;
+        }
+
+        @Override
+        public DecisionOperator<IntVar> opposite() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return " fails ";
+        }
+    };
+    /**
+     * Evaluates the variables of a component, may be <tt>null</tt>
+     */
+    private final VariableEvaluator<IntVar> evaluator;
+    /**
+     * States when components are computed
+     */
+    private final Predicate<Solver> trigger;
+    /**
+     * Cost variables, may be empty
+     */
+    private final IntVar[] costs;
+    /**
+     * Ids of the variables to branch on, and of the cost variables
+     */
+    private final TIntHashSet varIds, costIds;
+    /**
+     * Computes components in satisfaction
+     */
+    private final ComponentFinder finder;
+    /**
+     * Computes components when an additive objective is declared, built on first use
+     */
+    private ComponentFinder costFinder;
+
+    /**
+     * Decompositions along the current branch, the outermost first
+     */
+    private final List<Frame> frames;
+    /**
+     * Number of decompositions along the current branch
+     */
+    private final IStateInt nbFrames;
+    /**
+     * Number of solutions when the decision at a given position was made
+     */
+    private long[] solsAt;
+
+    /**
+     * Assignment to apply, computed by independent optimizations
+     */
+    private IntVar[] rvars;
+    private int[] rvals;
+    /**
+     * Number of assignments to apply, 0 when none
+     */
+    private final IStateInt nbReplays;
+    /**
+     * Best cost and assignment found by the nested branch-and-bound
+     */
+    private long bestCost;
+    private int[] bestVals;
+
+    /**
+     * Creates a component-based search strategy, which decomposes the problem at every node
+     *
+     * @param inner the strategy which provides values and decision operators
+     */
+    public ComponentStrategy(IntStrategy inner) {
+        this(inner, s -> true);
+    }
+
+    /**
+     * Creates a component-based search strategy
+     *
+     * @param inner   the strategy which provides values and decision operators
+     * @param trigger states, from the solver, if components should be computed at the current node
+     * @param costs   variables whose sum is the objective, if any
+     */
+    @SuppressWarnings("unchecked")
+    public ComponentStrategy(IntStrategy inner, Predicate<Solver> trigger, IntVar... costs) {
+        super(inner.vars);
+        this.model = inner.vars[0].getModel();
+        this.inner = inner;
+        this.evaluator = inner.getVarSelector() instanceof VariableEvaluator ?
+                (VariableEvaluator<IntVar>) inner.getVarSelector() : null;
+        this.trigger = trigger;
+        this.costs = costs;
+        this.varIds = new TIntHashSet();
+        for (IntVar v : vars) {
+            varIds.add(v.getId());
+        }
+        this.costIds = new TIntHashSet();
+        for (IntVar v : costs) {
+            costIds.add(v.getId());
+        }
+        this.finder = new ComponentFinder();
+        this.frames = new ArrayList<>();
+        this.nbFrames = model.getEnvironment().makeInt(0);
+        this.solsAt = new long[16];
+        this.rvars = new IntVar[0];
+        this.rvals = new int[0];
+        this.nbReplays = model.getEnvironment().makeInt(0);
+        model.getSolver().plugMonitor(this);
+    }
+
+    @Override
+    public boolean init() {
+        return inner.init();
+    }
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        Solver solver = model.getSolver();
+        IObjectiveManager<Variable> om = solver.getObjectiveManager();
+        if (costs.length > 0 && om.isOptimization()) {
+            return getOptimizationDecision(solver, om);
+        }
+        int last = solver.getDecisionPath().getLastDecision().getPosition();
+        IntVar[] scope = vars;
+        int n = nbFrames.get();
+        for (int i = 0; i < n; i++) {
+            Frame frame = frames.get(i);
+            int k = frame.current();
+            if (k < 0) {
+                // this component is instantiated, so are the nested ones
+                nbFrames.set(i);
+                break;
+            }
+            scope = frame.components[k];
+        }
+        if (trigger.test(solver)) {
+            List<IntVar[]> components = finder.findComponents(scope);
+            if (components.size() > 1) {
+                Frame frame = new Frame(last, components);
+                frame.cur = 0;
+                scope = frame.components[0];
+                if (nbFrames.get() < frames.size()) {
+                    frames.set(nbFrames.get(), frame);
+                } else {
+                    frames.add(frame);
+                }
+                nbFrames.add(1);
+            }
+        }
+        IntVar var = select(scope);
+        if (var == null) {
+            return null;
+        }
+        if (last + 1 >= solsAt.length) {
+            solsAt = Arrays.copyOf(solsAt, solsAt.length << 1);
+        }
+        solsAt[last + 1] = solver.getSolutionCount();
+        return inner.computeDecision(var);
+    }
+
+    /**
+     * Jump back to the node of a decomposition when one of its components has no solution.
+     */
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        Solver solver = model.getSolver();
+        DecisionPath path = solver.getDecisionPath();
+        int top = path.getLastDecision().getPosition();
+        // decisions from position 'low' to the top are exhausted by the coming backtrack
+        int low = top;
+        while (low > 0 && !path.getDecision(low).hasNext()) {
+            low--;
+        }
+        low++;
+        if (low > top) {
+            return;
+        }
+        for (int i = 0; i < nbFrames.get(); i++) {
+            Frame frame = frames.get(i);
+            if (frame.level >= low - 1) {
+                // the regular backtrack goes at least as far
+                return;
+            }
+            int first = frame.firstPosition(path, top);
+            if (first >= low && first < solsAt.length && solsAt[first] == solver.getSolutionCount()) {
+                // the current component has no solution, and so has the node
+                solver.setJumpTo(Math.max(solver.getJumpTo(), top - frame.level + 1));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compute a decision when an additive objective is declared
+     */
+    private Decision<IntVar> getOptimizationDecision(Solver solver, IObjectiveManager<Variable> om) {
+        for (int i = 0; i < nbReplays.get(); i++) {
+            if (!rvars[i].isInstantiated()) {
+                return fixed(rvars[i], rvals[i]);
+            }
+        }
+        if (nbReplays.get() == 0 && trigger.test(solver)) {
+            if (costFinder == null) {
+                Variable objective = om.getObjective();
+                costFinder = new ComponentFinder(p -> involves(p, objective));
+            }
+            LinkedHashSet<IntVar> scope = new LinkedHashSet<>();
+            for (IntVar v : vars) {
+                scope.add(v);
+            }
+            for (IntVar v : costs) {
+                scope.add(v);
+            }
+            List<IntVar[]> components = costFinder.findComponents(scope.toArray(new IntVar[0]));
+            if (components.size() > 1) {
+                Decision<IntVar> d = decompose(solver, components, om.getPolicy() == ResolutionPolicy.MAXIMIZE);
+                if (d != null) {
+                    return d;
+                }
+                // a stop criterion is met, the search loop is about to stop
+            }
+        }
+        IntVar var = select(vars);
+        return var == null ? null : inner.computeDecision(var);
+    }
+
+    /**
+     * Solve each component to optimality, and return the first decision of the combined assignment,
+     * a failing decision if a component has no solution,
+     * or <tt>null</tt> if a stop criterion is met before all components are solved
+     */
+    private Decision<IntVar> decompose(Solver solver, List<IntVar[]> components, boolean maximize) {
+        int size = 0;
+        for (IntVar[] component : components) {
+            size += component.length;
+        }
+        if (rvars.length < size) {
+            rvars = new IntVar[size];
+            rvals = new int[size];
+        }
+        int n = 0;
+        for (IntVar[] component : components) {
+            List<IntVar> dvars = new ArrayList<>();
+            List<IntVar> cvars = new ArrayList<>();
+            for (IntVar v : component) {
+                if (varIds.contains(v.getId())) {
+                    dvars.add(v);
+                }
+                if (costIds.contains(v.getId())) {
+                    cvars.add(v);
+                }
+            }
+            IntVar[] dv = dvars.toArray(new IntVar[0]);
+            bestCost = Long.MAX_VALUE;
+            bestVals = new int[dv.length];
+            if (!optimize(solver, dv, cvars.toArray(new IntVar[0]), maximize)) {
+                return null;
+            }
+            if (bestCost == Long.MAX_VALUE) {
+                // no solution for this component
+                IntDecision d = model.getSolver().getDecisionPath().makeIntDecision(component[0], FAIL, 0);
+                d.setRefutable(false);
+                return d;
+            }
+            for (int i = 0; i < dv.length; i++) {
+                rvars[n] = dv[i];
+                rvals[n++] = bestVals[i];
+            }
+        }
+        nbReplays.set(n);
+        return getOptimizationDecision(solver, solver.getObjectiveManager());
+    }
+
+    /**
+     * Nested branch-and-bound over the variables of a component, which records the best assignment
+     * in {@link #bestVals} and its cost in {@link #bestCost}.
+     * Nodes and failures are recorded in the measures of <i>solver</i>, so that limits apply.
+     *
+     * @param solver   the solver
+     * @param dvars    variables to branch on
+     * @param cvars    cost variables of the component
+     * @param maximize set to <tt>true</tt> to maximize the sum of the costs
+     * @return <tt>false</tt> if a stop criterion is met, the search is then incomplete
+     */
+    private boolean optimize(Solver solver, IntVar[] dvars, IntVar[] cvars, boolean maximize) {
+        IntVar x = select(dvars);
+        if (x == null) {
+            long cost = bound(cvars, maximize);
+            if (cost < bestCost) {
+                bestCost = cost;
+                for (int i = 0; i < dvars.length; i++) {
+                    bestVals[i] = dvars[i].getValue();
+                }
+            }
+            return true;
+        }
+        IEnvironment env = solver.getEnvironment();
+        IPropagationEngine engine = solver.getEngine();
+        MeasuresRecorder measures = solver.getMeasures();
+        boolean complete = true;
+        int ub = x.getUB();
+        for (int v = x.getLB(); v <= ub && complete; v = x.nextValue(v)) {
+            if (solver.isStopCriterionMet()) {
+                return false;
+            }
+            env.worldPush();
+            measures.incNodeCount();
+            try {
+                x.instantiateTo(v, this);
+                engine.propagate();
+                if (bound(cvars, maximize) < bestCost) {
+                    complete = optimize(solver, dvars, cvars, maximize);
+                }
+            } catch (ContradictionException e) {
+                engine.flush();
+                measures.incFailCount();
+            }
+            env.worldPop();
+        }
+        return complete;
+    }
+
+    /**
+     * @return the optimistic cost of a component, to minimize
+     */
+    private static long bound(IntVar[] cvars, boolean maximize) {
+        long b = 0;
+        for (IntVar c : cvars) {
+            b += maximize ? -c.getUB() : c.getLB();
+        }
+        return b;
+    }
+
+    private static boolean involves(Propagator p, Variable v) {
+        for (int i = 0; i < p.getNbVars(); i++) {
+            if (p.getVar(i) == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a non-refutable decision <i>var = val</i>
+     */
+    private IntDecision fixed(IntVar var, int val) {
+        IntDecision d = model.getSolver().getDecisionPath().makeIntDecision(var, DecisionOperatorFactory.makeIntEq(), val);
+        d.setRefutable(false);
+        return d;
+    }
+
+    /**
+     * @return the uninstantiated variable of <i>scope</i> which minimizes {@link #evaluator},
+     * or the first one if there is no evaluator
+     */
+    private IntVar select(IntVar[] scope) {
+        IntVar best = null;
+        double value = Double.POSITIVE_INFINITY;
+        for (IntVar v : scope) {
+            if (!v.isInstantiated()) {
+                if (evaluator == null) {
+                    return v;
+                }
+                double e = evaluator.evaluate(v);
+                if (best == null || e < value) {
+                    best = v;
+                    value = e;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A decomposition into components
+     */
+    private static final class Frame {
+        /**
+         * Position of the last decision when the decomposition was done
+         */
+        private final int level;
+        /**
+         * The components, explored in this order
+         */
+        private final IntVar[][] components;
+        /**
+         * Index of the component of each variable, by id
+         */
+        private final TIntIntHashMap compOf;
+        /**
+         * Component currently explored
+         */
+        private int cur;
+
+        private Frame(int level, List<IntVar[]> components) {
+            this.level = level;
+            this.components = components.toArray(new IntVar[0][]);
+            this.compOf = new TIntIntHashMap(16, .5f, -1, -1);
+            for (int k = 0; k < this.components.length; k++) {
+                for (IntVar v : this.components[k]) {
+                    compOf.put(v.getId(), k);
+                }
+            }
+        }
+
+        /**
+         * Set {@link #cur} to the first component with an uninstantiated variable
+         *
+         * @return {@link #cur}, or -1 if all components are instantiated
+         */
+        private int current() {
+            // components are explored in order, but a backtrack may uninstantiate any of them
+            for (int k = 0; k < components.length; k++) {
+                for (IntVar v : components[k]) {
+                    if (!v.isInstantiated()) {
+                        cur = k;
+                        return k;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the position of the first decision on the current component, <i>top + 1</i> if none
+         */
+        private int firstPosition(DecisionPath path, int top) {
+            for (int p = level + 1; p <= top; p++) {
+                Variable v = path.getDecision(p).getDecisionVariable();
+                if (v != null && compOf.get(v.getId()) == cur) {
+                    return p;
+                }
+            }
+            return top + 1;
+        }
+    }
+}
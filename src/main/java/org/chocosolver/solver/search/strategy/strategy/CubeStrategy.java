@@ -0,0 +1,123 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.strategy;
+
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+/**
+ * Composite heuristic which restricts the search of a main strategy to a <i>cube</i>,
+ * that is a conjunction of decisions over integer variables.
+ * <p>
+ * As long as a decision of the cube is not entailed, it is returned as a non-refutable decision,
+ * so that the decisions of the cube form the prefix of the decision path.
+ * Once all of them are entailed, the main strategy takes over.
+ * Since the cube decisions cannot be refuted, backtracking over them ends the search,
+ * in other words, only the sub-tree rooted at the cube is explored.
+ * <p>
+ * The cube can be changed between two resolutions with {@link #setCube(IntVar[], DecisionOperator[], int[])}.
+ * No internal state is maintained during search, so this strategy supports restarts.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class CubeStrategy<V extends Variable> extends AbstractStrategy<V> {
+
+    /**
+     * The main strategy declared in the solver
+     */
+    private final AbstractStrategy<V> mainStrategy;
+    /**
+     * Variables of the cube
+     */
+    private IntVar[] cvars;
+    /**
+     * Decision operators of the cube
+     */
+    private DecisionOperator<IntVar>[] cops;
+    /**
+     * Values of the cube
+     */
+    private int[] cvals;
+
+    /**
+     * Creates a cube-restricted search strategy, with an empty cube.
+     *
+     * @param mainStrategy the main strategy declared
+     */
+    @SuppressWarnings("unchecked")
+    public CubeStrategy(AbstractStrategy<V> mainStrategy) {
+        super(mainStrategy.vars);
+        this.mainStrategy = mainStrategy;
+        this.cvars = new IntVar[0];
+        this.cops = new DecisionOperator[0];
+        this.cvals = new int[0];
+    }
+
+    /**
+     * Set the cube to explore. The three arrays are expected to be of the same size,
+     * the <i>i</i>-th decision of the cube being {@code ops[i].apply(vars[i], vals[i])}.
+     *
+     * @param vars variables of the cube
+     * @param ops  decision operators of the cube
+     * @param vals values of the cube
+     */
+    public void setCube(IntVar[] vars, DecisionOperator<IntVar>[] ops, int[] vals) {
+        assert vars.length == ops.length && vars.length == vals.length;
+        this.cvars = vars;
+        this.cops = ops;
+        this.cvals = vals;
+    }
+
+    /**
+     * @return the main strategy, used once the cube is entailed
+     */
+    public AbstractStrategy<V> getMainStrategy() {
+        return mainStrategy;
+    }
+
+    @Override
+    public boolean init() {
+        return mainStrategy.init();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Decision<V> getDecision() {
+        for (int i = 0; i < cvars.length; i++) {
+            if (!isEntailed(cvars[i], cops[i], cvals[i])) {
+                IntDecision d = cvars[i].getModel().getSolver().getDecisionPath()
+                        .makeIntDecision(cvars[i], cops[i], cvals[i]);
+                d.setRefutable(false);
+                return (Decision<V>) d;
+            }
+        }
+        return mainStrategy.getDecision();
+    }
+
+    /**
+     * Check whether the decision <i>op(var, val)</i> is already satisfied
+     */
+    private static boolean isEntailed(IntVar var, DecisionOperator<IntVar> op, int val) {
+        if (op == DecisionOperatorFactory.makeIntEq()) {
+            return var.isInstantiatedTo(val);
+        } else if (op == DecisionOperatorFactory.makeIntNeq()) {
+            return !var.contains(val);
+        } else if (op == DecisionOperatorFactory.makeIntSplit()) {
+            return var.getUB() <= val;
+        } else if (op == DecisionOperatorFactory.makeIntReverseSplit()) {
+            return var.getLB() >= val;
+        }
+        return false;
+    }
+}
@@ -8,7 +8,9 @@
  */
 package org.chocosolver.solver.trace;
 
+import org.chocosolver.sat.LearntClauseDatabase;
 import org.chocosolver.solver.ISelf;
+import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
@@ -105,6 +107,21 @@ public interface IOutputFactory extends ISelf<Solver> {
         printVersion();
         printFeatures();
         getOut().println(ref().getMeasures().toString());
+        printLearntStatistics();
+    }
+
+    /**
+     * Print the statistics of the learnt clauses databases (see {@link LearntClauseDatabase}),
+     * if the model declares a no-good store or a SAT solver.
+     */
+    default void printLearntStatistics() {
+        Model model = ref().getModel();
+        if (model.getHook(Model.NOGOODS_HOOK_NAME) != null) {
+            getOut().printf("\tNo-goods : %s\n", model.getNogoodStore().getPropNogoods().getLearntDatabase());
+        }
+        if (model.getHook(Model.MINISAT_HOOK_NAME) != null) {
+            getOut().printf("\tLearnt clauses : %s\n", model.getMinisat().getPropSat().getLearntDatabase());
+        }
     }
 
     /**
@@ -146,6 +163,7 @@ public interface IOutputFactory extends ISelf<Solver> {
             @Override
             public void afterClose() {
                 getOut().println(ref().getMeasures().toString());
+                printLearntStatistics();
             }
         });
     }
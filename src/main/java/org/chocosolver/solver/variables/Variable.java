@@ -240,6 +240,22 @@ public interface Variable extends Identity, Comparable<Variable> {
      */
 	IView[] getViews();
 
+    /**
+     * @return the number of views observing this variable
+     */
+    default int getNbViews() {
+        return getViews().length;
+    }
+
+    /**
+     * Get a view observing this variable, without copying the array of views.
+     * @param p position of the view, between 0 and {@link #getNbViews()} (excluded)
+     * @return the <i>p</i>-th view observing this variable
+     */
+    default IView getView(int p) {
+        return getViews()[p];
+    }
+
     /**
      * Notify monitors of observed variable modifications
      *
@@ -413,6 +413,16 @@ public abstract class AbstractVariable implements Variable {
         return Arrays.copyOfRange(views, 0, vIdx);
     }
 
+    @Override
+    public final int getNbViews() {
+        return vIdx;
+    }
+
+    @Override
+    public final IView getView(int p) {
+        return views[p];
+    }
+
     @Override
     public int compareTo(Variable o) {
         return this.getId() - o.getId();
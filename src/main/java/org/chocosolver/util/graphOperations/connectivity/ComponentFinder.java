@@ -0,0 +1,176 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.graphOperations.connectivity;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.view.IView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Finds the connected components of the constraint graph restricted to uninstantiated variables,
+ * in the current state of the search.
+ * <p>
+ * Two uninstantiated variables are connected when they are both involved in a non-passive propagator,
+ * or when one is a view over the other.
+ * Instantiated variables do not connect anything:
+ * a propagator whose other variables are instantiated only restricts the domain of the remaining one.
+ * Some propagators can be ignored, to let the caller handle them on its own
+ * (for instance, the constraint which defines an additive objective).
+ * <p>
+ * Variables and propagators are marked by id, in arrays reused from one call to the other.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ComponentFinder {
+
+    /**
+     * Propagators not to traverse
+     */
+    private final Predicate<Propagator> ignored;
+    /**
+     * Stamp of the last visit, per variable or propagator id
+     */
+    private int[] visited;
+    /**
+     * Stamp of the last call, per variable id, for variables of the scope
+     */
+    private int[] inScope;
+    /**
+     * Position in the scope, per variable id, valid only for variables of the scope
+     */
+    private int[] positions;
+    /**
+     * Current stamp
+     */
+    private int stamp;
+    /**
+     * Variables to visit
+     */
+    private Variable[] stack;
+
+    /**
+     * Create a component finder which traverses every propagator
+     */
+    public ComponentFinder() {
+        this(p -> false);
+    }
+
+    /**
+     * Create a component finder
+     *
+     * @param ignored propagators which do not connect variables
+     */
+    public ComponentFinder(Predicate<Propagator> ignored) {
+        this.ignored = ignored;
+        this.visited = new int[64];
+        this.inScope = new int[64];
+        this.positions = new int[64];
+        this.stack = new Variable[16];
+    }
+
+    /**
+     * Compute the connected components which contain uninstantiated variables of <i>scope</i>.
+     * Components are connected through any uninstantiated variable, including those out of <i>scope</i>,
+     * but only the variables of <i>scope</i> are returned.
+     * Components are ordered by their first variable in <i>scope</i>, and so are variables in a component.
+     *
+     * @param scope variables of interest
+     * @return the components, as arrays of variables of <i>scope</i>
+     */
+    public List<IntVar[]> findComponents(IntVar[] scope) {
+        stamp++;
+        for (int i = scope.length - 1; i >= 0; i--) {
+            int id = scope[i].getId();
+            ensureCapacity(id);
+            inScope[id] = stamp;
+            positions[id] = i;
+        }
+        List<IntVar[]> components = new ArrayList<>();
+        int[] order = new int[scope.length];
+        for (int i = 0; i < scope.length; i++) {
+            if (scope[i].isInstantiated() || visited[scope[i].getId()] == stamp) {
+                continue;
+            }
+            int size = traverse(scope[i], order);
+            // keep the order of scope
+            Arrays.sort(order, 0, size);
+            IntVar[] component = new IntVar[size];
+            for (int j = 0; j < size; j++) {
+                component[j] = scope[order[j]];
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * Visit the component of <i>root</i>
+     *
+     * @param root  a variable of the scope
+     * @param order to store the positions in scope of the variables of the component
+     * @return the number of variables of the scope in the component
+     */
+    private int traverse(Variable root, int[] order) {
+        int size = 0, top = push(root, 0);
+        while (top > 0) {
+            Variable v = stack[--top];
+            if (inScope[v.getId()] == stamp) {
+                order[size++] = positions[v.getId()];
+            }
+            for (int p = v.getNbProps() - 1; p >= 0; p--) {
+                Propagator prop = v.getPropagator(p);
+                int id = prop.getId();
+                ensureCapacity(id);
+                if (prop.isPassive() || visited[id] == stamp || ignored.test(prop)) {
+                    continue;
+                }
+                visited[id] = stamp;
+                for (int w = prop.getNbVars() - 1; w >= 0; w--) {
+                    top = push(prop.getVar(w), top);
+                }
+            }
+            for (int w = v.getNbViews() - 1; w >= 0; w--) {
+                top = push(v.getView(w), top);
+            }
+            if (v instanceof IView) {
+                top = push(((IView) v).getVariable(), top);
+            }
+        }
+        return size;
+    }
+
+    private int push(Variable v, int top) {
+        int id = v.getId();
+        ensureCapacity(id);
+        if (!v.isInstantiated() && visited[id] != stamp) {
+            visited[id] = stamp;
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top << 1);
+            }
+            stack[top++] = v;
+        }
+        return top;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= visited.length) {
+            int n = Math.max(id + 1, visited.length << 1);
+            visited = Arrays.copyOf(visited, n);
+            inScope = Arrays.copyOf(inScope, n);
+            positions = Arrays.copyOf(positions, n);
+        }
+    }
+}
@@ -0,0 +1,443 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * An archive of mutually nondominated points, for minimization, stored in a ND-tree.
+ * <p>
+ * Each node of the tree maintains an approximation of the ideal point (component-wise minimum)
+ * and of the nadir point (component-wise maximum) of the points it stores,
+ * which enables to skip whole sub-trees when inserting a point or answering dominance queries.
+ * Approximations are not shrunk when points are removed, they remain lower (resp. upper) bounds.
+ * <p>
+ * A point <i>p</i> weakly dominates a point <i>q</i> if <i>p[i] &le; q[i]</i> for all <i>i</i>.
+ * Each point is given an identifier on insertion, which is reported when the point is removed.
+ *
+ * @author Charles Prud'homme
+ * @see "A. Jaszkiewicz, T. Lust, ND-Tree-based update: a fast algorithm for the dynamic nondominance problem,
+ * IEEE Transactions on Evolutionary Computation, 2018."
+ * @since 4.0.9
+ */
+public class NDTree {
+
+    /**
+     * Number of objectives
+     */
+    private final int d;
+    /**
+     * Maximum number of points in a leaf
+     */
+    private final int maxLeafSize;
+    /**
+     * Number of children created when a leaf is split
+     */
+    private final int nbChildren;
+    /**
+     * Root node, <tt>null</tt> when empty
+     */
+    private Node root;
+    /**
+     * Number of points stored
+     */
+    private int size;
+
+    /**
+     * Create an empty archive with default parameters: at most 20 points per leaf, <i>d</i> + 1 children per node.
+     *
+     * @param d number of objectives
+     */
+    public NDTree(int d) {
+        this(d, 20, d + 1);
+    }
+
+    /**
+     * Create an empty archive.
+     *
+     * @param d           number of objectives
+     * @param maxLeafSize maximum number of points in a leaf
+     * @param nbChildren  number of children created when a leaf is split, at least 2
+     */
+    public NDTree(int d, int maxLeafSize, int nbChildren) {
+        this.d = d;
+        this.maxLeafSize = maxLeafSize;
+        this.nbChildren = Math.max(2, Math.min(nbChildren, maxLeafSize + 1));
+    }
+
+    /**
+     * @return the number of points stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert <i>point</i> in this archive, unless it is dominated by a point already stored.
+     * Points weakly dominated by <i>point</i>, equal ones included, are removed.
+     *
+     * @param point   a point, copied
+     * @param id      identifier of the point
+     * @param removed called with the identifier of each point removed
+     * @return <tt>true</tt> if the point has been inserted,
+     * <tt>false</tt> if it is dominated by a point of this archive, which is then left unchanged
+     */
+    public boolean insert(int[] point, int id, IntConsumer removed) {
+        int[] p = point.clone();
+        if (root != null) {
+            if (isDominated(root, p)) {
+                return false;
+            }
+            if (prune(root, p, removed)) {
+                root = null;
+            }
+        }
+        if (root == null) {
+            root = new Node(p);
+        }
+        insert(root, p, id);
+        size++;
+        return true;
+    }
+
+    /**
+     * @param point a point
+     * @return <tt>true</tt> if a point of this archive weakly dominates <i>point</i>
+     */
+    public boolean weaklyDominates(int[] point) {
+        return root != null && covers(root, point);
+    }
+
+    /**
+     * Compute the smallest value of the <i>j</i>-th objective among the points which weakly dominate <i>point</i>
+     * on all the objectives but the <i>j</i>-th one.
+     *
+     * @param point a point
+     * @param j     index of an objective
+     * @return the smallest value found, or {@link Integer#MAX_VALUE} if none
+     */
+    public int minDominatingBut(int[] point, int j) {
+        return root == null ? Integer.MAX_VALUE : minBut(root, point, j, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Call <i>action</i> with the identifier of each point stored.
+     *
+     * @param action an action
+     */
+    public void forEach(IntConsumer action) {
+        if (root != null) {
+            forEach(root, action);
+        }
+    }
+
+    /**
+     * Remove all points.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return <tt>true</tt> if <i>a[i] &le; b[i]</i> for all <i>i</i>
+     */
+    private boolean leq(int[] a, int[] b) {
+        for (int i = 0; i < d; i++) {
+            if (a[i] > b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return <tt>true</tt> if a point of <i>n</i> dominates <i>p</i>, and is not equal to it
+     */
+    private boolean isDominated(Node n, int[] p) {
+        if (!leq(n.ideal, p)) {
+            return false;
+        }
+        if (!Arrays.equals(n.nadir, p) && leq(n.nadir, p)) {
+            return true;
+        }
+        if (n.children == null) {
+            for (int k = 0; k < n.count; k++) {
+                if (leq(n.points[k], p) && !Arrays.equals(n.points[k], p)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Node c : n.children) {
+            if (isDominated(c, p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove the points of <i>n</i> weakly dominated by <i>p</i>.
+     *
+     * @return <tt>true</tt> if <i>n</i> is empty
+     */
+    private boolean prune(Node n, int[] p, IntConsumer removed) {
+        if (leq(p, n.ideal)) {
+            forEach(n, removed);
+            size -= n.size();
+            return true;
+        }
+        if (!leq(p, n.nadir)) {
+            return false;
+        }
+        if (n.children == null) {
+            for (int k = n.count - 1; k >= 0; k--) {
+                if (leq(p, n.points[k])) {
+                    removed.accept(n.ids[k]);
+                    n.count--;
+                    n.points[k] = n.points[n.count];
+                    n.ids[k] = n.ids[n.count];
+                    n.points[n.count] = null;
+                    size--;
+                }
+            }
+            return n.count == 0;
+        }
+        n.children.removeIf(c -> prune(c, p, removed));
+        if (n.children.size() == 1) {
+            // the only child replaces its parent
+            Node c = n.children.get(0);
+            n.children = c.children;
+            n.points = c.points;
+            n.ids = c.ids;
+            n.count = c.count;
+        }
+        return n.children != null && n.children.isEmpty();
+    }
+
+    /**
+     * Insert <i>p</i> in the sub-tree rooted at <i>n</i>, in the leaf with the closest center.
+     */
+    private void insert(Node n, int[] p, int id) {
+        n.include(p);
+        if (n.children == null) {
+            if (n.count == n.points.length) {
+                n.points = Arrays.copyOf(n.points, n.count * 2);
+                n.ids = Arrays.copyOf(n.ids, n.count * 2);
+            }
+            n.points[n.count] = p;
+            n.ids[n.count] = id;
+            n.count++;
+            if (n.count > maxLeafSize) {
+                split(n);
+            }
+        } else {
+            Node best = null;
+            double dist = Double.POSITIVE_INFINITY;
+            for (Node c : n.children) {
+                double e = c.distance(p);
+                if (e < dist) {
+                    dist = e;
+                    best = c;
+                }
+            }
+            assert best != null;
+            insert(best, p, id);
+        }
+    }
+
+    /**
+     * Turn the leaf <i>n</i> into a node with {@link #nbChildren} leaves.
+     * The first point of a new leaf is the one the farthest away from the first points of the previous leaves,
+     * the other points go to the leaf whose first point is the closest.
+     */
+    private void split(Node n) {
+        int[][] points = Arrays.copyOf(n.points, n.count);
+        int[] ids = Arrays.copyOf(n.ids, n.count);
+        int[] seeds = new int[nbChildren];
+        double[] dist = new double[points.length];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        // the first seed is the farthest from the center of the node
+        double[] center = n.center();
+        for (int k = 0; k < points.length; k++) {
+            if (distance(center, points[k]) > distance(center, points[seeds[0]])) {
+                seeds[0] = k;
+            }
+        }
+        for (int s = 1; s < nbChildren; s++) {
+            int far = 0;
+            for (int k = 0; k < points.length; k++) {
+                dist[k] = Math.min(dist[k], distance(points[seeds[s - 1]], points[k]));
+                if (dist[k] > dist[far]) {
+                    far = k;
+                }
+            }
+            seeds[s] = far;
+            dist[far] = 0;
+        }
+        n.children = new ArrayList<>(nbChildren);
+        for (int s = 0; s < nbChildren; s++) {
+            n.children.add(new Node(points[seeds[s]]));
+        }
+        for (int k = 0; k < points.length; k++) {
+            int closest = 0;
+            for (int s = 1; s < nbChildren; s++) {
+                if (distance(points[seeds[s]], points[k]) < distance(points[seeds[closest]], points[k])) {
+                    closest = s;
+                }
+            }
+            insert(n.children.get(closest), points[k], ids[k]);
+        }
+        n.points = null;
+        n.ids = null;
+        n.count = 0;
+    }
+
+    private boolean covers(Node n, int[] p) {
+        if (!leq(n.ideal, p)) {
+            return false;
+        }
+        if (leq(n.nadir, p)) {
+            return true;
+        }
+        if (n.children == null) {
+            for (int k = 0; k < n.count; k++) {
+                if (leq(n.points[k], p)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Node c : n.children) {
+            if (covers(c, p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int minBut(Node n, int[] p, int j, int best) {
+        if (n.ideal[j] >= best) {
+            return best;
+        }
+        for (int i = 0; i < d; i++) {
+            if (i != j && n.ideal[i] > p[i]) {
+                return best;
+            }
+        }
+        if (n.children == null) {
+            next:
+            for (int k = 0; k < n.count; k++) {
+                int[] q = n.points[k];
+                if (q[j] < best) {
+                    for (int i = 0; i < d; i++) {
+                        if (i != j && q[i] > p[i]) {
+                            continue next;
+                        }
+                    }
+                    best = q[j];
+                }
+            }
+            return best;
+        }
+        for (Node c : n.children) {
+            best = minBut(c, p, j, best);
+        }
+        return best;
+    }
+
+    private static void forEach(Node n, IntConsumer action) {
+        if (n.children == null) {
+            for (int k = 0; k < n.count; k++) {
+                action.accept(n.ids[k]);
+            }
+        } else {
+            for (Node c : n.children) {
+                forEach(c, action);
+            }
+        }
+    }
+
+    private static double distance(double[] a, int[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) {
+            s += (a[i] - b[i]) * (a[i] - b[i]);
+        }
+        return s;
+    }
+
+    private static double distance(int[] a, int[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) {
+            double e = (double) a[i] - b[i];
+            s += e * e;
+        }
+        return s;
+    }
+
+    /**
+     * A node of the tree: a leaf stores points, an internal node stores children
+     */
+    private static final class Node {
+        private final int[] ideal;
+        private final int[] nadir;
+        private List<Node> children;
+        private int[][] points;
+        private int[] ids;
+        private int count;
+
+        private Node(int[] p) {
+            this.ideal = p.clone();
+            this.nadir = p.clone();
+            this.points = new int[4][];
+            this.ids = new int[4];
+        }
+
+        private void include(int[] p) {
+            for (int i = 0; i < p.length; i++) {
+                ideal[i] = Math.min(ideal[i], p[i]);
+                nadir[i] = Math.max(nadir[i], p[i]);
+            }
+        }
+
+        private double[] center() {
+            double[] c = new double[ideal.length];
+            for (int i = 0; i < c.length; i++) {
+                c[i] = ((double) ideal[i] + nadir[i]) / 2;
+            }
+            return c;
+        }
+
+        private double distance(int[] p) {
+            double s = 0;
+            for (int i = 0; i < p.length; i++) {
+                double e = ((double) ideal[i] + nadir[i]) / 2 - p[i];
+                s += e * e;
+            }
+            return s;
+        }
+
+        private int size() {
+            if (children == null) {
+                return count;
+            }
+            int s = 0;
+            for (Node c : children) {
+                s += c.size();
+            }
+            return s;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A binary min-heap of integers in [0, n-1], each of them being associated with a key.
+ * <br/>Keys can be increased or decreased in O(log(n)) and the element with the smallest key is accessed in O(1).
+ * <p>
+ * Removals are backtrackable: removed elements are pushed on a stack whose size is stored,
+ * and they are re-inserted lazily, on the first call to any method after a backtrack.
+ * On re-insertion, the key of an element is computed anew thanks to a function given on construction.
+ * Additions are not backtrackable.
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class StoredIndexedHeap {
+
+    /**
+     * Keys of elements, also maintained for elements out of the heap
+     */
+    private final double[] keys;
+    /**
+     * The heap of elements
+     */
+    private final int[] heap;
+    /**
+     * Position of an element in {@link #heap}, -1 if not in
+     */
+    private final int[] pos;
+    /**
+     * Number of elements in {@link #heap}
+     */
+    private int size;
+    /**
+     * Elements removed from the heap, in order of removal
+     */
+    private final int[] removed;
+    /**
+     * Backtrackable number of elements removed from the heap
+     */
+    private final IStateInt nbRemoved;
+    /**
+     * Number of elements in {@link #removed} wrt to this, not restored on backtrack
+     */
+    private int knownRemoved;
+    /**
+     * Compute the key of an element re-inserted on backtrack
+     */
+    private final IntToDoubleFunction rekey;
+
+    /**
+     * Create an empty heap
+     * @param environment the environment in which removals are backtrackable
+     * @param n           elements are taken in [0, n-1]
+     * @param rekey       function called on an element to compute its key when it is re-inserted on backtrack
+     */
+    public StoredIndexedHeap(IEnvironment environment, int n, IntToDoubleFunction rekey) {
+        this.keys = new double[n];
+        this.heap = new int[n];
+        this.pos = new int[n];
+        this.removed = new int[n];
+        this.nbRemoved = environment.makeInt(0);
+        this.rekey = rekey;
+        for (int i = 0; i < n; i++) {
+            pos[i] = -1;
+        }
+    }
+
+    /**
+     * Add an element in a non-backtrackable way
+     * @param i   an element, not in the heap
+     * @param key its key
+     */
+    public void add(int i, double key) {
+        synchronize();
+        assert pos[i] == -1;
+        keys[i] = key;
+        insert(i);
+    }
+
+    /**
+     * Remove an element in a backtrackable way
+     * @param i an element in the heap
+     */
+    public void remove(int i) {
+        synchronize();
+        int p = pos[i];
+        assert p > -1;
+        int last = heap[--size];
+        pos[i] = -1;
+        if (p < size) {
+            heap[p] = last;
+            pos[last] = p;
+            siftUp(p);
+            siftDown(pos[last]);
+        }
+        removed[knownRemoved++] = i;
+        nbRemoved.set(knownRemoved);
+    }
+
+    /**
+     * @param i an element
+     * @return <i>true</i> if <i>i</i> is in the heap
+     */
+    public boolean contains(int i) {
+        synchronize();
+        return pos[i] > -1;
+    }
+
+    /**
+     * @return <i>true</i> if the heap is empty
+     */
+    public boolean isEmpty() {
+        synchronize();
+        return size == 0;
+    }
+
+    /**
+     * @return the number of elements in the heap
+     */
+    public int size() {
+        synchronize();
+        return size;
+    }
+
+    /**
+     * @return the element with the smallest key, the heap should not be empty
+     */
+    public int peek() {
+        synchronize();
+        assert size > 0;
+        return heap[0];
+    }
+
+    /**
+     * @param i an element
+     * @return the key of <i>i</i>
+     */
+    public double getKey(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Set the key of an element.
+     * If the element is not in the heap, the key is only recorded.
+     * @param i   an element
+     * @param key its new key
+     */
+    public void update(int i, double key) {
+        synchronize();
+        double k = keys[i];
+        keys[i] = key;
+        if (pos[i] > -1) {
+            if (key < k) {
+                siftUp(pos[i]);
+            } else if (key > k) {
+                siftDown(pos[i]);
+            }
+        }
+    }
+
+    /**
+     * Re-insert elements removed in worlds which have been backtracked since the last call
+     */
+    private void synchronize() {
+        int nr = nbRemoved.get();
+        while (knownRemoved > nr) {
+            int i = removed[--knownRemoved];
+            keys[i] = rekey.applyAsDouble(i);
+            insert(i);
+        }
+    }
+
+    private void insert(int i) {
+        heap[size] = i;
+        pos[i] = size++;
+        siftUp(pos[i]);
+    }
+
+    private void siftUp(int p) {
+        int i = heap[p];
+        double k = keys[i];
+        while (p > 0) {
+            int parent = (p - 1) >>> 1;
+            int j = heap[parent];
+            if (keys[j] <= k) {
+                break;
+            }
+            heap[p] = j;
+            pos[j] = p;
+            p = parent;
+        }
+        heap[p] = i;
+        pos[i] = p;
+    }
+
+    private void siftDown(int p) {
+        int i = heap[p];
+        double k = keys[i];
+        int half = size >>> 1;
+        while (p < half) {
+            int child = (p << 1) + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int j = heap[child];
+            if (k <= keys[j]) {
+                break;
+            }
+            heap[p] = j;
+            pos[j] = p;
+            p = child;
+        }
+        heap[p] = i;
+        pos[i] = p;
+    }
+}
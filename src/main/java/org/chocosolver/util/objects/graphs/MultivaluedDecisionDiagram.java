@@ -191,8 +191,12 @@ public class MultivaluedDecisionDiagram  {
     public boolean addTuples(Tuples TUPLES) {
         if (sortTuples) TUPLES.sort();
         boolean atLeastOne = false;
+        int[] tuple = new int[nbLayers];
         for (int t = 0; t < TUPLES.nbTuples(); t++) {
-            atLeastOne |= addTuple(TUPLES.get(t));
+            for (int i = 0; i < nbLayers; i++) {
+                tuple[i] = TUPLES.get(t, i);
+            }
+            atLeastOne |= addTuple(tuple);
         }
         return atLeastOne;
     }
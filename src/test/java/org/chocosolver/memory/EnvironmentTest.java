@@ -8,10 +8,14 @@
  */
 package org.chocosolver.memory;
 
+import org.chocosolver.memory.arena.EnvironmentArena;
+import org.chocosolver.memory.copying.EnvironmentCopying;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 /**
  * <p> Project: choco-solver.
  *
@@ -24,10 +28,19 @@ public class EnvironmentTest {
     private Object[][] env() {
         return new IEnvironment[][]{
                 {new EnvironmentBuilder().fromFlat().build()},
-                {new EnvironmentBuilder().fromChunk().build()}
+                {new EnvironmentBuilder().fromChunk().build()},
+                {new EnvironmentBuilder().buildCopying()},
+                {trailedCopying()},
+                {new EnvironmentBuilder().buildArena()}
         };
     }
 
+    private static IEnvironment trailedCopying() {
+        EnvironmentCopying env = new EnvironmentBuilder().buildCopying();
+        env.setCopying(false);
+        return env;
+    }
+
     @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
     public void testBool(IEnvironment environment) {
         IStateBool prim = environment.makeBool(true);
@@ -147,5 +160,149 @@ public class EnvironmentTest {
         }catch (IndexOutOfBoundsException e){}
     }
 
-}
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyingRandom() {
+        Random rnd = new Random(0);
+        IEnvironment trailing = new EnvironmentBuilder().build();
+        EnvironmentCopying copying = new EnvironmentBuilder().setWorldSize(16).setWorldNumber(2).buildCopying();
+        int n = 500;
+        IStateInt[] expected = new IStateInt[n];
+        IStateInt[] actual = new IStateInt[n];
+        IStateLong[] lexpected = new IStateLong[n];
+        IStateLong[] lactual = new IStateLong[n];
+        for (int i = 0; i < n; i++) {
+            copying.setCopying(i % 7 != 0);
+            expected[i] = trailing.makeInt(i);
+            actual[i] = copying.makeInt(i);
+            lexpected[i] = trailing.makeLong(-i);
+            lactual[i] = copying.makeLong(-i);
+        }
+        for (int k = 0; k < 5000; k++) {
+            int r = rnd.nextInt(10);
+            if (r < 2 || trailing.getWorldIndex() == 0) {
+                trailing.worldPush();
+                copying.worldPush();
+            } else if (r < 4) {
+                trailing.worldPop();
+                copying.worldPop();
+            } else {
+                int i = rnd.nextInt(n);
+                int v = rnd.nextInt(100);
+                expected[i].set(v);
+                actual[i].set(v);
+                lexpected[i].set(lexpected[i].get() + v);
+                lactual[i].set(lactual[i].get() + v);
+            }
+            Assert.assertEquals(copying.getWorldIndex(), trailing.getWorldIndex());
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(actual[i].get(), expected[i].get());
+                Assert.assertEquals(lactual[i].get(), lexpected[i].get());
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyingCreationInWorld() {
+        EnvironmentCopying env = new EnvironmentBuilder().buildCopying();
+        IStateInt a = env.makeInt(1);
+        env.worldPush();
+        a.set(2);
+        IStateInt b = env.makeInt(3);
+        Assert.assertEquals(env.getNbCopiedInts(), 2);
+        b.set(4);
+        env.worldPush();
+        b.set(5);
+        env.worldPop();
+        Assert.assertEquals(b.get(), 4);
+        env.worldPop();
+        Assert.assertEquals(a.get(), 1);
+        Assert.assertEquals(b.get(), 3);
+    }
 
+    @Test(groups = "1s", timeOut = 60000)
+    public void testArenaRandom() {
+        Random rnd = new Random(0);
+        IEnvironment trailing = new EnvironmentBuilder().build();
+        EnvironmentArena arena = new EnvironmentBuilder().setWorldSize(4).setWorldNumber(2).buildArena();
+        int n = 300;
+        IStateInt[] expected = new IStateInt[n];
+        IStateInt[] actual = new IStateInt[n];
+        IStateBitSet[] bexpected = new IStateBitSet[n];
+        IStateBitSet[] bactual = new IStateBitSet[n];
+        for (int i = 0; i < n; i++) {
+            expected[i] = trailing.makeInt(i);
+            actual[i] = arena.makeInt(i);
+            bexpected[i] = trailing.makeBitSet(130);
+            bactual[i] = arena.makeBitSet(130);
+        }
+        for (int k = 0; k < 5000; k++) {
+            int r = rnd.nextInt(10);
+            if (r < 2 || trailing.getWorldIndex() == 0) {
+                trailing.worldPush();
+                arena.worldPush();
+            } else if (r < 4) {
+                trailing.worldPop();
+                arena.worldPop();
+            } else {
+                int i = rnd.nextInt(n);
+                int v = rnd.nextInt(200);
+                expected[i].set(v);
+                actual[i].set(v);
+                bexpected[i].set(v, !bexpected[i].get(v));
+                bactual[i].set(v, !bactual[i].get(v));
+            }
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(actual[i].get(), expected[i].get());
+                Assert.assertEquals(bactual[i].toString(), bexpected[i].toString());
+            }
+        }
+        // one handle per bitset, for its number of words in use
+        Assert.assertEquals(arena.getIntArena().size(), n);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "env")
+    public void testShrink(IEnvironment environment) {
+        int n = 10_000;
+        IStateInt[] prims = new IStateInt[n];
+        for (int i = 0; i < n; i++) {
+            prims[i] = environment.makeInt(i);
+        }
+        environment.worldPush();
+        for (int w = 0; w < 300; w++) {
+            environment.worldPush();
+            for (int i = w; i < n; i += 300) {
+                prims[i].set(-i - 1);
+            }
+        }
+        Assert.assertEquals(environment.getNbTrailEntries(), n);
+        Assert.assertEquals(environment.getNbTrailEntries(0), 0);
+        Assert.assertEquals(environment.getNbTrailEntries(1), 0);
+        Assert.assertEquals(environment.getNbTrailEntries(2), 34);
+        Assert.assertEquals(environment.getNbTrailEntries(301), 33);
+        environment.worldPush();
+        environment.worldPopUntil(1);
+        Assert.assertEquals(environment.getNbTrailEntries(), 0);
+        Assert.assertEquals(environment.getPeakNbTrailEntries(), n);
+        long before = environment.getTrailRetainedBytes();
+        // trails may keep their capacity while it was used since the previous shrink
+        environment.shrink();
+        environment.shrink();
+        long after = environment.getTrailRetainedBytes();
+        Assert.assertTrue(after < before / 4, before + " -> " + after);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(prims[i].get(), i);
+        }
+        // the trails are still usable
+        for (int w = 0; w < 300; w++) {
+            environment.worldPush();
+            for (int i = w; i < n; i += 300) {
+                prims[i].set(-i - 1);
+            }
+        }
+        environment.worldPopUntil(0);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(prims[i].get(), i);
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.sat;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.sat.SatSolver.makeLiteral;
+import static org.chocosolver.sat.SatSolver.negated;
+
+/**
+ * Test class for LearntClauseDatabase
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class LearntClauseDatabaseTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReduce() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 12; i++) {
+            sat.newVariable();
+        }
+        LearntClauseDatabase db = new LearntClauseDatabase(sat, v -> v);
+        db.setReductionPolicy(4, 1);
+        for (int i = 0; i < 10; i++) {
+            db.learn(i < 2, makeLiteral(i, true), makeLiteral(i + 1, true), makeLiteral(i + 2, true));
+        }
+        db.learn(false, makeLiteral(0, false), makeLiteral(11, false));
+        Assert.assertEquals(db.getNbLearnts(), 11);
+        Assert.assertEquals(db.getNbProtected(), 3);
+        Assert.assertEquals(db.getLBD(0), 3);
+        Assert.assertTrue(db.reduce());
+        Assert.assertEquals(db.getNbLearnts(), 7);
+        Assert.assertEquals(db.getNbDeleted(), 4);
+        Assert.assertEquals(db.getNbReductions(), 1);
+        int core = 0;
+        for (int k = 0; k < db.getNbLearnts(); k++) {
+            core += db.isCore(k) ? 1 : 0;
+        }
+        Assert.assertEquals(core, 2);
+        Assert.assertEquals(db.getNbProtected(), 3);
+        // 4 deletable clauses left, the limit is now 5
+        Assert.assertFalse(db.reduce());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReduceLocked() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 12; i++) {
+            sat.newVariable();
+        }
+        LearntClauseDatabase db = new LearntClauseDatabase(sat, v -> v);
+        db.setReductionPolicy(4, 1);
+        for (int i = 0; i < 10; i++) {
+            db.learn(false, makeLiteral(i, true), makeLiteral(i + 1, true), makeLiteral(i + 2, true));
+        }
+        SatSolver.Clause first = sat.learnts.get(0);
+        Assert.assertTrue(db.reduce(c -> c == first));
+        Assert.assertEquals(db.getNbLearnts(), 5);
+        Assert.assertSame(sat.learnts.get(0), first);
+        // no clause can be removed
+        Assert.assertFalse(db.reduce(c -> true));
+        Assert.assertEquals(db.getNbLearnts(), 5);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testActivity() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 4; i++) {
+            sat.newVariable();
+        }
+        LearntClauseDatabase db = new LearntClauseDatabase(sat, v -> v);
+        db.learn(false, makeLiteral(0, true), makeLiteral(1, true), makeLiteral(2, true));
+        db.learn(false, makeLiteral(0, true), makeLiteral(1, true), makeLiteral(2, false));
+        db.learn(false, makeLiteral(1, true), makeLiteral(2, true), makeLiteral(3, true));
+        Assert.assertTrue(sat.propagateOneLiteral(negated(makeLiteral(0, true))));
+        Assert.assertFalse(sat.propagateOneLiteral(negated(makeLiteral(1, true))));
+        db.onConflict();
+        Assert.assertEquals(db.getNbBumps(), 1);
+        Assert.assertTrue(Math.max(db.getActivity(0), db.getActivity(1)) > 1.);
+        Assert.assertEquals(db.getActivity(2), 1.);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testActivityAfterDetach() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 4; i++) {
+            sat.newVariable();
+        }
+        LearntClauseDatabase db = new LearntClauseDatabase(sat, v -> v);
+        db.learn(false, makeLiteral(1, true), makeLiteral(2, true), makeLiteral(3, true));
+        db.learn(false, makeLiteral(0, true), makeLiteral(1, true), makeLiteral(2, true));
+        db.learn(false, makeLiteral(0, true), makeLiteral(1, true), makeLiteral(2, false));
+        db.detach(0);
+        Assert.assertTrue(sat.propagateOneLiteral(negated(makeLiteral(0, true))));
+        Assert.assertFalse(sat.propagateOneLiteral(negated(makeLiteral(1, true))));
+        db.onConflict();
+        Assert.assertEquals(db.getNbBumps(), 1);
+        Assert.assertTrue(Math.max(db.getActivity(0), db.getActivity(1)) > 1.);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNoActivityOnOriginalClause() {
+        SatSolver sat = new SatSolver();
+        for (int i = 0; i < 4; i++) {
+            sat.newVariable();
+        }
+        sat.addClause(makeLiteral(0, true), makeLiteral(1, true), makeLiteral(2, true));
+        sat.addClause(makeLiteral(0, true), makeLiteral(1, true), makeLiteral(2, false));
+        LearntClauseDatabase db = new LearntClauseDatabase(sat, v -> v);
+        db.learn(false, makeLiteral(1, true), makeLiteral(2, true), makeLiteral(3, true));
+        Assert.assertTrue(sat.propagateOneLiteral(negated(makeLiteral(0, true))));
+        Assert.assertFalse(sat.propagateOneLiteral(negated(makeLiteral(1, true))));
+        db.onConflict();
+        Assert.assertEquals(db.getNbBumps(), 0);
+        Assert.assertEquals(db.getActivity(0), 1.);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = IllegalArgumentException.class)
+    public void testPolicy() {
+        new LearntClauseDatabase(new SatSolver(), v -> v).setReductionPolicy(0, 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testGolomb() {
+        Model model = ProblemMaker.makeGolombRuler(7);
+        Solver solver = model.getSolver();
+        solver.setNoGoodRecordingFromRestarts();
+        solver.setLubyRestart(2, new FailCounter(model, 2), 50000);
+        LearntClauseDatabase db = model.getNogoodStore().getPropNogoods().getLearntDatabase();
+        db.setReductionPolicy(10, 2);
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getBestSolutionValue().intValue(), 25);
+        Assert.assertTrue(db.getNbReductions() > 0);
+        Assert.assertTrue(db.getNbDeleted() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCoreClauses() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        Solver solver = model.getSolver();
+        solver.setNoGoodRecordingFromRestarts();
+        solver.setNoGoodRecordingFromSolutions(vars);
+        solver.setRestartOnSolutions();
+        solver.setLubyRestart(2, new FailCounter(model, 2), 50000);
+        LearntClauseDatabase db = model.getNogoodStore().getPropNogoods().getLearntDatabase();
+        db.setReductionPolicy(5, 1);
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), 92);
+        Assert.assertTrue(db.getNbProtected() >= 92);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAddLearntIsCore() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 3, false);
+        PropNogoods png = model.getNogoodStore().getPropNogoods();
+        png.initialize();
+        model.getSolver().getEngine().initialize();
+        LearntClauseDatabase db = png.getLearntDatabase();
+        // a clause added by a user may be required for correctness, it is kept
+        png.addLearnt(png.Literal(x[0], 1, false), png.Literal(x[1], 2, false));
+        // an implied clause may be removed
+        png.addLearnt(false, png.Literal(x[1], 1, false), png.Literal(x[2], 2, false));
+        Assert.assertEquals(db.getNbLearnts(), 2);
+        Assert.assertTrue(db.isCore(0));
+        Assert.assertFalse(db.isCore(1));
+    }
+}
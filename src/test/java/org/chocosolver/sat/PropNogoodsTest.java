@@ -308,4 +308,47 @@ public class PropNogoodsTest {
             Assert.assertEquals(ivalue(lvalue), value);
         }
     }
-}
\ No newline at end of file
+
+    @Test(groups="1s", timeOut=60000)
+    public void testExchange() throws ContradictionException {
+        Model other = new Model("nogoods2");
+        IntVar[] ovars = other.intVarArray("X", 4, -1, 1, false);
+        PropNogoods OPNG = other.getNogoodStore().getPropNogoods();
+        OPNG.initialize();
+        other.getSolver().getEngine().initialize();
+        NogoodExchange exchange = new NogoodExchange(4, 2);
+        PNG.shareNogoods(exchange, 0);
+        OPNG.shareNogoods(exchange, 1);
+        // X0 != 0 or X3 > 0
+        Assert.assertTrue(PNG.exportLearnt(SatSolver.negated(lits[0]), SatSolver.negated(PNG.Literal(vars[3], 0, false))));
+        // too many variables
+        Assert.assertFalse(PNG.exportLearnt(lits[0], lits[2], lits[4]));
+        Assert.assertEquals(exchange.getNbPublished(), 1);
+        Assert.assertEquals(PNG.importNogoods(), 0);
+        Assert.assertEquals(OPNG.importNogoods(), 1);
+        Assert.assertEquals(OPNG.importNogoods(), 0);
+        Assert.assertEquals(OPNG.getNbImportedNogoods(), 1);
+        Assert.assertEquals(PNG.getNbExportedNogoods(), 1);
+        other.getEnvironment().worldPush();
+        ovars[3].updateUpperBound(0, Cause.Null);
+        OPNG.propagate(2);
+        Assert.assertFalse(ovars[0].contains(0));
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testExchangeOverwritten() {
+        Model other = new Model("nogoods2");
+        other.intVarArray("X", 4, -1, 1, false);
+        PropNogoods OPNG = other.getNogoodStore().getPropNogoods();
+        OPNG.initialize();
+        other.getSolver().getEngine().initialize();
+        NogoodExchange exchange = new NogoodExchange(3, 2);
+        PNG.shareNogoods(exchange, 0);
+        OPNG.shareNogoods(exchange, 1);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(PNG.exportLearnt(SatSolver.negated(lits[i])));
+        }
+        // capacity is rounded up to 4, the two oldest no-goods are lost
+        Assert.assertEquals(OPNG.importNogoods(), 4);
+    }
+}
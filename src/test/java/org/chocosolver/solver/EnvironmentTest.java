@@ -15,6 +15,7 @@ package org.chocosolver.solver;
 
 
 import org.chocosolver.memory.EnvironmentBuilder;
+import org.chocosolver.memory.copying.EnvironmentCopying;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.chocosolver.memory.trailing.trail.chunck.ChunckedIntTrail;
 import org.chocosolver.memory.trailing.trail.flatten.StoredDoubleTrail;
@@ -104,4 +105,77 @@ public class EnvironmentTest {
 		m.getEnvironment().makeDoubleVector(100, 0.0);
 		System.out.println(m.getSolver().solve());
 	}
-}
\ No newline at end of file
+
+	@Test(groups="1s", timeOut=60000)
+	public void testCopying() {
+		long[] nbSols = new long[3];
+		for (int k = 0; k < 3; k++) {
+			Model model;
+			if (k == 0) {
+				model = new Model("queens");
+			} else {
+				EnvironmentCopying env = new EnvironmentBuilder().buildCopying();
+				model = new Model(env, "queens");
+				// k == 2: variables are trailed, constraints are copied
+				env.setCopying(k == 1);
+			}
+			int n = 8;
+			IntVar[] vars = model.intVarArray("Q", n, 1, n, false);
+			if (model.getEnvironment() instanceof EnvironmentCopying) {
+				((EnvironmentCopying) model.getEnvironment()).setCopying(true);
+			}
+			for (int i = 0; i < n - 1; i++) {
+				for (int j = i + 1; j < n; j++) {
+					int d = j - i;
+					model.arithm(vars[i], "!=", vars[j]).post();
+					model.arithm(vars[i], "!=", vars[j], "-", d).post();
+					model.arithm(vars[i], "!=", vars[j], "+", d).post();
+				}
+			}
+			model.allDifferent(vars, "AC").post();
+			while (model.getSolver().solve()) ;
+			nbSols[k] = model.getSolver().getSolutionCount();
+		}
+		Assert.assertEquals(nbSols[0], 92);
+		Assert.assertEquals(nbSols[1], 92);
+		Assert.assertEquals(nbSols[2], 92);
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testArena() {
+		Model model = costas(new Model(new EnvironmentBuilder().buildArena(), "costas"), 7);
+		while (model.getSolver().solve()) ;
+		Assert.assertEquals(model.getSolver().getSolutionCount(), 200);
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testArenaLearning() {
+		for (int k = 0; k < 2; k++) {
+			Model model = costas(new Model(new EnvironmentBuilder().buildArena(), "costas"), 7);
+			if (k == 0) {
+				model.getSolver().setCBJLearning(false, false);
+			} else {
+				model.getSolver().setLCGLearning();
+			}
+			while (model.getSolver().solve()) ;
+			Assert.assertEquals(model.getSolver().getSolutionCount(), 200);
+		}
+	}
+
+	private static Model costas(Model model, int n) {
+		IntVar[] vars = model.intVarArray("v", n, 0, n - 1, false);
+		IntVar[] vectors = new IntVar[(n * (n - 1)) / 2];
+		int idx = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				vectors[idx] = model.intVar("d", -n, 2 * n, false);
+				model.arithm(vectors[idx], "=", vars[j], "-", vars[i]).post();
+				vectors[idx] = model.intOffsetView(vectors[idx], 2 * n * (j - i));
+				idx++;
+			}
+		}
+		model.allDifferent(vars, "AC").post();
+		model.allDifferent(vectors, "BC").post();
+		return model;
+	}
+}
@@ -11,11 +11,13 @@ package org.chocosolver.solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.RealVar;
 import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.ProblemMaker;
 import org.chocosolver.util.criteria.Criterion;
 import org.chocosolver.util.tools.ArrayUtils;
@@ -25,8 +27,12 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.chocosolver.solver.search.strategy.Search.domOverWDegSearch;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.solver.variables.IntVar.MAX_INT_BOUND;
@@ -603,4 +609,127 @@ public class ModelTest {
         System.out.printf("%s\n",settings.getWelcomeMessage());
         settings.store(System.out, "Test");
     }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyKnapsack() {
+        Model model = knapsack();
+        Model copy = model.copy();
+        Assert.assertNotSame(copy, model);
+        Assert.assertNotSame(copy.getEnvironment(), model.getEnvironment());
+        Assert.assertEquals(copy.getNbVars(), model.getNbVars());
+        Assert.assertEquals(copy.getNbCstrs(), model.getNbCstrs());
+        IntVar cpower = (IntVar) copy.getHook("obj");
+        Assert.assertNotSame(cpower, model.getHook("obj"));
+        Assert.assertSame(cpower.getModel(), copy);
+        Assert.assertSame(copy.getObjective(), cpower);
+        Solution best = copy.getSolver().findOptimalSolution(cpower, Model.MAXIMIZE);
+        Assert.assertEquals(best.getIntVal(cpower), 51);
+        // the original model is left untouched
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 0);
+        Assert.assertFalse(((IntVar) model.getHook("obj")).isInstantiated());
+        IntVar power = (IntVar) model.getHook("obj");
+        Assert.assertEquals(model.getSolver().findOptimalSolution(power, Model.MAXIMIZE).getIntVal(power), 51);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyMapping() {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 5);
+        IntVar y = model.intOffsetView(x, 2);
+        BoolVar b = model.boolVar("b");
+        model.arithm(y, ">", 4).reifyWith(b);
+        Map<Variable, Variable> mapping = new HashMap<>();
+        Model copy = model.copy(mapping);
+        for (int i = 0; i < model.getNbVars(); i++) {
+            Variable v = model.getVar(i);
+            Assert.assertSame(mapping.get(v), copy.getVar(i));
+            Assert.assertEquals(copy.getVar(i).getName(), v.getName());
+            Assert.assertEquals(copy.getVar(i).getId(), v.getId());
+        }
+        IntVar cx = (IntVar) mapping.get(x);
+        copy.arithm(cx, "=", 3).post();
+        Assert.assertTrue(copy.getSolver().solve());
+        Assert.assertEquals(((IntVar) mapping.get(y)).getValue(), 5);
+        Assert.assertTrue(((BoolVar) mapping.get(b)).getValue() == 1);
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 0);
+        Assert.assertEquals(model.getNbCstrs(), copy.getNbCstrs() - 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyQueens() {
+        Model model = ProblemMaker.makeNQueenWithOneAlldifferent(7);
+        Model copy = model.copy();
+        int nbSols = 0;
+        while (copy.getSolver().solve()) {
+            nbSols++;
+        }
+        Assert.assertEquals(nbSols, 40);
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 40);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyWithSearch() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = model.retrieveIntVars(true);
+        model.getSolver().setSearch(domOverWDegSearch(vars));
+        model.getSolver().setLubyRestart(2, new FailCounter(model, 2), 50);
+        Map<Variable, Variable> mapping = new HashMap<>();
+        Model copy = model.copy(mapping);
+        // the search is not copied, it is declared on the copy
+        Assert.assertNotSame(copy.getSolver().getSearch(), model.getSolver().getSearch());
+        IntVar[] cvars = Arrays.stream(vars).map(v -> (IntVar) mapping.get(v)).toArray(IntVar[]::new);
+        copy.getSolver().setSearch(domOverWDegSearch(cvars));
+        copy.getSolver().setLubyRestart(2, new FailCounter(copy, 2), 50);
+        Assert.assertTrue(copy.getSolver().solve());
+        Assert.assertEquals(copy.getSolver().isSatisfied(), TRUE);
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 0);
+        Assert.assertTrue(model.getSolver().solve());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyConstraints() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, 0, 3, false);
+        BoolVar[] b = model.boolVarArray("b", 4);
+        IntVar s = model.intVar("s", 0, 4, true);
+        model.allDifferent(x, "BC").post();
+        model.allDifferent(x[0], x[1], model.intMinusView(x[2])).getOpposite().post();
+        model.sum(b, "=", s).post();
+        model.scalar(x, new int[]{1, 2, 3, 4}, "<=", 20).post();
+        for (int i = 0; i < 4; i++) {
+            model.arithm(x[i], "<", 2).reifyWith(b[i]);
+        }
+        Model copy = model.copy();
+        Assert.assertEquals(copy.getNbVars(), model.getNbVars());
+        Assert.assertEquals(copy.getNbCstrs(), model.getNbCstrs());
+        for (int i = 0; i < model.getNbCstrs(); i++) {
+            Assert.assertEquals(copy.getCstrs()[i].getClass(), model.getCstrs()[i].getClass());
+        }
+        Assert.assertEquals(copy.getSolver().findAllSolutions().size(), model.getSolver().findAllSolutions().size());
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testCopyUnsupported() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 3, false);
+        model.times(x[0], x[1], x[2]).post();
+        model.copy();
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testCopyDuringResolution() {
+        Model model = knapsack();
+        model.getSolver().solve();
+        model.copy();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCopyAfterReset() {
+        Model model = knapsack();
+        while (model.getSolver().solve()) ;
+        model.getSolver().reset();
+        Model copy = model.copy();
+        IntVar cpower = (IntVar) copy.getHook("obj");
+        Assert.assertEquals(copy.getSolver().findOptimalSolution(cpower, Model.MAXIMIZE).getIntVal(cpower), 51);
+    }
 }
@@ -0,0 +1,127 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.ModelTest.knapsack;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ParallelEPSTest {
+
+    private static Model queens(int n) {
+        Model model = new Model("queens-" + n);
+        IntVar[] q = model.intVarArray("Q", n, 1, n, false);
+        model.allDifferent(q, "BC").post();
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int k = j - i;
+                model.arithm(q[i], "!=", q[j], "+", -k).post();
+                model.arithm(q[i], "!=", q[j], "+", k).post();
+            }
+        }
+        return model;
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testSatisfaction() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 4; i++) {
+            eps.addModel(queens(10));
+        }
+        Assert.assertTrue(eps.solve());
+        Assert.assertTrue(eps.getCubeCount() >= 1);
+        Model finder = eps.getBestModel();
+        Assert.assertNotNull(finder);
+        Assert.assertEquals(finder.getSolver().isSatisfied(), ESat.TRUE);
+        Assert.assertNotNull(eps.getBestSolution());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testUnsatisfiable() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 3; i++) {
+            eps.addModel(queens(3));
+        }
+        Assert.assertFalse(eps.solve());
+        Assert.assertNull(eps.getBestModel());
+        Assert.assertTrue(eps.isSearchCompleted());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testOptimization() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 4; i++) {
+            eps.addModel(knapsack());
+        }
+        eps.setCubesPerWorker(10);
+        Assert.assertTrue(eps.solve());
+        Assert.assertTrue(eps.isSearchCompleted());
+        Model finder = eps.getBestModel();
+        IntVar power = (IntVar) finder.getHook("obj");
+        Assert.assertEquals(eps.getBestSolution().getIntVal(power), 51);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testOneWorker() {
+        ParallelEPS eps = new ParallelEPS();
+        eps.addModel(knapsack());
+        Assert.assertTrue(eps.solve());
+        IntVar power = (IntVar) eps.getBestModel().getHook("obj");
+        Assert.assertEquals(eps.getBestSolution().getIntVal(power), 51);
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = SolverException.class)
+    public void testSolveTwice() {
+        ParallelEPS eps = new ParallelEPS();
+        eps.addModel(queens(4));
+        eps.solve();
+        eps.solve();
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = SolverException.class)
+    public void testNoModel() {
+        new ParallelEPS().solve();
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDecompositionRestoresRoot() {
+        ParallelEPS eps = new ParallelEPS();
+        Model model = knapsack();
+        eps.addModel(model);
+        eps.addModel(knapsack());
+        Assert.assertTrue(eps.solve());
+        // the decomposition must not leave a world open below the root of the search
+        model.getSolver().reset();
+        Assert.assertEquals(model.getEnvironment().getWorldIndex(), 0);
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = IllegalStateException.class)
+    public void testWorkerFailure() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 2; i++) {
+            Model model = queens(8);
+            model.getSolver().setSearch(Search.intVarSearch(vars -> {
+                throw new IllegalStateException("the worker failed");
+            }, IntVar::getLB, model.retrieveIntVars(true)));
+            eps.addModel(model);
+        }
+        eps.solve();
+    }
+}
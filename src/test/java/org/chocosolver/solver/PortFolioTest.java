@@ -8,7 +8,12 @@
  */
 package org.chocosolver.solver;
 
+import org.chocosolver.sat.NogoodExchange;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.restart.MonotonicRestartStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -197,4 +202,100 @@ public class PortFolioTest {
             System.gc();
         }
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testNogoodSharing() {
+        ParallelPortfolio pares = new ParallelPortfolio(false);
+        Assert.assertNull(pares.getNogoodExchange());
+        pares.setNogoodExchange(new NogoodExchange());
+        for (int i = 0; i < 2; i++) {
+            // pigeon-hole problem, 9 pigeons in 8 holes
+            Model model = new Model();
+            IntVar[] p = model.intVarArray("p", 9, 1, 8, false);
+            for (int j = 0; j < p.length - 1; j++) {
+                for (int k = j + 1; k < p.length; k++) {
+                    model.arithm(p[j], "!=", p[k]).post();
+                }
+            }
+            Solver solver = model.getSolver();
+            solver.setSearch(i == 0 ? inputOrderLBSearch(p) : minDomLBSearch(p));
+            solver.setNoGoodRecordingFromRestarts();
+            solver.setLubyRestart(2, new FailCounter(model, 2), 10000);
+            pares.addModel(model);
+        }
+        Assert.assertFalse(pares.solve());
+        Assert.assertTrue(pares.getNogoodExchange().getNbPublished() > 0);
+        long imported = 0;
+        for (Model m : pares.getModels()) {
+            imported += m.getNogoodStore().getPropNogoods().getNbImportedNogoods();
+        }
+        Assert.assertTrue(imported > 0);
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = SolverException.class)
+    public void testNogoodSharingDifferentModels() {
+        ParallelPortfolio pares = new ParallelPortfolio(false);
+        pares.setNogoodExchange(new NogoodExchange());
+        for (int i = 0; i < 2; i++) {
+            Model model = new Model();
+            // domains differ from one model to the other
+            IntVar[] p = model.intVarArray("p", 4, 1, 3 + i, false);
+            model.allDifferent(p).post();
+            model.getSolver().setNoGoodRecordingFromRestarts();
+            pares.addModel(model);
+        }
+        pares.solve();
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRealObjective() {
+        ParallelPortfolio pares = new ParallelPortfolio(false);
+        for (int i = 0; i < 3; i++) {
+            Model model = knapsack();
+            IntVar power = (IntVar) model.getHook("obj");
+            RealVar rpower = model.realIntView(power, 0.01);
+            model.setObjective(Model.MAXIMIZE, rpower);
+            model.addHook("robj", rpower);
+            pares.addModel(model);
+        }
+        while (pares.solve()) ;
+        Model finder = pares.getBestModel();
+        Assert.assertNotNull(finder);
+        Assert.assertEquals(finder.getSolver().getObjectiveManager().getBestSolutionValue().doubleValue(), 51d, 0.01);
+        Assert.assertEquals(pares.getSharedBound().get().getValue(0).doubleValue(), 51d, 0.01);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testLexObjectives() {
+        ParallelPortfolio pares = new ParallelPortfolio();
+        for (int i = 0; i < 4; i++) {
+            Model model = knapsack();
+            model.clearObjective();
+            IntVar power = (IntVar) model.getHook("obj");
+            IntVar capa = (IntVar) model.getVars()[4];
+            pares.addModel(model, true, power, capa);
+        }
+        int nbSols = 0;
+        while (pares.solve()) {
+            nbSols++;
+        }
+        Assert.assertTrue(nbSols > 0);
+        Assert.assertNotNull(pares.getBestModel());
+        Assert.assertEquals(pares.getSharedBound().get().getValue(0), 51);
+        Assert.assertEquals(pares.getSharedBound().get().getValue(1), 34);
+        Model ref = knapsack();
+        ref.clearObjective();
+        Solution s = ref.getSolver().findLexOptimalSolution(new IntVar[]{(IntVar) ref.getHook("obj"), (IntVar) ref.getVars()[4]}, true);
+        Assert.assertEquals(s.getIntVal((IntVar) ref.getVars()[4]), 34);
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = SolverException.class)
+    public void testLexObjectivesMixed() {
+        ParallelPortfolio pares = new ParallelPortfolio();
+        Model model = knapsack();
+        model.clearObjective();
+        pares.addModel(model, true, (IntVar) model.getHook("obj"));
+        pares.addModel(knapsack());
+        pares.solve();
+    }
 }
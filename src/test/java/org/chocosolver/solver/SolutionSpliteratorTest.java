@@ -0,0 +1,134 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.search.limits.SolutionCounter;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for SolutionSpliterator
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class SolutionSpliteratorTest {
+
+    private static Model queens(int n) {
+        Model model = new Model("queens-" + n);
+        IntVar[] q = model.intVarArray("Q", n, 1, n, false);
+        model.allDifferent(q, "BC").post();
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int k = j - i;
+                model.arithm(q[i], "!=", q[j], "+", -k).post();
+                model.arithm(q[i], "!=", q[j], "+", k).post();
+            }
+        }
+        return model;
+    }
+
+    /**
+     * @return the values of the variables of <i>model</i> in <i>solution</i>
+     */
+    private static String valuesOf(Model model, Solution solution) {
+        StringBuilder st = new StringBuilder();
+        for (IntVar v : model.retrieveIntVars(true)) {
+            st.append(solution.getIntVal(v)).append(' ');
+        }
+        return st.toString();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSequential() {
+        Model model = queens(8);
+        Set<String> solutions = model.getSolver().streamSolutions(() -> queens(8))
+                .map(s -> valuesOf(model, s))
+                .collect(Collectors.toSet());
+        Assert.assertEquals(solutions.size(), 92);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testParallel() throws Exception {
+        AtomicInteger built = new AtomicInteger();
+        Supplier<Model> modeller = () -> {
+            built.incrementAndGet();
+            return queens(8);
+        };
+        Model model = queens(8);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<String> solutions = pool.submit(() -> model.getSolver().streamSolutions(modeller)
+                .parallel()
+                .map(s -> valuesOf(model, s))
+                .collect(Collectors.toList())
+        ).get();
+        pool.shutdown();
+        Assert.assertEquals(solutions.size(), 92);
+        Assert.assertEquals(solutions.stream().distinct().count(), 92);
+        Assert.assertTrue(built.get() > 0);
+        // the model can be solved anew
+        model.getSolver().reset();
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 92);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSplit() {
+        Model model = queens(6);
+        Spliterator<Solution> first = new SolutionSpliterator(model, () -> queens(6));
+        List<Spliterator<Solution>> parts = new ArrayList<>();
+        parts.add(first);
+        for (int k = 0; k < 3; k++) {
+            List<Spliterator<Solution>> next = new ArrayList<>();
+            for (Spliterator<Solution> it : parts) {
+                Spliterator<Solution> split = it.trySplit();
+                if (split != null) {
+                    next.add(split);
+                }
+            }
+            parts.addAll(next);
+        }
+        Assert.assertTrue(parts.size() > 4);
+        List<Solution> solutions = new ArrayList<>();
+        // interleave the parts, which run on different models
+        boolean advanced = true;
+        while (advanced) {
+            advanced = false;
+            for (Spliterator<Solution> it : parts) {
+                advanced |= it.tryAdvance(solutions::add);
+            }
+        }
+        Assert.assertEquals(solutions.size(), 4);
+        Assert.assertEquals(solutions.stream().map(s -> valuesOf(model, s)).distinct().count(), 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUnsatisfiable() {
+        Model model = queens(3);
+        Assert.assertEquals(model.getSolver().streamSolutions(() -> queens(3)).parallel().count(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStop() {
+        Model model = queens(8);
+        // the criterion applies to each sub-problem
+        long count = model.getSolver().streamSolutions(() -> queens(8), new SolutionCounter(model, 1)).count();
+        Assert.assertEquals(count, 1);
+    }
+}
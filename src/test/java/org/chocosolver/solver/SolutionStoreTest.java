@@ -0,0 +1,228 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * Test class for SolutionStore
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class SolutionStoreTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFindAll() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, 0, 3);
+        SetVar s = model.setVar("s", new int[0], new int[]{0, 1});
+        model.allDifferent(x).post();
+        model.member(x[0], s).post();
+        List<Solution> solutions = model.getSolver().findAllSolutions();
+        Assert.assertTrue(solutions instanceof SolutionStore);
+        Assert.assertEquals(solutions.size(), 24);
+        SolutionStore store = (SolutionStore) solutions;
+        for (int i = 0; i < store.size(); i++) {
+            Solution solution = store.get(i);
+            for (IntVar v : x) {
+                Assert.assertEquals(solution.getIntVal(v), store.getIntVal(i, v));
+            }
+            int x0 = store.getIntVal(i, x[0]);
+            Assert.assertTrue(Arrays.stream(solution.getSetVal(s)).anyMatch(v -> v == x0));
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRestore() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 4);
+        model.sum(x, "=", 6).post();
+        SolutionStore store = new SolutionStore(model, x);
+        while (model.getSolver().solve()) {
+            store.record();
+        }
+        model.getSolver().reset();
+        for (int i = 0; i < store.size(); i++) {
+            model.getEnvironment().worldPush();
+            store.restore(i);
+            Assert.assertEquals(x[0].getValue() + x[1].getValue() + x[2].getValue(), 6);
+            Assert.assertEquals(x[1].getValue(), store.getIntVal(i, x[1]));
+            model.getEnvironment().worldPop();
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRemove() {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 2999);
+        SolutionStore store = new SolutionStore(model, x);
+        while (model.getSolver().solve()) {
+            store.record();
+        }
+        Assert.assertEquals(store.size(), 3000);
+        for (int i = store.size() - 1; i >= 0; i -= 3) {
+            store.remove(i);
+        }
+        Assert.assertEquals(store.size(), 2000);
+        for (int i = 0; i < store.size(); i++) {
+            Assert.assertEquals(store.getIntVal(i, x), i / 2 * 3 + i % 2);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSpill() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 5, 0, 5);
+        model.allDifferent(x).post();
+        // two blocks in memory at most
+        long budget = 2L * SolutionStore.CHUNK * 4 * x.length;
+        SolutionStore store = new SolutionStore(model, budget, x);
+        SolutionStore ref = new SolutionStore(model, x);
+        while (model.getSolver().solve()) {
+            store.record();
+            ref.record();
+        }
+        Assert.assertEquals(store.size(), 720);
+        Assert.assertFalse(store.isSpilled());
+        model.getSolver().reset();
+        model.getSolver().setSearch(randomSearch(x, 0));
+        for (int k = 0; k < 6; k++) {
+            while (model.getSolver().solve()) {
+                store.record();
+                ref.record();
+            }
+            model.getSolver().reset();
+        }
+        Assert.assertEquals(store.size(), 7 * 720);
+        Assert.assertTrue(store.isSpilled());
+        Assert.assertFalse(ref.isSpilled());
+        for (int i = 0; i < store.size(); i++) {
+            for (IntVar v : x) {
+                Assert.assertEquals(store.getIntVal(i, v), ref.getIntVal(i, v));
+            }
+        }
+        store.remove(0);
+        ref.remove(0);
+        Assert.assertEquals(store.get(store.size() - 1).getIntVal(x[2]), ref.get(ref.size() - 1).getIntVal(x[2]));
+        store.close();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testModify() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 2);
+        SetVar s = model.setVar("s", new int[0], new int[]{0, 1});
+        model.allDifferent(x).post();
+        model.member(x[0], s).post();
+        List<Solution> solutions = model.getSolver().findAllSolutions();
+        List<Solution> copies = new ArrayList<>(solutions);
+        Assert.assertEquals(copies.size(), 8);
+        // sort in place, which relies on set
+        solutions.sort((a, b) -> Integer.compare(b.getIntVal(x[2]), a.getIntVal(x[2])));
+        copies.sort((a, b) -> Integer.compare(b.getIntVal(x[2]), a.getIntVal(x[2])));
+        Solution first = copies.get(0);
+        solutions.add(0, first);
+        solutions.add(solutions.size(), first);
+        solutions.add(5, copies.get(3));
+        Assert.assertEquals(solutions.size(), 11);
+        List<Solution> expected = new ArrayList<>(copies);
+        expected.add(0, first);
+        expected.add(expected.size(), first);
+        expected.add(5, copies.get(3));
+        for (int i = 0; i < expected.size(); i++) {
+            for (IntVar v : x) {
+                Assert.assertEquals(solutions.get(i).getIntVal(v), expected.get(i).getIntVal(v));
+            }
+            Assert.assertEquals(solutions.get(i).getSetVal(s), expected.get(i).getSetVal(s));
+        }
+        // the store holds copies
+        Solution added = new Solution(model, x[0], x[1]);
+        added.setIntVal(x[0], 2);
+        added.setIntVal(x[1], 1);
+        Solution replaced = solutions.set(1, added);
+        Assert.assertEquals(replaced.getIntVal(x[0]), expected.get(1).getIntVal(x[0]));
+        added.setIntVal(x[0], 0);
+        SolutionStore store = (SolutionStore) solutions;
+        Assert.assertEquals(store.getIntVal(1, x[0]), 2);
+        Assert.assertEquals(store.getIntVal(1, x[1]), 1);
+        try {
+            store.getIntVal(1, x[2]);
+            Assert.fail();
+        } catch (SolverException ignored) {
+            // x[2] has no value in the added solution
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAddToEmpty() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 2);
+        SolutionStore store = new SolutionStore(model, x);
+        Solution solution = new Solution(model, x);
+        for (int k = 0; k < 2 * SolutionStore.CHUNK + 1; k++) {
+            for (int i = 0; i < x.length; i++) {
+                solution.setIntVal(x[i], (k + i) % 3);
+            }
+            store.add(solution);
+        }
+        store.add(1, solution);
+        Assert.assertEquals(store.size(), 2 * SolutionStore.CHUNK + 2);
+        Assert.assertEquals(store.getIntVal(0, x[1]), 1);
+        Assert.assertEquals(store.getIntVal(1, x[1]), store.getIntVal(store.size() - 1, x[1]));
+        Assert.assertEquals(store.getIntVal(2, x[1]), 2);
+        Assert.assertEquals(store.getIntVal(store.size() - 2, x[2]), (2 * SolutionStore.CHUNK - 1 + 2) % 3);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRows() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 4);
+        model.sum(x, "=", 6).post();
+        List<Solution> solutions = model.getSolver().findAllSolutions();
+        SolutionStore store = (SolutionStore) solutions;
+        model.getSolver().reset();
+        int n = 0;
+        for (SolutionStore.Row row : store.rows()) {
+            Assert.assertEquals(row.getIndex(), n++);
+            Assert.assertEquals(row.getIntVal(x[0]) + row.getIntVal(x[1]) + row.getIntVal(x[2]), 6);
+            model.getEnvironment().worldPush();
+            row.restore();
+            Assert.assertEquals(x[1].getValue(), row.getIntVal(x[1]));
+            model.getEnvironment().worldPop();
+        }
+        Assert.assertEquals(n, store.size());
+        SolutionStore copy = store.copy();
+        copy.removeUnordered(0);
+        Assert.assertEquals(copy.size(), store.size() - 1);
+        for (SolutionStore.Row row : copy.rows()) {
+            Assert.assertEquals(row.getIntVal(x[0]) + row.getIntVal(x[1]) + row.getIntVal(x[2]), 6);
+        }
+        try {
+            for (SolutionStore.Row row : store.rows()) {
+                store.removeUnordered(row.getIndex());
+            }
+            Assert.fail();
+        } catch (ConcurrentModificationException ignored) {
+            // the store has been modified while iterating
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.nary.cumulative.CumulFilter;
 import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.Smallest;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Task;
 import org.chocosolver.util.objects.setDataStructures.ISet;
@@ -21,8 +23,13 @@ import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.intVarSearch;
 import static org.chocosolver.solver.search.strategy.Search.lastConflict;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 
@@ -129,6 +136,180 @@ public class CumulativeTest {
 			}
 	}
 
+	@Test(groups="1s", timeOut=60000)
+	public void testTTEF() throws ContradictionException {
+		Assert.assertEquals(pushedStart(Cumulative.Filter.TIME), 0);
+		Assert.assertEquals(pushedStart(Cumulative.Filter.TIME, Cumulative.Filter.TTEF), 2);
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testEnergetic() throws ContradictionException {
+		Assert.assertEquals(pushedStart(Cumulative.Filter.TIME, Cumulative.Filter.ENERGETIC), 2);
+	}
+
+	/**
+	 * @return the earliest starting time of a task, after the initial propagation
+	 */
+	private static int pushedStart(Cumulative.Filter... filters) throws ContradictionException {
+		Model m = new Model();
+		// t1 has a compulsory part in [2,4), t2 and t3 have to be processed in [0,4)
+		Task t1 = m.taskVar(m.intVar("s1", 1, 2), 3);
+		Task t2 = m.taskVar(m.intVar("s2", 0, 2), 2);
+		Task t3 = m.taskVar(m.intVar("s3", 0, 2), 2);
+		Task t4 = m.taskVar(m.intVar("s4", 0, 10), 3);
+		IntVar one = m.intVar(1);
+		m.cumulative(new Task[]{t1, t2, t3, t4}, new IntVar[]{one, one, one, one}, m.intVar(2), false, filters).post();
+		m.getSolver().propagate();
+		// only 2 units of t4 fit in [0,4)
+		return t4.getStart().getLB();
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testTTEFAndEnergeticRandom() {
+		Cumulative.Filter[][] filters = new Cumulative.Filter[][]{
+				{Cumulative.Filter.TIME},
+				{Cumulative.Filter.TIME, Cumulative.Filter.TTEF},
+				{Cumulative.Filter.SWEEP, Cumulative.Filter.TTEF, Cumulative.Filter.ENERGETIC},
+		};
+		for (int seed = 0; seed < 15; seed++) {
+			long ref = count(seed, false, filters[0]);
+			for (int f = 1; f < filters.length; f++) {
+				Assert.assertEquals(count(seed, false, filters[f]), ref, "seed " + seed + ", filters " + Arrays.toString(filters[f]));
+			}
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testProfileRandom() {
+		for (int seed = 0; seed < 15; seed++) {
+			long ref = count(seed, false, Cumulative.Filter.TIME);
+			Assert.assertEquals(count(seed, false, Cumulative.Filter.PROFILE), ref, "seed " + seed);
+			Assert.assertEquals(count(seed, true, Cumulative.Filter.PROFILE), ref, "seed " + seed);
+		}
+	}
+
+	private static long count(long seed, boolean graph, Cumulative.Filter... filters) {
+		Random rnd = new Random(seed);
+		Model model = new Model();
+		int n = 3 + rnd.nextInt(2);
+		Task[] tasks = new Task[n];
+		IntVar[] h = new IntVar[n];
+		IntVar[] vars = new IntVar[3 * n + 1];
+		for (int i = 0; i < n; i++) {
+			int lb = rnd.nextInt(3);
+			vars[3 * i] = model.intVar("s" + i, lb, lb + 1 + rnd.nextInt(3));
+			vars[3 * i + 1] = rnd.nextInt(4) > 0 ? model.intVar("d" + i, 1 + rnd.nextInt(3))
+					: model.intVar("d" + i, rnd.nextInt(2), 1 + rnd.nextInt(3));
+			vars[3 * i + 2] = h[i] = rnd.nextInt(4) > 0 ? model.intVar("h" + i, 1 + rnd.nextInt(2))
+					: model.intVar("h" + i, 0, 1 + rnd.nextInt(2));
+			tasks[i] = new Task(vars[3 * i], vars[3 * i + 1], model.intVar("e" + i, 0, 20));
+		}
+		vars[3 * n] = model.intVar("capa", 1 + rnd.nextInt(2), 3);
+		model.cumulative(tasks, h, vars[3 * n], graph, filters).post();
+		Solver solver = model.getSolver();
+		solver.setSearch(randomSearch(vars, seed));
+		while (solver.solve()) ;
+		return solver.getSolutionCount();
+	}
+
+	/**
+	 * Compares the filters on RCPSP instances generated like those of PSPLIB:
+	 * 4 renewable resources, resource factor 0.5 and resource strength 0.1.
+	 * Set {@link #VERBOSE} to print node counts and times.
+	 */
+	@Test(groups="10s", timeOut=120000)
+	public void testRCPSP() {
+		Cumulative.Filter[][] filters = new Cumulative.Filter[][]{
+				{Cumulative.Filter.DEFAULT},
+				{Cumulative.Filter.TIME},
+				{Cumulative.Filter.TIME, Cumulative.Filter.NRJ},
+				{Cumulative.Filter.TIME, Cumulative.Filter.TTEF},
+				{Cumulative.Filter.TIME, Cumulative.Filter.ENERGETIC},
+		};
+		for (int seed = 0; seed < 5; seed++) {
+			long ref = -1;
+			for (Cumulative.Filter[] f : filters) {
+				long[] res = rcpsp(10, seed, f);
+				if (VERBOSE) System.out.printf("%d %s: makespan=%d nodes=%d time=%dms%n", seed, Arrays.toString(f), res[0], res[1], res[2]);
+				if (ref == -1) ref = res[0];
+				Assert.assertEquals(res[0], ref, "seed " + seed + ", filters " + Arrays.toString(f));
+			}
+		}
+	}
+
+	/**
+	 * Solve a random RCPSP instance to optimality
+	 * @return the optimal makespan, the number of nodes and the resolution time (in ms)
+	 */
+	public static long[] rcpsp(int n, long seed, Cumulative.Filter... filters) {
+		Random rnd = new Random(seed);
+		int nr = 4;
+		int[] dur = new int[n];
+		int[][] dem = new int[n][nr];
+		List<int[]> prec = new ArrayList<>();
+		for (int j = 0; j < n; j++) {
+			dur[j] = 1 + rnd.nextInt(10);
+			dem[j][rnd.nextInt(nr)] = 1 + rnd.nextInt(10);
+			for (int r = 0; r < nr; r++) {
+				if (dem[j][r] == 0 && rnd.nextDouble() < 0.5) {
+					dem[j][r] = 1 + rnd.nextInt(10);
+				}
+			}
+			if (j > 2) {
+				prec.add(new int[]{rnd.nextInt(j), j});
+				if (rnd.nextBoolean()) {
+					prec.add(new int[]{rnd.nextInt(j), j});
+				}
+			}
+		}
+		// capacities from the earliest start schedule
+		int horizon = Arrays.stream(dur).sum();
+		int[] es = new int[n];
+		for (int[] pr : prec) {
+			es[pr[1]] = Math.max(es[pr[1]], es[pr[0]] + dur[pr[0]]);
+		}
+		int[] cap = new int[nr];
+		for (int r = 0; r < nr; r++) {
+			int kmin = 0;
+			int[] profile = new int[horizon];
+			for (int j = 0; j < n; j++) {
+				kmin = Math.max(kmin, dem[j][r]);
+				for (int t = es[j]; t < es[j] + dur[j]; t++) {
+					profile[t] += dem[j][r];
+				}
+			}
+			int kmax = Arrays.stream(profile).max().getAsInt();
+			cap[r] = kmin + (int) Math.round(0.1 * (kmax - kmin));
+		}
+		Model model = new Model();
+		IntVar[] s = model.intVarArray("s", n, 0, horizon, true);
+		IntVar makespan = model.intVar("makespan", 0, horizon, true);
+		Task[] tasks = new Task[n];
+		for (int j = 0; j < n; j++) {
+			tasks[j] = model.taskVar(s[j], dur[j]);
+			model.arithm(tasks[j].getEnd(), "<=", makespan).post();
+		}
+		for (int[] pr : prec) {
+			model.arithm(tasks[pr[0]].getEnd(), "<=", s[pr[1]]).post();
+		}
+		for (int r = 0; r < nr; r++) {
+			List<Task> ts = new ArrayList<>();
+			List<IntVar> hs = new ArrayList<>();
+			for (int j = 0; j < n; j++) {
+				if (dem[j][r] > 0) {
+					ts.add(tasks[j]);
+					hs.add(model.intVar(dem[j][r]));
+				}
+			}
+			model.cumulative(ts.toArray(new Task[0]), hs.toArray(new IntVar[0]), model.intVar(cap[r]), false, filters).post();
+		}
+		model.setObjective(Model.MINIMIZE, makespan);
+		Solver solver = model.getSolver();
+		solver.setSearch(intVarSearch(new Smallest(), new IntDomainMin(), s), inputOrderLBSearch(makespan));
+		while (solver.solve()) ;
+		return new long[]{solver.getBestSolutionValue().longValue(), solver.getNodeCount(), (long) (solver.getTimeCount() * 1000)};
+	}
+
 	public void test(int n, int capamax, int dmin, int hmax, long seed, int mode){
 		if(VERBOSE)System.out.println(n+" - "+capamax+" - "+dmin+" - "+hmax+" - "+seed+" - "+mode);
 		Cumulative.Filter[][] filters = new Cumulative.Filter[][]{
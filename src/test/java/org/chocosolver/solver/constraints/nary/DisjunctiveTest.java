@@ -0,0 +1,223 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.Smallest;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Task;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.intVarSearch;
+
+/**
+ * Test class for the disjunctive constraint
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class DisjunctiveTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testEdgeFinding() throws ContradictionException {
+        Model model = new Model();
+        Task t1 = model.taskVar(model.intVar("s1", 0, 10), 3);
+        Task t2 = model.taskVar(model.intVar("s2", 0, 10), 3);
+        Task t3 = model.taskVar(model.intVar("s3", 2, 20), 8);
+        model.disjunctive(new Task[]{t1, t2, t3}).post();
+        model.getSolver().propagate();
+        // t3 cannot be processed before, nor between, t1 and t2
+        Assert.assertEquals(t3.getStart().getLB(), 6);
+        Assert.assertEquals(t1.getEnd().getUB(), 13);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNotLast() throws ContradictionException {
+        Model model = new Model();
+        Task t1 = model.taskVar(model.intVar("s1", 0, 7), 2);
+        Task t2 = model.taskVar(model.intVar("s2", 0, 7), 4);
+        Task t3 = model.taskVar(model.intVar("s3", 0, 7), 4);
+        model.disjunctive(new Task[]{t1, t2, t3}).post();
+        model.getSolver().propagate();
+        // t1 cannot start after both t2 and t3
+        Assert.assertEquals(t1.getEnd().getUB(), 7);
+        Assert.assertEquals(t2.getEnd().getUB(), 11);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOverload() {
+        Model model = new Model();
+        Task[] tasks = new Task[4];
+        for (int i = 0; i < 4; i++) {
+            tasks[i] = model.taskVar(model.intVar("s" + i, 0, 8), 3);
+        }
+        model.disjunctive(tasks).post();
+        try {
+            model.getSolver().propagate();
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReversedOrders() throws ContradictionException {
+        int n = 40;
+        Model model = new Model();
+        Task[] tasks = new Task[n];
+        for (int i = 0; i < n; i++) {
+            tasks[i] = model.taskVar(model.intVar("s" + i, 0, 1000), 5);
+        }
+        model.disjunctive(tasks).post();
+        model.getSolver().propagate();
+        int[] root = bounds(tasks);
+        // the orders of the previous call are reversed
+        model.getEnvironment().worldPush();
+        for (int i = 0; i < n; i++) {
+            tasks[i].getStart().updateBounds(10 * (n - i), 10 * (n - i) + 12, Cause.Null);
+        }
+        model.getSolver().propagate();
+        Model fresh = new Model();
+        Task[] expected = new Task[n];
+        for (int i = 0; i < n; i++) {
+            expected[i] = fresh.taskVar(fresh.intVar("s" + i, 10 * (n - i), 10 * (n - i) + 12), 5);
+        }
+        fresh.disjunctive(expected).post();
+        fresh.getSolver().propagate();
+        Assert.assertEquals(bounds(tasks), bounds(expected));
+        model.getEnvironment().worldPop();
+        model.getSolver().propagate();
+        Assert.assertEquals(bounds(tasks), root);
+    }
+
+    private static int[] bounds(Task[] tasks) {
+        int[] bounds = new int[4 * tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            bounds[4 * i] = tasks[i].getStart().getLB();
+            bounds[4 * i + 1] = tasks[i].getStart().getUB();
+            bounds[4 * i + 2] = tasks[i].getEnd().getLB();
+            bounds[4 * i + 3] = tasks[i].getEnd().getUB();
+        }
+        return bounds;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 60; seed++) {
+            Assert.assertEquals(count(seed, true), count(seed, false), "seed " + seed);
+        }
+    }
+
+    /**
+     * Count the solutions of a random unary resource problem
+     */
+    private static long count(int seed, boolean disjunctive) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        int n = 2 + rnd.nextInt(3);
+        Task[] tasks = new Task[n];
+        IntVar[] vars = new IntVar[2 * n];
+        for (int i = 0; i < n; i++) {
+            int lb = rnd.nextInt(6);
+            vars[2 * i] = model.intVar("s" + i, lb, lb + 2 + rnd.nextInt(5));
+            vars[2 * i + 1] = rnd.nextBoolean() ? model.intVar("d" + i, 1 + rnd.nextInt(4))
+                    : model.intVar("d" + i, rnd.nextInt(2), 2 + rnd.nextInt(3));
+            IntVar e = model.intVar("e" + i, 0, 30);
+            tasks[i] = new Task(vars[2 * i], vars[2 * i + 1], e);
+        }
+        if (disjunctive) {
+            model.disjunctive(tasks).post();
+        } else {
+            IntVar one = model.intVar(1);
+            IntVar[] heights = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                heights[i] = one;
+            }
+            model.cumulative(tasks, heights, one).post();
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(randomSearch(vars, seed));
+        while (solver.solve()) ;
+        return solver.getSolutionCount();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFT06() {
+        Assert.assertEquals(jobShop(FT06, true), 55);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFT06Cumulative() {
+        Assert.assertEquals(jobShop(FT06, false), 55);
+    }
+
+    /**
+     * Fisher and Thompson 6x6 instance: for each job, pairs of (machine, duration)
+     */
+    private static final int[][] FT06 = {
+            {2, 1, 0, 3, 1, 6, 3, 7, 5, 3, 4, 6},
+            {1, 8, 2, 5, 4, 10, 5, 10, 0, 10, 3, 4},
+            {2, 5, 3, 4, 5, 8, 0, 9, 1, 1, 4, 7},
+            {1, 5, 0, 5, 2, 5, 3, 3, 4, 8, 5, 9},
+            {2, 9, 1, 3, 4, 5, 5, 4, 0, 3, 3, 1},
+            {1, 3, 3, 3, 5, 9, 0, 10, 4, 4, 2, 1},
+    };
+
+    /**
+     * @return the optimal makespan of a job-shop instance
+     */
+    private static int jobShop(int[][] data, boolean disjunctive) {
+        Model model = new Model();
+        int nj = data.length, nm = data[0].length / 2;
+        int horizon = 0;
+        for (int[] job : data) {
+            for (int k = 1; k < job.length; k += 2) {
+                horizon += job[k];
+            }
+        }
+        Task[][] onMachine = new Task[nm][nj];
+        IntVar[] starts = new IntVar[nj * nm];
+        IntVar makespan = model.intVar("makespan", 0, horizon);
+        for (int j = 0; j < nj; j++) {
+            Task prev = null;
+            for (int k = 0; k < nm; k++) {
+                starts[j * nm + k] = model.intVar("s" + j + "_" + k, 0, horizon);
+                Task t = model.taskVar(starts[j * nm + k], data[j][2 * k + 1]);
+                onMachine[data[j][2 * k]][j] = t;
+                if (prev != null) {
+                    model.arithm(prev.getEnd(), "<=", t.getStart()).post();
+                }
+                prev = t;
+            }
+            model.arithm(prev.getEnd(), "<=", makespan).post();
+        }
+        for (int m = 0; m < nm; m++) {
+            if (disjunctive) {
+                model.disjunctive(onMachine[m]).post();
+            } else {
+                IntVar one = model.intVar(1);
+                model.cumulative(onMachine[m], ArrayUtils.toArray(one, one, one, one, one, one), one).post();
+            }
+        }
+        model.setObjective(Model.MINIMIZE, makespan);
+        Solver solver = model.getSolver();
+        solver.setSearch(intVarSearch(new Smallest(), new IntDomainMin(), starts), inputOrderLBSearch(makespan));
+        while (solver.solve()) ;
+        return solver.getBestSolutionValue().intValue();
+    }
+}
@@ -31,6 +31,7 @@ import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static java.lang.System.out;
@@ -585,4 +586,92 @@ public class TableTest {
 			Assert.assertEquals(model.getSolver().findAllSolutions().size(), 18);
 		}
 	}
-}
\ No newline at end of file
+
+	@Test(groups="1s", timeOut=60000)
+	public void testSharedTuples() {
+		for (long seed = 0; seed < 10; seed++) {
+			Random rnd = new Random(seed);
+			long[] counts = new long[2];
+			for (int a = 0; a < 2; a++) {
+				Model model = new Model();
+				IntVar[] vars = model.intVarArray("v", 6, 0, 3, false);
+				// a hole in the domain of the last variable
+				model.arithm(vars[5], "!=", 1).post();
+				Tuples tuples = generateTuples(values -> rnd.nextInt(3) > 0, true, vars[0], vars[1], vars[2]);
+				for (int i = 0; i < 4; i++) {
+					IntVar[] scope = {vars[i], vars[i + 1], vars[(i + 2) % 6]};
+					model.table(scope, tuples, a == 0 ? "CT+" : "GAC3rm").post();
+				}
+				Tuples tuples2 = new Tuples(true);
+				tuples2.add(tuples.toMatrix());
+				model.table(new IntVar[]{vars[3], vars[4], vars[5]}, tuples2, a == 0 ? "CT+" : "GAC3rm").post();
+				// supports computed before the tuples are modified must not be reused
+				tuples2.add(3, 3, 3);
+				model.table(new IntVar[]{vars[5], vars[0], vars[1]}, tuples2, a == 0 ? "CT+" : "GAC3rm").post();
+				counts[a] = model.getSolver().findAllSolutions().size();
+				rnd.setSeed(seed);
+			}
+			assertEquals(counts[0], counts[1]);
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testSharedShortTuples() {
+		Model model = new Model();
+		IntVar[] vars = model.intVarArray("v", 4, 0, 2, false);
+		Tuples tuples = new Tuples(true);
+		tuples.setUniversalValue(-1);
+		tuples.add(0, -1);
+		tuples.add(1, 2);
+		tuples.add(-1, 0);
+		for (int i = 0; i < 3; i++) {
+			model.table(new IntVar[]{vars[i], vars[i + 1]}, tuples, "CT+").post();
+		}
+		Assert.assertEquals(model.getSolver().findAllSolutions().size(), 28);
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testTuplesSortAndRemoveDuplicates() {
+		Tuples tuples = new Tuples(true);
+		tuples.add(2, 1, 0);
+		tuples.add(0, 5, 1);
+		tuples.add(2, 1, 0);
+		tuples.add(0, -3, 7);
+		tuples.add(0, 5, 1);
+		Assert.assertEquals(tuples.nbTuples(), 5);
+		Assert.assertEquals(tuples.get(3, 1), -3);
+		Assert.assertEquals(tuples.getColumn(2), new int[]{0, 1, 0, 7, 1});
+		tuples.get(0)[0] = 9;
+		Assert.assertEquals(tuples.get(0), new int[]{2, 1, 0});
+		int[] tuple = new int[3];
+		tuples.get(3, tuple);
+		Assert.assertEquals(tuple, new int[]{0, -3, 7});
+		tuples.sort();
+		Assert.assertTrue(Arrays.deepEquals(tuples.toMatrix(), new int[][]{{0, -3, 7}, {0, 5, 1}, {0, 5, 1}, {2, 1, 0}, {2, 1, 0}}));
+		tuples.removeDuplicates();
+		Assert.assertTrue(Arrays.deepEquals(tuples.toMatrix(), new int[][]{{0, -3, 7}, {0, 5, 1}, {2, 1, 0}}));
+		Assert.assertEquals(tuples.min(1), -3);
+		Assert.assertEquals(tuples.max(0), 2);
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testLargeTuples() {
+		Random rnd = new Random(0);
+		Tuples tuples = new Tuples(true);
+		for (int i = 0; i < 200000; i++) {
+			tuples.add(rnd.nextInt(50), rnd.nextInt(50), rnd.nextInt(50), rnd.nextInt(50));
+		}
+		tuples.removeDuplicates();
+		Model model = new Model();
+		IntVar[] vars = model.intVarArray("v", 4, 0, 49, false);
+		model.table(vars, tuples, "CT+").post();
+		model.arithm(vars[0], "=", vars[3]).post();
+		long count = 0;
+		for (int i = 0; i < tuples.nbTuples(); i++) {
+			if (tuples.get(i, 0) == tuples.get(i, 3)) {
+				count++;
+			}
+		}
+		Assert.assertEquals(model.getSolver().findAllSolutions().size(), count);
+	}
+}
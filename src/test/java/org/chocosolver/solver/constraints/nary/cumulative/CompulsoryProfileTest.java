@@ -0,0 +1,151 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.cumulative;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Test class for CompulsoryProfile
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class CompulsoryProfileTest {
+
+    private static final int H = 120;
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSmall() {
+        IEnvironment env = new Model().getEnvironment();
+        CompulsoryProfile profile = new CompulsoryProfile(2, env);
+        profile.set(0, 2, 6, 2);
+        profile.set(1, 4, 8, 1);
+        Assert.assertEquals(profile.maxLoad(), 3);
+        Assert.assertEquals(profile.load(5), 3);
+        Assert.assertEquals(profile.maxLoad(6, 10), 1);
+        Assert.assertEquals(profile.firstAbove(0, 10, 2), 4);
+        Assert.assertEquals(profile.firstAtMostAfter(4, 2), 6);
+        Assert.assertEquals(profile.lastAbove(0, 10, 1), 4);
+        Assert.assertEquals(profile.lastAtMostBefore(5, 1), 2);
+        env.worldPush();
+        profile.set(0, 1, 6, 2);
+        Assert.assertEquals(profile.load(1), 2);
+        env.worldPop();
+        Assert.assertEquals(profile.load(1), 0);
+        Assert.assertEquals(profile.load(2), 2);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            IEnvironment env = new Model().getEnvironment();
+            int n = 1 + rnd.nextInt(40);
+            CompulsoryProfile profile = new CompulsoryProfile(n, env);
+            int[][] parts = new int[n][3];
+            Deque<int[][]> saved = new ArrayDeque<>();
+            for (int k = 0; k < 500; k++) {
+                int op = rnd.nextInt(10);
+                if (op == 0) {
+                    env.worldPush();
+                    saved.push(copy(parts));
+                } else if (op == 1 && !saved.isEmpty()) {
+                    env.worldPop();
+                    parts = saved.pop();
+                } else if (op == 2) {
+                    int t = rnd.nextInt(n);
+                    int[] part = parts[t];
+                    profile.exclude(t);
+                    parts[t] = new int[3];
+                    check(profile, parts, true, rnd, "seed " + seed + ", step " + k + ", without " + t);
+                    profile.include(t);
+                    parts[t] = part;
+                } else {
+                    int t = rnd.nextInt(n);
+                    int s = 5 + rnd.nextInt(100);
+                    int e = s + rnd.nextInt(10);
+                    int h = rnd.nextInt(4);
+                    profile.set(t, s, e, h);
+                    parts[t] = new int[]{s, e, h};
+                }
+                check(profile, parts, false, rnd, "seed " + seed + ", step " + k);
+            }
+        }
+    }
+
+    private static int[][] copy(int[][] parts) {
+        int[][] c = new int[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            c[i] = parts[i].clone();
+        }
+        return c;
+    }
+
+    private static void check(CompulsoryProfile profile, int[][] parts, boolean excluded, Random rnd, String msg) {
+        int[] load = new int[H];
+        for (int[] p : parts) {
+            for (int t = p[0]; t < p[1]; t++) {
+                load[t] += p[2];
+            }
+        }
+        int max = 0;
+        for (int t = 0; t < H; t++) {
+            Assert.assertEquals(profile.load(t), load[t], msg);
+            max = Math.max(max, load[t]);
+        }
+        Assert.assertEquals(profile.maxLoad(), max, msg);
+        int a = rnd.nextInt(H - 1);
+        int b = a + 1 + rnd.nextInt(H - a - 1);
+        int thr = rnd.nextInt(6);
+        int m = 0, first = CompulsoryProfile.NONE, last = CompulsoryProfile.NONE;
+        for (int t = a; t < b; t++) {
+            m = Math.max(m, load[t]);
+            if (load[t] > thr) {
+                if (first == CompulsoryProfile.NONE) {
+                    first = t;
+                }
+                last = t;
+            }
+        }
+        Assert.assertEquals(profile.maxLoad(a, b), m, msg);
+        Assert.assertEquals(profile.firstAbove(a, b, thr), first, msg);
+        int r = profile.lastAbove(a, b, thr);
+        if (last == CompulsoryProfile.NONE) {
+            Assert.assertEquals(r, last, msg);
+        } else {
+            // in the last segment of constant load, at its start unless a task is excluded
+            Assert.assertTrue(r >= a && r <= last, msg);
+            for (int t = r; t <= last; t++) {
+                Assert.assertEquals(load[t], load[last], msg);
+            }
+            if (r > a && !excluded) {
+                Assert.assertNotEquals(load[r - 1], load[r], msg);
+            }
+        }
+        if (first != CompulsoryProfile.NONE) {
+            int t = first;
+            while (load[t] > thr) {
+                t++;
+            }
+            Assert.assertEquals(profile.firstAtMostAfter(first, thr), t, msg);
+            t = first;
+            while (load[t - 1] > thr) {
+                t--;
+            }
+            Assert.assertEquals(profile.lastAtMostBefore(first, thr), t, msg);
+        }
+    }
+}
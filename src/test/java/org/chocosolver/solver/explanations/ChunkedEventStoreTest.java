@@ -0,0 +1,170 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.explanations;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.explanations.store.IEventStore;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * Test class for ChunkedEventStore
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ChunkedEventStoreTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testPushAndGet() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", 5, 0, 9);
+        IntVar view = model.intMinusView(vars[0]);
+        model.allDifferent(vars).post();
+        Decision dec = model.getSolver().getDecisionPath().makeIntDecision(vars[1], DecisionOperatorFactory.makeIntEq(), 3);
+        ICause[] causes = {model.getCstrs()[0].getPropagator(0), dec, Cause.Null, (ICause) view};
+        IEventType[] types = {IntEventType.REMOVE, IntEventType.INCLOW, PropagatorEventType.FULL_PROPAGATION};
+        IEnvironment env = model.getEnvironment();
+        IEventStore store = new ChunkedEventStore(env);
+        int n = 2500; // more than 2 chunks
+        for (int i = 0; i < n; i++) {
+            if (i == n / 2) {
+                env.worldPush();
+            }
+            store.pushEvent(i % 2 == 0 ? vars[i % 5] : view, causes[i % 4], types[i % 3], i, -i, 2 * i);
+        }
+        Assert.assertEquals(store.getSize(), n);
+        check(store, vars, view, causes, types, n);
+        env.worldPop();
+        Assert.assertEquals(store.getSize(), n / 2);
+        store.pushEvent(vars[4], dec, IntEventType.DECUPP, 1, 2, 3);
+        Assert.assertEquals(store.getVariable(n / 2), vars[4]);
+        Assert.assertEquals(store.getCause(n / 2), dec);
+        Assert.assertEquals(store.getEventType(n / 2), IntEventType.DECUPP);
+        store.forgetLast();
+        check(store, vars, view, causes, types, n / 2);
+    }
+
+    private static void check(IEventStore store, IntVar[] vars, IntVar view, ICause[] causes, IEventType[] types, int n) {
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(store.getVariable(i), i % 2 == 0 ? vars[i % 5] : view);
+            Assert.assertEquals(store.getCause(i), causes[i % 4]);
+            Assert.assertEquals(store.getEventType(i), types[i % 3]);
+            Assert.assertEquals(store.getFirstValue(i), i);
+            Assert.assertEquals(store.getSecondValue(i), -i);
+            Assert.assertEquals(store.getThirdValue(i), 2 * i);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSameSearch() {
+        for (int e = 0; e < 3; e++) {
+            for (long seed = 0; seed < 10; seed++) {
+                Assert.assertEquals(pigeons(7, seed, e, true), pigeons(7, seed, e, false), "seed " + seed);
+            }
+        }
+    }
+
+    /**
+     * Set to <tt>true</tt> to run {@link #testOverhead()} as a benchmark and print its results.
+     */
+    public static final boolean VERBOSE = false;
+
+    /**
+     * Both stores are emptied when the worlds are popped.
+     * Set {@link #VERBOSE} to measure the overhead of recording events, in nanoseconds per event,
+     * and to compare both stores with DBT on pigeons.
+     */
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOverhead() {
+        int runs = VERBOSE ? 200 : 1;
+        for (boolean compact : VERBOSE ? new boolean[]{false, true, false, true} : new boolean[]{false, true}) {
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("x", 100, 0, 9);
+            ICause[] causes = new ICause[8];
+            for (int i = 0; i < causes.length; i++) {
+                causes[i] = model.getSolver().getDecisionPath().makeIntDecision(vars[i], DecisionOperatorFactory.makeIntEq(), 0);
+            }
+            IEnvironment env = model.getEnvironment();
+            IEventStore store = compact ? new ChunkedEventStore(env) : new ArrayEventStore(env);
+            int depth = 100, width = 1000;
+            long time = -System.nanoTime();
+            for (int r = 0; r < runs; r++) {
+                for (int d = 0; d < depth; d++) {
+                    env.worldPush();
+                    for (int i = 0; i < width; i++) {
+                        store.pushEvent(vars[i % 100], causes[d % 8], IntEventType.REMOVE, i, -1, -1);
+                    }
+                }
+                Assert.assertEquals(store.getSize(), depth * width);
+                for (int d = 0; d < depth; d++) {
+                    env.worldPop();
+                }
+            }
+            time += System.nanoTime();
+            Assert.assertEquals(store.getSize(), 0);
+            if (VERBOSE) System.out.printf("%s: %.2f ns/event\n", store.getClass().getSimpleName(),
+                    time / (double) runs / depth / width);
+        }
+        if (VERBOSE) {
+            for (boolean compact : new boolean[]{false, true, false, true}) {
+                long time = -System.nanoTime();
+                long nodes = 0;
+                for (long seed = 0; seed < 10; seed++) {
+                    nodes += pigeons(8, seed, 2, compact);
+                }
+                time += System.nanoTime();
+                System.out.printf("DBT on pigeons, %s store: %d nodes in %.3fs\n",
+                        compact ? "compact" : "array", nodes, time / 1e9);
+            }
+        }
+    }
+
+    /**
+     * Solve the pigeon-hole problem with explanations.
+     *
+     * @param n       number of pigeons
+     * @param seed    seed of the search
+     * @param e       0 for CBJ, 1 for CBJ with no-goods, 2 for DBT
+     * @param compact set to <tt>true</tt> to record events in a compact store
+     * @return the number of nodes
+     */
+    private static long pigeons(int n, long seed, int e, boolean compact) {
+        Model model = new Model(new DefaultSettings().setEnableCompactEventStore(compact));
+        IntVar[] pigeons = model.intVarArray("p", n, 0, n - 2, false);
+        model.allDifferent(pigeons, "NEQS").post();
+        Solver solver = model.getSolver();
+        solver.setSearch(randomSearch(pigeons, seed));
+        switch (e) {
+            case 0:
+            case 1:
+                solver.setCBJLearning(e == 1, false);
+                break;
+            case 2:
+                solver.setDBTLearning(false, false);
+                break;
+        }
+        Assert.assertTrue(solver.getExplainer().getEventStore() instanceof ChunkedEventStore == compact);
+        Assert.assertFalse(solver.solve());
+        return solver.getNodeCount();
+    }
+}
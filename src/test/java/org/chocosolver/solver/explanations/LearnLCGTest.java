@@ -0,0 +1,133 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.explanations;
+
+import org.chocosolver.sat.LearntClauseDatabase;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.learn.LearnLCG;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * Test class for LearnLCG
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class LearnLCGTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testNosol() {
+        int n = 30;
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("p", n, 0, n - 2, false);
+        model.arithm(vars[n - 2], "=", vars[n - 1]).post();
+        model.arithm(vars[n - 2], "!=", vars[n - 1]).post();
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(vars));
+        solver.setLCGLearning();
+        Assert.assertFalse(solver.solve());
+        // the failure does not depend on the first decisions, they are jumped over
+        // (without backjumping, the search space would be exponential in n)
+        Assert.assertTrue(solver.getNodeCount() < n * n, "" + solver.getNodeCount());
+        Assert.assertTrue(((LearnLCG) solver.getLearner()).getNbBackjumps() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testQueens() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch((IntVar[]) model.getHook("vars")));
+        solver.setLCGLearning();
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), 92);
+        Assert.assertTrue(((LearnLCG) solver.getLearner()).getNbNogoods() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testCostas() {
+        Model model = ProblemMaker.makeCostasArrays(7);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch((IntVar[]) model.getHook("vars")));
+        solver.setLCGLearning();
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), 100);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testGolomb() {
+        Model model = ProblemMaker.makeGolombRuler(8);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch((IntVar[]) model.getHook("ticks")));
+        solver.setLCGLearning();
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getBestSolutionValue().intValue(), 34);
+        Assert.assertTrue(((LearnLCG) solver.getLearner()).getNbNogoods() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReduce() {
+        Model model = ProblemMaker.makeCostasArrays(7);
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch((IntVar[]) model.getHook("vars")));
+        solver.setLCGLearning();
+        LearntClauseDatabase db = model.getNogoodStore().getPropNogoods().getLearntDatabase();
+        db.setReductionPolicy(10, 0);
+        while (solver.solve()) ;
+        Assert.assertEquals(solver.getSolutionCount(), 100);
+        // explanations are on, the database is reduced anyway
+        Assert.assertTrue(db.getNbDeleted() > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 40; seed++) {
+            Assert.assertEquals(solve(seed, true, false), solve(seed, false, false), "seed " + seed);
+            Assert.assertEquals(solve(seed, true, true), solve(seed, false, true), "seed " + seed);
+        }
+    }
+
+    /**
+     * Solve a random problem
+     *
+     * @param seed     seed of the problem
+     * @param lcg      set to <tt>true</tt> to enable LCG
+     * @param optimize set to <tt>true</tt> to minimize the sum of the variables
+     * @return the number of solutions, or the optimal value
+     */
+    private static long solve(int seed, boolean lcg, boolean optimize) {
+        Random rnd = new Random(seed);
+        int n = 8;
+        Model model = ProblemMaker.makeRandomArithms(rnd, n, 4, rnd.nextBoolean(), 10);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        model.sum(vars, "<=", 10 + rnd.nextInt(10)).post();
+        Solver solver = model.getSolver();
+        solver.setSearch(randomSearch(vars, seed));
+        if (lcg) {
+            solver.setLCGLearning();
+        }
+        if (optimize) {
+            IntVar obj = model.intVar("obj", 0, 4 * n);
+            model.sum(vars, "=", obj).post();
+            model.setObjective(Model.MAXIMIZE, obj);
+            while (solver.solve()) ;
+            return solver.getSolutionCount() == 0 ? -1 : solver.getBestSolutionValue().intValue();
+        }
+        while (solver.solve()) ;
+        return solver.getSolutionCount();
+    }
+}
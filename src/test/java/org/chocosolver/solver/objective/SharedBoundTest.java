@@ -0,0 +1,68 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.objective;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class SharedBoundTest {
+
+    @Test(groups="1s", timeOut=60000)
+    public void testMaximize() {
+        SharedBound bound = new SharedBound(true);
+        Assert.assertNull(bound.get());
+        Assert.assertTrue(bound.offer(0, 3));
+        Assert.assertFalse(bound.offer(1, 3));
+        Assert.assertFalse(bound.offer(1, 2));
+        Assert.assertTrue(bound.offer(1, 5));
+        Assert.assertEquals(bound.get().getOrigin(), 1);
+        Assert.assertEquals(bound.get().getValue(0), 5);
+        bound.reset();
+        Assert.assertNull(bound.get());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testMinimizeReal() {
+        SharedBound bound = new SharedBound(false);
+        Assert.assertTrue(bound.offer(0, 3.5d));
+        Assert.assertFalse(bound.offer(1, 3.51d));
+        Assert.assertTrue(bound.offer(2, 3.49d));
+        Assert.assertEquals(bound.get().getOrigin(), 2);
+        Assert.assertEquals(bound.get().getValue(0).doubleValue(), 3.49d);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testLexicographic() {
+        SharedBound bound = new SharedBound(false);
+        Assert.assertTrue(bound.offer(0, 3, 8));
+        Assert.assertTrue(bound.offer(1, 3, 7));
+        Assert.assertFalse(bound.offer(0, 4, 0));
+        Assert.assertTrue(bound.offer(0, 2, 9));
+        Assert.assertFalse(bound.offer(1, 2, 9));
+        Assert.assertEquals(bound.get().getOrigin(), 0);
+        Assert.assertEquals(bound.get().size(), 2);
+        Assert.assertEquals(bound.get().getValue(1), 9);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testConcurrentOffers() {
+        SharedBound bound = new SharedBound(true);
+        IntStream.range(0, 100_000).parallel().forEach(i -> bound.offer(i % 8, i));
+        Assert.assertEquals(bound.get().getValue(0), 99_999);
+        Assert.assertEquals(bound.get().getOrigin(), 99_999 % 8);
+    }
+}
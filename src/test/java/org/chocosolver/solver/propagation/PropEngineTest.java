@@ -15,12 +15,16 @@ import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.ProblemMaker;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.function.Function;
+
 import static java.util.Arrays.sort;
 import static org.chocosolver.solver.Cause.Null;
 import static org.chocosolver.solver.constraints.PropagatorPriority.UNARY;
@@ -29,9 +33,13 @@ import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.solver.variables.events.IEventType.ALL_EVENTS;
 import static org.chocosolver.solver.variables.events.IntEventType.VOID;
 import static org.chocosolver.util.ESat.TRUE;
+import static org.chocosolver.util.ProblemMaker.makeCostasArrays;
+import static org.chocosolver.util.ProblemMaker.makeGolombRuler;
 import static org.chocosolver.util.ProblemMaker.makeNQueenWithBinaryConstraints;
+import static org.chocosolver.util.ProblemMaker.makeNQueenWithOneAlldifferent;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 /**
@@ -209,4 +217,88 @@ public class PropEngineTest {
         solver.getEngine().clear();
         solver.reset(); // error (null)
     }
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return new Object[][]{
+                {(Function<Model, IPropagationEngine>) PropagationEngine::new},
+                {(Function<Model, IPropagationEngine>) VariableOrientedEngine::new},
+                {(Function<Model, IPropagationEngine>) DynamicPriorityEngine::new},
+        };
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "engines")
+    public void testEngineQueens(Function<Model, IPropagationEngine> engine) {
+        Model model = makeNQueenWithBinaryConstraints(8);
+        model.getSolver().setEngine(engine.apply(model));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+        model = makeNQueenWithOneAlldifferent(8);
+        model.getSolver().setEngine(engine.apply(model));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "engines")
+    public void testEngineCostas(Function<Model, IPropagationEngine> engine) {
+        Model model = makeCostasArrays(7);
+        model.getSolver().setEngine(engine.apply(model));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 100);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "engines")
+    public void testEngineGolomb(Function<Model, IPropagationEngine> engine) {
+        Model model = makeGolombRuler(8);
+        model.getSolver().setEngine(engine.apply(model));
+        model.getSolver().setSearch(minDomLBSearch((IntVar[]) model.getHook("ticks")));
+        model.getSolver().setLubyRestart(50, new FailCounter(model, 1), 1000);
+        int obj = Integer.MAX_VALUE;
+        while (model.getSolver().solve()) {
+            obj = ((IntVar) (model.getObjective())).getValue();
+        }
+        assertEquals(obj, 34);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "engines")
+    public void testEngineDynamicPost(Function<Model, IPropagationEngine> engine) {
+        Model model = new Model();
+        IntVar[] X = model.intVarArray("X", 3, 0, 2);
+        model.allDifferent(X).post();
+        Solver solver = model.getSolver();
+        solver.setEngine(engine.apply(model));
+        assertTrue(solver.solve());
+        Constraint c = model.arithm(X[0], "<", X[1]);
+        model.post(c);
+        int n = 1;
+        while (solver.solve()) {
+            n++;
+        }
+        assertEquals(n, 2);
+        model.unpost(c);
+        solver.reset();
+        while (solver.solve()) ;
+        assertEquals(solver.getSolutionCount(), 6);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDynamicPriorityScores() {
+        Model model = makeNQueenWithOneAlldifferent(8);
+        DynamicPriorityEngine engine = new DynamicPriorityEngine(model);
+        model.getSolver().setEngine(engine);
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+        for (Constraint c : model.getCstrs()) {
+            for (Propagator p : c.getPropagators()) {
+                assertTrue(engine.getNbRevisions(p) > 0);
+                assertTrue(engine.getAverageCost(p) > 0.);
+                assertTrue(engine.getEffectiveness(p) >= 0. && engine.getEffectiveness(p) <= 1.);
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = IllegalArgumentException.class)
+    public void testDynamicPriorityAlpha() {
+        new DynamicPriorityEngine(new Model(), 0.);
+    }
 }
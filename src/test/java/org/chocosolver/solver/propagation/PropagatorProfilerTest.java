@@ -0,0 +1,103 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.chocosolver.util.ProblemMaker.makeNQueenWithOneAlldifferent;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class PropagatorProfilerTest {
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDisabled() {
+        Model model = makeNQueenWithOneAlldifferent(8);
+        assertNull(model.getSolver().getEngine().getProfiler());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testProfile() {
+        Model model = makeNQueenWithOneAlldifferent(8);
+        Solver solver = model.getSolver();
+        PropagatorProfiler profiler = solver.profilePropagators();
+        while (solver.solve()) ;
+        assertEquals(solver.getSolutionCount(), 92);
+        List<PropagatorProfiler.Entry> entries = profiler.getEntries();
+        assertEquals(entries.size(),
+                Arrays.stream(model.getCstrs()).mapToInt(c -> c.getPropagators().length).sum());
+        long calls = 0, failures = 0, time = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            PropagatorProfiler.Entry e = entries.get(i);
+            assertEquals(e.getNbPropagators(), 1);
+            calls += e.getCalls();
+            failures += e.getFailures();
+            time += e.getNanos();
+            if (i > 0) {
+                assertTrue(entries.get(i - 1).getNanos() >= e.getNanos());
+            }
+        }
+        assertTrue(calls > 0);
+        assertTrue(failures > 0);
+        assertTrue(failures <= solver.getFailCount());
+        assertEquals(time, profiler.getTotalTime());
+        List<PropagatorProfiler.Entry> byCstr = profiler.getEntriesByConstraint();
+        assertEquals(byCstr.size(), 2);
+        long calls2 = 0;
+        for (PropagatorProfiler.Entry e : byCstr) {
+            calls2 += e.getCalls();
+        }
+        assertEquals(calls2, calls);
+        assertEquals(profiler.getEntriesByPropagatorClass().size(),
+                Arrays.stream(model.getCstrs()).flatMap(c -> Arrays.stream(c.getPropagators())).map(Object::getClass).distinct().count());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testHotSpotsAndCSV() {
+        Model model = makeNQueenWithOneAlldifferent(8);
+        Solver solver = model.getSolver();
+        solver.setEngine(new VariableOrientedEngine(model));
+        PropagatorProfiler profiler = solver.profilePropagators();
+        while (solver.solve()) ;
+        List<PropagatorProfiler.Entry> hot = profiler.getHotSpots(.8);
+        assertTrue(hot.size() > 0);
+        long t = 0;
+        for (PropagatorProfiler.Entry e : hot) {
+            t += e.getNanos();
+        }
+        assertTrue(t >= .8 * profiler.getTotalTime());
+        String[] lines = profiler.toCSV().split("\n");
+        assertEquals(lines.length, profiler.getEntries().size() + 1);
+        assertEquals(lines[0], "name;propagators;calls;time(ms);events;failures;");
+        assertEquals(lines[1].split(";").length, 6);
+        profiler.reset();
+        assertEquals(profiler.getEntries().size(), 0);
+        assertEquals(profiler.getTotalTime(), 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testUnplug() {
+        Model model = makeNQueenWithOneAlldifferent(8);
+        Solver solver = model.getSolver();
+        PropagatorProfiler profiler = solver.profilePropagators();
+        solver.getEngine().setProfiler(null);
+        while (solver.solve()) ;
+        assertEquals(profiler.getEntries().size(), 0);
+    }
+}
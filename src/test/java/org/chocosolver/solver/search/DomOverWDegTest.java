@@ -0,0 +1,107 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.IncrementalDomOverWDeg;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.search.strategy.Search.domOverWDegCaCdSearch;
+import static org.chocosolver.solver.search.strategy.Search.incDomOverWDegSearch;
+import static org.chocosolver.util.ProblemMaker.makeCostasArrays;
+import static org.chocosolver.util.ProblemMaker.makeGolombRuler;
+import static org.chocosolver.util.ProblemMaker.makeNQueenWithBinaryConstraints;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class DomOverWDegTest {
+
+    @DataProvider(name = "refined")
+    public Object[][] refined() {
+        return new Object[][]{{false}, {true}};
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "refined")
+    public void testQueens(boolean refined) {
+        Model model = makeNQueenWithBinaryConstraints(8);
+        IntVar[] vars = model.retrieveIntVars(true);
+        model.getSolver().setSearch(refined ? domOverWDegCaCdSearch(vars) : incDomOverWDegSearch(vars));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "refined")
+    public void testCostas(boolean refined) {
+        Model model = makeCostasArrays(7);
+        IntVar[] vectors = (IntVar[]) model.getHook("vectors");
+        model.getSolver().setSearch(refined ? domOverWDegCaCdSearch(vectors) : incDomOverWDegSearch(vectors));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 100);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "refined")
+    public void testGolomb(boolean refined) {
+        Model model = makeGolombRuler(8);
+        IntVar[] ticks = (IntVar[]) model.getHook("ticks");
+        Solver solver = model.getSolver();
+        solver.setSearch(refined ? domOverWDegCaCdSearch(ticks) : incDomOverWDegSearch(ticks));
+        solver.setLubyRestart(50, new FailCounter(model, 1), 1000);
+        int obj = Integer.MAX_VALUE;
+        while (solver.solve()) {
+            obj = ((IntVar) model.getObjective()).getValue();
+        }
+        assertEquals(obj, 34);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "refined")
+    public void testSelection(boolean refined) {
+        Model model = makeGolombRuler(7);
+        IntVar[] vars = model.retrieveIntVars(true);
+        Solver solver = model.getSolver();
+        int[] nbChecks = {0};
+        solver.setSearch(new IncrementalDomOverWDeg(vars, new IntDomainMin(), refined) {
+            @Override
+            public Decision<IntVar> getDecision() {
+                Decision<IntVar> d = super.getDecision();
+                if (d != null) {
+                    IntVar best = d.getDecisionVariable();
+                    double score = best.getDomainSize() / getWeight(best);
+                    for (IntVar v : vars) {
+                        if (!v.isInstantiated()) {
+                            assertTrue(score <= v.getDomainSize() / getWeight(v), best + " vs. " + v);
+                        }
+                    }
+                    nbChecks[0]++;
+                } else {
+                    for (IntVar v : vars) {
+                        assertTrue(v.isInstantiated());
+                    }
+                }
+                return d;
+            }
+        });
+        solver.setLubyRestart(20, new FailCounter(model, 1), 1000);
+        int obj = Integer.MAX_VALUE;
+        while (solver.solve()) {
+            obj = ((IntVar) model.getObjective()).getValue();
+        }
+        assertEquals(obj, 25);
+        assertTrue(nbChecks[0] > 0);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+
+/**
+ * Test class for ModelCounter
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ModelCounterTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testQueens() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        Assert.assertEquals(model.getSolver().countSolutions(), BigInteger.valueOf(92));
+        // the model is left unchanged
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(model.getSolver().getSolutionCount(), 92);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testIndependentPairs() {
+        Model model = new Model();
+        int n = 40;
+        for (int i = 0; i < n; i++) {
+            model.arithm(model.intVar("x" + i, 0, 9), "!=", model.intVar("y" + i, 0, 9)).post();
+        }
+        ModelCounter counter = new ModelCounter(model);
+        Assert.assertEquals(counter.count(), BigInteger.valueOf(90).pow(n));
+        Assert.assertTrue(counter.getNbNodes() < 100 * n, "" + counter.getNbNodes());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testChain() {
+        Model model = new Model();
+        int n = 60;
+        IntVar[] vars = model.intVarArray("x", n, 0, 2);
+        for (int i = 0; i < n - 1; i++) {
+            model.arithm(vars[i], "!=", vars[i + 1]).post();
+        }
+        ModelCounter counter = new ModelCounter(model);
+        Assert.assertEquals(counter.count(), BigInteger.valueOf(3).shiftLeft(n - 1));
+        // sub-chains are counted once per domain of their first variable
+        Assert.assertTrue(counter.getNbCacheHits() > 0);
+        Assert.assertTrue(counter.getNbNodes() < 10 * n, "" + counter.getNbNodes());
+        SortedMap<Integer, BigInteger> marginals = counter.marginals(vars[0]);
+        Assert.assertEquals(marginals.size(), 3);
+        for (BigInteger m : marginals.values()) {
+            Assert.assertEquals(m, BigInteger.ONE.shiftLeft(n - 1));
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 60; seed++) {
+            Random rnd = new Random(seed);
+            int n = 10;
+            Model model = ProblemMaker.makeRandomArithms(rnd, n, 3, rnd.nextBoolean(), 9);
+            IntVar[] vars = (IntVar[]) model.getHook("vars");
+            if (rnd.nextBoolean()) {
+                model.sum(new IntVar[]{vars[0], vars[1], vars[2]}, "<=", 4).post();
+            }
+            ModelCounter counter = new ModelCounter(model);
+            BigInteger count = counter.count();
+            SortedMap<Integer, BigInteger> marginals = counter.marginals(vars[0]);
+            // compare with enumeration
+            Solver solver = model.getSolver();
+            solver.setSearch(randomSearch(vars, seed));
+            long[] perValue = new long[4];
+            while (solver.solve()) {
+                perValue[vars[0].getValue()]++;
+            }
+            Assert.assertEquals(count.longValue(), solver.getSolutionCount(), "seed " + seed);
+            BigInteger sum = BigInteger.ZERO;
+            for (int v : marginals.keySet()) {
+                Assert.assertEquals(marginals.get(v).longValue(), perValue[v], "seed " + seed);
+                sum = sum.add(marginals.get(v));
+            }
+            Assert.assertEquals(sum, count, "seed " + seed);
+        }
+    }
+}
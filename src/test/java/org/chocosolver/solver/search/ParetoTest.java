@@ -17,6 +17,15 @@ import org.chocosolver.solver.variables.IntVar;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
 import static java.lang.Integer.parseInt;
 import static java.lang.Math.max;
 
@@ -38,6 +47,64 @@ public class ParetoTest {
         Assert.assertTrue(bestProfit1 > 60);
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testFrontAgainstEnumeration() {
+        for (int seed = 0; seed < 10; seed++) {
+            boolean maximize = seed % 2 == 0;
+            Model model = randomModel(seed);
+            IntVar[] objs = Arrays.copyOfRange(model.retrieveIntVars(true), 5, 8);
+            // brute force
+            Map<String, int[]> points = new HashMap<>();
+            while (model.getSolver().solve()) {
+                int[] p = {objs[0].getValue(), objs[1].getValue(), objs[2].getValue()};
+                points.put(Arrays.toString(p), p);
+            }
+            Collection<int[]> all = points.values();
+            Set<String> expected = new HashSet<>();
+            for (int[] p : all) {
+                boolean dominated = false;
+                for (int[] q : all) {
+                    boolean better = !Arrays.equals(p, q);
+                    for (int i = 0; i < 3; i++) {
+                        better &= maximize ? q[i] >= p[i] : q[i] <= p[i];
+                    }
+                    dominated |= better;
+                }
+                if (!dominated) {
+                    expected.add(Arrays.toString(p));
+                }
+            }
+            model = randomModel(seed);
+            IntVar[] objs2 = Arrays.copyOfRange(model.retrieveIntVars(true), 5, 8);
+            int nbCstrs = model.getNbCstrs();
+            List<Solution> front = model.getSolver().findParetoFront(objs2, maximize);
+            // a single constraint is posted, whatever the number of solutions found
+            Assert.assertEquals(model.getNbCstrs(), nbCstrs + 1);
+            Set<String> actual = new HashSet<>();
+            for (Solution sol : front) {
+                actual.add(Arrays.toString(new int[]{sol.getIntVal(objs2[0]), sol.getIntVal(objs2[1]), sol.getIntVal(objs2[2])}));
+            }
+            Assert.assertEquals(actual.size(), front.size(), "seed " + seed);
+            Assert.assertEquals(actual, expected, "seed " + seed);
+        }
+    }
+
+    private static Model randomModel(int seed) {
+        Random rnd = new Random(seed);
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 5, 0, 4);
+        IntVar[] o = model.intVarArray("o", 3, 0, 100);
+        for (int k = 0; k < 3; k++) {
+            int[] coeffs = new int[5];
+            for (int i = 0; i < 5; i++) {
+                coeffs[i] = rnd.nextInt(7) - 2;
+            }
+            model.scalar(x, coeffs, "=", model.intOffsetView(o[k], -50)).post();
+        }
+        model.sum(x, "<=", 8).post();
+        return model;
+    }
+
     private void runKnapsackPareto(final int capacity, final String... items) {
         int[] nbItems = new int[items.length];
         int[] weights = new int[items.length];
@@ -0,0 +1,129 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.variables.AbstractRewardBased;
+import org.chocosolver.solver.search.strategy.selectors.variables.ConflictHistoryBased;
+import org.chocosolver.solver.search.strategy.selectors.variables.LearningRateBased;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.function.Function;
+
+import static org.chocosolver.util.ProblemMaker.makeCostasArrays;
+import static org.chocosolver.util.ProblemMaker.makeGolombRuler;
+import static org.chocosolver.util.ProblemMaker.makeNQueenWithBinaryConstraints;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class RewardBasedTest {
+
+    @DataProvider(name = "heuristics")
+    public Object[][] heuristics() {
+        return new Object[][]{
+                {(Function<IntVar[], AbstractStrategy<IntVar>>) Search::conflictHistorySearch},
+                {(Function<IntVar[], AbstractStrategy<IntVar>>) Search::learningRateSearch},
+        };
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "heuristics")
+    public void testQueens(Function<IntVar[], AbstractStrategy<IntVar>> heuristic) {
+        Model model = makeNQueenWithBinaryConstraints(8);
+        model.getSolver().setSearch(heuristic.apply(model.retrieveIntVars(true)));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "heuristics")
+    public void testCostas(Function<IntVar[], AbstractStrategy<IntVar>> heuristic) {
+        Model model = makeCostasArrays(7);
+        model.getSolver().setSearch(heuristic.apply((IntVar[]) model.getHook("vectors")));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 100);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "heuristics")
+    public void testGolomb(Function<IntVar[], AbstractStrategy<IntVar>> heuristic) {
+        Model model = makeGolombRuler(8);
+        Solver solver = model.getSolver();
+        solver.setSearch(heuristic.apply((IntVar[]) model.getHook("ticks")));
+        solver.setLubyRestart(50, new FailCounter(model, 1), 1000);
+        int obj = Integer.MAX_VALUE;
+        while (solver.solve()) {
+            obj = ((IntVar) model.getObjective()).getValue();
+        }
+        assertEquals(obj, 34);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testScores() {
+        for (int k = 0; k < 2; k++) {
+            Model model = makeGolombRuler(7);
+            IntVar[] ticks = (IntVar[]) model.getHook("ticks");
+            AbstractRewardBased rb = k == 0 ?
+                    new ConflictHistoryBased(ticks, new IntDomainMin()) :
+                    new LearningRateBased(ticks, new IntDomainMin());
+            Solver solver = model.getSolver();
+            solver.setSearch(rb);
+            while (solver.solve()) ;
+            assertTrue(solver.getFailCount() > 0);
+            double sum = 0.;
+            for (IntVar v : ticks) {
+                double s = rb.getScore(v);
+                assertTrue(s >= 0. && s <= 1., v + ": " + s);
+                sum += s;
+            }
+            assertTrue(sum > 0.);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testConflictHistory() {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 5);
+        IntVar y = model.intVar("y", 0, 5);
+        ConflictHistoryBased chb = new ConflictHistoryBased(new IntVar[]{x, y}, new IntDomainMin());
+        chb.onContradiction(new ContradictionException());
+        // x is played twice, without conflict, since the first conflict: rewarded with .9 / 2 twice
+        chb.onUpdate(x, IntEventType.INCLOW);
+        chb.afterDownBranch(true);
+        chb.onUpdate(x, IntEventType.INCLOW);
+        chb.onUpdate(y, IntEventType.INCLOW);
+        chb.afterDownBranch(true);
+        double alpha = .4 - 1e-6;
+        assertEquals(chb.getScore(y), alpha * .45, 1e-9);
+        assertEquals(chb.getScore(x), (1. - alpha) * alpha * .45 + alpha * .45, 1e-9);
+        // x is played in a conflict, y is not
+        chb.onUpdate(x, IntEventType.INCLOW);
+        chb.onContradiction(new ContradictionException());
+        chb.onUpdate(x, IntEventType.INCLOW);
+        chb.onUpdate(y, IntEventType.INCLOW);
+        chb.afterDownBranch(true);
+        double sx = chb.getScore(x), sy = chb.getScore(y);
+        chb.onUpdate(x, IntEventType.INCLOW);
+        chb.onUpdate(y, IntEventType.INCLOW);
+        chb.afterDownBranch(true);
+        alpha -= 1e-6;
+        assertEquals(chb.getScore(x), (1. - alpha) * sx + alpha * .9, 1e-9);
+        assertEquals(chb.getScore(y), (1. - alpha) * sy + alpha * .9 / 3, 1e-9);
+    }
+}
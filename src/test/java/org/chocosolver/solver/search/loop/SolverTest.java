@@ -10,15 +10,19 @@ package org.chocosolver.solver.search.loop;
 
 import org.chocosolver.cutoffseq.LubyCutoffStrategy;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.search.limits.NodeCounter;
 import org.chocosolver.solver.search.loop.lns.neighbors.RandomNeighborhood;
 import org.chocosolver.solver.search.loop.move.MoveBinaryDFS;
+import org.chocosolver.solver.search.loop.move.MoveBinaryDFSRecomputation;
 import org.chocosolver.solver.search.loop.move.MoveBinaryLDS;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import static org.chocosolver.solver.search.strategy.Search.*;
@@ -257,4 +261,54 @@ public class SolverTest {
         while (model.getSolver().solve()) ;
         assertEquals(r.getMeasures().getSolutionCount(), 4);
     }
+
+    @DataProvider(name = "recomputation")
+    public Object[][] recomputation() {
+        return new Object[][]{{1, false}, {2, false}, {3, true}, {5, false}, {8, true}, {100, true}};
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "recomputation")
+    public void testRecomputationQueens(int distance, boolean adaptive) {
+        Model model = makeNQueenWithOneAlldifferent(8);
+        model.getSettings().setRecomputationDistance(distance).setRecomputationAdaptive(adaptive);
+        Solver r = model.getSolver();
+        r.setDFSWithRecomputation();
+        r.setSearch(inputOrderLBSearch(model.retrieveIntVars(true)));
+        while (model.getSolver().solve()) ;
+        assertEquals(model.getSolver().getSolutionCount(), 92);
+        assertEquals(model.getSolver().getNodeCount(), 480);
+        MoveBinaryDFSRecomputation move = (MoveBinaryDFSRecomputation) r.getMove();
+        assertEquals(move.getNbRecomputations() == 0, distance == 1);
+    }
+
+    @Test(groups="1s", timeOut=60000, dataProvider = "recomputation")
+    public void testRecomputationGolomb(int distance, boolean adaptive) {
+        Model model = makeGolombRuler(8);
+        model.getSettings().setRecomputationDistance(distance).setRecomputationAdaptive(adaptive);
+        Solver r = model.getSolver();
+        r.setDFSWithRecomputation();
+        r.setSearch(inputOrderLBSearch(model.retrieveIntVars(false)));
+        r.setLubyRestart(50, new NodeCounter(model, 50), 1000);
+        IntVar obj = (IntVar) model.getObjective();
+        Solution best = r.findOptimalSolution(obj, Model.MINIMIZE);
+        assertEquals(best.getIntVal(obj), 34);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRecomputationMemory() {
+        long[] peaks = new long[2];
+        for (int k = 0; k < 2; k++) {
+            Model model = makeNQueenWithOneAlldifferent(10);
+            Solver r = model.getSolver();
+            if (k == 1) {
+                model.getSettings().setRecomputationDistance(6);
+                r.setDFSWithRecomputation();
+            }
+            r.setSearch(inputOrderLBSearch(model.retrieveIntVars(true)));
+            r.findAllSolutions();
+            assertEquals(r.getSolutionCount(), 724);
+            peaks[k] = model.getEnvironment().getPeakNbTrailEntries();
+        }
+        Assert.assertTrue(peaks[1] < peaks[0], peaks[1] + " vs. " + peaks[0]);
+    }
 }
@@ -0,0 +1,220 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.strategy;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.graphOperations.connectivity.ComponentFinder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.chocosolver.solver.search.strategy.Search.componentSearch;
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.minDomLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
+import static org.chocosolver.util.ProblemMaker.makeRandomArithms;
+
+/**
+ * Test class for ComponentStrategy and ComponentFinder
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class ComponentStrategyTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFinder() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 6, 0, 3);
+        IntVar y = model.intVar("y", 0, 3);
+        model.arithm(x[0], "<", y).post();
+        model.arithm(y, "<", x[3]).post();
+        model.arithm(x[1], "!=", x[4]).post();
+        model.arithm(x[2], "=", model.intOffsetView(x[5], 1)).post();
+        ComponentFinder finder = new ComponentFinder();
+        List<IntVar[]> components = finder.findComponents(x);
+        // x0 and x3 are connected through y, which is out of the scope
+        Assert.assertEquals(components.size(), 3);
+        Assert.assertEquals(components.get(0), new IntVar[]{x[0], x[3]});
+        Assert.assertEquals(components.get(1), new IntVar[]{x[1], x[4]});
+        Assert.assertEquals(components.get(2), new IntVar[]{x[2], x[5]});
+        // an instantiated variable does not connect anything
+        model.getEnvironment().worldPush();
+        y.instantiateTo(2, Cause.Null);
+        components = finder.findComponents(x);
+        Assert.assertEquals(components.size(), 4);
+        Assert.assertEquals(components.get(0), new IntVar[]{x[0]});
+        Assert.assertEquals(components.get(3), new IntVar[]{x[3]});
+        model.getEnvironment().worldPop();
+        // ignored propagators do not connect anything
+        finder = new ComponentFinder(p -> p.getNbVars() == 2 && p.getVar(0) == x[1]);
+        Assert.assertEquals(finder.findComponents(x).size(), 4);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testThrashing() {
+        // without decomposition, the unsatisfiable block is proven so under each solution of the previous ones
+        long plain = independentBlocks(false);
+        long decomposed = independentBlocks(true);
+        Assert.assertTrue(plain > 1000, "" + plain);
+        Assert.assertTrue(decomposed < 100, "" + decomposed);
+    }
+
+    /**
+     * Solve 4 independent blocks with 6 solutions each, followed by an unsatisfiable pigeon-hole block.
+     *
+     * @return the number of nodes
+     */
+    private static long independentBlocks(boolean decompose) {
+        Model model = new Model();
+        IntVar[] vars = new IntVar[12];
+        for (int b = 0; b < 4; b++) {
+            vars[2 * b] = model.intVar("x" + b, 0, 2);
+            vars[2 * b + 1] = model.intVar("y" + b, 0, 2);
+            model.arithm(vars[2 * b], "!=", vars[2 * b + 1]).post();
+        }
+        for (int i = 8; i < 12; i++) {
+            vars[i] = model.intVar("p" + i, 0, 2);
+        }
+        for (int i = 8; i < 12; i++) {
+            for (int j = i + 1; j < 12; j++) {
+                model.arithm(vars[i], "!=", vars[j]).post();
+            }
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(decompose ? new ComponentStrategy(inputOrderLBSearch(vars)) : inputOrderLBSearch(vars));
+        Assert.assertFalse(solver.solve());
+        return solver.getNodeCount();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 40; seed++) {
+            Assert.assertEquals(solve(seed, 0, true), solve(seed, 0, false), "seed " + seed);
+            Assert.assertEquals(solve(seed, 1, true), solve(seed, 1, false), "seed " + seed);
+            Assert.assertEquals(solve(seed, 2, true), solve(seed, 2, false), "seed " + seed);
+        }
+    }
+
+    /**
+     * Solve a random problem made of loosely connected variables
+     *
+     * @param seed      seed of the problem
+     * @param mode      0 to count solutions, 1 to maximize the first variable, 2 to minimize the sum of costs
+     * @param decompose set to <tt>true</tt> to solve components independently
+     * @return the number of solutions, or the optimal value, -1 if none
+     */
+    private static long solve(int seed, int mode, boolean decompose) {
+        Random rnd = new Random(seed);
+        int n = 10;
+        Model model = makeRandomArithms(rnd, n, 3, false, 7);
+        IntVar[] vars = (IntVar[]) model.getHook("vars");
+        Solver solver = model.getSolver();
+        IntVar[] costs = new IntVar[0];
+        if (mode == 1) {
+            model.setObjective(Model.MAXIMIZE, vars[0]);
+        } else if (mode == 2) {
+            costs = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                costs[i] = model.intScaleView(vars[i], 1 + rnd.nextInt(3));
+            }
+            IntVar obj = model.intVar("obj", 0, 100);
+            model.sum(costs, "=", obj).post();
+            model.setObjective(Model.MINIMIZE, obj);
+        }
+        IntStrategy inner = rnd.nextBoolean() ? minDomLBSearch(vars) : randomSearch(vars, seed);
+        if (decompose) {
+            solver.setSearch(componentSearch(inner, s -> s.getDecisionPath().size() % 2 == 1, costs));
+        } else {
+            solver.setSearch(inner);
+        }
+        while (solver.solve()) ;
+        if (mode == 0) {
+            return solver.getSolutionCount();
+        }
+        return solver.getSolutionCount() == 0 ? -1 : solver.getBestSolutionValue().intValue();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAdditive() {
+        // 8 independent blocks of 3 variables, the cost of a block is the value of its first variable
+        Model model = new Model();
+        int b = 8;
+        IntVar[] vars = model.intVarArray("x", 3 * b, 0, 5);
+        IntVar[] costs = new IntVar[b];
+        for (int i = 0; i < b; i++) {
+            model.allDifferent(vars[3 * i], vars[3 * i + 1], vars[3 * i + 2]).post();
+            model.arithm(vars[3 * i], ">", vars[3 * i + 1]).post();
+            model.arithm(vars[3 * i + 1], ">", vars[3 * i + 2], "+", i % 3).post();
+            costs[i] = vars[3 * i];
+        }
+        IntVar obj = model.intVar("obj", 0, 6 * b);
+        model.sum(costs, "=", obj).post();
+        model.setObjective(Model.MINIMIZE, obj);
+        Solver solver = model.getSolver();
+        solver.setSearch(componentSearch(inputOrderLBSearch(vars), s -> true, costs));
+        while (solver.solve()) ;
+        // 2 + 3 + 4, 2 + 3 + 4, 2 + 3
+        Assert.assertEquals(solver.getBestSolutionValue().intValue(), 3 * 2 + 3 * 3 + 2 * 4);
+        // the optimal solution is found at once, and proven optimal as well
+        Assert.assertEquals(solver.getSolutionCount(), 1);
+    }
+
+    /**
+     * @param b number of independent blocks of 3 variables in [0, 5]
+     * @param feasible set to <tt>false</tt> to make the last block have no solution
+     */
+    private static Model additive(int b, boolean feasible) {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", 3 * b, 0, 5);
+        IntVar[] costs = new IntVar[b];
+        for (int i = 0; i < b; i++) {
+            model.arithm(vars[3 * i], "!=", vars[3 * i + 1]).post();
+            model.arithm(vars[3 * i + 1], "!=", vars[3 * i + 2]).post();
+            model.arithm(vars[3 * i], "!=", vars[3 * i + 2]).post();
+            costs[i] = vars[3 * i];
+        }
+        if (!feasible) {
+            // not detected by propagation
+            for (int j = 3 * b - 3; j < 3 * b; j++) {
+                model.arithm(vars[j], "<", 2).post();
+            }
+        }
+        IntVar obj = model.intVar("obj", 0, 6 * b);
+        model.sum(costs, "=", obj).post();
+        model.setObjective(Model.MINIMIZE, obj);
+        model.getSolver().setSearch(componentSearch(inputOrderLBSearch(vars), s -> true, costs));
+        return model;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAdditiveNoSolution() {
+        Solver solver = additive(4, false).getSolver();
+        Assert.assertFalse(solver.solve());
+        // nodes and failures of the nested branch-and-bound are counted
+        Assert.assertTrue(solver.getNodeCount() > 1);
+        Assert.assertTrue(solver.getFailCount() > 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAdditiveLimit() {
+        Solver solver = additive(3, true).getSolver();
+        solver.limitNode(10);
+        // the nested branch-and-bound exceeds the limit, before the 9 decisions of the first solution
+        Assert.assertFalse(solver.solve());
+        Assert.assertTrue(solver.isStopCriterionMet());
+        Assert.assertTrue(solver.getNodeCount() <= 12, "" + solver.getNodeCount());
+    }
+}
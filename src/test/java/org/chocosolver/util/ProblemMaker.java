@@ -14,6 +14,8 @@ import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
 import org.chocosolver.solver.search.strategy.strategy.IntStrategy;
 import org.chocosolver.solver.variables.IntVar;
 
+import java.util.Random;
+
 /**
  * A factory dedicated to problems creation.
  * Created by cprudhom on 20/11/2015.
@@ -146,6 +148,32 @@ public class ProblemMaker {
         return model;
     }
 
+    /**
+     * Creates a random problem made of binary constraints <i>x_i op x_j + c</i>,
+     * where <i>op</i> is drawn in {!=, &lt;, &lt;=, =, &gt;, &gt;=} and <i>c</i> in [-1, 1].
+     * A constraint is posted on each try which picks two distinct variables.
+     * The variables can be accessed though the hook name "vars".
+     * @param rnd random number generator, to be used afterwards to complete the problem
+     * @param n number of variables
+     * @param ub upper bound of the variables, the lower bound is 0
+     * @param bounded set to <tt>true</tt> to create bounded domains
+     * @param m number of tries
+     * @return a solve-ready solver.
+     */
+    public static Model makeRandomArithms(Random rnd, int n, int ub, boolean bounded, int m) {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", n, 0, ub, bounded);
+        model.addHook("vars", vars);
+        String[] ops = {"!=", "<", "<=", "=", ">", ">="};
+        for (int k = 0; k < m; k++) {
+            int i = rnd.nextInt(n), j = rnd.nextInt(n);
+            if (i != j) {
+                model.arithm(vars[i], ops[rnd.nextInt(ops.length)], vars[j], "+", rnd.nextInt(3) - 1).post();
+            }
+        }
+        return model;
+    }
+
     public static Model makeEq5(){
         Model model = new Model("Eq5");
         IntVar[] vars = new IntVar[15];
@@ -0,0 +1,112 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import gnu.trove.set.hash.TIntHashSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for NDTree
+ *
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class NDTreeTest {
+
+    private static boolean leq(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] > b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSmall() {
+        NDTree tree = new NDTree(2);
+        TIntHashSet removed = new TIntHashSet();
+        Assert.assertTrue(tree.insert(new int[]{3, 5}, 0, removed::add));
+        Assert.assertTrue(tree.insert(new int[]{5, 3}, 1, removed::add));
+        Assert.assertFalse(tree.insert(new int[]{5, 5}, 2, removed::add));
+        Assert.assertTrue(tree.weaklyDominates(new int[]{5, 5}));
+        Assert.assertTrue(tree.weaklyDominates(new int[]{3, 5}));
+        Assert.assertFalse(tree.weaklyDominates(new int[]{4, 4}));
+        Assert.assertEquals(tree.minDominatingBut(new int[]{4, 4}, 1), 5);
+        Assert.assertEquals(tree.minDominatingBut(new int[]{4, 4}, 0), 5);
+        Assert.assertEquals(tree.minDominatingBut(new int[]{2, 2}, 0), Integer.MAX_VALUE);
+        Assert.assertTrue(tree.insert(new int[]{3, 3}, 3, removed::add));
+        Assert.assertEquals(removed.size(), 2);
+        Assert.assertEquals(tree.size(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            int d = 2 + rnd.nextInt(3);
+            NDTree tree = new NDTree(d, 2 + rnd.nextInt(10), 2 + rnd.nextInt(4));
+            List<int[]> front = new ArrayList<>();
+            List<Integer> ids = new ArrayList<>();
+            for (int k = 0; k < 3000; k++) {
+                int[] p = new int[d];
+                for (int i = 0; i < d; i++) {
+                    p[i] = rnd.nextInt(200);
+                }
+                // brute force
+                boolean dominated = false;
+                for (int[] q : front) {
+                    dominated |= leq(q, p) && !leq(p, q);
+                }
+                TIntHashSet expected = new TIntHashSet();
+                if (!dominated) {
+                    for (int f = front.size() - 1; f >= 0; f--) {
+                        if (leq(p, front.get(f))) {
+                            expected.add(ids.get(f));
+                            front.remove(f);
+                            ids.remove(f);
+                        }
+                    }
+                    front.add(p);
+                    ids.add(k);
+                }
+                TIntHashSet removed = new TIntHashSet();
+                Assert.assertEquals(tree.insert(p, k, removed::add), !dominated, "seed " + seed);
+                Assert.assertEquals(removed, expected, "seed " + seed);
+                Assert.assertEquals(tree.size(), front.size(), "seed " + seed);
+                // queries
+                int[] q = new int[d];
+                for (int i = 0; i < d; i++) {
+                    q[i] = rnd.nextInt(200);
+                }
+                Assert.assertEquals(tree.weaklyDominates(q), front.stream().anyMatch(f -> leq(f, q)), "seed " + seed);
+                int j = rnd.nextInt(d);
+                int min = Integer.MAX_VALUE;
+                for (int[] f : front) {
+                    int fj = f[j];
+                    f[j] = q[j];
+                    if (leq(f, q)) {
+                        min = Math.min(min, fj);
+                    }
+                    f[j] = fj;
+                }
+                Assert.assertEquals(tree.minDominatingBut(q, j), min, "seed " + seed);
+            }
+            TIntHashSet all = new TIntHashSet();
+            tree.forEach(all::add);
+            Assert.assertEquals(all.size(), ids.size());
+            Assert.assertTrue(all.containsAll(ids.stream().mapToInt(Integer::intValue).toArray()));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2018, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects;
+
+import org.chocosolver.memory.EnvironmentBuilder;
+import org.chocosolver.memory.IEnvironment;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Charles Prud'homme
+ * @since 4.0.9
+ */
+public class StoredIndexedHeapTest {
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testNominal() {
+        IEnvironment env = new EnvironmentBuilder().build();
+        StoredIndexedHeap heap = new StoredIndexedHeap(env, 5, i -> -i);
+        for (int i = 0; i < 5; i++) {
+            heap.add(i, i);
+        }
+        assertEquals(heap.peek(), 0);
+        heap.update(3, -1.);
+        assertEquals(heap.peek(), 3);
+        env.worldPush();
+        heap.remove(3);
+        heap.remove(0);
+        assertEquals(heap.size(), 3);
+        assertEquals(heap.peek(), 1);
+        assertFalse(heap.contains(3));
+        env.worldPop();
+        // removed elements are re-inserted with a new key
+        assertEquals(heap.size(), 5);
+        assertTrue(heap.contains(3));
+        assertEquals(heap.peek(), 3);
+        assertEquals(heap.getKey(3), -3.);
+        assertEquals(heap.getKey(0), 0.);
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        int n = 50;
+        IEnvironment env = new EnvironmentBuilder().build();
+        double[] keys = new double[n];
+        boolean[] in = new boolean[n];
+        StoredIndexedHeap heap = new StoredIndexedHeap(env, n, i -> keys[i]);
+        for (int i = 0; i < n; i++) {
+            keys[i] = rnd.nextDouble();
+            heap.add(i, keys[i]);
+            in[i] = true;
+        }
+        boolean[][] saved = new boolean[10][];
+        for (int k = 0; k < 2000; k++) {
+            int w = env.getWorldIndex();
+            int a = rnd.nextInt(4);
+            if (a == 0 && w < 9) {
+                saved[w] = in.clone();
+                env.worldPush();
+            } else if (a == 1 && w > 0) {
+                env.worldPop();
+                in = saved[w - 1];
+            } else if (a == 2) {
+                int i = rnd.nextInt(n);
+                if (in[i]) {
+                    heap.remove(i);
+                    in[i] = false;
+                }
+            } else {
+                int i = rnd.nextInt(n);
+                keys[i] = rnd.nextDouble();
+                heap.update(i, keys[i]);
+            }
+            int size = 0;
+            double min = Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                assertEquals(heap.contains(i), in[i]);
+                if (in[i]) {
+                    size++;
+                    min = Math.min(min, keys[i]);
+                }
+            }
+            assertEquals(heap.size(), size);
+            if (size > 0) {
+                assertEquals(heap.getKey(heap.peek()), min);
+            }
+        }
+    }
+}